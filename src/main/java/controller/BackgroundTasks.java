@@ -0,0 +1,169 @@
+package controller;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * The BackgroundTasks class runs the database work of a controller off the event dispatch thread.
+ *
+ * A task is an async service call. Its result is delivered back on the event dispatch thread,
+ * and a failure or timeout is shown as an error dialog. Tasks are identified by a key, e.g. "search:42":
+ * while a task is running, starting it again with the same key is ignored, so double-clicks do not
+ * run the same query twice. Listeners are told when the first task starts and the last one ends,
+ * which drives the busy indicator, and all running reads can be cancelled at once. Writes are started
+ * with runWrite and are not cancelled: their result is always shown, so the user knows whether they
+ * happened.
+ *
+ * All methods must be called on the event dispatch thread.
+ */
+public class BackgroundTasks {
+
+    /**
+     * Listener for the busy state, e.g. to show a progress bar.
+     */
+    public interface BusyListener {
+        /**
+         * Called on the event dispatch thread when the first task starts or the last one ends.
+         *
+         * @param busy Whether tasks are running.
+         */
+        void busyChanged(boolean busy);
+    }
+
+    private final Component owner;
+    private final Map<String, CompletableFuture<?>> running = new LinkedHashMap<>();
+    private final Set<CompletableFuture<?>> writes = new HashSet<>();
+    private final List<BusyListener> busyListeners = new ArrayList<>();
+
+    /**
+     * Constructs a new BackgroundTasks.
+     *
+     * @param owner The component error dialogs are shown on.
+     */
+    public BackgroundTasks(Component owner) {
+        this.owner = owner;
+    }
+
+    /**
+     * Starts a task unless a task with the same key is still running.
+     *
+     * @param key      The key of the task, equal keys are coalesced.
+     * @param task     Starts the async call, e.g. {@code () -> studentService.findStudentById(id)}.
+     * @param onResult Shows the result, called on the event dispatch thread.
+     * @param <T>      The result type.
+     * @return true if the task was started, false if the same task was already running.
+     */
+    public <T> boolean run(String key, Supplier<CompletableFuture<T>> task, Consumer<? super T> onResult) {
+        return start(key, task, onResult, false);
+    }
+
+    /**
+     * Starts a write unless a task with the same key is still running. Unlike a read, a write is not
+     * cancelled by cancelAll, so its result or failure is always shown.
+     *
+     * @param key      The key of the task, equal keys are coalesced.
+     * @param task     Starts the async write, e.g. {@code () -> studentService.deleteStudentById(id)}.
+     * @param onResult Shows the result, called on the event dispatch thread.
+     * @param <T>      The result type.
+     * @return true if the write was started, false if the same task was already running.
+     */
+    public <T> boolean runWrite(String key, Supplier<CompletableFuture<T>> task, Consumer<? super T> onResult) {
+        return start(key, task, onResult, true);
+    }
+
+    private <T> boolean start(String key, Supplier<CompletableFuture<T>> task, Consumer<? super T> onResult, boolean write) {
+        checkEventThread();
+        if (running.containsKey(key)) {
+            return false;
+        }
+        CompletableFuture<T> future = task.get();
+        running.put(key, future);
+        if (write) {
+            writes.add(future);
+        }
+        if (running.size() == 1) {
+            fireBusyChanged(true);
+        }
+        future.whenComplete((result, failure) -> SwingUtilities.invokeLater(() -> {
+            writes.remove(future);
+            if (running.get(key) == future) {
+                running.remove(key);
+                if (running.isEmpty()) {
+                    fireBusyChanged(false);
+                }
+            }
+            if (failure == null) {
+                onResult.accept(result);
+            } else {
+                showFailure(failure);
+            }
+        }));
+        return true;
+    }
+
+    /**
+     * Cancels all running reads. Their results are dropped and no error is shown.
+     * Running writes go on and show their result when they are done.
+     */
+    public void cancelAll() {
+        checkEventThread();
+        for (CompletableFuture<?> future : new ArrayList<>(running.values())) {
+            if (!writes.contains(future)) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Returns whether tasks are running.
+     *
+     * @return true if at least one task is running.
+     */
+    public boolean isBusy() {
+        return !running.isEmpty();
+    }
+
+    /**
+     * Adds a listener for the busy state.
+     *
+     * @param listener The listener to be added.
+     */
+    public void addBusyListener(BusyListener listener) {
+        busyListeners.add(listener);
+    }
+
+    private void fireBusyChanged(boolean busy) {
+        for (BusyListener listener : busyListeners) {
+            listener.busyChanged(busy);
+        }
+    }
+
+    private void showFailure(Throwable failure) {
+        while (failure instanceof CompletionException && failure.getCause() != null) {
+            failure = failure.getCause();
+        }
+        if (failure instanceof CancellationException) {
+            return;
+        }
+        String message = failure instanceof TimeoutException ? "The database did not answer in time." : failure.getMessage();
+        JOptionPane.showMessageDialog(owner, "Error! " + message, "Error", JOptionPane.ERROR_MESSAGE);
+    }
+
+    private static void checkEventThread() {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            throw new IllegalStateException("BackgroundTasks must be used on the event dispatch thread!");
+        }
+    }
+}
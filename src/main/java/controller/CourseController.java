@@ -1,22 +1,33 @@
 package controller;
 
-import service.CourseService;
+import service.AsyncCourseService;
 import view.StudentFrame;
 
 import javax.swing.*;
 import java.util.List;
 
+/**
+ * The CourseController class handles the course actions of the UI.
+ * The course queries run in the background through BackgroundTasks; it must be created on the event dispatch thread.
+ */
 public class CourseController {
     private final StudentFrame courseRegistrationFrame;
-    private final CourseService courseService;
+    private final AsyncCourseService courseService;
+    private final BackgroundTasks tasks;
 
     public CourseController() {
         courseRegistrationFrame = new StudentFrame();
-        courseService = new CourseService();
+        courseService = new AsyncCourseService();
+        tasks = new BackgroundTasks(courseRegistrationFrame);
+        tasks.addBusyListener(courseRegistrationFrame::setBusy);
+        courseRegistrationFrame.getCancelButton().addActionListener(e -> tasks.cancelAll());
     }
+
     public void showAllCourses() {
-        List<String> courses = courseService.getAllCourses();
+        tasks.run("allCourses", courseService::getAllCourses, this::showCourses);
+    }
 
+    private void showCourses(List<String> courses) {
         if (courses.isEmpty()) {
             JOptionPane.showMessageDialog(courseRegistrationFrame, "Error. Course list is empty.");
             return;
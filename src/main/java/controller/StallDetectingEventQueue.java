@@ -0,0 +1,115 @@
+package controller;
+
+import java.awt.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The StallDetectingEventQueue class logs every event that keeps the event dispatch thread busy for too long.
+ *
+ * Every event is timed. If the dispatch is still running after the threshold, a watchdog thread takes
+ * the stack trace of the event dispatch thread, which shows what it is stuck on; when the event is done,
+ * its duration and that stack are printed. Events that open a modal dialog run a nested event loop and
+ * are not reported, since the time is spent waiting for the user and not blocking the UI.
+ *
+ * The threshold can be set with the system property ui.stallThresholdMillis (default 100).
+ */
+public class StallDetectingEventQueue extends EventQueue {
+
+    private static final long THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(Long.getLong("ui.stallThresholdMillis", 100L));
+    private static final int LOGGED_FRAMES = 8;
+    private static boolean installed;
+
+    // Written by the event dispatch thread, read by the watchdog
+    private volatile long dispatchStart;
+    private volatile Thread dispatchThread;
+    private volatile StackTraceElement[] stalledStack;
+
+    // Only used by the event dispatch thread
+    private int depth;
+    private long nestedLoops;
+
+    private StallDetectingEventQueue() {
+        Thread watchdog = new Thread(this::watch, "edt-stall-watchdog");
+        watchdog.setDaemon(true);
+        watchdog.start();
+    }
+
+    /**
+     * Installs the stall detection on the system event queue. Calling it again has no effect.
+     */
+    public static synchronized void install() {
+        if (!installed) {
+            Toolkit.getDefaultToolkit().getSystemEventQueue().push(new StallDetectingEventQueue());
+            installed = true;
+        }
+    }
+
+    @Override
+    protected void dispatchEvent(AWTEvent event) {
+        if (depth > 0) {
+            // A modal dialog opened by the outer event runs its own event loop
+            nestedLoops++;
+            depth++;
+            try {
+                super.dispatchEvent(event);
+            } finally {
+                depth--;
+            }
+            return;
+        }
+
+        long loopsBefore = nestedLoops;
+        long start = System.nanoTime();
+        stalledStack = null;
+        dispatchThread = Thread.currentThread();
+        dispatchStart = start;
+        depth++;
+        try {
+            super.dispatchEvent(event);
+        } finally {
+            depth--;
+            dispatchStart = 0;
+            long elapsed = System.nanoTime() - start;
+            if (elapsed >= THRESHOLD_NANOS && nestedLoops == loopsBefore) {
+                report(event, elapsed);
+            }
+        }
+    }
+
+    private void report(AWTEvent event, long elapsedNanos) {
+        StringBuilder message = new StringBuilder("EDT stall: ")
+                .append(TimeUnit.NANOSECONDS.toMillis(elapsedNanos)).append(" ms in ")
+                .append(event.getClass().getSimpleName()).append(' ').append(event.paramString())
+                .append(" from ").append(event.getSource());
+        StackTraceElement[] stack = stalledStack;
+        if (stack != null) {
+            for (int i = 0; i < Math.min(stack.length, LOGGED_FRAMES); i++) {
+                message.append("\n\tat ").append(stack[i]);
+            }
+        }
+        System.out.println(message);
+    }
+
+    /**
+     * Takes the stack of the event dispatch thread once per event that runs longer than the threshold.
+     */
+    private void watch() {
+        long pollMillis = Math.max(10, TimeUnit.NANOSECONDS.toMillis(THRESHOLD_NANOS) / 2);
+        while (true) {
+            try {
+                Thread.sleep(pollMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+            long start = dispatchStart;
+            Thread thread = dispatchThread;
+            if (start != 0 && thread != null && stalledStack == null && System.nanoTime() - start >= THRESHOLD_NANOS) {
+                StackTraceElement[] stack = thread.getStackTrace();
+                // The event may have finished while the stack was taken
+                if (dispatchStart == start) {
+                    stalledStack = stack;
+                }
+            }
+        }
+    }
+}
@@ -1,21 +1,32 @@
 package controller;
 
+import dao.StudentCriteria;
+import dao.StudentDAO;
 import model.Student;
+import service.AsyncStudentService;
 import service.StudentService;
+import singleton.DAOFactory;
 import view.StudentFrame;
+import view.StudentPagingTableModel;
+import view.StudentTableFrame;
 
 import javax.swing.*;
 import java.time.LocalDate;
-import java.util.List;
+import java.time.format.DateTimeParseException;
 
 /**
  * The StudentController class manages the interaction between the user interface and the underlying services.
  * It handles user actions, such as searching for a student, and communicates with the StudentService.
+ *
+ * All service calls go through the AsyncStudentService and BackgroundTasks, so the database work runs on
+ * background threads and the event dispatch thread only shows the results. The controller must be
+ * created on the event dispatch thread.
  */
 public class StudentController {
 
     private final StudentFrame studentRegistrationFrame;
-    private final StudentService studentService;
+    private final AsyncStudentService studentService;
+    private final BackgroundTasks tasks;
 
 
     /**
@@ -24,10 +35,16 @@ public class StudentController {
      */
     public StudentController() {
         this.studentRegistrationFrame = new StudentFrame();
-        this.studentService = new StudentService();
+        this.studentService = new AsyncStudentService();
+        this.tasks = new BackgroundTasks(studentRegistrationFrame);
+
+        // Busy indicator and cancellation of the running reads, writes always finish
+        tasks.addBusyListener(studentRegistrationFrame::setBusy);
+        studentRegistrationFrame.getCancelButton().addActionListener(e -> tasks.cancelAll());
 
         // Adding an event listener for the search button
         studentRegistrationFrame.getSearchButton().addActionListener(e -> searchStudent());
+        studentRegistrationFrame.getSearchByNameButton().addActionListener(e -> new StudentSearchController());
         studentRegistrationFrame.getDeleteButton().addActionListener(e -> deleteStudent());
         studentRegistrationFrame.getUpdateButton().addActionListener(e -> updateStudent());
         studentRegistrationFrame.getAllStudentButton().addActionListener(e -> showAllStudents());
@@ -48,12 +65,13 @@ public class StudentController {
             return;
         }
 
-        Student student = studentService.findStudentById(studentID);
-        if (student != null) {
-            JOptionPane.showMessageDialog(studentRegistrationFrame, "Found student: " + student.getFirstname() + " " + student.getLastname(), "Success", JOptionPane.INFORMATION_MESSAGE);
-        } else {
-            JOptionPane.showMessageDialog(studentRegistrationFrame, "Student with ID '" + studentID + "' not found.", "Warning", JOptionPane.WARNING_MESSAGE);
-        }
+        tasks.run("search:" + studentID, () -> studentService.findStudentById(studentID), student -> {
+            if (student != null) {
+                JOptionPane.showMessageDialog(studentRegistrationFrame, "Found student: " + student.getFirstname() + " " + student.getLastname(), "Success", JOptionPane.INFORMATION_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(studentRegistrationFrame, "Student with ID '" + studentID + "' not found.", "Warning", JOptionPane.WARNING_MESSAGE);
+            }
+        });
 
     }
 
@@ -68,8 +86,8 @@ public class StudentController {
         int comfirmation = JOptionPane.showConfirmDialog(studentRegistrationFrame, "Remove a student with ID " + studentID + "?", "Confirmation", JOptionPane.YES_NO_OPTION);
 
         if (comfirmation == JOptionPane.YES_OPTION) {
-            studentService.deleteStudentById(studentID);
-            JOptionPane.showMessageDialog(studentRegistrationFrame, "Student deleted", "Success", JOptionPane.INFORMATION_MESSAGE);
+            tasks.runWrite("delete:" + studentID, () -> studentService.deleteStudentById(studentID), done ->
+                    JOptionPane.showMessageDialog(studentRegistrationFrame, "Student deleted", "Success", JOptionPane.INFORMATION_MESSAGE));
         }
     }
 
@@ -93,7 +111,7 @@ public class StudentController {
             return;
         }
 
-        LocalDate dayOfBirth = null;
+        LocalDate dayOfBirth;
         try {
              dayOfBirth = LocalDate.parse(dayOfBirthStr);
         }
@@ -102,48 +120,53 @@ public class StudentController {
             return;
         }
 
-        Student updatedStudent = new Student(studentID, firstName, lastName, email, grade, phoneNumber, dayOfBirth);
-        studentService.updateStudent(studentID, firstName, lastName, email, grade, phoneNumber, dayOfBirth);
-
-        JOptionPane.showMessageDialog(studentRegistrationFrame, "Student updated", "Success", JOptionPane.INFORMATION_MESSAGE);
+        tasks.runWrite("update:" + studentID, () -> studentService.updateStudent(studentID, firstName, lastName, email, grade, phoneNumber, dayOfBirth), done ->
+                JOptionPane.showMessageDialog(studentRegistrationFrame, "Student updated", "Success", JOptionPane.INFORMATION_MESSAGE));
     }
 
 
+    /**
+     * Opens the "All Students" window. Only the students are counted before the window opens,
+     * the rows are loaded page by page by the StudentPagingTableModel while the user scrolls.
+     */
     private void showAllStudents() {
-        List<Student> students = studentService.getAllStudents();
+        tasks.run("allStudents", () -> studentService.countStudents(StudentCriteria.all()), this::showStudentTable);
+    }
 
-        if (students.isEmpty()) {
+    private void showStudentTable(int studentCount) {
+        if (studentCount == 0) {
             JOptionPane.showMessageDialog(studentRegistrationFrame, "Error! No students found.", "Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
 
-        // Define table columns
-        String[] columnNames = {"ID", "First Name", "Last Name", "Email", "Phone", "Date of Birth", "Grade"};
-
-        // Create a 2D array to store student data
-        String[][] data = new String[students.size()][columnNames.length];
-
-        for (int i = 0; i < students.size(); i++) {
-            Student student = students.get(i);
-            data[i][0] = String.valueOf(student.getId());
-            data[i][1] = student.getFirstname();
-            data[i][2] = student.getLastname();
-            data[i][3] = student.getEmail();
-            data[i][4] = student.getPhoneNumber();
-            data[i][5] = student.getDayOfBirth().toString();
-            data[i][6] = student.getGrade();
-        }
+        StudentTableFrame studentsJFrame = new StudentTableFrame(
+                new StudentPagingTableModel(studentService, StudentCriteria.all(), studentCount));
+        studentsJFrame.getFilterButton().addActionListener(e -> filterStudents(studentsJFrame));
+        studentsJFrame.setVisible(true);
+    }
 
-        // Create JTable and put it inside JScrollPane
-        JTable studentTable = new JTable(data, columnNames);
-        JScrollPane scrollPane = new JScrollPane(studentTable);
+    /**
+     * Applies the filter bar of the "All Students" window. The current sort order is kept.
+     */
+    private void filterStudents(StudentTableFrame studentsJFrame) {
+        LocalDate bornFrom, bornTo;
+        try {
+            bornFrom = studentsJFrame.getBornFrom().isEmpty() ? null : LocalDate.parse(studentsJFrame.getBornFrom());
+            bornTo = studentsJFrame.getBornTo().isEmpty() ? null : LocalDate.parse(studentsJFrame.getBornTo());
+        } catch (DateTimeParseException e) {
+            JOptionPane.showMessageDialog(studentsJFrame, "Error! Invalid date format. Please use yyyy-MM-dd", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
 
-        // Create JFrame to display student details
-        JFrame studentsJFrame = new JFrame("All Students");
-        studentsJFrame.setSize(700, 400);
-        studentsJFrame.add(scrollPane);
-        studentsJFrame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
-        studentsJFrame.setVisible(true);
+        StudentPagingTableModel tableModel = studentsJFrame.getTableModel();
+        try {
+            tableModel.setCriteria(tableModel.getCriteria()
+                    .withGrade(studentsJFrame.getGrade())
+                    .withLastNamePrefix(studentsJFrame.getLastNamePrefix())
+                    .bornBetween(bornFrom, bornTo));
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(studentsJFrame, "Error! " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
     }
 
     private void addStudent() {
@@ -170,14 +193,15 @@ public class StudentController {
         }
 
         Student addedStudent = new Student(firstName, lastName, email, grade, phoneNumber, dayOfBirth);
-        int id = studentService.addStudent(addedStudent);
-
-        if (id > 0) {
-            JOptionPane.showMessageDialog(studentRegistrationFrame, "Student registered successfully with ID: " + id, "Success", JOptionPane.INFORMATION_MESSAGE);
-        } else {
-            JOptionPane.showMessageDialog(studentRegistrationFrame, "Error! Student not registrired.", "Error", JOptionPane.ERROR_MESSAGE);
-        }
-
+        tasks.runWrite("add:" + email, () -> studentService.addStudent(addedStudent), id -> {
+            if (id > 0) {
+                JOptionPane.showMessageDialog(studentRegistrationFrame, "Student registered successfully with ID: " + id, "Success", JOptionPane.INFORMATION_MESSAGE);
+            } else if (id == StudentDAO.QUEUED) {
+                JOptionPane.showMessageDialog(studentRegistrationFrame, "The database is not available. The student is saved and will be registered as soon as it is back.", "Saved", JOptionPane.INFORMATION_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(studentRegistrationFrame, "Error! Student not registrired.", "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
     }
 
     /**
@@ -185,7 +209,14 @@ public class StudentController {
      * Creates an instance of StudentController to initialize the program.
      */
     public static void main(String[] args) {
-        new StudentController();
+        StallDetectingEventQueue.install();
+        SwingUtilities.invokeLater(StudentController::new);
+
+        // Keeps the offline snapshot fresh, can be tuned with the system property dao.snapshot.maxAgeMillis
+        Thread snapshotRefresh = new Thread(() -> new StudentService().refreshSnapshot(DAOFactory.getSnapshotPath(),
+                Long.getLong("dao.snapshot.maxAgeMillis", 3600000L)), "snapshot-refresh");
+        snapshotRefresh.setDaemon(true);
+        snapshotRefresh.start();
     }
 
 }
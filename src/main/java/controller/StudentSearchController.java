@@ -0,0 +1,87 @@
+package controller;
+
+import model.Course;
+import model.Student;
+import model.StudentCourses;
+import model.StudentSummary;
+import service.AsyncStudentService;
+import service.StudentSearchService;
+import view.StudentSearchFrame;
+
+import javax.swing.*;
+import java.util.List;
+
+/**
+ * The StudentSearchController class drives the "Student search" window.
+ *
+ * Every pause in typing starts a search through the StudentSearchService. Searches can finish out of order,
+ * so each one is numbered and only the result of the latest is shown. Choosing a suggestion loads the
+ * details of that student in the background. The controller must be created on the event dispatch thread.
+ */
+public class StudentSearchController {
+
+    private static final int SUGGESTIONS = 20;
+
+    private final StudentSearchFrame studentSearchFrame;
+    private final StudentSearchService searchService;
+    private final AsyncStudentService studentService;
+    private final BackgroundTasks tasks;
+    private long searchSequence;
+
+    /**
+     * Opens the "Student search" window.
+     */
+    public StudentSearchController() {
+        this.studentSearchFrame = new StudentSearchFrame();
+        this.searchService = StudentSearchService.getInstance();
+        this.studentService = new AsyncStudentService();
+        this.tasks = new BackgroundTasks(studentSearchFrame);
+
+        studentSearchFrame.addQueryListener(this::searchStudents);
+        studentSearchFrame.addSelectionListener(this::showStudent);
+    }
+
+    private void searchStudents(String query) {
+        long sequence = ++searchSequence;
+        if (query.isEmpty()) {
+            studentSearchFrame.setSuggestions(List.of());
+            return;
+        }
+        searchService.searchAsync(query, SUGGESTIONS).whenComplete((suggestions, failure) -> SwingUtilities.invokeLater(() -> {
+            // A newer query was typed in the meantime
+            if (sequence != searchSequence) {
+                return;
+            }
+            if (failure != null) {
+                System.out.println(AsyncStudentService.unwrap(failure).getMessage());
+                return;
+            }
+            studentSearchFrame.setSuggestions(suggestions);
+        }));
+    }
+
+    private void showStudent(StudentSummary summary) {
+        int studentID = summary.getStudentID();
+        tasks.run("details:" + studentID, () -> studentService.findStudentDetails(studentID), details -> {
+            if (details == null || details.getStudent() == null) {
+                JOptionPane.showMessageDialog(studentSearchFrame, "Student with ID '" + studentID + "' not found.", "Warning", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            JOptionPane.showMessageDialog(studentSearchFrame, describe(details), "Student", JOptionPane.INFORMATION_MESSAGE);
+        });
+    }
+
+    private static String describe(StudentCourses details) {
+        Student student = details.getStudent();
+        StringBuilder text = new StringBuilder()
+                .append(student.getStudentID()).append(' ')
+                .append(student.getFirstname()).append(' ').append(student.getLastname())
+                .append("\nEmail: ").append(student.getEmail())
+                .append("\nGrade: ").append(student.getGrade())
+                .append("\nCourses:");
+        for (Course course : details.getCourses()) {
+            text.append("\n  ").append(course.getCourseName());
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,101 @@
+package dao;
+
+/**
+ * The CacheStatistics class is an immutable snapshot of the counters of a CachingStudentDAO.
+ */
+public class CacheStatistics {
+
+    private final int size, maxSize;
+    private final long hits, negativeHits, misses, evictions, expirations, invalidations, totalLoadMicros;
+
+    CacheStatistics(int size, int maxSize, long hits, long negativeHits, long misses, long evictions,
+                    long expirations, long invalidations, long totalLoadMicros) {
+        this.size = size;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.negativeHits = negativeHits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.expirations = expirations;
+        this.invalidations = invalidations;
+        this.totalLoadMicros = totalLoadMicros;
+    }
+
+    /**
+     * Returns the share of lookups answered from the cache, including cached "not found" answers.
+     *
+     * @return The hit ratio between 0 and 1.
+     */
+    public double getHitRatio() {
+        long total = hits + negativeHits + misses;
+        return total == 0 ? 0.0 : (double) (hits + negativeHits) / total;
+    }
+
+    /**
+     * Returns the average time a cache miss spent loading from the database.
+     *
+     * @return The average load latency in microseconds.
+     */
+    public double getAverageLoadMicros() {
+        return misses == 0 ? 0.0 : (double) totalLoadMicros / misses;
+    }
+
+    /**
+     * Returns a string representation of the statistics.
+     *
+     * @return A formatted string with all counters.
+     */
+    @Override
+    public String toString() {
+        return "CacheStatistics{" +
+                "size=" + size +
+                ", maxSize=" + maxSize +
+                ", hits=" + hits +
+                ", negativeHits=" + negativeHits +
+                ", misses=" + misses +
+                ", hitRatio=" + String.format("%.3f", getHitRatio()) +
+                ", evictions=" + evictions +
+                ", expirations=" + expirations +
+                ", invalidations=" + invalidations +
+                ", averageLoadMicros=" + String.format("%.1f", getAverageLoadMicros()) +
+                '}';
+    }
+
+    // Getters
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getNegativeHits() {
+        return negativeHits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getExpirations() {
+        return expirations;
+    }
+
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    public long getTotalLoadMicros() {
+        return totalLoadMicros;
+    }
+}
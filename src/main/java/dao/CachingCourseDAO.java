@@ -0,0 +1,229 @@
+package dao;
+
+import model.Course;
+import model.StudentSummary;
+import singleton.UnitOfWork;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The CachingCourseDAO class answers course lookups from a CourseCatalog held in memory.
+ *
+ * The catalog is loaded with one query on first use and then replaced as a whole: on a fixed schedule,
+ * to pick up changes made by other clients, and after every write through this DAO. A single row write
+ * reloads it before returning, so the writer sees its own change; a batch of rows, such as an import,
+ * reloads it in the background, and batches in quick succession share one reload. Readers only read a
+ * volatile field and never wait for a reload or touch the database. If a reload fails, the old catalog is kept.
+ * Rows written inside a transaction that is still open when the reload runs appear with the next scheduled reload.
+ *
+ * Enrollments are not part of the catalog, the courses of a student and the roster of a course are
+ * always read from the underlying DAO.
+ * Callers receive copies, so changing a returned Course does not change the catalog.
+ */
+public class CachingCourseDAO implements CourseDAO {
+
+    private final CourseDAO delegate;
+    private final ScheduledExecutorService refresher;
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
+    // Serializes loads, so an older load never replaces a newer catalog
+    private final Object refreshLock = new Object();
+    private volatile CourseCatalog catalog;
+
+    /**
+     * Constructs a new CachingCourseDAO.
+     *
+     * @param delegate      The DAO the catalog is loaded from and that receives all writes.
+     * @param refreshMillis How often the catalog is reloaded, 0 to reload only after local writes.
+     */
+    public CachingCourseDAO(CourseDAO delegate, long refreshMillis) {
+        if (refreshMillis < 0) {
+            throw new IllegalArgumentException("Invalid refresh interval!");
+        }
+        this.delegate = delegate;
+        this.refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "course-catalog-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (refreshMillis > 0) {
+            refresher.scheduleWithFixedDelay(this::refreshQuietly, refreshMillis, refreshMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Reloads the catalog from the underlying DAO and replaces the current one.
+     *
+     * @return The new catalog.
+     * @throws DataAccessException if the courses cannot be read; the current catalog is kept.
+     */
+    public CourseCatalog refresh() {
+        synchronized (refreshLock) {
+            CourseCatalog loaded = CourseCatalog.of(delegate.getCourses());
+            catalog = loaded;
+            return loaded;
+        }
+    }
+
+    /**
+     * Returns the current catalog, loading it if this is the first use.
+     *
+     * @return The catalog, or null if it has never been loaded because the database is unavailable.
+     */
+    public CourseCatalog getCatalog() {
+        CourseCatalog current = catalog;
+        if (current != null) {
+            return current;
+        }
+        synchronized (refreshLock) {
+            if (catalog == null) {
+                try {
+                    return refresh();
+                } catch (DataAccessException e) {
+                    System.out.println(e.getMessage());
+                    return null;
+                }
+            }
+            return catalog;
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (DataAccessException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Reloads the catalog in the background, unless a reload is already queued.
+     */
+    private void refreshSoon() {
+        if (refreshQueued.compareAndSet(false, true)) {
+            refresher.execute(() -> {
+                // Cleared before loading, so a write during the load queues another one
+                refreshQueued.set(false);
+                refreshQuietly();
+            });
+        }
+    }
+
+    @Override
+    public Course getCourseByID(int id) {
+        CourseCatalog current = getCatalog();
+        if (current == null) {
+            return delegate.getCourseByID(id);
+        }
+        return copy(current.byId(id));
+    }
+
+    @Override
+    public Course getCourseByName(String name) {
+        CourseCatalog current = getCatalog();
+        if (current == null) {
+            return delegate.getCourseByName(name);
+        }
+        return copy(current.byName(name));
+    }
+
+    @Override
+    public List<Course> getCoursesByStudentID(int studentID) {
+        return delegate.getCoursesByStudentID(studentID);
+    }
+
+    @Override
+    public Map<Integer, List<Course>> getCoursesByStudentIDs(int[] studentIDs) {
+        return delegate.getCoursesByStudentIDs(studentIDs);
+    }
+
+    @Override
+    public List<StudentSummary> getRoster(int courseID) {
+        return delegate.getRoster(courseID);
+    }
+
+    @Override
+    public Map<Integer, int[]> getEnrollments() {
+        return delegate.getEnrollments();
+    }
+
+    @Override
+    public int enrollStudents(int courseID, int[] studentIDs) {
+        return delegate.enrollStudents(courseID, studentIDs);
+    }
+
+    @Override
+    public int unenrollStudents(int courseID, int[] studentIDs) {
+        return delegate.unenrollStudents(courseID, studentIDs);
+    }
+
+    @Override
+    public List<Course> getCourses() {
+        CourseCatalog current = getCatalog();
+        if (current == null) {
+            return delegate.getCourses();
+        }
+        List<Course> courses = new ArrayList<>(current.size());
+        for (Course course : current.courses()) {
+            courses.add(copy(course));
+        }
+        courses.sort(Comparator.comparingInt(Course::getCourseID));
+        return courses;
+    }
+
+    @Override
+    public List<String> getAllCourses() {
+        CourseCatalog current = getCatalog();
+        if (current == null) {
+            return delegate.getAllCourses();
+        }
+        return new ArrayList<>(current.names());
+    }
+
+    @Override
+    public void addCourse(Course course) {
+        try {
+            delegate.addCourse(course);
+        } finally {
+            UnitOfWork.afterCompletion(this::refreshQuietly);
+        }
+    }
+
+    @Override
+    public int addCourses(Collection<Course> courses) {
+        try {
+            return delegate.addCourses(courses);
+        } finally {
+            UnitOfWork.afterCompletion(this::refreshSoon);
+        }
+    }
+
+    @Override
+    public void updateCourse(Course course) {
+        try {
+            delegate.updateCourse(course);
+        } finally {
+            UnitOfWork.afterCompletion(this::refreshQuietly);
+        }
+    }
+
+    @Override
+    public void deleteCourse(int id) {
+        try {
+            delegate.deleteCourse(id);
+        } finally {
+            UnitOfWork.afterCompletion(this::refreshQuietly);
+        }
+    }
+
+    private static Course copy(Course course) {
+        return course != null ? new Course(course.getCourseID(), course.getStudentID(), course.getCourseName()) : null;
+    }
+}
@@ -0,0 +1,398 @@
+package dao;
+
+import model.Student;
+import model.StudentSummary;
+import singleton.UnitOfWork;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * The CachingStudentDAO class is a read-through cache in front of another StudentDAO.
+ *
+ * Students looked up by ID are kept in a size bounded LRU map for a limited time.
+ * IDs that do not exist are cached as well (negative caching), usually for a shorter time.
+ * Every write through this DAO removes the affected IDs, and a load that overlaps with a write
+ * is not stored, so readers never see data older than their own last write.
+ * Callers always receive copies, so changing a returned Student does not change the cache.
+ */
+public class CachingStudentDAO implements StudentDAO, StudentChangeListener {
+
+    private final StudentDAO delegate;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+
+    // Access ordered, so the first entry is always the least recently used one
+    private final LinkedHashMap<Integer, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // A load only stores its result if no write was running or started while it was loading
+    private final AtomicLong writeGeneration = new AtomicLong();
+    private final AtomicInteger activeWrites = new AtomicInteger();
+
+    // Statistics
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong negativeHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong totalLoadNanos = new AtomicLong();
+
+    /**
+     * Constructs a new CachingStudentDAO.
+     *
+     * @param delegate         The DAO that is asked on a cache miss and receives all writes.
+     * @param maxSize          The maximum number of cached IDs.
+     * @param ttlMillis        How long a found student stays cached.
+     * @param negativeTtlMillis How long an unknown ID stays cached, 0 disables negative caching.
+     */
+    public CachingStudentDAO(StudentDAO delegate, int maxSize, long ttlMillis, long negativeTtlMillis) {
+        if (maxSize <= 0 || ttlMillis <= 0 || negativeTtlMillis < 0) {
+            throw new IllegalArgumentException("Invalid cache configuration!");
+        }
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.negativeTtlNanos = TimeUnit.MILLISECONDS.toNanos(negativeTtlMillis);
+    }
+
+    /**
+     * Returns a student from the cache, or loads it from the underlying DAO. A student the DAO did not find
+     * is cached as missing; a failed load is thrown and not cached.
+     *
+     * @param id The unique identifier of the student.
+     * @return A copy of the Student object if found, otherwise null.
+     * @throws DataAccessException if the student cannot be loaded.
+     */
+    @Override
+    public Student getStudentById(int id) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            CacheEntry entry = entries.get(id);
+            if (entry != null && entry.expiresAt - now > 0) {
+                if (entry.student == null) {
+                    negativeHits.incrementAndGet();
+                    return null;
+                }
+                hits.incrementAndGet();
+                return copy(entry.student);
+            }
+            if (entry != null) {
+                entries.remove(id);
+                expirations.incrementAndGet();
+            }
+        }
+
+        misses.incrementAndGet();
+        long generation = writeGeneration.get();
+        Student student = delegate.getStudentById(id);
+        long loaded = System.nanoTime();
+        totalLoadNanos.addAndGet(loaded - now);
+        if (student != null || negativeTtlNanos > 0) {
+            store(id, student, generation, loaded);
+        }
+        return student != null ? copy(student) : null;
+    }
+
+    /**
+     * Returns the cached students and loads only the missing IDs from the underlying DAO in one bulk call.
+     *
+     * @param ids The unique identifiers of the students.
+     * @return A map from student ID to a copy of the Student, ordered by ID.
+     */
+    @Override
+    public Map<Integer, Student> getStudentsByIds(int[] ids) {
+        Map<Integer, Student> students = new TreeMap<>();
+        int[] missing = new int[ids.length];
+        int missingCount = 0;
+        long now = System.nanoTime();
+        synchronized (entries) {
+            for (int id : ids) {
+                CacheEntry entry = entries.get(id);
+                if (entry != null && entry.expiresAt - now > 0) {
+                    if (entry.student != null) {
+                        hits.incrementAndGet();
+                        students.put(id, copy(entry.student));
+                    } else {
+                        negativeHits.incrementAndGet();
+                    }
+                } else {
+                    missing[missingCount++] = id;
+                }
+            }
+        }
+        if (missingCount == 0) {
+            return students;
+        }
+
+        misses.addAndGet(missingCount);
+        long generation = writeGeneration.get();
+        Map<Integer, Student> loaded = delegate.getStudentsByIds(Arrays.copyOf(missing, missingCount));
+        long loadedAt = System.nanoTime();
+        totalLoadNanos.addAndGet(loadedAt - now);
+        for (int i = 0; i < missingCount; i++) {
+            Student student = loaded.get(missing[i]);
+            if (student != null) {
+                store(missing[i], student, generation, loadedAt);
+                students.put(missing[i], copy(student));
+            } else if (negativeTtlNanos > 0) {
+                store(missing[i], null, generation, loadedAt);
+            }
+        }
+        return students;
+    }
+
+    /**
+     * Retrieves a student by last name from the underlying DAO and caches the result by ID.
+     *
+     * @param name The last name of the student.
+     * @return The Student object if found, otherwise null.
+     */
+    @Override
+    public Student getStudentByLastName(String name) {
+        long generation = writeGeneration.get();
+        Student student = delegate.getStudentByLastName(name);
+        if (student != null) {
+            store(student.getStudentID(), copy(student), generation, System.nanoTime());
+        }
+        return student;
+    }
+
+    @Override
+    public List<Student> getAllStudents() {
+        return delegate.getAllStudents();
+    }
+
+    @Override
+    public List<Student> getStudentsAfter(int afterId, int limit) {
+        return delegate.getStudentsAfter(afterId, limit);
+    }
+
+    @Override
+    public int countStudents() {
+        return delegate.countStudents();
+    }
+
+    @Override
+    public List<Student> findStudents(StudentCriteria criteria, Student after, int limit) {
+        return delegate.findStudents(criteria, after, limit);
+    }
+
+    @Override
+    public int countStudents(StudentCriteria criteria) {
+        return delegate.countStudents(criteria);
+    }
+
+    @Override
+    public Student getStudentAtOffset(StudentCriteria criteria, int offset) {
+        return delegate.getStudentAtOffset(criteria, offset);
+    }
+
+    @Override
+    public Stream<Student> streamAllStudents(int fetchSize) {
+        return delegate.streamAllStudents(fetchSize);
+    }
+
+    @Override
+    public List<StudentSummary> getStudentSummaries() {
+        return delegate.getStudentSummaries();
+    }
+
+    @Override
+    public int addStudent(Student student) {
+        beginWrite();
+        try {
+            int id = delegate.addStudent(student);
+            invalidateWritten(id); // drops a cached "not found" for the new ID
+            return id;
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public int[] addStudents(Collection<Student> students) {
+        beginWrite();
+        try {
+            int[] ids = delegate.addStudents(students);
+            for (int id : ids) {
+                invalidateWritten(id);
+            }
+            return ids;
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void addStudent(int studentID, String firstname, String lastname, String email, String grade, String phoneNumber, LocalDate dateOfBirth) {
+        beginWrite();
+        try {
+            delegate.addStudent(studentID, firstname, lastname, email, grade, phoneNumber, dateOfBirth);
+            invalidateWritten(studentID);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void updateStudent(int studentID, String firstname, String lastname, String email, String grade, String phoneNumber, LocalDate dateOfBirth) {
+        beginWrite();
+        try {
+            delegate.updateStudent(studentID, firstname, lastname, email, grade, phoneNumber, dateOfBirth);
+            invalidateWritten(studentID);
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void updateStudent(Student student) {
+        if (!student.isDirty()) {
+            return;
+        }
+        beginWrite();
+        try {
+            delegate.updateStudent(student);
+            invalidateWritten(student.getStudentID());
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void deleteStudent(int id) {
+        beginWrite();
+        try {
+            delegate.deleteStudent(id);
+            invalidateWritten(id);
+        } finally {
+            endWrite();
+        }
+    }
+
+    /**
+     * Drops a student that was written without this DAO, e.g. replayed by an OutboxStudentDAO.
+     *
+     * @param student The written student.
+     */
+    @Override
+    public void studentSaved(Student student) {
+        invalidateExternal(student.getStudentID());
+    }
+
+    /**
+     * Drops a student that was deleted without this DAO, e.g. replayed by an OutboxStudentDAO.
+     *
+     * @param studentID The unique identifier of the deleted student.
+     */
+    @Override
+    public void studentDeleted(int studentID) {
+        invalidateExternal(studentID);
+    }
+
+    private void invalidateExternal(int id) {
+        beginWrite();
+        try {
+            invalidate(id);
+        } finally {
+            endWrite();
+        }
+    }
+
+    /**
+     * Removes all entries from the cache.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the cache statistics.
+     *
+     * @return The current CacheStatistics.
+     */
+    public CacheStatistics getStatistics() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStatistics(size, maxSize, hits.get(), negativeHits.get(), misses.get(), evictions.get(),
+                expirations.get(), invalidations.get(), TimeUnit.NANOSECONDS.toMicros(totalLoadNanos.get()));
+    }
+
+    private void beginWrite() {
+        activeWrites.incrementAndGet();
+        writeGeneration.incrementAndGet();
+    }
+
+    private void endWrite() {
+        writeGeneration.incrementAndGet();
+        activeWrites.decrementAndGet();
+    }
+
+    /**
+     * Drops a written student now and, inside a UnitOfWork, once more when the unit ends,
+     * since a read in the unit may have cached a row that is rolled back.
+     */
+    private void invalidateWritten(int id) {
+        invalidate(id);
+        if (UnitOfWork.isActive()) {
+            UnitOfWork.afterCompletion(() -> invalidate(id));
+        }
+    }
+
+    private void invalidate(int id) {
+        synchronized (entries) {
+            if (entries.remove(id) != null) {
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    private void store(int id, Student student, long generation, long now) {
+        synchronized (entries) {
+            // A write overlapped with the load, the loaded row may already be outdated
+            if (activeWrites.get() > 0 || writeGeneration.get() != generation) {
+                return;
+            }
+            entries.put(id, new CacheEntry(student, now + (student != null ? ttlNanos : negativeTtlNanos)));
+            Iterator<Map.Entry<Integer, CacheEntry>> it = entries.entrySet().iterator();
+            while (entries.size() > maxSize && it.hasNext()) {
+                it.next();
+                it.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private static Student copy(Student student) {
+        return new Student(student.getStudentID(), student.getFirstname(), student.getLastname(), student.getEmail(),
+                student.getGrade(), student.getPhoneNumber(), student.getDateOfBirth());
+    }
+
+    /**
+     * A cached student, or null for an ID that does not exist, with its expiry time.
+     */
+    private static final class CacheEntry {
+        private final Student student;
+        private final long expiresAt;
+
+        private CacheEntry(Student student, long expiresAt) {
+            this.student = student;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package dao;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The ColumnLayout class resolves the column names of a select list to their JDBC indexes.
+ * Layouts are cached by their select list, so a query shape is only parsed once
+ * and the row mappers built from it read every column by index.
+ */
+final class ColumnLayout {
+
+    private static final Map<String, ColumnLayout> LAYOUTS = new ConcurrentHashMap<>();
+
+    private final String columns;
+    private final Map<String, Integer> indexes = new HashMap<>();
+
+    private ColumnLayout(String columns) {
+        this.columns = columns;
+        String[] names = columns.split(",");
+        for (int i = 0; i < names.length; i++) {
+            indexes.put(names[i].trim().toLowerCase(Locale.ROOT), i + 1);
+        }
+    }
+
+    /**
+     * Returns the layout of a select list such as "studentID, firstname, lastname".
+     *
+     * @param columns The comma separated column names, in select order.
+     * @return The cached ColumnLayout.
+     */
+    static ColumnLayout of(String columns) {
+        return LAYOUTS.computeIfAbsent(columns, ColumnLayout::new);
+    }
+
+    /**
+     * Returns the JDBC index of a column.
+     *
+     * @param column The column name, case insensitive.
+     * @return The 1-based index, or 0 if the column is not selected.
+     */
+    int indexOf(String column) {
+        return indexes.getOrDefault(column.toLowerCase(Locale.ROOT), 0);
+    }
+
+    /**
+     * Returns the select list this layout was built from.
+     *
+     * @return The comma separated column names.
+     */
+    String getColumns() {
+        return columns;
+    }
+}
@@ -0,0 +1,131 @@
+package dao;
+
+import model.Course;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * The CourseCatalog class is an immutable snapshot of the course table with hash indexes by ID and by name.
+ *
+ * Names are looked up ignoring case and surrounding blanks, like the database compares them, and a name
+ * maps to its course row with the lowest ID. Equal names share one String instance. A catalog is never
+ * changed, a reload builds a new one, so it can be read by any number of threads without locking.
+ * The Course objects it holds must not be changed; CachingCourseDAO hands out copies.
+ */
+public final class CourseCatalog {
+
+    private static final CourseCatalog EMPTY = new CourseCatalog(new HashMap<>(), new HashMap<>(), List.of());
+
+    private final Map<Integer, Course> byId;
+    private final Map<String, Course> byName;
+    private final List<String> names;
+
+    private CourseCatalog(Map<Integer, Course> byId, Map<String, Course> byName, List<String> names) {
+        this.byId = byId;
+        this.byName = byName;
+        this.names = names;
+    }
+
+    /**
+     * Returns a catalog without courses.
+     *
+     * @return The empty catalog.
+     */
+    public static CourseCatalog empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds a catalog from course rows.
+     *
+     * @param courses The course rows; their order does not matter.
+     * @return A new catalog.
+     */
+    public static CourseCatalog of(Collection<Course> courses) {
+        Map<String, String> interned = new HashMap<>();
+        Map<Integer, Course> byId = new HashMap<>(courses.size() * 4 / 3 + 1);
+        for (Course course : courses) {
+            String name = course.getCourseName() == null ? null
+                    : interned.computeIfAbsent(course.getCourseName(), n -> n);
+            byId.put(course.getCourseID(), new Course(course.getCourseID(), course.getStudentID(), name));
+        }
+        return index(byId);
+    }
+
+    private static CourseCatalog index(Map<Integer, Course> byId) {
+        Map<String, Course> byName = new HashMap<>();
+        TreeSet<String> names = new TreeSet<>();
+        for (Course course : byId.values()) {
+            if (course.getCourseName() == null) {
+                continue;
+            }
+            byName.merge(key(course.getCourseName()), course,
+                    (kept, other) -> other.getCourseID() < kept.getCourseID() ? other : kept);
+            names.add(course.getCourseName());
+        }
+        return new CourseCatalog(byId, byName, Collections.unmodifiableList(new ArrayList<>(names)));
+    }
+
+    /**
+     * Returns a course row by its ID.
+     *
+     * @param id The unique identifier of the course row.
+     * @return The shared Course object, or null if not found.
+     */
+    public Course byId(int id) {
+        return byId.get(id);
+    }
+
+    /**
+     * Returns the course row with the lowest ID for a name.
+     *
+     * @param name The name of the course, compared ignoring case and surrounding blanks.
+     * @return The shared Course object, or null if not found.
+     */
+    public Course byName(String name) {
+        return name == null ? null : byName.get(key(name));
+    }
+
+    /**
+     * Returns all course rows.
+     *
+     * @return The shared Course objects in no particular order.
+     */
+    public Collection<Course> courses() {
+        return Collections.unmodifiableCollection(byId.values());
+    }
+
+    /**
+     * Returns the distinct course names.
+     *
+     * @return An unmodifiable, sorted list of names.
+     */
+    public List<String> names() {
+        return names;
+    }
+
+    /**
+     * Returns the number of course rows.
+     *
+     * @return The number of rows.
+     */
+    public int size() {
+        return byId.size();
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public String toString() {
+        return "CourseCatalog{rows=" + byId.size() + ", names=" + names.size() + "}";
+    }
+}
@@ -0,0 +1,45 @@
+package dao;
+
+import model.Course;
+
+import java.util.Collection;
+
+/**
+ * The CourseChangeListener interface is notified about the course and enrollment writes that go through
+ * an ObservableCourseDAO. It is used to keep in-memory views of the enrollments, such as the enrollment index, up to date.
+ *
+ * Listeners are called on the thread that did the write, right after it, so they should be fast.
+ */
+public interface CourseChangeListener {
+
+    /**
+     * Called after courses were added. Course objects with a student ID are enrollments of that student
+     * in the course of that name.
+     *
+     * @param courses The Course objects as written.
+     */
+    void coursesAdded(Collection<Course> courses);
+
+    /**
+     * Called after a course was deleted, together with all its enrollments.
+     *
+     * @param courseID The unique identifier of the deleted course.
+     */
+    void courseDeleted(int courseID);
+
+    /**
+     * Called after students were enrolled in a course.
+     *
+     * @param courseID   The unique identifier of the course.
+     * @param studentIDs The unique identifiers of the students.
+     */
+    void studentsEnrolled(int courseID, int[] studentIDs);
+
+    /**
+     * Called after students were removed from a course.
+     *
+     * @param courseID   The unique identifier of the course.
+     * @param studentIDs The unique identifiers of the students.
+     */
+    void studentsUnenrolled(int courseID, int[] studentIDs);
+}
@@ -1,11 +1,16 @@
 package dao;
 
 import model.Course;
+import model.StudentSummary;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * The CourseDAO interface defines the data access operations for the Course entity.
- * It provides methods to retrieve, add, update, and delete course records.
+ * It provides methods to retrieve, add, update, and delete course records,
+ * and to manage the enrollments of students in courses.
  */
 public interface CourseDAO {
 
@@ -26,14 +31,83 @@ public interface CourseDAO {
     Course getCourseByName(String name);
 
     /**
-     * Adds a new course to the database.
+     * Retrieves the courses a student is enrolled in.
+     *
+     * @param studentID The unique identifier of the student.
+     * @return A list of Course objects with that student ID, ordered by course ID, empty if there are none.
+     */
+    List<Course> getCoursesByStudentID(int studentID);
+
+    /**
+     * Retrieves the courses of many students with a few bulk queries instead of one query per student.
+     *
+     * @param studentIDs The unique identifiers of the students.
+     * @return A map from every distinct, valid student ID to its courses ordered by course ID, ordered by student ID.
+     */
+    Map<Integer, List<Course>> getCoursesByStudentIDs(int[] studentIDs);
+
+    /**
+     * Retrieves the students enrolled in a course with a single query.
+     *
+     * @param courseID The unique identifier of the course.
+     * @return The enrolled students ordered by last name and first name, empty if there are none.
+     */
+    List<StudentSummary> getRoster(int courseID);
+
+    /**
+     * Retrieves all enrollments with a single query.
+     *
+     * @return A map from course ID to the sorted IDs of its students, for every course with students.
+     * @throws DataAccessException if the enrollments cannot be read, so callers can tell a failure from no enrollments.
+     */
+    Map<Integer, int[]> getEnrollments();
+
+    /**
+     * Enrolls many students in a course using JDBC batching, one transaction per call.
+     * Students that are already enrolled are skipped.
+     *
+     * @param courseID   The unique identifier of the course.
+     * @param studentIDs The unique identifiers of the students.
+     * @return The number of new enrollments, 0 if the batch failed.
+     */
+    int enrollStudents(int courseID, int[] studentIDs);
+
+    /**
+     * Removes many students from a course using JDBC batching, one transaction per call.
+     *
+     * @param courseID   The unique identifier of the course.
+     * @param studentIDs The unique identifiers of the students.
+     * @return The number of removed enrollments, 0 if the batch failed.
+     */
+    int unenrollStudents(int courseID, int[] studentIDs);
+
+    /**
+     * Retrieves all course rows.
+     *
+     * @return A list of Course objects ordered by course ID.
+     * @throws DataAccessException if the rows cannot be read, so callers can tell a failure from an empty table.
+     */
+    List<Course> getCourses();
+
+    /**
+     * Adds a new course to the database. If the course has a student ID, the student is enrolled in it;
+     * a course that already exists with that name is reused.
      *
      * @param course The Course object to be added.
      */
     void addCourse(Course course);
 
     /**
-     * Updates an existing course in the database.
+     * Adds many courses and enrollments to the database using JDBC batching, one transaction per call.
+     * Courses are identified by name and only created if they do not exist yet.
+     *
+     * @param courses The Course objects to be added, with a student ID for each enrollment.
+     * @return The number of Course objects stored, 0 if the batch failed.
+     */
+    int addCourses(Collection<Course> courses);
+
+    /**
+     * Renames an existing course in the database. Enrollments are changed with enrollStudents and unenrollStudents.
      *
      * @param course The Course object containing updated information.
      */
@@ -46,6 +120,11 @@ public interface CourseDAO {
      */
     void deleteCourse(int id);
 
+    /**
+     * Retrieves the distinct names of all courses.
+     *
+     * @return A list of course names in alphabetical order.
+     */
     List<String> getAllCourses();
 
 }
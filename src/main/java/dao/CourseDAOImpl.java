@@ -1,23 +1,61 @@
 package dao;
 
 import model.Course;
-import model.Student;
+import model.StudentSummary;
 import singleton.DatabaseConnection;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * The CourseDAOImpl class provides an implementation of the CourseDAO interface.
  * It includes methods for retrieving, adding, updating, and deleting course records.
  *
- * Note: The current implementation contains placeholder methods that need to be implemented
- * with actual database interactions.
+ * Every course is one row of the course table, and the enrollment table links students to courses
+ * (see enrollment.sql, which also migrates the old one-row-per-student course table).
+ * Both directions are index-backed: the primary key of enrollment serves the courses of a student,
+ * idx_enrollment_course the roster of a course. Course names are unique (idx_course_name).
+ * A Course read from the course table has no student ID; one read through an enrollment has the
+ * student ID of the enrollment.
  */
 public class CourseDAOImpl implements CourseDAO {
 
-private final Connection conn = DatabaseConnection.getConnection();
+    /**
+     * The column layout of a course row, shared by the queries and the TableExporter.
+     * course.studentID is no longer written (see enrollment.sql), so it is not read either.
+     */
+    static final String COURSE_COLUMNS = "courseID, course_Name";
+
+    /**
+     * The column layout of an enrollment row, shared with the TableExporter.
+     */
+    static final String ENROLLMENT_COLUMNS = "studentID, courseID";
+
+    // A course row joined with an enrollment: the student ID comes from the enrollment
+    private static final String ENROLLED_COURSE_COLUMNS = "c.courseID, c.course_Name, e.studentID";
+
+    private static final RowMapper<Course> COURSE_MAPPER = CourseRowMapper.forColumns(COURSE_COLUMNS);
+    private static final RowMapper<Course> ENROLLED_COURSE_MAPPER = CourseRowMapper.forColumns("courseID, course_Name, studentID");
+
+    private static final String INSERT_COURSE = "INSERT IGNORE INTO course (course_Name) VALUES (?)";
+    private static final String SELECT_COURSE_ID = "SELECT courseID FROM course WHERE course_Name = ?";
+    private static final String INSERT_ENROLLMENT = "INSERT IGNORE INTO enrollment (studentID, courseID) VALUES (?, ?)";
+    private static final String DELETE_ENROLLMENT = "DELETE FROM enrollment WHERE studentID = ? AND courseID = ?";
+
+    // The number of rows sent together in one JDBC batch
+    private static final int BATCH_SIZE = Integer.getInteger("db.batchSize", 500);
+
+    // The largest IN list of a single query, a power of two
+    private static final int IN_LIST_LIMIT = 512;
+
     /**
      * Retrieves a course from the database using its unique ID.
      *
@@ -28,22 +66,20 @@ private final Connection conn = DatabaseConnection.getConnection();
     public Course getCourseByID(int id) {
         // TODO: Implement database query to retrieve course by ID (Don)
         Course course = null; // Declare variable to hold the course
-        String query = "SELECT courseID, course_Name, studentID FROM course WHERE courseID = ?"; // SQL query to get course by ID
+        String query = "SELECT " + COURSE_COLUMNS + " FROM course WHERE courseID = ?"; // SQL query to get course by ID
 
         try (Connection conn = DatabaseConnection.getConnection(); // Assuming DatabaseConnection is a class that provides DB connection
              PreparedStatement stmt = conn.prepareStatement(query)) {
 
             stmt.setInt(1, id); // Set the provided courseID into the query
-            ResultSet rs = stmt.executeQuery(); // Execute the query
-
-            // Check if a result was returned
-            if (rs.next()) {
-                // Create a new Course object and populate it with the result set
-                int courseID = rs.getInt("courseID");
-                String courseName = rs.getString("course_Name");
-                int studentID = rs.getInt("studentID");
+            // Close the result set right away, the statement itself stays in the statement cache
+            try (ResultSet rs = stmt.executeQuery()) { // Execute the query
 
-                course = new Course(courseID,studentID,courseName); // Assuming Course constructor with 3 arguments
+                // Check if a result was returned
+                if (rs.next()) {
+                    // Create a new Course object from the columns of COURSE_COLUMNS, read by index
+                    course = COURSE_MAPPER.mapRow(rs);
+                }
             }
         } catch (SQLException e) {
             System.out.println(e.getMessage()); // Handle exceptions
@@ -59,54 +95,384 @@ private final Connection conn = DatabaseConnection.getConnection();
      */
     @Override
     public Course getCourseByName(String name) {
-        return null; // TODO: Implement database query to retrieve course by name
+        Course course = null;
+        String query = "SELECT " + COURSE_COLUMNS + " FROM course WHERE course_Name = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setString(1, name.trim());
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    course = COURSE_MAPPER.mapRow(rs);
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        }
+        return course;
     }
 
     /**
-     * Adds a new course to the database.
+     * Retrieves the courses a student is enrolled in.
      *
-     * @param course The Course object to be added.
+     * @param studentID The unique identifier of the student.
+     * @return A list of Course objects with that student ID, ordered by course ID, empty if there are none.
      */
     @Override
-    public void addCourse(Course course) {
-        // TODO: Implement database insertion logic for a new course (Don)
-        // SQL query to insert a new course into the course table
-        String query = "INSERT INTO course (course_Name, studentID) VALUES (?, ?)";
+    public List<Course> getCoursesByStudentID(int studentID) {
+        List<Course> courses = new ArrayList<>();
+        String query = "SELECT " + ENROLLED_COURSE_COLUMNS + " FROM enrollment e"
+                + " JOIN course c ON c.courseID = e.courseID WHERE e.studentID = ? ORDER BY c.courseID";
 
-        try (Connection conn = DatabaseConnection.getConnection(); // Get database connection
+        try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, studentID);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    courses.add(ENROLLED_COURSE_MAPPER.mapRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        }
+        return courses;
+    }
 
-            // Set the course name and studentID from the Course object into the query
-            stmt.setString(1, course.getCourseName());
-            stmt.setInt(2, course.getStudentID());
+    /**
+     * Retrieves the courses of many students. The sorted, distinct IDs are split into chunks of at most
+     * IN_LIST_LIMIT IDs, and each chunk is one "studentID IN (...)" query on the primary key of enrollment.
+     * Like StudentDAOImpl.getStudentsByIds, the IN list is padded to the next power of two so only a few
+     * statement shapes exist. Course names are shared between the Course objects of all students.
+     *
+     * @param studentIDs The unique identifiers of the students.
+     * @return A map from every distinct, valid student ID to its courses ordered by course ID, ordered by student ID.
+     */
+    @Override
+    public Map<Integer, List<Course>> getCoursesByStudentIDs(int[] studentIDs) {
+        int[] distinct = Arrays.stream(studentIDs).filter(id -> id > 0).sorted().distinct().toArray();
+        Map<Integer, List<Course>> courses = new TreeMap<>();
+        for (int studentID : distinct) {
+            courses.put(studentID, new ArrayList<>());
+        }
+        Map<String, String> names = new HashMap<>();
 
-            // Execute the update to insert the course into the database
-            stmt.executeUpdate();
+        for (int from = 0; from < distinct.length; from += IN_LIST_LIMIT) {
+            int end = Math.min(from + IN_LIST_LIMIT, distinct.length);
+            int size = Math.max(1, Math.min(Integer.highestOneBit(end - from - 1) << 1, IN_LIST_LIMIT));
+            StringBuilder query = new StringBuilder("SELECT " + ENROLLED_COURSE_COLUMNS + " FROM enrollment e")
+                    .append(" JOIN course c ON c.courseID = e.courseID WHERE e.studentID IN (?");
+            for (int i = 1; i < size; i++) {
+                query.append(", ?");
+            }
+            query.append(") ORDER BY e.studentID, c.courseID");
+
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query.toString())) {
+                for (int i = 0; i < size; i++) {
+                    stmt.setInt(i + 1, distinct[Math.min(from + i, end - 1)]);
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        Course course = ENROLLED_COURSE_MAPPER.mapRow(rs);
+                        course.setCourseName(names.computeIfAbsent(course.getCourseName(), name -> name));
+                        courses.get(course.getStudentID()).add(course);
+                    }
+                }
+            } catch (SQLException e) {
+                System.out.println(e.getMessage());
+            }
+        }
+        return courses;
+    }
+
+    /**
+     * Retrieves the students enrolled in a course. The roster index finds the enrollments,
+     * and the students are joined by their primary key.
+     *
+     * @param courseID The unique identifier of the course.
+     * @return The enrolled students ordered by last name and first name, empty if there are none.
+     */
+    @Override
+    public List<StudentSummary> getRoster(int courseID) {
+        List<StudentSummary> roster = new ArrayList<>();
+        // Same column order as StudentDAOImpl.SUMMARY_COLUMNS
+        String query = "SELECT s.studentID, s.firstname, s.lastname FROM enrollment e"
+                + " JOIN student s ON s.studentID = e.studentID WHERE e.courseID = ?"
+                + " ORDER BY s.lastname, s.firstname, s.studentID";
 
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, courseID);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    roster.add(StudentDAOImpl.SUMMARY_MAPPER.mapRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        }
+        return roster;
+    }
+
+    /**
+     * Retrieves all enrollments. The roster index delivers them ordered by course and student,
+     * so the student IDs of a course are collected in one pass.
+     *
+     * @return A map from course ID to the sorted IDs of its students, for every course with students.
+     * @throws DataAccessException if the enrollments cannot be read.
+     */
+    @Override
+    public Map<Integer, int[]> getEnrollments() {
+        Map<Integer, int[]> enrollments = new HashMap<>();
+        String query = "SELECT courseID, studentID FROM enrollment ORDER BY courseID, studentID";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query);
+             ResultSet rs = stmt.executeQuery()) {
+            int courseID = 0;
+            int[] studentIDs = new int[64];
+            int count = 0;
+            while (rs.next()) {
+                if (rs.getInt(1) != courseID) {
+                    if (count > 0) {
+                        enrollments.put(courseID, Arrays.copyOf(studentIDs, count));
+                    }
+                    courseID = rs.getInt(1);
+                    count = 0;
+                }
+                if (count == studentIDs.length) {
+                    studentIDs = Arrays.copyOf(studentIDs, count * 2);
+                }
+                studentIDs[count++] = rs.getInt(2);
+            }
+            if (count > 0) {
+                enrollments.put(courseID, Arrays.copyOf(studentIDs, count));
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Reading the enrollments failed: " + e.getMessage(), e);
+        }
+        return enrollments;
+    }
+
+    /**
+     * Enrolls many students in a course with INSERT IGNORE batches, so existing enrollments are skipped.
+     *
+     * @param courseID   The unique identifier of the course.
+     * @param studentIDs The unique identifiers of the students.
+     * @return The number of new enrollments, 0 if the batch failed.
+     */
+    @Override
+    public int enrollStudents(int courseID, int[] studentIDs) {
+        return writeEnrollments(INSERT_ENROLLMENT, courseID, studentIDs, "Enrolling students");
+    }
+
+    /**
+     * Removes many students from a course with DELETE batches.
+     *
+     * @param courseID   The unique identifier of the course.
+     * @param studentIDs The unique identifiers of the students.
+     * @return The number of removed enrollments, 0 if the batch failed.
+     */
+    @Override
+    public int unenrollStudents(int courseID, int[] studentIDs) {
+        return writeEnrollments(DELETE_ENROLLMENT, courseID, studentIDs, "Unenrolling students");
+    }
+
+    /**
+     * Runs an enrollment statement with the parameters (studentID, courseID) for every distinct student
+     * as batches of BATCH_SIZE rows, all committed together.
+     */
+    private int writeEnrollments(String sql, int courseID, int[] studentIDs, String action) {
+        int[] distinct = Arrays.stream(studentIDs).filter(id -> id > 0).sorted().distinct().toArray();
+        if (distinct.length == 0) {
+            return 0;
+        }
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            boolean ownTransaction = conn.getAutoCommit();
+            if (ownTransaction) {
+                conn.setAutoCommit(false);
+            }
+            try {
+                int changed = 0;
+                for (int from = 0; from < distinct.length; from += BATCH_SIZE) {
+                    for (int i = from; i < Math.min(from + BATCH_SIZE, distinct.length); i++) {
+                        stmt.setInt(1, distinct[i]);
+                        stmt.setInt(2, courseID);
+                        stmt.addBatch();
+                    }
+                    changed += changedRows(stmt.executeBatch());
+                }
+                if (ownTransaction) {
+                    conn.commit();
+                }
+                return changed;
+            } catch (SQLException e) {
+                stmt.clearBatch();
+                if (!ownTransaction) {
+                    throw new DataAccessException(action + " failed: " + e.getMessage(), e);
+                }
+                conn.rollback();
+                throw e;
+            } finally {
+                if (ownTransaction) {
+                    conn.setAutoCommit(true);
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        }
+        return 0;
+    }
+
+    /**
+     * Sums the update counts of a batch. A driver that rewrites the batch into one statement
+     * only reports SUCCESS_NO_INFO, which is counted as one row.
+     */
+    private static int changedRows(int[] counts) {
+        int changed = 0;
+        for (int count : counts) {
+            changed += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+        }
+        return changed;
+    }
+
+    /**
+     * Retrieves all course rows.
+     *
+     * @return A list of Course objects ordered by course ID.
+     * @throws DataAccessException if the rows cannot be read.
+     */
+    @Override
+    public List<Course> getCourses() {
+        List<Course> courses = new ArrayList<>();
+        String query = "SELECT " + COURSE_COLUMNS + " FROM course ORDER BY courseID";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                courses.add(COURSE_MAPPER.mapRow(rs));
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Reading the courses failed: " + e.getMessage(), e);
+        }
+        return courses;
+    }
+
+    /**
+     * Adds a new course to the database. If the course has a student ID, the student is enrolled in it;
+     * a course that already exists with that name is reused.
+     *
+     * @param course The Course object to be added.
+     */
+    @Override
+    public void addCourse(Course course) {
+        if (addCourses(List.of(course)) > 0) {
             System.out.println("Course added successfully.");
+        }
+    }
+
+    /**
+     * Adds many courses and enrollments in one transaction. First the distinct names are inserted with
+     * INSERT IGNORE, so existing courses are kept, and their IDs are looked up by the unique name index.
+     * Then the enrollments of all Course objects with a student ID are inserted as batches.
+     * If anything fails, the transaction is rolled back and nothing is added.
+     *
+     * @param courses The Course objects to be added, with a student ID for each enrollment.
+     * @return The number of Course objects stored, 0 if the batch failed.
+     */
+    @Override
+    public int addCourses(Collection<Course> courses) {
+        if (courses.isEmpty()) {
+            return 0;
+        }
+        Set<String> names = new LinkedHashSet<>();
+        for (Course course : courses) {
+            names.add(course.getCourseName().trim());
+        }
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement insertCourse = conn.prepareStatement(INSERT_COURSE);
+             PreparedStatement selectCourseID = conn.prepareStatement(SELECT_COURSE_ID);
+             PreparedStatement insertEnrollment = conn.prepareStatement(INSERT_ENROLLMENT)) {
+            boolean ownTransaction = conn.getAutoCommit();
+            if (ownTransaction) {
+                conn.setAutoCommit(false);
+            }
+            try {
+                for (String name : names) {
+                    insertCourse.setString(1, name);
+                    insertCourse.addBatch();
+                }
+                insertCourse.executeBatch();
+
+                Map<String, Integer> courseIDs = new HashMap<>();
+                for (String name : names) {
+                    selectCourseID.setString(1, name);
+                    try (ResultSet rs = selectCourseID.executeQuery()) {
+                        if (rs.next()) {
+                            courseIDs.put(name, rs.getInt(1));
+                        }
+                    }
+                }
+
+                int pending = 0;
+                for (Course course : courses) {
+                    if (course.getStudentID() <= 0) {
+                        continue;
+                    }
+                    insertEnrollment.setInt(1, course.getStudentID());
+                    insertEnrollment.setInt(2, courseIDs.get(course.getCourseName().trim()));
+                    insertEnrollment.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        insertEnrollment.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    insertEnrollment.executeBatch();
+                }
+                if (ownTransaction) {
+                    conn.commit();
+                }
+                return courses.size();
+            } catch (SQLException e) {
+                insertCourse.clearBatch();
+                insertEnrollment.clearBatch();
+                if (!ownTransaction) {
+                    throw new DataAccessException("Adding courses failed: " + e.getMessage(), e);
+                }
+                conn.rollback();
+                throw e;
+            } finally {
+                if (ownTransaction) {
+                    conn.setAutoCommit(true);
+                }
+            }
         } catch (SQLException e) {
             System.out.println(e.getMessage()); // Handle any SQL exceptions
         }
+        return 0;
     }
 
     /**
-     * Updates an existing course in the database.
+     * Renames an existing course in the database. Enrollments are changed with enrollStudents and unenrollStudents.
      *
      * @param course The Course object containing updated information.
      */
     @Override
     public void updateCourse(Course course) {
-        // TODO: Implement database update logic for an existing course (Don)
-        // SQL query to update an existing course in the course table
-        String query = "UPDATE course SET course_Name = ?, studentID = ? WHERE courseID = ?";
+        // SQL query to rename an existing course, the students of a course are in the enrollment table
+        String query = "UPDATE course SET course_Name = ? WHERE courseID = ?";
 
         try (Connection conn = DatabaseConnection.getConnection(); // Get database connection
              PreparedStatement stmt = conn.prepareStatement(query)) {
 
             // Set the updated course data into the query
-            stmt.setString(1, course.getCourseName()); // Update course name
-            stmt.setInt(2, course.getStudentID()); // Update student ID
-            stmt.setInt(3, course.getCourseID()); // Specify the courseID of the course to update
+            stmt.setString(1, course.getCourseName().trim()); // Update course name
+            stmt.setInt(2, course.getCourseID()); // Specify the courseID of the course to update
 
             // Execute the update query
             int rowsAffected = stmt.executeUpdate();
@@ -123,7 +489,7 @@ private final Connection conn = DatabaseConnection.getConnection();
     }
 
     /**
-     * Deletes a course from the database using its unique ID.
+     * Deletes a course from the database using its unique ID. Its enrollments are deleted by the foreign key.
      *
      * @param id The unique identifier of the course to be deleted.
      */
@@ -153,14 +519,20 @@ private final Connection conn = DatabaseConnection.getConnection();
         }
     }
 
+    /**
+     * Retrieves the distinct names of all courses.
+     *
+     * @return A list of course names in alphabetical order.
+     */
     @Override
     public List<String> getAllCourses() {
         List<String> courses = new ArrayList<>();
-        String sql = "SELECT course_Name FROM course";
+        String sql = "SELECT DISTINCT course_Name FROM course ORDER BY course_Name";
 
-        try (PreparedStatement p = conn.prepareStatement(sql); ResultSet rs = p.executeQuery()) {
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement p = conn.prepareStatement(sql);
+             ResultSet rs = p.executeQuery()) {
             while (rs.next()) {
-                courses.add(rs.getString("course_Name"));
+                courses.add(rs.getString(1));
             }
         } catch (SQLException e) {
             System.out.println(e.getMessage());
@@ -0,0 +1,44 @@
+package dao;
+
+import model.Course;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The CourseRowMapper class maps rows of the course table to Course objects,
+ * reading every column by an index resolved once per select list.
+ */
+final class CourseRowMapper implements RowMapper<Course> {
+
+    private static final Map<String, CourseRowMapper> MAPPERS = new ConcurrentHashMap<>();
+
+    private final int courseID, courseName, studentID;
+
+    private CourseRowMapper(ColumnLayout layout) {
+        courseID = layout.indexOf("courseID");
+        courseName = layout.indexOf("course_Name");
+        studentID = layout.indexOf("studentID");
+    }
+
+    /**
+     * Returns the mapper for a select list.
+     *
+     * @param columns The comma separated column names, in select order.
+     * @return The cached CourseRowMapper.
+     */
+    static CourseRowMapper forColumns(String columns) {
+        return MAPPERS.computeIfAbsent(columns, c -> new CourseRowMapper(ColumnLayout.of(c)));
+    }
+
+    @Override
+    public Course mapRow(ResultSet rs) throws SQLException {
+        return new Course(
+                courseID > 0 ? rs.getInt(courseID) : 0,
+                studentID > 0 ? rs.getInt(studentID) : 0,
+                courseName > 0 ? rs.getString(courseName) : null
+        );
+    }
+}
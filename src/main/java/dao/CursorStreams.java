@@ -0,0 +1,99 @@
+package dao;
+
+import singleton.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The CursorStreams class turns a query into a lazily consumed Stream backed by a server-side cursor.
+ * The connection, statement and result set are closed when the last row has been read,
+ * when the stream is closed, or when reading a row fails.
+ */
+final class CursorStreams {
+
+    /**
+     * Private constructor to prevent instantiation of this class.
+     */
+    private CursorStreams() {}
+
+    /**
+     * Runs a query without parameters and streams its rows.
+     *
+     * @param sql       The SQL query.
+     * @param fetchSize The number of rows fetched from the server at a time.
+     * @param mapper    The mapper applied to every row.
+     * @param <T>       The type of the mapped rows.
+     * @return A sequential stream of the mapped rows.
+     * @throws DataAccessException if the query fails or the stream fails while it is consumed.
+     */
+    static <T> Stream<T> stream(String sql, int fetchSize, RowMapper<T> mapper) {
+        CursorResources resources = new CursorResources();
+        try {
+            resources.conn = DatabaseConnection.getConnection();
+            // Not a cached statement: the fetch size and cursor belong to this stream only
+            resources.statement = resources.conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            resources.statement.setFetchSize(fetchSize);
+            resources.rs = resources.statement.executeQuery();
+        } catch (SQLException e) {
+            resources.close();
+            throw new DataAccessException("Streaming query failed: " + e.getMessage(), e);
+        }
+
+        Spliterator<T> rows = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                if (resources.closed) {
+                    return false;
+                }
+                try {
+                    if (!resources.rs.next()) {
+                        resources.close();
+                        return false;
+                    }
+                    action.accept(mapper.mapRow(resources.rs));
+                    return true;
+                } catch (SQLException e) {
+                    resources.close();
+                    throw new DataAccessException("Streaming query failed: " + e.getMessage(), e);
+                }
+            }
+        };
+        return StreamSupport.stream(rows, false).onClose(resources::close);
+    }
+
+    /**
+     * The JDBC resources behind an open stream. Closing is idempotent,
+     * because it may happen both at the end of the rows and through Stream.close().
+     */
+    private static final class CursorResources {
+        private Connection conn;
+        private PreparedStatement statement;
+        private ResultSet rs;
+        private boolean closed;
+
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (AutoCloseable resource : new AutoCloseable[]{rs, statement, conn}) {
+                try {
+                    if (resource != null) {
+                        resource.close();
+                    }
+                } catch (Exception e) {
+                    System.out.println(e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package dao;
+
+/**
+ * The DataAccessException class is thrown by DAO operations that cannot report a failure
+ * through their return value, such as streams that fail while they are being consumed.
+ */
+public class DataAccessException extends RuntimeException {
+
+    /**
+     * Constructs a new DataAccessException.
+     *
+     * @param message The detail message.
+     * @param cause   The underlying exception, usually an SQLException.
+     */
+    public DataAccessException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,43 @@
+package dao;
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * The DatabaseUnavailableException class is thrown by DAO writes that failed because the database
+ * could not be reached or did not answer in time, as opposed to writes the database refused.
+ * An OutboxStudentDAO keeps such writes and sends them again later.
+ */
+public class DatabaseUnavailableException extends DataAccessException {
+
+    /**
+     * Constructs a new DatabaseUnavailableException.
+     *
+     * @param message The detail message.
+     * @param cause   The underlying exception, or null.
+     */
+    public DatabaseUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    /**
+     * Returns whether an SQLException means that the database cannot be reached: no connection within
+     * the borrow timeout, a connection that could not be opened or broke (SQL state class 08), or a timeout.
+     */
+    static boolean isConnectionFailure(SQLException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientConnectionException || cause instanceof SQLNonTransientConnectionException
+                    || cause instanceof SQLRecoverableException || cause instanceof SQLTimeoutException) {
+                return true;
+            }
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null
+                    && sqlException.getSQLState().startsWith("08")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
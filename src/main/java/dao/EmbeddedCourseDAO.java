@@ -0,0 +1,203 @@
+package dao;
+
+import model.Course;
+import model.Student;
+import model.StudentSummary;
+import singleton.UnitOfWork;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The EmbeddedCourseDAO class is a CourseDAO on an EmbeddedDatabase, for small installations and
+ * for benchmarks of the service layer without a database server.
+ *
+ * Reads work on one committed version and never wait for writers. Writes behave like CourseDAOImpl:
+ * names are unique ignoring case, enrolling skips unknown and already enrolled students, deleting a course
+ * deletes its enrollments, and every batch is one transaction.
+ */
+public class EmbeddedCourseDAO implements CourseDAO {
+
+    private final EmbeddedDatabase database;
+
+    /**
+     * Constructs a new EmbeddedCourseDAO.
+     *
+     * @param database The database the courses are stored in.
+     */
+    public EmbeddedCourseDAO(EmbeddedDatabase database) {
+        this.database = database;
+    }
+
+    @Override
+    public Course getCourseByID(int id) {
+        String name = database.read().courses.get(id);
+        return name != null ? new Course(id, 0, name) : null;
+    }
+
+    @Override
+    public Course getCourseByName(String name) {
+        Course course = database.read().catalog().byName(name);
+        return course != null ? new Course(course.getCourseID(), 0, course.getCourseName()) : null;
+    }
+
+    @Override
+    public List<Course> getCoursesByStudentID(int studentID) {
+        return coursesOf(database.read(), studentID);
+    }
+
+    @Override
+    public Map<Integer, List<Course>> getCoursesByStudentIDs(int[] studentIDs) {
+        EmbeddedDatabase.State version = database.read();
+        Map<Integer, List<Course>> courses = new TreeMap<>();
+        for (int studentID : studentIDs) {
+            if (studentID > 0 && !courses.containsKey(studentID)) {
+                courses.put(studentID, coursesOf(version, studentID));
+            }
+        }
+        return courses;
+    }
+
+    private static List<Course> coursesOf(EmbeddedDatabase.State version, int studentID) {
+        List<Course> courses = new ArrayList<>();
+        int[] courseIDs = version.byStudent.get(studentID);
+        if (courseIDs != null) {
+            for (int courseID : courseIDs) {
+                courses.add(new Course(courseID, studentID, version.courses.get(courseID)));
+            }
+        }
+        return courses;
+    }
+
+    @Override
+    public List<StudentSummary> getRoster(int courseID) {
+        EmbeddedDatabase.State version = database.read();
+        List<StudentSummary> roster = new ArrayList<>();
+        int[] studentIDs = version.byCourse.get(courseID);
+        if (studentIDs != null) {
+            for (int studentID : studentIDs) {
+                Student student = version.students.get(studentID);
+                roster.add(new StudentSummary(studentID, student.getFirstname(), student.getLastname()));
+            }
+        }
+        roster.sort(SnapshotCourseDAO.ROSTER_ORDER);
+        return roster;
+    }
+
+    @Override
+    public Map<Integer, int[]> getEnrollments() {
+        return database.read().enrollments();
+    }
+
+    @Override
+    public int enrollStudents(int courseID, int[] studentIDs) {
+        return writeEnrollments(true, courseID, studentIDs, "Enrolling students");
+    }
+
+    @Override
+    public int unenrollStudents(int courseID, int[] studentIDs) {
+        return writeEnrollments(false, courseID, studentIDs, "Unenrolling students");
+    }
+
+    private int writeEnrollments(boolean enroll, int courseID, int[] studentIDs, String action) {
+        int[] distinct = Arrays.stream(studentIDs).filter(id -> id > 0).sorted().distinct().toArray();
+        if (distinct.length == 0) {
+            return 0;
+        }
+        try {
+            return database.write(transaction -> enroll
+                    ? transaction.enroll(courseID, distinct)
+                    : transaction.unenroll(courseID, distinct));
+        } catch (DataAccessException e) {
+            if (UnitOfWork.isActive()) {
+                throw new DataAccessException(action + " failed: " + e.getMessage(), e);
+            }
+            System.out.println(e.getMessage());
+        }
+        return 0;
+    }
+
+    @Override
+    public List<Course> getCourses() {
+        return database.read().courseRows();
+    }
+
+    @Override
+    public void addCourse(Course course) {
+        if (addCourses(List.of(course)) > 0) {
+            System.out.println("Course added successfully.");
+        }
+    }
+
+    /**
+     * Adds many courses and enrollments in one transaction. Courses that exist with a name are kept,
+     * and the enrollments of all Course objects with a student ID are added. If anything fails, nothing is added.
+     */
+    @Override
+    public int addCourses(Collection<Course> courses) {
+        if (courses.isEmpty()) {
+            return 0;
+        }
+        Set<String> names = new LinkedHashSet<>();
+        for (Course course : courses) {
+            names.add(course.getCourseName() != null ? course.getCourseName().trim() : null);
+        }
+        try {
+            return database.write(transaction -> {
+                Map<String, Integer> courseIDs = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+                for (String name : names) {
+                    courseIDs.put(name, transaction.insertCourseIfAbsent(name));
+                }
+                for (Course course : courses) {
+                    if (course.getStudentID() > 0) {
+                        transaction.enroll(courseIDs.get(course.getCourseName().trim()), new int[]{course.getStudentID()});
+                    }
+                }
+                return courses.size();
+            });
+        } catch (DataAccessException e) {
+            if (UnitOfWork.isActive()) {
+                throw new DataAccessException("Adding courses failed: " + e.getMessage(), e);
+            }
+            System.out.println(e.getMessage());
+        }
+        return 0;
+    }
+
+    @Override
+    public void updateCourse(Course course) {
+        try {
+            if (database.write(transaction -> transaction.renameCourse(course.getCourseID(), course.getCourseName().trim()))) {
+                System.out.println("Course updated successfully.");
+            } else {
+                System.out.println("Course update failed, no course with the given ID found.");
+            }
+        } catch (DataAccessException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    @Override
+    public void deleteCourse(int id) {
+        try {
+            if (database.write(transaction -> transaction.deleteCourse(id))) {
+                System.out.println("Course deleted successfully.");
+            } else {
+                System.out.println("No course found with the given ID to delete.");
+            }
+        } catch (DataAccessException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    @Override
+    public List<String> getAllCourses() {
+        return new ArrayList<>(database.read().catalog().names());
+    }
+}
@@ -0,0 +1,895 @@
+package dao;
+
+import model.Course;
+import model.Student;
+import singleton.UnitOfWork;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The EmbeddedDatabase class keeps the student, course and enrollment tables in memory, for
+ * EmbeddedStudentDAO and EmbeddedCourseDAO, and makes every commit durable in an append-only log.
+ *
+ * The tables of one committed version are immutable IntTries. A commit builds the next version,
+ * sharing everything it did not change, and publishes it with one volatile write, so readers never
+ * lock and never see a half-done change: a reader keeps the version it started with, however long
+ * it runs. Writers are serialized by one lock, which also keeps the log in commit order. Inside a
+ * UnitOfWork the lock is held from the first write until the unit ends, and the thread of the unit
+ * reads its own uncommitted version.
+ *
+ * Every commit appends one entry to the log: its length, a CRC32 and the changed rows, and by default
+ * forces it to disk before the new version is published. When the log has grown by checkpointBytes, a
+ * background thread writes the current version as a checkpoint in the snapshot format of SnapshotFile,
+ * after which the logs before it are deleted. Opening a database loads the checkpoint, replays the logs
+ * and drops an incomplete entry at the end of the last log, left by a crash during a commit.
+ * The constraints of the SQL schema (NOT NULL, column lengths, unique keys, foreign keys) are checked
+ * with the messages of MySQL.
+ */
+public final class EmbeddedDatabase implements AutoCloseable {
+
+    private static final String CHECKPOINT = "checkpoint.snapshot";
+    private static final String LOG_PREFIX = "log-";
+
+    // Operations of a log entry
+    private static final byte PUT_STUDENT = 1;
+    private static final byte DELETE_STUDENT = 2;
+    private static final byte PUT_COURSE = 3;
+    private static final byte DELETE_COURSE = 4;
+    private static final byte ENROLL = 5;
+    private static final byte UNENROLL = 6;
+    private static final byte COUNTERS = 7;
+
+    private final Path directory;
+    private final boolean syncOnCommit;
+    private final long checkpointBytes;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ThreadLocal<Transaction> joined = new ThreadLocal<>();
+    private final Object checkpointLock = new Object();
+    private final AtomicBoolean checkpointScheduled = new AtomicBoolean();
+    private final ExecutorService checkpointer;
+
+    private volatile State state;
+
+    // Guarded by writeLock
+    private FileChannel log;
+    private long logSequence;
+    private long logBytes;
+    private long commitsSinceCheckpoint;
+    private boolean closed;
+
+    private EmbeddedDatabase(Path directory, boolean syncOnCommit, long checkpointBytes) throws IOException {
+        this.directory = directory;
+        this.syncOnCommit = syncOnCommit;
+        this.checkpointBytes = checkpointBytes;
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(directory, CHECKPOINT + "*.tmp")) {
+            for (Path leftover : leftovers) {
+                Files.deleteIfExists(leftover);
+            }
+        }
+
+        State recovered = State.EMPTY;
+        Path checkpoint = directory.resolve(CHECKPOINT);
+        if (Files.exists(checkpoint)) {
+            recovered = load(SnapshotFile.open(checkpoint));
+        }
+        long[] sequences = logSequences();
+        for (int i = 0; i < sequences.length; i++) {
+            recovered = replay(logPath(sequences[i]), recovered, i == sequences.length - 1);
+        }
+        this.state = recovered;
+        this.logSequence = sequences.length > 0 ? sequences[sequences.length - 1] : 0;
+        startLog(recovered);
+
+        this.checkpointer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "embedded-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens or creates a database in a directory. Commits are forced to disk unless the system property
+     * dao.embedded.syncOnCommit is false, and a checkpoint is written whenever the log has grown by
+     * dao.embedded.checkpointBytes (64 MB by default).
+     *
+     * @param directory The directory of the checkpoint and the logs.
+     * @return The opened EmbeddedDatabase.
+     * @throws IOException if the directory cannot be read or written, or a checkpoint or log is damaged.
+     */
+    public static EmbeddedDatabase open(Path directory) throws IOException {
+        return open(directory, !"false".equals(System.getProperty("dao.embedded.syncOnCommit")),
+                Long.getLong("dao.embedded.checkpointBytes", 64L << 20));
+    }
+
+    /**
+     * Opens or creates a database in a directory.
+     *
+     * @param directory       The directory of the checkpoint and the logs.
+     * @param syncOnCommit    Whether every commit is forced to disk before it becomes visible.
+     * @param checkpointBytes The growth of the log after which a checkpoint is written.
+     * @return The opened EmbeddedDatabase.
+     * @throws IOException if the directory cannot be read or written, or a checkpoint or log is damaged.
+     */
+    public static EmbeddedDatabase open(Path directory, boolean syncOnCommit, long checkpointBytes) throws IOException {
+        if (checkpointBytes <= 0) {
+            throw new IllegalArgumentException("Invalid checkpoint size!");
+        }
+        return new EmbeddedDatabase(directory, syncOnCommit, checkpointBytes);
+    }
+
+    // Reading and writing
+
+    /**
+     * Returns the version the current thread reads: its own uncommitted one inside a UnitOfWork
+     * that wrote already, otherwise the last committed one.
+     */
+    State read() {
+        Transaction transaction = joined.get();
+        return transaction != null ? transaction.state : state;
+    }
+
+    /**
+     * Runs a write. Outside of a UnitOfWork the write is committed at once, and not at all if it throws.
+     * Inside a unit it joins the transaction of the unit; a DataAccessException then also marks the unit
+     * for rollback, like a failed statement on the connection of the unit.
+     *
+     * @throws DataAccessException if a constraint is violated or the log cannot be written.
+     */
+    <T> T write(Function<Transaction, T> work) {
+        Transaction transaction = joined.get();
+        if (transaction == null) {
+            writeLock.lock();
+            transaction = new Transaction(state);
+            if (!UnitOfWork.isActive()) {
+                T result;
+                try {
+                    result = work.apply(transaction);
+                } catch (RuntimeException e) {
+                    writeLock.unlock();
+                    throw e;
+                }
+                commit(transaction);
+                return result;
+            }
+            joined.set(transaction);
+            Transaction unit = transaction;
+            UnitOfWork.enlist(new UnitOfWork.Participant() {
+                @Override
+                public void commit() {
+                    joined.remove();
+                    EmbeddedDatabase.this.commit(unit);
+                }
+
+                @Override
+                public void rollback() {
+                    if (joined.get() == unit) {
+                        joined.remove();
+                        writeLock.unlock();
+                    }
+                }
+            });
+        }
+        try {
+            return work.apply(transaction);
+        } catch (DataAccessException e) {
+            transaction.fail(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Appends the entry of a transaction to the log and publishes its version. Releases the write lock.
+     */
+    private void commit(Transaction transaction) {
+        try {
+            if (transaction.failure != null) {
+                throw new DataAccessException("Transaction rolled back: " + transaction.failure.getMessage(),
+                        transaction.failure);
+            }
+            if (transaction.entry.length() == 0) {
+                return;
+            }
+            try {
+                append(transaction.entry);
+            } catch (IOException e) {
+                throw new DataAccessException("Writing the log failed: " + e.getMessage(), e);
+            }
+            state = transaction.state;
+            commitsSinceCheckpoint++;
+        } finally {
+            writeLock.unlock();
+        }
+        if (logBytes >= checkpointBytes && checkpointScheduled.compareAndSet(false, true)) {
+            checkpointer.execute(() -> {
+                try {
+                    checkpoint();
+                } catch (IOException e) {
+                    System.out.println("Checkpoint failed: " + e.getMessage());
+                } finally {
+                    checkpointScheduled.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Writes one entry to the log. If that fails, the log is cut back to the end of the last entry.
+     */
+    private void append(LogEntry entry) throws IOException {
+        if (closed) {
+            throw new IOException("The embedded database is closed.");
+        }
+        ByteBuffer buffer = entry.frame();
+        long start = log.position();
+        try {
+            while (buffer.hasRemaining()) {
+                log.write(buffer);
+            }
+            if (syncOnCommit) {
+                log.force(false);
+            }
+            logBytes += buffer.limit();
+        } catch (IOException e) {
+            try {
+                log.truncate(start);
+                log.position(start);
+            } catch (IOException truncation) {
+                closed = true; // the log cannot be trusted any more
+            }
+            throw e;
+        }
+    }
+
+    // Checkpoints and recovery
+
+    /**
+     * Writes the committed version as the new checkpoint and deletes the logs it contains.
+     * Commits go on while the checkpoint is written; they are appended to a new log.
+     *
+     * @throws IOException if the checkpoint cannot be written; the logs are then kept.
+     */
+    public void checkpoint() throws IOException {
+        synchronized (checkpointLock) {
+            State sealedState;
+            long sealed;
+            writeLock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                sealedState = state;
+                sealed = logSequence;
+                log.close();
+                startLog(sealedState);
+                commitsSinceCheckpoint = 0;
+            } finally {
+                writeLock.unlock();
+            }
+            SnapshotWriter.write(sealedState.studentStream(), sealedState.courseRows(), sealedState.enrollments(), directory.resolve(CHECKPOINT));
+            for (long sequence : logSequences()) {
+                if (sequence <= sealed) {
+                    Files.deleteIfExists(logPath(sequence));
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes a checkpoint if anything was committed since the last one and closes the log.
+     * Later writes fail with a DataAccessException; reads still see the last version.
+     */
+    @Override
+    public void close() {
+        boolean changed;
+        writeLock.lock();
+        try {
+            changed = !closed && commitsSinceCheckpoint > 0;
+        } finally {
+            writeLock.unlock();
+        }
+        if (changed) {
+            try {
+                checkpoint();
+            } catch (IOException e) {
+                System.out.println("Checkpoint failed: " + e.getMessage());
+            }
+        }
+        writeLock.lock();
+        try {
+            closed = true;
+            log.close();
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        } finally {
+            writeLock.unlock();
+            checkpointer.shutdown();
+        }
+    }
+
+    /**
+     * Starts the next log with the ID counters, which are not part of a checkpoint.
+     */
+    private void startLog(State current) throws IOException {
+        logSequence++;
+        log = FileChannel.open(logPath(logSequence), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        logBytes = 0;
+        LogEntry counters = new LogEntry();
+        counters.putByte(COUNTERS);
+        counters.putInt(current.nextStudentID);
+        counters.putInt(current.nextCourseID);
+        append(counters);
+    }
+
+    private Path logPath(long sequence) {
+        return directory.resolve(String.format("%s%010d", LOG_PREFIX, sequence));
+    }
+
+    private long[] logSequences() throws IOException {
+        List<Long> sequences = new ArrayList<>();
+        try (DirectoryStream<Path> logs = Files.newDirectoryStream(directory, LOG_PREFIX + "*")) {
+            for (Path path : logs) {
+                try {
+                    sequences.add(Long.parseLong(path.getFileName().toString().substring(LOG_PREFIX.length())));
+                } catch (NumberFormatException e) {
+                    System.out.println("Ignoring " + path);
+                }
+            }
+        }
+        return sequences.stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+
+    private static State load(SnapshotFile snapshot) {
+        IntTrie<Student> students = IntTrie.empty();
+        IntTrie<int[]> byStudent = IntTrie.empty();
+        int nextStudentID = 1;
+        for (int row = 0; row < snapshot.getStudentCount(); row++) {
+            Student student = snapshot.student(row);
+            students = students.put(student.getStudentID(), student);
+            int[] courseIDs = snapshot.coursesOf(student.getStudentID());
+            if (courseIDs.length > 0) {
+                byStudent = byStudent.put(student.getStudentID(), courseIDs);
+            }
+            nextStudentID = Math.max(nextStudentID, student.getStudentID() + 1);
+        }
+        IntTrie<String> courses = IntTrie.empty();
+        int nextCourseID = 1;
+        for (Course course : snapshot.courses()) {
+            courses = courses.put(course.getCourseID(), course.getCourseName());
+            nextCourseID = Math.max(nextCourseID, course.getCourseID() + 1);
+        }
+        IntTrie<int[]> byCourse = IntTrie.empty();
+        for (Map.Entry<Integer, int[]> entry : snapshot.enrollments().entrySet()) {
+            byCourse = byCourse.put(entry.getKey(), entry.getValue());
+        }
+        return new State(students, courses, byCourse, byStudent, nextStudentID, nextCourseID);
+    }
+
+    /**
+     * Applies the entries of a log. An incomplete entry at the end of the last log is cut off.
+     */
+    private static State replay(Path path, State current, boolean last) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Log is too large: " + path);
+            }
+            ByteBuffer data = ByteBuffer.allocate((int) channel.size());
+            while (data.hasRemaining() && channel.read(data) >= 0) {
+                // read the whole log
+            }
+            data.flip();
+            int position = 0;
+            while (position < data.limit()) {
+                int remaining = data.limit() - position - 8;
+                int length = remaining >= 0 ? data.getInt(position) : -1;
+                if (length < 0 || length > remaining
+                        || SnapshotFile.crc(data, position + 8, length) != data.getInt(position + 4)) {
+                    if (!last) {
+                        throw new IOException("Log is damaged: " + path);
+                    }
+                    System.out.println("Discarding an incomplete commit at the end of " + path);
+                    channel.truncate(position);
+                    break;
+                }
+                current = apply(current, data.slice(position + 8, length));
+                position += 8 + length;
+            }
+        }
+        return current;
+    }
+
+    private static State apply(State current, ByteBuffer entry) {
+        while (entry.hasRemaining()) {
+            byte operation = entry.get();
+            switch (operation) {
+                case PUT_STUDENT -> {
+                    int studentID = entry.getInt();
+                    int born = entry.getInt();
+                    String firstname = getString(entry);
+                    String lastname = getString(entry);
+                    String email = getString(entry);
+                    String grade = getString(entry);
+                    String phoneNumber = getString(entry);
+                    current = current.withStudent(new Student(studentID, firstname, lastname, email, grade, phoneNumber,
+                            born == SnapshotFile.NO_DATE ? null : LocalDate.ofEpochDay(born)));
+                }
+                case DELETE_STUDENT -> current = current.withoutStudent(entry.getInt());
+                case PUT_COURSE -> current = current.withCourse(entry.getInt(), getString(entry));
+                case DELETE_COURSE -> current = current.withoutCourse(entry.getInt());
+                case ENROLL -> current = current.withEnrollments(entry.getInt(), getInts(entry));
+                case UNENROLL -> current = current.withoutEnrollments(entry.getInt(), getInts(entry));
+                case COUNTERS -> current = current.withCounters(entry.getInt(), entry.getInt());
+                default -> throw new IllegalStateException("Unknown log operation " + operation);
+            }
+        }
+        return current;
+    }
+
+    private static String getString(ByteBuffer entry) {
+        int length = entry.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        entry.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int[] getInts(ByteBuffer entry) {
+        int[] values = new int[entry.getInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = entry.getInt();
+        }
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        State current = state;
+        return "EmbeddedDatabase{" +
+                "directory=" + directory +
+                ", students=" + current.students.size() +
+                ", courses=" + current.courses.size() +
+                ", syncOnCommit=" + syncOnCommit +
+                '}';
+    }
+
+    /**
+     * One version of the tables. All fields are immutable; every with-method returns a new version.
+     * The stored Student objects are never handed out, the DAOs return copies.
+     */
+    static final class State {
+
+        static final State EMPTY = new State(IntTrie.empty(), IntTrie.empty(), IntTrie.empty(), IntTrie.empty(), 1, 1);
+
+        final IntTrie<Student> students;
+        final IntTrie<String> courses;
+        // Sorted student IDs of every course with students, and sorted course IDs of every enrolled student
+        final IntTrie<int[]> byCourse;
+        final IntTrie<int[]> byStudent;
+        // The next generated IDs, like AUTO_INCREMENT they are not reused after a delete
+        final int nextStudentID;
+        final int nextCourseID;
+        private volatile CourseCatalog catalog;
+
+        private State(IntTrie<Student> students, IntTrie<String> courses, IntTrie<int[]> byCourse,
+                      IntTrie<int[]> byStudent, int nextStudentID, int nextCourseID) {
+            this.students = students;
+            this.courses = courses;
+            this.byCourse = byCourse;
+            this.byStudent = byStudent;
+            this.nextStudentID = nextStudentID;
+            this.nextCourseID = nextCourseID;
+        }
+
+        /**
+         * Returns the courses of this version indexed by ID and name, built on first use.
+         */
+        CourseCatalog catalog() {
+            CourseCatalog result = catalog;
+            if (result == null) {
+                result = CourseCatalog.of(courseRows());
+                catalog = result;
+            }
+            return result;
+        }
+
+        List<Course> courseRows() {
+            List<Course> rows = new ArrayList<>(courses.size());
+            courses.forEachEntry((courseID, name) -> rows.add(new Course(courseID, 0, name)));
+            return rows;
+        }
+
+        Map<Integer, int[]> enrollments() {
+            Map<Integer, int[]> enrollments = new LinkedHashMap<>();
+            byCourse.forEachEntry((courseID, studentIDs) -> {
+                enrollments.put(courseID, studentIDs.clone());
+                return true;
+            });
+            return enrollments;
+        }
+
+        Stream<Student> studentStream() {
+            return StreamSupport.stream(students.spliterator(), false);
+        }
+
+        State withStudent(Student student) {
+            return new State(students.put(student.getStudentID(), student), courses, byCourse, byStudent,
+                    Math.max(nextStudentID, student.getStudentID() + 1), nextCourseID);
+        }
+
+        State withoutStudent(int studentID) {
+            IntTrie<int[]> courseStudents = byCourse;
+            for (int courseID : orEmpty(byStudent.get(studentID))) {
+                courseStudents = without(courseStudents, courseID, new int[]{studentID});
+            }
+            return new State(students.remove(studentID), courses, courseStudents, byStudent.remove(studentID),
+                    nextStudentID, nextCourseID);
+        }
+
+        State withCourse(int courseID, String name) {
+            return new State(students, courses.put(courseID, name), byCourse, byStudent,
+                    nextStudentID, Math.max(nextCourseID, courseID + 1));
+        }
+
+        State withoutCourse(int courseID) {
+            IntTrie<int[]> studentCourses = byStudent;
+            for (int studentID : orEmpty(byCourse.get(courseID))) {
+                studentCourses = without(studentCourses, studentID, new int[]{courseID});
+            }
+            return new State(students, courses.remove(courseID), byCourse.remove(courseID), studentCourses,
+                    nextStudentID, nextCourseID);
+        }
+
+        /**
+         * Adds enrollments; studentIDs must be sorted.
+         */
+        State withEnrollments(int courseID, int[] studentIDs) {
+            IntTrie<int[]> studentCourses = byStudent;
+            for (int studentID : studentIDs) {
+                studentCourses = with(studentCourses, studentID, new int[]{courseID});
+            }
+            return new State(students, courses, with(byCourse, courseID, studentIDs), studentCourses,
+                    nextStudentID, nextCourseID);
+        }
+
+        /**
+         * Removes enrollments; studentIDs must be sorted.
+         */
+        State withoutEnrollments(int courseID, int[] studentIDs) {
+            IntTrie<int[]> studentCourses = byStudent;
+            for (int studentID : studentIDs) {
+                studentCourses = without(studentCourses, studentID, new int[]{courseID});
+            }
+            return new State(students, courses, without(byCourse, courseID, studentIDs), studentCourses,
+                    nextStudentID, nextCourseID);
+        }
+
+        State withCounters(int nextStudentID, int nextCourseID) {
+            return new State(students, courses, byCourse, byStudent,
+                    Math.max(this.nextStudentID, nextStudentID), Math.max(this.nextCourseID, nextCourseID));
+        }
+
+        private static int[] orEmpty(int[] values) {
+            return values != null ? values : new int[0];
+        }
+
+        /**
+         * Merges sorted values into the sorted array of a key.
+         */
+        private static IntTrie<int[]> with(IntTrie<int[]> index, int key, int[] added) {
+            int[] current = orEmpty(index.get(key));
+            int[] merged = new int[current.length + added.length];
+            int i = 0, j = 0, n = 0;
+            while (i < current.length || j < added.length) {
+                if (j == added.length || i < current.length && current[i] < added[j]) {
+                    merged[n++] = current[i++];
+                } else if (i == current.length || added[j] < current[i]) {
+                    merged[n++] = added[j++];
+                } else {
+                    merged[n++] = current[i++];
+                    j++;
+                }
+            }
+            return index.put(key, n == merged.length ? merged : Arrays.copyOf(merged, n));
+        }
+
+        /**
+         * Removes sorted values from the sorted array of a key, and the key once its array is empty.
+         */
+        private static IntTrie<int[]> without(IntTrie<int[]> index, int key, int[] removed) {
+            int[] current = index.get(key);
+            if (current == null) {
+                return index;
+            }
+            int[] kept = new int[current.length];
+            int n = 0;
+            for (int value : current) {
+                if (Arrays.binarySearch(removed, value) < 0) {
+                    kept[n++] = value;
+                }
+            }
+            return n == 0 ? index.remove(key) : index.put(key, Arrays.copyOf(kept, n));
+        }
+    }
+
+    /**
+     * The changes of one transaction: the version it builds and the log entry describing them.
+     * Every method checks the constraints of the schema first, so a failed call changes nothing.
+     */
+    final class Transaction {
+
+        private State state;
+        private final LogEntry entry = new LogEntry();
+        private DataAccessException failure;
+
+        private Transaction(State state) {
+            this.state = state;
+        }
+
+        State state() {
+            return state;
+        }
+
+        private void fail(DataAccessException e) {
+            if (failure == null) {
+                failure = e;
+            }
+        }
+
+        /**
+         * Inserts a student with the next generated ID.
+         *
+         * @return The generated ID.
+         */
+        int insertStudent(Student student) {
+            int studentID = state.nextStudentID;
+            insertStudent(studentID, student);
+            return studentID;
+        }
+
+        void insertStudent(int studentID, Student student) {
+            checkStudent(student);
+            if (state.students.get(studentID) != null) {
+                throw new DataAccessException("Duplicate entry '" + studentID + "' for key 'student.PRIMARY'", null);
+            }
+            putStudent(studentID, student);
+        }
+
+        /**
+         * Replaces all columns of a student.
+         *
+         * @return false if there is no student with that ID.
+         */
+        boolean updateStudent(Student student) {
+            checkStudent(student);
+            if (state.students.get(student.getStudentID()) == null) {
+                return false;
+            }
+            putStudent(student.getStudentID(), student);
+            return true;
+        }
+
+        private void putStudent(int studentID, Student student) {
+            Student stored = new Student(studentID, student.getFirstname(), student.getLastname(), student.getEmail(),
+                    student.getGrade(), student.getPhoneNumber(), student.getDateOfBirth());
+            state = state.withStudent(stored);
+            LocalDate born = stored.getDateOfBirth();
+            entry.putByte(PUT_STUDENT);
+            entry.putInt(studentID);
+            entry.putInt(born != null ? Math.toIntExact(born.toEpochDay()) : SnapshotFile.NO_DATE);
+            entry.putString(stored.getFirstname());
+            entry.putString(stored.getLastname());
+            entry.putString(stored.getEmail());
+            entry.putString(stored.getGrade());
+            entry.putString(stored.getPhoneNumber());
+        }
+
+        /**
+         * Deletes a student and, like the foreign key, its enrollments.
+         *
+         * @return false if there is no student with that ID.
+         */
+        boolean deleteStudent(int studentID) {
+            if (state.students.get(studentID) == null) {
+                return false;
+            }
+            state = state.withoutStudent(studentID);
+            entry.putByte(DELETE_STUDENT);
+            entry.putInt(studentID);
+            return true;
+        }
+
+        /**
+         * Returns the ID of the course with a name, and creates the course first if there is none,
+         * like INSERT IGNORE on the unique name.
+         */
+        int insertCourseIfAbsent(String name) {
+            checkColumn("course_Name", name, 30, false);
+            Course existing = state.catalog().byName(name);
+            if (existing != null) {
+                return existing.getCourseID();
+            }
+            int courseID = state.nextCourseID;
+            putCourse(courseID, name);
+            return courseID;
+        }
+
+        /**
+         * Renames a course.
+         *
+         * @return false if there is no course with that ID.
+         */
+        boolean renameCourse(int courseID, String name) {
+            checkColumn("course_Name", name, 30, false);
+            if (state.courses.get(courseID) == null) {
+                return false;
+            }
+            Course existing = state.catalog().byName(name);
+            if (existing != null && existing.getCourseID() != courseID) {
+                throw new DataAccessException("Duplicate entry '" + name + "' for key 'course.idx_course_name'", null);
+            }
+            putCourse(courseID, name);
+            return true;
+        }
+
+        private void putCourse(int courseID, String name) {
+            state = state.withCourse(courseID, name);
+            entry.putByte(PUT_COURSE);
+            entry.putInt(courseID);
+            entry.putString(name);
+        }
+
+        /**
+         * Deletes a course and, like the foreign key, its enrollments.
+         *
+         * @return false if there is no course with that ID.
+         */
+        boolean deleteCourse(int courseID) {
+            if (state.courses.get(courseID) == null) {
+                return false;
+            }
+            state = state.withoutCourse(courseID);
+            entry.putByte(DELETE_COURSE);
+            entry.putInt(courseID);
+            return true;
+        }
+
+        /**
+         * Enrolls students in a course. Like INSERT IGNORE, students that are enrolled already or do not exist,
+         * and all students if the course does not exist, are skipped.
+         *
+         * @param studentIDs Sorted, distinct student IDs.
+         * @return The number of new enrollments.
+         */
+        int enroll(int courseID, int[] studentIDs) {
+            if (state.courses.get(courseID) == null) {
+                return 0;
+            }
+            int[] enrolled = state.byCourse.get(courseID);
+            int[] added = Arrays.stream(studentIDs)
+                    .filter(id -> state.students.get(id) != null && (enrolled == null || Arrays.binarySearch(enrolled, id) < 0))
+                    .toArray();
+            writeEnrollments(ENROLL, courseID, added);
+            return added.length;
+        }
+
+        /**
+         * Removes students from a course.
+         *
+         * @param studentIDs Sorted, distinct student IDs.
+         * @return The number of removed enrollments.
+         */
+        int unenroll(int courseID, int[] studentIDs) {
+            int[] enrolled = state.byCourse.get(courseID);
+            if (enrolled == null) {
+                return 0;
+            }
+            int[] removed = Arrays.stream(studentIDs).filter(id -> Arrays.binarySearch(enrolled, id) >= 0).toArray();
+            writeEnrollments(UNENROLL, courseID, removed);
+            return removed.length;
+        }
+
+        private void writeEnrollments(byte operation, int courseID, int[] studentIDs) {
+            if (studentIDs.length == 0) {
+                return;
+            }
+            state = operation == ENROLL ? state.withEnrollments(courseID, studentIDs)
+                    : state.withoutEnrollments(courseID, studentIDs);
+            entry.putByte(operation);
+            entry.putInt(courseID);
+            entry.putInt(studentIDs.length);
+            for (int studentID : studentIDs) {
+                entry.putInt(studentID);
+            }
+        }
+
+        private void checkStudent(Student student) {
+            checkColumn("firstname", student.getFirstname(), 50, false);
+            checkColumn("lastname", student.getLastname(), 50, false);
+            checkColumn("eMail", student.getEmail(), 50, true);
+            checkColumn("grade", student.getGrade(), 5, false);
+            checkColumn("phoneNumber", student.getPhoneNumber(), 20, true);
+        }
+
+        private void checkColumn(String column, String value, int length, boolean nullable) {
+            if (value == null) {
+                if (!nullable) {
+                    throw new DataAccessException("Column '" + column + "' cannot be null", null);
+                }
+            } else if (value.codePointCount(0, value.length()) > length) {
+                throw new DataAccessException("Data too long for column '" + column + "' at row 1", null);
+            }
+        }
+    }
+
+    /**
+     * The operations of one commit, framed with length and CRC32 when it is written.
+     */
+    private static final class LogEntry {
+        private byte[] bytes = new byte[64];
+        private int length;
+
+        int length() {
+            return length;
+        }
+
+        void putByte(byte value) {
+            ensure(1);
+            bytes[length++] = value;
+        }
+
+        void putInt(int value) {
+            ensure(4);
+            ByteBuffer.wrap(bytes, length, 4).putInt(value);
+            length += 4;
+        }
+
+        void putString(String value) {
+            if (value == null) {
+                putInt(-1);
+                return;
+            }
+            byte[] text = value.getBytes(StandardCharsets.UTF_8);
+            putInt(text.length);
+            ensure(text.length);
+            System.arraycopy(text, 0, bytes, length, text.length);
+            length += text.length;
+        }
+
+        private void ensure(int more) {
+            if (length + more > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + more));
+            }
+        }
+
+        ByteBuffer frame() {
+            ByteBuffer frame = ByteBuffer.allocate(8 + length);
+            frame.putInt(length);
+            frame.putInt(SnapshotFile.crc(ByteBuffer.wrap(bytes), 0, length));
+            frame.put(bytes, 0, length);
+            return frame.flip();
+        }
+    }
+}
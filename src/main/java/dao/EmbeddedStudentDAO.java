@@ -0,0 +1,289 @@
+package dao;
+
+import model.Student;
+import model.StudentField;
+import model.StudentSummary;
+import singleton.UnitOfWork;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * The EmbeddedStudentDAO class is a StudentDAO on an EmbeddedDatabase, for small installations and
+ * for benchmarks of the service layer without a database server.
+ *
+ * Every read works on one committed version, so a list or stream is consistent even while other threads
+ * write, and it never waits for them. Writes behave like StudentDAOImpl: the same constraints, the same
+ * console messages, chunks of addStudents committed on their own, and failures thrown instead inside a
+ * UnitOfWork. Students are copied in and out; changing a returned Student changes nothing stored.
+ */
+public class EmbeddedStudentDAO implements StudentDAO {
+
+    private final EmbeddedDatabase database;
+    private final int batchSize;
+
+    /**
+     * Constructs a new EmbeddedStudentDAO. The batch size for addStudents can be set with
+     * the system property db.batchSize.
+     *
+     * @param database The database the students are stored in.
+     */
+    public EmbeddedStudentDAO(EmbeddedDatabase database) {
+        this(database, Integer.getInteger("db.batchSize", 500));
+    }
+
+    /**
+     * Constructs a new EmbeddedStudentDAO with a given batch size.
+     *
+     * @param database  The database the students are stored in.
+     * @param batchSize The number of students committed together by addStudents.
+     */
+    public EmbeddedStudentDAO(EmbeddedDatabase database, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Invalid batch size!");
+        }
+        this.database = database;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public Student getStudentById(int id) {
+        return copy(database.read().students.get(id));
+    }
+
+    @Override
+    public Map<Integer, Student> getStudentsByIds(int[] ids) {
+        EmbeddedDatabase.State version = database.read();
+        Map<Integer, Student> students = new TreeMap<>();
+        for (int id : ids) {
+            Student student = version.students.get(id);
+            if (student != null) {
+                students.putIfAbsent(id, copy(student));
+            }
+        }
+        return students;
+    }
+
+    @Override
+    public Student getStudentByLastName(String name) {
+        for (Student student : database.read().students) {
+            if (student.getLastname().equalsIgnoreCase(name)) {
+                return copy(student);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public List<Student> getAllStudents() {
+        return copies(database.read().students);
+    }
+
+    @Override
+    public List<Student> getStudentsAfter(int afterId, int limit) {
+        List<Student> students = new ArrayList<>();
+        if (limit > 0) {
+            database.read().students.forEachAfter(afterId, (id, student) -> {
+                students.add(copy(student));
+                return students.size() < limit;
+            });
+        }
+        return students;
+    }
+
+    @Override
+    public int countStudents() {
+        return database.read().students.size();
+    }
+
+    @Override
+    public List<Student> findStudents(StudentCriteria criteria, Student after, int limit) {
+        if (criteria.getSortColumn() == StudentCriteria.SortColumn.ID && criteria.isAscending() && !criteria.hasFilter()) {
+            return getStudentsAfter(after != null ? after.getStudentID() : 0, limit);
+        }
+        return copies(criteria.page(database.read().students, after, limit));
+    }
+
+    @Override
+    public int countStudents(StudentCriteria criteria) {
+        EmbeddedDatabase.State version = database.read();
+        if (!criteria.hasFilter()) {
+            return version.students.size();
+        }
+        int count = 0;
+        for (Student student : version.students) {
+            if (criteria.matches(student)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public Student getStudentAtOffset(StudentCriteria criteria, int offset) {
+        return copy(criteria.atOffset(database.read().students, offset));
+    }
+
+    /**
+     * Streams the students of one version in ID order. The stream holds no resources; the fetch size is ignored.
+     */
+    @Override
+    public Stream<Student> streamAllStudents(int fetchSize) {
+        return database.read().studentStream().map(EmbeddedStudentDAO::copy);
+    }
+
+    @Override
+    public List<StudentSummary> getStudentSummaries() {
+        List<StudentSummary> summaries = new ArrayList<>();
+        for (Student student : database.read().students) {
+            summaries.add(new StudentSummary(student.getStudentID(), student.getFirstname(), student.getLastname()));
+        }
+        return summaries;
+    }
+
+    @Override
+    public int addStudent(Student student) {
+        return addStudents(List.of(student))[0];
+    }
+
+    /**
+     * Adds many students in chunks of batchSize, every chunk committed on its own. If a chunk fails, its IDs
+     * stay 0 and the remaining chunks are still added. Inside a UnitOfWork a failure is thrown instead.
+     */
+    @Override
+    public int[] addStudents(Collection<Student> students) {
+        int[] ids = new int[students.size()];
+        List<Student> chunk = new ArrayList<>(Math.min(batchSize, ids.length));
+        int offset = 0;
+        for (Student student : students) {
+            chunk.add(student);
+            if (chunk.size() == batchSize || offset + chunk.size() == ids.length) {
+                insertChunk(chunk, ids, offset);
+                offset += chunk.size();
+                chunk.clear();
+            }
+        }
+        return ids;
+    }
+
+    private void insertChunk(List<Student> chunk, int[] ids, int offset) {
+        int[] chunkIds;
+        try {
+            chunkIds = database.write(transaction -> {
+                int[] generated = new int[chunk.size()];
+                for (int i = 0; i < generated.length; i++) {
+                    generated[i] = transaction.insertStudent(chunk.get(i));
+                }
+                return generated;
+            });
+        } catch (DataAccessException e) {
+            if (UnitOfWork.isActive()) {
+                throw new DataAccessException("Adding students failed: " + e.getMessage(), e);
+            }
+            System.out.println("Students " + (offset + 1) + " to " + (offset + chunk.size()) + " not added: " + e.getMessage());
+            return;
+        }
+        for (int i = 0; i < chunkIds.length; i++) {
+            ids[offset + i] = chunkIds[i];
+            chunk.get(i).setStudentID(chunkIds[i]);
+        }
+    }
+
+    @Override
+    public void addStudent(int studentID, String firstname, String lastname, String email, String grade, String phoneNumber, LocalDate dateOfBirth) {
+        Student student = new Student(studentID, firstname, lastname, email, grade, phoneNumber, dateOfBirth);
+        try {
+            database.write(transaction -> {
+                transaction.insertStudent(studentID, student);
+                return null;
+            });
+            System.out.println("Student added successfully");
+        } catch (DataAccessException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    @Override
+    public void updateStudent(int studentID, String firstname, String lastname, String email, String grade, String phoneNumber, LocalDate dateOfBirth) {
+        Student student = new Student(studentID, firstname, lastname, email, grade, phoneNumber, dateOfBirth);
+        try {
+            if (database.write(transaction -> transaction.updateStudent(student))) {
+                System.out.println("Student updated successfully");
+            } else {
+                System.out.println("Student not found.");
+            }
+        } catch (DataAccessException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the changed fields of a student onto the stored one; the other fields keep their stored values,
+     * as with the UPDATE of only the dirty columns. After a successful update the student is marked clean.
+     */
+    @Override
+    public void updateStudent(Student student) {
+        if (!student.isDirty()) {
+            return;
+        }
+        try {
+            boolean updated = database.write(transaction -> {
+                Student stored = transaction.state().students.get(student.getStudentID());
+                if (stored == null) {
+                    return false;
+                }
+                Student merged = copy(stored);
+                for (StudentField field : student.getDirtyFields()) {
+                    switch (field) {
+                        case FIRSTNAME -> merged.setFirstname(student.getFirstname());
+                        case LASTNAME -> merged.setLastname(student.getLastname());
+                        case EMAIL -> merged.setEmail(student.getEmail());
+                        case GRADE -> merged.setGrade(student.getGrade());
+                        case PHONE_NUMBER -> merged.setPhoneNumber(student.getPhoneNumber());
+                        case DATE_OF_BIRTH -> merged.setDateOfBirth(student.getDateOfBirth());
+                    }
+                }
+                return transaction.updateStudent(merged);
+            });
+            if (updated) {
+                student.markClean();
+                System.out.println("Student updated successfully");
+            } else {
+                System.out.println("Student not found.");
+            }
+        } catch (DataAccessException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    @Override
+    public void deleteStudent(int id) {
+        try {
+            if (database.write(transaction -> transaction.deleteStudent(id))) {
+                System.out.println("Student with ID " + id + " has been deleted.");
+            } else {
+                System.out.println("Student with ID " + id + " has not found.");
+            }
+        } catch (DataAccessException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    private static Student copy(Student student) {
+        return student == null ? null : new Student(student.getStudentID(), student.getFirstname(), student.getLastname(),
+                student.getEmail(), student.getGrade(), student.getPhoneNumber(), student.getDateOfBirth());
+    }
+
+    private static List<Student> copies(Iterable<Student> students) {
+        List<Student> copies = new ArrayList<>();
+        for (Student student : students) {
+            copies.add(copy(student));
+        }
+        return copies;
+    }
+}
@@ -0,0 +1,78 @@
+package dao;
+
+import java.nio.file.Path;
+
+/**
+ * The ExportResult class holds the counters of one table export.
+ */
+public class ExportResult {
+
+    private final String table;
+    private final Path file;
+    private final long rows, bytes, elapsedMillis;
+
+    /**
+     * Constructs a new ExportResult.
+     *
+     * @param table         The name of the exported table.
+     * @param file          The file that was written.
+     * @param rows          The number of rows written.
+     * @param bytes         The size of the written file, compressed if gzip is on.
+     * @param elapsedMillis The duration of the export.
+     */
+    public ExportResult(String table, Path file, long rows, long bytes, long elapsedMillis) {
+        this.table = table;
+        this.file = file;
+        this.rows = rows;
+        this.bytes = bytes;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Returns the throughput of the export.
+     *
+     * @return The number of rows written per second.
+     */
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? rows : rows * 1000.0 / elapsedMillis;
+    }
+
+    /**
+     * Returns a string representation of the ExportResult object.
+     *
+     * @return A formatted string with the export counters.
+     */
+    @Override
+    public String toString() {
+        return "ExportResult{" +
+                "table='" + table + '\'' +
+                ", file=" + file +
+                ", rows=" + rows +
+                ", bytes=" + bytes +
+                ", elapsedMillis=" + elapsedMillis +
+                ", rowsPerSecond=" + String.format("%.0f", getRowsPerSecond()) +
+                '}';
+    }
+
+    // Getters
+
+    public String getTable() {
+        return table;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
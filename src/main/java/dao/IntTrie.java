@@ -0,0 +1,248 @@
+package dao;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The IntTrie class is an immutable map from int keys to values, ordered by key.
+ *
+ * It is a radix trie over the bits of the key with up to 32 children per node, and the children of a node
+ * are stored in a compact array indexed by a bitmap. A lookup follows seven nodes. Every change copies only
+ * the nodes on the path to its key and shares the rest, so an old trie stays valid and unchanged after a
+ * change: one version can be read by any number of threads while a writer builds the next one.
+ *
+ * @param <V> The type of the values, which must not be null.
+ */
+final class IntTrie<V> implements Iterable<V> {
+
+    /**
+     * Receives the entries of a trie in key order.
+     */
+    interface Visitor<V> {
+        /**
+         * @return false to stop the iteration.
+         */
+        boolean visit(int key, V value);
+    }
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final int TOP_SHIFT = 30;
+    private static final int DEPTH = TOP_SHIFT / BITS + 1;
+
+    private static final Node EMPTY_NODE = new Node(0, new Object[0]);
+    private static final IntTrie<?> EMPTY = new IntTrie<>(EMPTY_NODE, 0);
+
+    /**
+     * A node of the trie. On the last level the slots hold the values, above it the child nodes.
+     */
+    private static final class Node {
+        final int bitmap;
+        final Object[] slots;
+
+        Node(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+    }
+
+    private final Node root;
+    private final int size;
+
+    private IntTrie(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <V> IntTrie<V> empty() {
+        return (IntTrie<V>) EMPTY;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the value of a key, or null if the key is not in the trie.
+     */
+    @SuppressWarnings("unchecked")
+    V get(int key) {
+        int bits = unsigned(key);
+        Node node = root;
+        for (int shift = TOP_SHIFT; ; shift -= BITS) {
+            int bit = 1 << ((bits >>> shift) & MASK);
+            if ((node.bitmap & bit) == 0) {
+                return null;
+            }
+            Object slot = node.slots[Integer.bitCount(node.bitmap & (bit - 1))];
+            if (shift == 0) {
+                return (V) slot;
+            }
+            node = (Node) slot;
+        }
+    }
+
+    /**
+     * Returns a trie in which the key maps to the value.
+     */
+    IntTrie<V> put(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null!");
+        }
+        boolean added = get(key) == null;
+        return new IntTrie<>(put(root, TOP_SHIFT, unsigned(key), value), added ? size + 1 : size);
+    }
+
+    /**
+     * Returns a trie without the key, or this trie if the key is not in it.
+     */
+    IntTrie<V> remove(int key) {
+        if (get(key) == null) {
+            return this;
+        }
+        Node removed = remove(root, TOP_SHIFT, unsigned(key));
+        return new IntTrie<>(removed != null ? removed : EMPTY_NODE, size - 1);
+    }
+
+    /**
+     * Visits the entries with a key greater than afterKey in key order, until the visitor returns false.
+     */
+    void forEachAfter(int afterKey, Visitor<? super V> visitor) {
+        if (afterKey != Integer.MAX_VALUE) {
+            visit(root, TOP_SHIFT, 0, unsigned(afterKey + 1), true, visitor);
+        }
+    }
+
+    /**
+     * Visits all entries in key order, until the visitor returns false.
+     */
+    void forEachEntry(Visitor<? super V> visitor) {
+        visit(root, TOP_SHIFT, 0, 0, false, visitor);
+    }
+
+    /**
+     * Returns the values in key order.
+     */
+    @Override
+    public Iterator<V> iterator() {
+        return new ValueIterator();
+    }
+
+    // Negative keys sort before positive ones: the trie orders the bits as unsigned numbers
+    private static int unsigned(int key) {
+        return key ^ Integer.MIN_VALUE;
+    }
+
+    private static Node put(Node node, int shift, int bits, Object value) {
+        int bit = 1 << ((bits >>> shift) & MASK);
+        int index = Integer.bitCount(node.bitmap & (bit - 1));
+        if ((node.bitmap & bit) != 0) {
+            Object[] slots = node.slots.clone();
+            slots[index] = shift == 0 ? value : put((Node) slots[index], shift - BITS, bits, value);
+            return new Node(node.bitmap, slots);
+        }
+        Object[] slots = new Object[node.slots.length + 1];
+        System.arraycopy(node.slots, 0, slots, 0, index);
+        System.arraycopy(node.slots, index, slots, index + 1, node.slots.length - index);
+        slots[index] = shift == 0 ? value : put(EMPTY_NODE, shift - BITS, bits, value);
+        return new Node(node.bitmap | bit, slots);
+    }
+
+    /**
+     * Removes a key that is in the trie.
+     *
+     * @return The new node, or null if the node became empty.
+     */
+    private static Node remove(Node node, int shift, int bits) {
+        int bit = 1 << ((bits >>> shift) & MASK);
+        int index = Integer.bitCount(node.bitmap & (bit - 1));
+        Node child = shift == 0 ? null : remove((Node) node.slots[index], shift - BITS, bits);
+        if (child != null) {
+            Object[] slots = node.slots.clone();
+            slots[index] = child;
+            return new Node(node.bitmap, slots);
+        }
+        if (node.slots.length == 1) {
+            return null;
+        }
+        Object[] slots = new Object[node.slots.length - 1];
+        System.arraycopy(node.slots, 0, slots, 0, index);
+        System.arraycopy(node.slots, index + 1, slots, index, slots.length - index);
+        return new Node(node.bitmap & ~bit, slots);
+    }
+
+    /**
+     * Visits a subtree. While bounded, the node lies on the path of the lower bound "from" and the children
+     * before that path are skipped.
+     */
+    @SuppressWarnings("unchecked")
+    private static <V> boolean visit(Node node, int shift, int prefix, int from, boolean bounded,
+                                     Visitor<? super V> visitor) {
+        int first = bounded ? (from >>> shift) & MASK : 0;
+        for (int digit = first; digit <= MASK; digit++) {
+            int bit = 1 << digit;
+            if ((node.bitmap & bit) == 0) {
+                continue;
+            }
+            Object slot = node.slots[Integer.bitCount(node.bitmap & (bit - 1))];
+            int bits = prefix | digit << shift;
+            boolean more = shift == 0
+                    ? visitor.visit(unsigned(bits), (V) slot)
+                    : visit((Node) slot, shift - BITS, bits, from, bounded && digit == first, visitor);
+            if (!more) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Walks the trie depth first with one node and slot position per level.
+     */
+    private final class ValueIterator implements Iterator<V> {
+        private final Node[] nodes = new Node[DEPTH];
+        private final int[] positions = new int[DEPTH];
+        private int depth;
+        private Object next;
+
+        ValueIterator() {
+            nodes[0] = root;
+            advance();
+        }
+
+        private void advance() {
+            next = null;
+            while (depth >= 0) {
+                Node node = nodes[depth];
+                if (positions[depth] == node.slots.length) {
+                    depth--;
+                    continue;
+                }
+                Object slot = node.slots[positions[depth]++];
+                if (depth == DEPTH - 1) {
+                    next = slot;
+                    return;
+                }
+                nodes[++depth] = (Node) slot;
+                positions[depth] = 0;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            V value = (V) next;
+            advance();
+            return value;
+        }
+    }
+}
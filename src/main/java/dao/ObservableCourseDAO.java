@@ -0,0 +1,156 @@
+package dao;
+
+import model.Course;
+import model.StudentSummary;
+import singleton.UnitOfWork;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The ObservableCourseDAO class passes all calls to another CourseDAO and tells its listeners about every
+ * course and enrollment write.
+ *
+ * Batches of courses are only reported if they were stored. The underlying DAOs report a failed single
+ * add or delete only on the console, so those are reported as done; listeners that must be exact can read the
+ * enrollments again. Renaming a course does not change any enrollment and is not reported.
+ * Inside a UnitOfWork, listeners are told after the commit and not at all after a rollback.
+ */
+public class ObservableCourseDAO implements CourseDAO {
+
+    private final CourseDAO delegate;
+    private final List<CourseChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructs a new ObservableCourseDAO.
+     *
+     * @param delegate The DAO that runs all calls.
+     */
+    public ObservableCourseDAO(CourseDAO delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Adds a listener for course writes.
+     *
+     * @param listener The listener to be added.
+     */
+    public void addChangeListener(CourseChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener for course writes.
+     *
+     * @param listener The listener to be removed.
+     */
+    public void removeChangeListener(CourseChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public Course getCourseByID(int id) {
+        return delegate.getCourseByID(id);
+    }
+
+    @Override
+    public Course getCourseByName(String name) {
+        return delegate.getCourseByName(name);
+    }
+
+    @Override
+    public List<Course> getCoursesByStudentID(int studentID) {
+        return delegate.getCoursesByStudentID(studentID);
+    }
+
+    @Override
+    public Map<Integer, List<Course>> getCoursesByStudentIDs(int[] studentIDs) {
+        return delegate.getCoursesByStudentIDs(studentIDs);
+    }
+
+    @Override
+    public List<StudentSummary> getRoster(int courseID) {
+        return delegate.getRoster(courseID);
+    }
+
+    @Override
+    public Map<Integer, int[]> getEnrollments() {
+        return delegate.getEnrollments();
+    }
+
+    @Override
+    public List<Course> getCourses() {
+        return delegate.getCourses();
+    }
+
+    @Override
+    public List<String> getAllCourses() {
+        return delegate.getAllCourses();
+    }
+
+    @Override
+    public int enrollStudents(int courseID, int[] studentIDs) {
+        int enrolled = delegate.enrollStudents(courseID, studentIDs);
+        if (enrolled > 0) {
+            UnitOfWork.afterCommit(() -> {
+                for (CourseChangeListener listener : listeners) {
+                    listener.studentsEnrolled(courseID, studentIDs);
+                }
+            });
+        }
+        return enrolled;
+    }
+
+    @Override
+    public int unenrollStudents(int courseID, int[] studentIDs) {
+        int unenrolled = delegate.unenrollStudents(courseID, studentIDs);
+        if (unenrolled > 0) {
+            UnitOfWork.afterCommit(() -> {
+                for (CourseChangeListener listener : listeners) {
+                    listener.studentsUnenrolled(courseID, studentIDs);
+                }
+            });
+        }
+        return unenrolled;
+    }
+
+    @Override
+    public void addCourse(Course course) {
+        delegate.addCourse(course);
+        UnitOfWork.afterCommit(() -> {
+            for (CourseChangeListener listener : listeners) {
+                listener.coursesAdded(List.of(course));
+            }
+        });
+    }
+
+    @Override
+    public int addCourses(Collection<Course> courses) {
+        int added = delegate.addCourses(courses);
+        if (added > 0) {
+            UnitOfWork.afterCommit(() -> {
+                for (CourseChangeListener listener : listeners) {
+                    listener.coursesAdded(courses);
+                }
+            });
+        }
+        return added;
+    }
+
+    @Override
+    public void updateCourse(Course course) {
+        delegate.updateCourse(course);
+    }
+
+    @Override
+    public void deleteCourse(int id) {
+        delegate.deleteCourse(id);
+        UnitOfWork.afterCommit(() -> {
+            for (CourseChangeListener listener : listeners) {
+                listener.courseDeleted(id);
+            }
+        });
+    }
+}
@@ -0,0 +1,199 @@
+package dao;
+
+import model.Student;
+import model.StudentSummary;
+import singleton.UnitOfWork;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+/**
+ * The ObservableStudentDAO class passes all calls to another StudentDAO and tells its listeners about every write.
+ *
+ * Adds are only reported for students that got an ID. The underlying DAOs report failed updates
+ * and deletes only on the console, so those are reported as done; listeners that must be exact
+ * can read the student again. Inside a UnitOfWork, listeners are told after the commit and not at all
+ * after a rollback.
+ */
+public class ObservableStudentDAO implements StudentDAO, StudentChangeListener {
+
+    private final StudentDAO delegate;
+    private final List<StudentChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructs a new ObservableStudentDAO.
+     *
+     * @param delegate The DAO that runs all calls.
+     */
+    public ObservableStudentDAO(StudentDAO delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Adds a listener for student writes.
+     *
+     * @param listener The listener to be added.
+     */
+    public void addChangeListener(StudentChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener for student writes.
+     *
+     * @param listener The listener to be removed.
+     */
+    public void removeChangeListener(StudentChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public Student getStudentById(int id) {
+        return delegate.getStudentById(id);
+    }
+
+    @Override
+    public Map<Integer, Student> getStudentsByIds(int[] ids) {
+        return delegate.getStudentsByIds(ids);
+    }
+
+    @Override
+    public Student getStudentByLastName(String name) {
+        return delegate.getStudentByLastName(name);
+    }
+
+    @Override
+    public List<Student> getAllStudents() {
+        return delegate.getAllStudents();
+    }
+
+    @Override
+    public List<Student> getStudentsAfter(int afterId, int limit) {
+        return delegate.getStudentsAfter(afterId, limit);
+    }
+
+    @Override
+    public int countStudents() {
+        return delegate.countStudents();
+    }
+
+    @Override
+    public List<Student> findStudents(StudentCriteria criteria, Student after, int limit) {
+        return delegate.findStudents(criteria, after, limit);
+    }
+
+    @Override
+    public int countStudents(StudentCriteria criteria) {
+        return delegate.countStudents(criteria);
+    }
+
+    @Override
+    public Student getStudentAtOffset(StudentCriteria criteria, int offset) {
+        return delegate.getStudentAtOffset(criteria, offset);
+    }
+
+    @Override
+    public Stream<Student> streamAllStudents(int fetchSize) {
+        return delegate.streamAllStudents(fetchSize);
+    }
+
+    @Override
+    public List<StudentSummary> getStudentSummaries() {
+        return delegate.getStudentSummaries();
+    }
+
+    @Override
+    public int addStudent(Student student) {
+        int id = delegate.addStudent(student);
+        if (id > 0) {
+            fireSaved(new Student(id, student.getFirstname(), student.getLastname(), student.getEmail(),
+                    student.getGrade(), student.getPhoneNumber(), student.getDateOfBirth()));
+        }
+        return id;
+    }
+
+    @Override
+    public int[] addStudents(Collection<Student> students) {
+        int[] ids = delegate.addStudents(students);
+        if (!listeners.isEmpty()) {
+            Iterator<Student> it = students.iterator();
+            for (int i = 0; i < ids.length && it.hasNext(); i++) {
+                Student student = it.next();
+                if (ids[i] > 0) {
+                    fireSaved(new Student(ids[i], student.getFirstname(), student.getLastname(), student.getEmail(),
+                            student.getGrade(), student.getPhoneNumber(), student.getDateOfBirth()));
+                }
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public void addStudent(int studentID, String firstname, String lastname, String email, String grade, String phoneNumber, LocalDate dateOfBirth) {
+        delegate.addStudent(studentID, firstname, lastname, email, grade, phoneNumber, dateOfBirth);
+        fireSaved(new Student(studentID, firstname, lastname, email, grade, phoneNumber, dateOfBirth));
+    }
+
+    @Override
+    public void updateStudent(int studentID, String firstname, String lastname, String email, String grade, String phoneNumber, LocalDate dateOfBirth) {
+        delegate.updateStudent(studentID, firstname, lastname, email, grade, phoneNumber, dateOfBirth);
+        fireSaved(new Student(studentID, firstname, lastname, email, grade, phoneNumber, dateOfBirth));
+    }
+
+    @Override
+    public void updateStudent(Student student) {
+        if (!student.isDirty()) {
+            return;
+        }
+        delegate.updateStudent(student);
+        fireSaved(new Student(student.getStudentID(), student.getFirstname(), student.getLastname(), student.getEmail(),
+                student.getGrade(), student.getPhoneNumber(), student.getDateOfBirth()));
+    }
+
+    @Override
+    public void deleteStudent(int id) {
+        delegate.deleteStudent(id);
+        fireDeleted(id);
+    }
+
+    /**
+     * Passes a write that was made without this DAO, e.g. replayed by an OutboxStudentDAO, on to the listeners.
+     *
+     * @param student The written student.
+     */
+    @Override
+    public void studentSaved(Student student) {
+        fireSaved(student);
+    }
+
+    /**
+     * Passes a delete that was made without this DAO, e.g. replayed by an OutboxStudentDAO, on to the listeners.
+     *
+     * @param studentID The unique identifier of the deleted student.
+     */
+    @Override
+    public void studentDeleted(int studentID) {
+        fireDeleted(studentID);
+    }
+
+    private void fireSaved(Student student) {
+        UnitOfWork.afterCommit(() -> {
+            for (StudentChangeListener listener : listeners) {
+                listener.studentSaved(student);
+            }
+        });
+    }
+
+    private void fireDeleted(int studentID) {
+        UnitOfWork.afterCommit(() -> {
+            for (StudentChangeListener listener : listeners) {
+                listener.studentDeleted(studentID);
+            }
+        });
+    }
+}
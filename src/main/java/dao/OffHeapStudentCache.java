@@ -0,0 +1,626 @@
+package dao;
+
+import model.Student;
+import model.StudentSummary;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * The OffHeapStudentCache class keeps student records outside of the Java heap, in memory segments of the
+ * foreign memory API, so that a large cache adds almost nothing for the garbage collector to trace.
+ *
+ * Every student is stored as a fixed-size slot holding the ID, the date of birth as an epoch day and,
+ * for each text field, the offset and length of its UTF-8 bytes in an overflow arena. An open-addressing
+ * hash table from student ID to slot, also off heap, finds the slot. A Student object is only decoded when
+ * get is called; getSummary decodes just the name fields.
+ *
+ * Replacing or removing a student leaves its text bytes behind as garbage. compact() copies the live bytes
+ * into a new arena and rebuilds the hash table; it also runs before the overflow arena would grow while at
+ * least half of it is garbage. When the cache is full, the clock algorithm evicts a student that was not read
+ * since the clock last passed it.
+ *
+ * The cache can follow the shared StudentDAO as a StudentChangeListener, registered before it is filled: a
+ * student written through the listener while putAll runs is not overwritten by the older row of the stream.
+ * It is thread-safe: reads share a read lock, writes take the write lock. close() frees the memory; the cache
+ * cannot be used afterwards, and listener calls on a closed cache are ignored.
+ */
+public class OffHeapStudentCache implements StudentChangeListener, AutoCloseable {
+
+    // Slot layout: studentID, epoch day of birth, flags, padding, then (offset, length) for each text field
+    private static final long SLOT_ID = 0;
+    private static final long SLOT_BIRTH = 4;
+    private static final long SLOT_FLAGS = 8;
+    private static final long SLOT_TEXT = 16;
+    private static final int TEXT_FIELDS = 5;
+    private static final long SLOT_SIZE = SLOT_TEXT + 8L * TEXT_FIELDS;
+
+    private static final int FIRSTNAME = 0, LASTNAME = 1, EMAIL = 2, GRADE = 3, PHONE_NUMBER = 4;
+
+    // Keys of the hash table; student IDs are positive
+    private static final int EMPTY = 0;
+    private static final int DELETED = -1;
+
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final int REFERENCED = 1;
+
+    private final int maxEntries;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // All fields below are guarded by lock
+
+    // Hash table of (studentID, slot) pairs
+    private Arena indexArena;
+    private MemorySegment index;
+    private int indexMask;
+    private int indexUsed; // live and deleted keys
+
+    private Arena slotArena;
+    private MemorySegment slots;
+    private int slotCapacity;
+    private int slotsUsed; // high-water mark
+    private int freeSlot = -1; // free slots are linked through SLOT_BIRTH
+    private int clockHand;
+
+    private Arena overflowArena;
+    private MemorySegment overflow;
+    private long overflowUsed;
+    private long garbageBytes;
+
+    private int size;
+    private boolean closed;
+
+    // The students written through the listener while putAll runs; null if no putAll runs
+    private Set<Integer> writtenDuringLoad;
+    private int loads;
+
+    /**
+     * Constructs a new, empty OffHeapStudentCache.
+     *
+     * @param maxEntries The maximum number of students kept.
+     */
+    public OffHeapStudentCache(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Invalid cache size!");
+        }
+        this.maxEntries = maxEntries;
+        this.slotCapacity = Math.min(maxEntries, 1024);
+        this.slotArena = Arena.ofShared();
+        this.slots = slotArena.allocate(slotCapacity * SLOT_SIZE, 8);
+        this.overflowArena = Arena.ofShared();
+        this.overflow = overflowArena.allocate(slotCapacity * 64L, 8);
+        allocateIndex(tableSizeFor(slotCapacity * 2));
+    }
+
+    /**
+     * Adds all students of a stream, e.g. from StudentDAO.streamAllStudents. The stream is not closed.
+     * Students written or deleted through the listener since the call started are skipped.
+     *
+     * @param students The students to be cached.
+     */
+    public void putAll(Stream<Student> students) {
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            if (loads++ == 0) {
+                writtenDuringLoad = new HashSet<>();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            for (Iterator<Student> it = students.iterator(); it.hasNext(); ) {
+                Student student = it.next();
+                lock.writeLock().lock();
+                try {
+                    if (!writtenDuringLoad.contains(student.getStudentID())) {
+                        put(student);
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (--loads == 0) {
+                    writtenDuringLoad = null;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Adds or replaces a student. If the cache is full, another student is evicted.
+     *
+     * @param student The student to be cached, with its ID.
+     */
+    public void put(Student student) {
+        if (student.getStudentID() <= 0) {
+            throw new IllegalArgumentException("Invalid student ID!");
+        }
+        byte[][] text = {
+                encode(student.getFirstname()), encode(student.getLastname()), encode(student.getEmail()),
+                encode(student.getGrade()), encode(student.getPhoneNumber())
+        };
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            int slot = findSlot(student.getStudentID());
+            if (slot >= 0) {
+                discardText(slot);
+            } else {
+                if (size == maxEntries) {
+                    evict();
+                }
+                slot = allocateSlot();
+                insertKey(student.getStudentID(), slot);
+                size++;
+            }
+            long base = slot * SLOT_SIZE;
+            LocalDate born = student.getDateOfBirth();
+            slots.set(ValueLayout.JAVA_INT, base + SLOT_ID, student.getStudentID());
+            slots.set(ValueLayout.JAVA_INT, base + SLOT_BIRTH, born != null ? Math.toIntExact(born.toEpochDay()) : NO_DATE);
+            slots.set(ValueLayout.JAVA_INT, base + SLOT_FLAGS, 0);
+            for (int field = 0; field < TEXT_FIELDS; field++) {
+                writeText(base + SLOT_TEXT + 8L * field, text[field]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns a cached student, decoded into a new Student object.
+     *
+     * @param studentID The unique identifier of the student.
+     * @return The Student, or null if it is not cached.
+     */
+    public Student get(int studentID) {
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            int slot = findSlot(studentID);
+            if (slot < 0) {
+                return null;
+            }
+            long base = touch(slot);
+            int born = slots.get(ValueLayout.JAVA_INT, base + SLOT_BIRTH);
+            return new Student(studentID, readText(base, FIRSTNAME), readText(base, LASTNAME), readText(base, EMAIL),
+                    readText(base, GRADE), readText(base, PHONE_NUMBER), born == NO_DATE ? null : LocalDate.ofEpochDay(born));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the name of a cached student, decoding only the name fields.
+     *
+     * @param studentID The unique identifier of the student.
+     * @return The StudentSummary, or null if the student is not cached.
+     */
+    public StudentSummary getSummary(int studentID) {
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            int slot = findSlot(studentID);
+            if (slot < 0) {
+                return null;
+            }
+            long base = touch(slot);
+            return new StudentSummary(studentID, readText(base, FIRSTNAME), readText(base, LASTNAME));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Tells whether a student is cached.
+     *
+     * @param studentID The unique identifier of the student.
+     * @return true if the student is cached.
+     */
+    public boolean contains(int studentID) {
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            return findSlot(studentID) >= 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a student from the cache.
+     *
+     * @param studentID The unique identifier of the student.
+     * @return true if the student was cached.
+     */
+    public boolean remove(int studentID) {
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            int position = findPosition(studentID);
+            if (position < 0) {
+                return false;
+            }
+            int slot = index.get(ValueLayout.JAVA_INT, position * 8L + 4);
+            index.set(ValueLayout.JAVA_INT, position * 8L, DELETED);
+            freeSlot(slot);
+            size--;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Copies the text of all cached students into a new overflow arena without the garbage of replaced and
+     * removed students, and rebuilds the hash table without its deleted keys. The old memory is freed.
+     */
+    public void compact() {
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            compactText(0);
+            allocateIndex(tableSizeFor(Math.max(size, slotCapacity) * 2)).close();
+            for (int slot = 0; slot < slotsUsed; slot++) {
+                int studentID = slots.get(ValueLayout.JAVA_INT, slot * SLOT_SIZE + SLOT_ID);
+                if (studentID != EMPTY) {
+                    insertKey(studentID, slot);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of cached students.
+     *
+     * @return The number of students.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the off-heap memory reserved by the cache.
+     *
+     * @return The size of the hash table, the slots and the overflow arena in bytes.
+     */
+    public long offHeapBytes() {
+        lock.readLock().lock();
+        try {
+            return closed ? 0 : index.byteSize() + slots.byteSize() + overflow.byteSize();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the bytes of the overflow arena that belong to replaced or removed students.
+     *
+     * @return The garbage in bytes, freed by compact().
+     */
+    public long garbageBytes() {
+        lock.readLock().lock();
+        try {
+            return garbageBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Frees the off-heap memory. The cache cannot be used afterwards.
+     */
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            if (!closed) {
+                closed = true;
+                indexArena.close();
+                slotArena.close();
+                overflowArena.close();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Caches a written student; ignored once the cache is closed.
+     */
+    @Override
+    public void studentSaved(Student student) {
+        lock.writeLock().lock();
+        try {
+            if (!closed) {
+                noteWrittenDuringLoad(student.getStudentID());
+                put(student);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a deleted student; ignored once the cache is closed.
+     */
+    @Override
+    public void studentDeleted(int studentID) {
+        lock.writeLock().lock();
+        try {
+            if (!closed) {
+                noteWrittenDuringLoad(studentID);
+                remove(studentID);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void noteWrittenDuringLoad(int studentID) {
+        if (writtenDuringLoad != null) {
+            writtenDuringLoad.add(studentID);
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("The cache has been closed.");
+        }
+    }
+
+    // Hash table
+
+    private static int hash(int studentID) {
+        int h = studentID * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int tableSizeFor(int entries) {
+        return Math.max(16, Integer.highestOneBit(Math.max(entries, 1) - 1) << 1);
+    }
+
+    /**
+     * Replaces the hash table with an empty one and returns the arena of the old one, which the caller closes.
+     */
+    private Arena allocateIndex(int capacity) {
+        Arena previous = indexArena;
+        indexArena = Arena.ofShared();
+        index = indexArena.allocate(capacity * 8L, 8);
+        indexMask = capacity - 1;
+        indexUsed = 0;
+        return previous;
+    }
+
+    /**
+     * Returns the position of a key in the hash table, or -1 if it is missing.
+     */
+    private int findPosition(int studentID) {
+        if (studentID <= 0) {
+            return -1;
+        }
+        for (int position = hash(studentID) & indexMask; ; position = (position + 1) & indexMask) {
+            int key = index.get(ValueLayout.JAVA_INT, position * 8L);
+            if (key == studentID) {
+                return position;
+            }
+            if (key == EMPTY) {
+                return -1;
+            }
+        }
+    }
+
+    private int findSlot(int studentID) {
+        int position = findPosition(studentID);
+        return position >= 0 ? index.get(ValueLayout.JAVA_INT, position * 8L + 4) : -1;
+    }
+
+    /**
+     * Inserts a key that is not in the table. The table grows, or drops its deleted keys,
+     * before it would be more than half full.
+     */
+    private void insertKey(int studentID, int slot) {
+        if ((indexUsed + 1) * 2L > indexMask + 1L) {
+            MemorySegment old = index;
+            int oldCapacity = indexMask + 1;
+            Arena oldArena = allocateIndex(tableSizeFor((size + 1) * 4));
+            for (int position = 0; position < oldCapacity; position++) {
+                int key = old.get(ValueLayout.JAVA_INT, position * 8L);
+                if (key > 0) {
+                    insertKey(key, old.get(ValueLayout.JAVA_INT, position * 8L + 4));
+                }
+            }
+            oldArena.close();
+        }
+        int position = hash(studentID) & indexMask;
+        int key;
+        while ((key = index.get(ValueLayout.JAVA_INT, position * 8L)) > 0) {
+            position = (position + 1) & indexMask;
+        }
+        if (key == EMPTY) {
+            indexUsed++;
+        }
+        index.set(ValueLayout.JAVA_INT, position * 8L, studentID);
+        index.set(ValueLayout.JAVA_INT, position * 8L + 4, slot);
+    }
+
+    // Slots
+
+    private int allocateSlot() {
+        if (freeSlot >= 0) {
+            int slot = freeSlot;
+            freeSlot = slots.get(ValueLayout.JAVA_INT, slot * SLOT_SIZE + SLOT_BIRTH);
+            return slot;
+        }
+        if (slotsUsed == slotCapacity) {
+            int capacity = (int) Math.min((long) slotCapacity * 2, maxEntries);
+            Arena arena = Arena.ofShared();
+            MemorySegment grown = arena.allocate(capacity * SLOT_SIZE, 8);
+            MemorySegment.copy(slots, 0, grown, 0, slotsUsed * SLOT_SIZE);
+            slotArena.close();
+            slotArena = arena;
+            slots = grown;
+            slotCapacity = capacity;
+        }
+        return slotsUsed++;
+    }
+
+    private void freeSlot(int slot) {
+        discardText(slot);
+        long base = slot * SLOT_SIZE;
+        slots.set(ValueLayout.JAVA_INT, base + SLOT_ID, EMPTY);
+        slots.set(ValueLayout.JAVA_INT, base + SLOT_BIRTH, freeSlot);
+        freeSlot = slot;
+    }
+
+    /**
+     * Marks a slot as read for the clock and returns its offset.
+     */
+    private long touch(int slot) {
+        long base = slot * SLOT_SIZE;
+        slots.set(ValueLayout.JAVA_INT, base + SLOT_FLAGS, REFERENCED);
+        return base;
+    }
+
+    /**
+     * Evicts the first student the clock hand finds without the referenced flag,
+     * clearing the flag of the students it passes.
+     */
+    private void evict() {
+        while (true) {
+            if (clockHand >= slotsUsed) {
+                clockHand = 0;
+            }
+            long base = clockHand * SLOT_SIZE;
+            int studentID = slots.get(ValueLayout.JAVA_INT, base + SLOT_ID);
+            clockHand++;
+            if (studentID == EMPTY) {
+                continue;
+            }
+            if (slots.get(ValueLayout.JAVA_INT, base + SLOT_FLAGS) == REFERENCED) {
+                slots.set(ValueLayout.JAVA_INT, base + SLOT_FLAGS, 0);
+                continue;
+            }
+            int position = findPosition(studentID);
+            index.set(ValueLayout.JAVA_INT, position * 8L, DELETED);
+            freeSlot(clockHand - 1);
+            size--;
+            return;
+        }
+    }
+
+    // Overflow arena
+
+    private static byte[] encode(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private String readText(long base, int field) {
+        long reference = base + SLOT_TEXT + 8L * field;
+        int length = slots.get(ValueLayout.JAVA_INT, reference + 4);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        MemorySegment.copy(overflow, ValueLayout.JAVA_BYTE, slots.get(ValueLayout.JAVA_INT, reference), bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void writeText(long reference, byte[] bytes) {
+        if (bytes == null) {
+            slots.set(ValueLayout.JAVA_INT, reference, 0);
+            slots.set(ValueLayout.JAVA_INT, reference + 4, -1);
+            return;
+        }
+        if (overflowUsed + bytes.length > overflow.byteSize()) {
+            if (garbageBytes * 2 >= overflowUsed) {
+                compactText(bytes.length);
+            } else {
+                growText(bytes.length);
+            }
+        }
+        MemorySegment.copy(bytes, 0, overflow, ValueLayout.JAVA_BYTE, overflowUsed, bytes.length);
+        slots.set(ValueLayout.JAVA_INT, reference, (int) overflowUsed);
+        slots.set(ValueLayout.JAVA_INT, reference + 4, bytes.length);
+        overflowUsed += bytes.length;
+    }
+
+    /**
+     * Counts the text of a slot as garbage and clears its references, so a compaction does not copy it.
+     */
+    private void discardText(int slot) {
+        long base = slot * SLOT_SIZE;
+        for (int field = 0; field < TEXT_FIELDS; field++) {
+            long reference = base + SLOT_TEXT + 8L * field;
+            garbageBytes += Math.max(0, slots.get(ValueLayout.JAVA_INT, reference + 4));
+            slots.set(ValueLayout.JAVA_INT, reference + 4, -1);
+        }
+    }
+
+    private void growText(int needed) {
+        long capacity = Math.max(overflow.byteSize() * 2, overflowUsed + needed);
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IllegalStateException("The overflow arena of the cache is full.");
+        }
+        Arena arena = Arena.ofShared();
+        MemorySegment grown = arena.allocate(capacity, 8);
+        MemorySegment.copy(overflow, 0, grown, 0, overflowUsed);
+        overflowArena.close();
+        overflowArena = arena;
+        overflow = grown;
+    }
+
+    /**
+     * Copies the live text into a new arena with room for at least needed more bytes.
+     */
+    private void compactText(int needed) {
+        long live = overflowUsed - garbageBytes;
+        long capacity = Math.max(64L * slotCapacity, Math.max(live * 2, live + needed));
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IllegalStateException("The overflow arena of the cache is full.");
+        }
+        Arena arena = Arena.ofShared();
+        MemorySegment compacted = arena.allocate(capacity, 8);
+        long used = 0;
+        for (int slot = 0; slot < slotsUsed; slot++) {
+            long base = slot * SLOT_SIZE;
+            if (slots.get(ValueLayout.JAVA_INT, base + SLOT_ID) == EMPTY) {
+                continue;
+            }
+            for (int field = 0; field < TEXT_FIELDS; field++) {
+                long reference = base + SLOT_TEXT + 8L * field;
+                int length = slots.get(ValueLayout.JAVA_INT, reference + 4);
+                if (length > 0) {
+                    MemorySegment.copy(overflow, slots.get(ValueLayout.JAVA_INT, reference), compacted, used, length);
+                    slots.set(ValueLayout.JAVA_INT, reference, (int) used);
+                    used += length;
+                }
+            }
+        }
+        overflowArena.close();
+        overflowArena = arena;
+        overflow = compacted;
+        overflowUsed = used;
+        garbageBytes = 0;
+    }
+}
@@ -0,0 +1,449 @@
+package dao;
+
+import model.Student;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The OutboxJournal class keeps the student writes an OutboxStudentDAO could not send to the database,
+ * in an append-only file, until they have been replayed.
+ *
+ * Every entry is framed like the log of EmbeddedDatabase: its length, a CRC32 and the entry, which starts
+ * with a sequence number. Concurrent appends share one force of the file (group commit): a writer that
+ * finds its entries already forced by another one returns at once. Entries are replayed only once they
+ * are forced; if a force fails, every entry not forced yet is cut off again and its writer gets the error.
+ *
+ * Appends go through a RandomAccessFile rather than a FileChannel: the writers are often service threads
+ * that are interrupted on cancel or on a deadline, and an interrupt closes a FileChannel for every later
+ * writer, while it does not affect a RandomAccessFile. The journal is named after the
+ * sequence of its first entry; when everything has been replayed, it is replaced by an empty one that
+ * goes on with the next sequence, so sequence numbers are never reused. Opening a journal drops an
+ * incomplete entry at the end, left by a crash during an append.
+ *
+ * The journal has a random ID, kept in its directory, under which the database stores the last
+ * replayed sequence.
+ */
+final class OutboxJournal implements AutoCloseable {
+
+    // Kinds of entries
+    static final byte INSERT = 1;
+    static final byte INSERT_WITH_ID = 2;
+    static final byte UPDATE = 3;
+    static final byte DELETE = 4;
+
+    private static final String ID_FILE = "outbox.id";
+    private static final String JOURNAL_PREFIX = "outbox-";
+    private static final String JOURNAL_SUFFIX = ".journal";
+
+    /**
+     * One queued write. An UPDATE writes the fields in its mask; a DELETE only uses the student ID.
+     */
+    static final class Entry {
+        final long sequence;
+        final byte kind;
+        final int mask;
+        final Student student;
+
+        Entry(long sequence, byte kind, int mask, Student student) {
+            this.sequence = sequence;
+            this.kind = kind;
+            this.mask = mask;
+            this.student = student;
+        }
+    }
+
+    /**
+     * The entries of one append and the end of the file after them.
+     */
+    private static final class Append {
+        final List<Entry> entries;
+        final long end;
+
+        // Guarded by the journal
+        boolean synced;
+        boolean failed;
+
+        Append(List<Entry> entries, long end) {
+            this.entries = entries;
+            this.end = end;
+        }
+    }
+
+    private final Path directory;
+    private final String id;
+    private final Object syncLock = new Object();
+
+    // Guarded by this
+    private final ArrayDeque<Entry> pending = new ArrayDeque<>();
+    private final ArrayDeque<Append> unsynced = new ArrayDeque<>();
+    private RandomAccessFile file;
+    private Path path;
+    private long nextSequence;
+    private long synced;
+
+    private OutboxJournal(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        Path idFile = directory.resolve(ID_FILE);
+        if (!Files.exists(idFile)) {
+            Path tmp = directory.resolve(ID_FILE + ".tmp");
+            Files.writeString(tmp, UUID.randomUUID().toString());
+            Files.move(tmp, idFile);
+        }
+        this.id = Files.readString(idFile).trim();
+
+        List<Path> journals = journals();
+        nextSequence = 1;
+        for (int i = 0; i < journals.size(); i++) {
+            nextSequence = Math.max(nextSequence, firstSequence(journals.get(i)));
+            read(journals.get(i), i == journals.size() - 1);
+        }
+        if (!pending.isEmpty()) {
+            nextSequence = Math.max(nextSequence, pending.peekLast().sequence + 1);
+        }
+        if (journals.isEmpty()) {
+            path = Files.createFile(journalPath(nextSequence));
+        } else {
+            path = journals.get(journals.size() - 1);
+        }
+        file = new RandomAccessFile(path.toFile(), "rw");
+        synced = file.length();
+        file.seek(synced);
+    }
+
+    /**
+     * Opens or creates the journal in a directory.
+     *
+     * @param directory The directory of the journal.
+     * @return The opened OutboxJournal, with the entries that were not replayed yet.
+     * @throws IOException if the directory cannot be read or written, or a journal is damaged.
+     */
+    static OutboxJournal open(Path directory) throws IOException {
+        return new OutboxJournal(directory);
+    }
+
+    /**
+     * Returns the ID of the journal, which stays the same for its directory.
+     */
+    String id() {
+        return id;
+    }
+
+    /**
+     * Returns the number of forced entries that were not replayed yet.
+     */
+    synchronized int size() {
+        return pending.size();
+    }
+
+    /**
+     * Returns whether no entry is waiting, neither to be replayed nor to be forced.
+     */
+    synchronized boolean isEmpty() {
+        return pending.isEmpty() && unsynced.isEmpty();
+    }
+
+    /**
+     * Returns the oldest forced entries that were not replayed yet.
+     *
+     * @param limit The maximum number of entries.
+     */
+    synchronized List<Entry> peek(int limit) {
+        List<Entry> entries = new ArrayList<>(Math.min(limit, pending.size()));
+        for (Entry entry : pending) {
+            if (entries.size() == limit) {
+                break;
+            }
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    /**
+     * Appends writes and forces them to disk before it returns. The students are copied.
+     *
+     * @param kinds    The kind of each write.
+     * @param masks    The field mask of each write.
+     * @param students The student of each write.
+     * @throws IOException if the entries cannot be written; none of them is then kept.
+     */
+    void append(byte[] kinds, int[] masks, List<Student> students) throws IOException {
+        Append append;
+        synchronized (this) {
+            long start = file.getFilePointer();
+            List<Entry> entries = new ArrayList<>(kinds.length);
+            EntryBuffer buffer = new EntryBuffer();
+            for (int i = 0; i < kinds.length; i++) {
+                Entry entry = new Entry(nextSequence + i, kinds[i], masks[i], copy(students.get(i)));
+                buffer.frame(entry);
+                entries.add(entry);
+            }
+            try {
+                buffer.writeTo(file);
+            } catch (IOException e) {
+                file.setLength(start);
+                file.seek(start);
+                throw e;
+            }
+            nextSequence += kinds.length;
+            append = new Append(entries, file.getFilePointer());
+            unsynced.add(append);
+        }
+        sync(append);
+    }
+
+    /**
+     * Forces the journal and hands the forced entries to the replay. One force covers every append before it,
+     * so writers that wait here while another one forces usually find their entries on disk already.
+     */
+    private void sync(Append append) throws IOException {
+        synchronized (syncLock) {
+            RandomAccessFile current;
+            long target;
+            synchronized (this) {
+                if (append.synced) {
+                    return;
+                }
+                if (append.failed) {
+                    throw new IOException("The journal could not be written to disk: " + path);
+                }
+                current = file;
+                target = file.getFilePointer();
+            }
+            try {
+                current.getFD().sync();
+            } catch (IOException e) {
+                discardUnsynced(e);
+                throw e;
+            }
+            synchronized (this) {
+                synced = target;
+                while (!unsynced.isEmpty() && unsynced.peekFirst().end <= target) {
+                    Append done = unsynced.pollFirst();
+                    done.synced = true;
+                    pending.addAll(done.entries);
+                }
+            }
+        }
+    }
+
+    /**
+     * Cuts off the entries that are not known to be on disk after a failed force, so none of them is replayed.
+     */
+    private synchronized void discardUnsynced(IOException failure) {
+        for (Append append : unsynced) {
+            append.failed = true;
+        }
+        unsynced.clear();
+        try {
+            file.setLength(synced);
+            file.seek(synced);
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Drops the entries up to a sequence after they have been replayed. When none is left, the journal
+     * is replaced by an empty one.
+     *
+     * @param sequence The last replayed sequence.
+     */
+    void replayed(long sequence) throws IOException {
+        synchronized (syncLock) {
+            synchronized (this) {
+                while (!pending.isEmpty() && pending.peekFirst().sequence <= sequence) {
+                    pending.pollFirst();
+                }
+                if (!pending.isEmpty() || !unsynced.isEmpty()) {
+                    return;
+                }
+                Path next = journalPath(nextSequence);
+                if (next.equals(path)) {
+                    return;
+                }
+                RandomAccessFile empty = new RandomAccessFile(Files.createFile(next).toFile(), "rw");
+                file.close();
+                Files.delete(path);
+                file = empty;
+                path = next;
+                synced = 0;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (syncLock) {
+            synchronized (this) {
+                try {
+                    file.close();
+                } catch (IOException e) {
+                    System.out.println(e.getMessage());
+                }
+            }
+        }
+    }
+
+    private List<Path> journals() throws IOException {
+        List<Path> journals = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, JOURNAL_PREFIX + "*" + JOURNAL_SUFFIX)) {
+            for (Path file : files) {
+                journals.add(file);
+            }
+        }
+        journals.sort(null); // the sequence is zero padded, so the names sort like the numbers
+        return journals;
+    }
+
+    private Path journalPath(long sequence) {
+        return directory.resolve(String.format("%s%016d%s", JOURNAL_PREFIX, sequence, JOURNAL_SUFFIX));
+    }
+
+    private static long firstSequence(Path journal) {
+        String name = journal.getFileName().toString();
+        return Long.parseLong(name.substring(JOURNAL_PREFIX.length(), name.length() - JOURNAL_SUFFIX.length()));
+    }
+
+    /**
+     * Reads the entries of a journal. An incomplete entry at the end of the last journal is cut off.
+     */
+    private void read(Path journal, boolean last) throws IOException {
+        try (FileChannel file = FileChannel.open(journal, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (file.size() > Integer.MAX_VALUE) {
+                throw new IOException("Journal is too large: " + journal);
+            }
+            ByteBuffer data = ByteBuffer.allocate((int) file.size());
+            while (data.hasRemaining() && file.read(data) >= 0) {
+                // read the whole journal
+            }
+            data.flip();
+            int position = 0;
+            while (position < data.limit()) {
+                int remaining = data.limit() - position - 8;
+                int length = remaining >= 0 ? data.getInt(position) : -1;
+                if (length < 0 || length > remaining
+                        || SnapshotFile.crc(data, position + 8, length) != data.getInt(position + 4)) {
+                    if (!last) {
+                        throw new IOException("Journal is damaged: " + journal);
+                    }
+                    System.out.println("Discarding an incomplete entry at the end of " + journal);
+                    file.truncate(position);
+                    break;
+                }
+                Entry entry = decode(data.slice(position + 8, length));
+                if (pending.isEmpty() || entry.sequence > pending.peekLast().sequence) {
+                    pending.add(entry);
+                }
+                position += 8 + length;
+            }
+        }
+    }
+
+    private static Entry decode(ByteBuffer entry) {
+        long sequence = entry.getLong();
+        byte kind = entry.get();
+        int mask = entry.getInt();
+        int studentID = entry.getInt();
+        int born = entry.getInt();
+        String firstname = getString(entry);
+        String lastname = getString(entry);
+        String email = getString(entry);
+        String grade = getString(entry);
+        String phoneNumber = getString(entry);
+        return new Entry(sequence, kind, mask, new Student(studentID, firstname, lastname, email, grade, phoneNumber,
+                born == SnapshotFile.NO_DATE ? null : LocalDate.ofEpochDay(born)));
+    }
+
+    private static String getString(ByteBuffer entry) {
+        int length = entry.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        entry.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static Student copy(Student student) {
+        return new Student(student.getStudentID(), student.getFirstname(), student.getLastname(),
+                student.getEmail(), student.getGrade(), student.getPhoneNumber(), student.getDateOfBirth());
+    }
+
+    /**
+     * The framed entries of one append.
+     */
+    private static final class EntryBuffer {
+        private byte[] bytes = new byte[256];
+        private int length;
+
+        void frame(Entry entry) {
+            int start = length;
+            ensure(8);
+            length += 8; // length and CRC, filled in below
+            putLong(entry.sequence);
+            ensure(1);
+            bytes[length++] = entry.kind;
+            putInt(entry.mask);
+            Student student = entry.student;
+            putInt(student.getStudentID());
+            putInt(student.getDateOfBirth() != null ? (int) student.getDateOfBirth().toEpochDay() : SnapshotFile.NO_DATE);
+            putString(student.getFirstname());
+            putString(student.getLastname());
+            putString(student.getEmail());
+            putString(student.getGrade());
+            putString(student.getPhoneNumber());
+            ByteBuffer header = ByteBuffer.wrap(bytes);
+            header.putInt(start, length - start - 8);
+            header.putInt(start + 4, SnapshotFile.crc(header, start + 8, length - start - 8));
+        }
+
+        void writeTo(RandomAccessFile file) throws IOException {
+            file.write(bytes, 0, length);
+        }
+
+        private void putInt(int value) {
+            ensure(4);
+            ByteBuffer.wrap(bytes, length, 4).putInt(value);
+            length += 4;
+        }
+
+        private void putLong(long value) {
+            ensure(8);
+            ByteBuffer.wrap(bytes, length, 8).putLong(value);
+            length += 8;
+        }
+
+        private void putString(String value) {
+            if (value == null) {
+                putInt(-1);
+                return;
+            }
+            byte[] text = value.getBytes(StandardCharsets.UTF_8);
+            putInt(text.length);
+            ensure(text.length);
+            System.arraycopy(text, 0, bytes, length, text.length);
+            length += text.length;
+        }
+
+        private void ensure(int more) {
+            if (length + more > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + more));
+            }
+        }
+    }
+}
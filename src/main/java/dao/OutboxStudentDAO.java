@@ -0,0 +1,545 @@
+package dao;
+
+import model.Student;
+import model.StudentSummary;
+import singleton.DatabaseConnection;
+import singleton.UnitOfWork;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * The OutboxStudentDAO class keeps the student writes that cannot reach the database in an OutboxJournal
+ * on the local disk and sends them once the database is back, so an edit made during an outage is not lost.
+ *
+ * Reads, and the writes of a UnitOfWork, go to the delegate unchanged. Other writes go to the delegate
+ * while nothing is queued; if it throws a DatabaseUnavailableException, the write is appended to the journal
+ * instead and the method returns as if it had succeeded, except that addStudent returns StudentDAO.QUEUED
+ * since the ID is not known yet. While writes are queued, every new write is queued behind them without
+ * asking the database, so they keep the order they were made in and take only as long as the local disk.
+ *
+ * A background thread replays the journal every retryMillis, oldest first, in transactions of up to
+ * batchSize writes with one JDBC batch per run of writes with the same statement. Each transaction also
+ * stores the last replayed sequence in the table outbox_applied, so a write is never applied twice, even
+ * if the application stops between the commit and dropping the writes from the journal. Writes that
+ * conflict on the primary key (an insert with an ID that exists, an update or a delete of a student that
+ * no longer exists) or that the database refuses are reported and dropped; the others are still applied.
+ */
+public class OutboxStudentDAO implements StudentDAO, AutoCloseable {
+
+    private static final String SELECT_APPLIED = "select sequence from outbox_applied where journal = ? for update";
+    private static final String INSERT_APPLIED = "insert into outbox_applied (journal, sequence) values (?, 0)";
+    private static final String UPDATE_APPLIED = "update outbox_applied set sequence = ? where journal = ?";
+
+    private final StudentDAO delegate;
+    private final OutboxJournal journal;
+    private final int batchSize;
+    private final List<StudentChangeListener> replayListeners = new CopyOnWriteArrayList<>();
+    private final Object replayLock = new Object();
+    private final ScheduledExecutorService replayer;
+
+    /**
+     * Opens the journal in a directory and starts replaying it.
+     *
+     * @param delegate    The DAO that receives the reads and, while the database can be reached, the writes.
+     * @param directory   The directory of the journal.
+     * @param batchSize   The largest number of queued writes replayed in one transaction.
+     * @param retryMillis How often the replay is tried while writes are queued.
+     * @throws IOException if the journal cannot be opened.
+     */
+    public OutboxStudentDAO(StudentDAO delegate, Path directory, int batchSize, long retryMillis) throws IOException {
+        if (batchSize <= 0 || retryMillis <= 0) {
+            throw new IllegalArgumentException("Invalid batch size or retry interval!");
+        }
+        this.delegate = delegate;
+        this.batchSize = batchSize;
+        this.journal = OutboxJournal.open(directory);
+        if (journal.size() > 0) {
+            System.out.println(journal.size() + " student changes are waiting for the database.");
+        }
+        this.replayer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "outbox-replay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        replayer.scheduleWithFixedDelay(this::replayQueued, retryMillis, retryMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registers a listener for the writes applied by the replay, e.g. to drop them from a cache.
+     *
+     * @param listener The listener to be added.
+     */
+    public void addReplayListener(StudentChangeListener listener) {
+        replayListeners.add(listener);
+    }
+
+    /**
+     * Returns the number of writes waiting for the database.
+     *
+     * @return The number of queued writes.
+     */
+    public int getQueuedWrites() {
+        return journal.size();
+    }
+
+    @Override
+    public Student getStudentById(int id) {
+        return delegate.getStudentById(id);
+    }
+
+    @Override
+    public Map<Integer, Student> getStudentsByIds(int[] ids) {
+        return delegate.getStudentsByIds(ids);
+    }
+
+    @Override
+    public Student getStudentByLastName(String name) {
+        return delegate.getStudentByLastName(name);
+    }
+
+    @Override
+    public List<Student> getAllStudents() {
+        return delegate.getAllStudents();
+    }
+
+    @Override
+    public List<Student> getStudentsAfter(int afterId, int limit) {
+        return delegate.getStudentsAfter(afterId, limit);
+    }
+
+    @Override
+    public int countStudents() {
+        return delegate.countStudents();
+    }
+
+    @Override
+    public List<Student> findStudents(StudentCriteria criteria, Student after, int limit) {
+        return delegate.findStudents(criteria, after, limit);
+    }
+
+    @Override
+    public int countStudents(StudentCriteria criteria) {
+        return delegate.countStudents(criteria);
+    }
+
+    @Override
+    public Student getStudentAtOffset(StudentCriteria criteria, int offset) {
+        return delegate.getStudentAtOffset(criteria, offset);
+    }
+
+    @Override
+    public Stream<Student> streamAllStudents(int fetchSize) {
+        return delegate.streamAllStudents(fetchSize);
+    }
+
+    @Override
+    public List<StudentSummary> getStudentSummaries() {
+        return delegate.getStudentSummaries();
+    }
+
+    @Override
+    public int addStudent(Student student) {
+        return addStudents(List.of(student))[0];
+    }
+
+    /**
+     * Adds many students in chunks of batchSize. If the database cannot be reached, the chunk that failed
+     * and all after it are queued, and their IDs are QUEUED.
+     */
+    @Override
+    public int[] addStudents(Collection<Student> students) {
+        if (UnitOfWork.isActive()) {
+            return delegate.addStudents(students);
+        }
+        List<Student> list = new ArrayList<>(students);
+        int[] ids = new int[list.size()];
+        int offset = 0;
+        try {
+            while (offset < list.size() && journal.isEmpty()) {
+                List<Student> chunk = list.subList(offset, Math.min(offset + batchSize, list.size()));
+                System.arraycopy(delegate.addStudents(chunk), 0, ids, offset, chunk.size());
+                offset += chunk.size();
+            }
+        } catch (DatabaseUnavailableException e) {
+            System.out.println(e.getMessage());
+        }
+        if (offset < list.size()) {
+            List<Student> rest = list.subList(offset, list.size());
+            byte[] kinds = new byte[rest.size()];
+            int[] masks = new int[rest.size()];
+            Arrays.fill(kinds, OutboxJournal.INSERT);
+            Arrays.fill(masks, StudentDAOImpl.ALL_FIELDS);
+            queue(kinds, masks, rest);
+            Arrays.fill(ids, offset, list.size(), QUEUED);
+        }
+        return ids;
+    }
+
+    @Override
+    public void addStudent(int studentID, String firstname, String lastname, String email, String grade, String phoneNumber, LocalDate dateOfBirth) {
+        writeOrQueue(() -> delegate.addStudent(studentID, firstname, lastname, email, grade, phoneNumber, dateOfBirth),
+                OutboxJournal.INSERT_WITH_ID, StudentDAOImpl.ALL_FIELDS,
+                new Student(studentID, firstname, lastname, email, grade, phoneNumber, dateOfBirth));
+    }
+
+    @Override
+    public void updateStudent(int studentID, String firstname, String lastname, String email, String grade, String phoneNumber, LocalDate dateOfBirth) {
+        writeOrQueue(() -> delegate.updateStudent(studentID, firstname, lastname, email, grade, phoneNumber, dateOfBirth),
+                OutboxJournal.UPDATE, StudentDAOImpl.ALL_FIELDS,
+                new Student(studentID, firstname, lastname, email, grade, phoneNumber, dateOfBirth));
+    }
+
+    /**
+     * Writes the changed fields of a student. A queued update keeps only the changed fields as well,
+     * and the student is marked clean once it is queued.
+     */
+    @Override
+    public void updateStudent(Student student) {
+        if (!student.isDirty()) {
+            return;
+        }
+        if (writeOrQueue(() -> delegate.updateStudent(student), OutboxJournal.UPDATE, student.getDirtyMask(), student)) {
+            student.markClean();
+        }
+    }
+
+    @Override
+    public void deleteStudent(int id) {
+        writeOrQueue(() -> delegate.deleteStudent(id), OutboxJournal.DELETE, 0, new Student(id, null, null, null, null, null, null));
+    }
+
+    /**
+     * Stops the replay and closes the journal. Queued writes stay in the journal for the next start.
+     */
+    @Override
+    public void close() {
+        replayer.shutdownNow();
+        synchronized (replayLock) {
+            journal.close();
+        }
+    }
+
+    /**
+     * Runs a write on the delegate, or queues it if writes are queued already or the database cannot be reached.
+     *
+     * @return true if the write was queued.
+     */
+    private boolean writeOrQueue(Runnable write, byte kind, int mask, Student student) {
+        if (UnitOfWork.isActive()) {
+            write.run();
+            return false;
+        }
+        if (journal.isEmpty()) {
+            try {
+                write.run();
+                return false;
+            } catch (DatabaseUnavailableException e) {
+                System.out.println(e.getMessage());
+            }
+        }
+        queue(new byte[]{kind}, new int[]{mask}, List.of(student));
+        return true;
+    }
+
+    private void queue(byte[] kinds, int[] masks, List<Student> students) {
+        try {
+            journal.append(kinds, masks, students);
+        } catch (IOException e) {
+            throw new DataAccessException("The change could not be saved for later: " + e.getMessage(), e);
+        }
+        System.out.println(students.size() == 1
+                ? "The change is saved and will be written when the database is available."
+                : students.size() + " changes are saved and will be written when the database is available.");
+    }
+
+    // Replay
+
+    private void replayQueued() {
+        try {
+            if (journal.size() > 0) {
+                int replayed = replay();
+                if (replayed > 0) {
+                    System.out.println(replayed + " saved student changes written, " + journal.size() + " waiting.");
+                }
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Replaying the saved student changes failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sends the queued writes to the database, oldest first, until none is left or the database
+     * cannot be reached.
+     *
+     * @return The number of writes taken from the journal.
+     */
+    public int replay() {
+        synchronized (replayLock) {
+            int replayed = 0;
+            while (true) {
+                List<OutboxJournal.Entry> entries = journal.peek(batchSize);
+                if (entries.isEmpty()) {
+                    return replayed;
+                }
+                List<Runnable> applied = new ArrayList<>();
+                try {
+                    replayChunk(entries, applied);
+                } catch (SQLException e) {
+                    if (!DatabaseUnavailableException.isConnectionFailure(e)) {
+                        System.out.println("Replaying the saved student changes failed: " + e.getMessage());
+                    }
+                    return replayed;
+                }
+                for (Runnable notification : applied) {
+                    notification.run();
+                }
+                try {
+                    journal.replayed(entries.get(entries.size() - 1).sequence);
+                } catch (IOException e) {
+                    // The database knows the replayed sequence, so the entries are skipped next time
+                    System.out.println(e.getMessage());
+                    return replayed;
+                }
+                replayed += entries.size();
+            }
+        }
+    }
+
+    /**
+     * Applies a chunk of the journal in one transaction, together with its last sequence. Entries up to the
+     * sequence the database already has were applied before and are skipped.
+     *
+     * @param applied Receives the messages and listener calls, to be run once the transaction is committed.
+     */
+    private void replayChunk(List<OutboxJournal.Entry> entries, List<Runnable> applied) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                long replayedSequence = lockReplayedSequence(conn);
+                int first = 0;
+                while (first < entries.size() && entries.get(first).sequence <= replayedSequence) {
+                    first++;
+                }
+                int start = first;
+                for (int i = first + 1; i <= entries.size(); i++) {
+                    if (i == entries.size() || !sameStatement(entries.get(i), entries.get(start))) {
+                        applyRun(conn, entries.subList(start, i), applied);
+                        start = i;
+                    }
+                }
+                long last = entries.get(entries.size() - 1).sequence;
+                if (last > replayedSequence) {
+                    try (PreparedStatement p = conn.prepareStatement(UPDATE_APPLIED)) {
+                        p.setLong(1, last);
+                        p.setString(2, journal.id());
+                        p.executeUpdate();
+                    }
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                applied.clear();
+                try {
+                    conn.rollback();
+                } catch (SQLException rollback) {
+                    e.addSuppressed(rollback);
+                }
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    private long lockReplayedSequence(Connection conn) throws SQLException {
+        try (PreparedStatement p = conn.prepareStatement(SELECT_APPLIED)) {
+            p.setString(1, journal.id());
+            try (ResultSet rs = p.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getLong(1);
+                }
+            }
+        }
+        try (PreparedStatement p = conn.prepareStatement(INSERT_APPLIED)) {
+            p.setString(1, journal.id());
+            p.executeUpdate();
+        }
+        return 0;
+    }
+
+    private static boolean sameStatement(OutboxJournal.Entry a, OutboxJournal.Entry b) {
+        return a.kind == b.kind && a.mask == b.mask;
+    }
+
+    /**
+     * Applies a run of entries with the same statement as one JDBC batch. If the database refuses the batch,
+     * it is undone and the entries are applied one by one, so only the refused ones are dropped.
+     */
+    private void applyRun(Connection conn, List<OutboxJournal.Entry> run, List<Runnable> applied) throws SQLException {
+        Savepoint savepoint = conn.setSavepoint();
+        int mark = applied.size();
+        try {
+            executeRun(conn, run, applied);
+            return;
+        } catch (SQLException e) {
+            if (DatabaseUnavailableException.isConnectionFailure(e)) {
+                throw e;
+            }
+            conn.rollback(savepoint);
+            applied.subList(mark, applied.size()).clear();
+            if (run.size() == 1) {
+                applied.add(dropped(run.get(0), e.getMessage()));
+                return;
+            }
+        }
+        for (OutboxJournal.Entry entry : run) {
+            Savepoint single = conn.setSavepoint();
+            int singleMark = applied.size();
+            try {
+                executeRun(conn, List.of(entry), applied);
+            } catch (SQLException e) {
+                if (DatabaseUnavailableException.isConnectionFailure(e)) {
+                    throw e;
+                }
+                conn.rollback(single);
+                applied.subList(singleMark, applied.size()).clear();
+                applied.add(dropped(entry, e.getMessage()));
+            }
+        }
+    }
+
+    private void executeRun(Connection conn, List<OutboxJournal.Entry> run, List<Runnable> applied) throws SQLException {
+        OutboxJournal.Entry head = run.get(0);
+        switch (head.kind) {
+            case OutboxJournal.INSERT -> insert(conn, run, applied);
+            case OutboxJournal.INSERT_WITH_ID -> insertWithId(conn, run, applied);
+            case OutboxJournal.UPDATE -> update(conn, StudentDAOImpl.updateStatement(head.mask), run, applied);
+            case OutboxJournal.DELETE -> update(conn, StudentDAOImpl.DELETE_STUDENT, run, applied);
+            default -> throw new IllegalStateException("Unknown journal entry " + head.kind);
+        }
+    }
+
+    private void insert(Connection conn, List<OutboxJournal.Entry> run, List<Runnable> applied) throws SQLException {
+        try (PreparedStatement p = conn.prepareStatement(StudentDAOImpl.INSERT_STUDENT, Statement.RETURN_GENERATED_KEYS)) {
+            for (OutboxJournal.Entry entry : run) {
+                StudentDAOImpl.bindFields(p, 1, entry.student, StudentDAOImpl.ALL_FIELDS);
+                p.addBatch();
+            }
+            p.executeBatch();
+            // Generated keys come back in the order the rows were added to the batch
+            try (ResultSet keys = p.getGeneratedKeys()) {
+                for (int i = 0; i < run.size() && keys.next(); i++) {
+                    Student student = copyWithId(run.get(i).student, keys.getInt(1));
+                    applied.add(() -> fireSaved(student));
+                }
+            }
+        }
+    }
+
+    /**
+     * Inserts students with their IDs. IDs that exist already are conflicts and are not inserted.
+     */
+    private void insertWithId(Connection conn, List<OutboxJournal.Entry> run, List<Runnable> applied) throws SQLException {
+        Set<Integer> existing = existingIds(conn, run);
+        try (PreparedStatement p = conn.prepareStatement(StudentDAOImpl.INSERT_STUDENT_WITH_ID)) {
+            for (OutboxJournal.Entry entry : run) {
+                if (existing.contains(entry.student.getStudentID())) {
+                    applied.add(dropped(entry, "a student with this ID exists already."));
+                    continue;
+                }
+                p.setInt(1, entry.student.getStudentID());
+                StudentDAOImpl.bindFields(p, 2, entry.student, StudentDAOImpl.ALL_FIELDS);
+                p.addBatch();
+                applied.add(() -> fireSaved(entry.student));
+            }
+            p.executeBatch();
+        }
+    }
+
+    private static Set<Integer> existingIds(Connection conn, List<OutboxJournal.Entry> run) throws SQLException {
+        StringBuilder sql = new StringBuilder("select studentID from student where studentID in (?");
+        for (int i = 1; i < run.size(); i++) {
+            sql.append(", ?");
+        }
+        Set<Integer> existing = new HashSet<>();
+        try (PreparedStatement p = conn.prepareStatement(sql.append(')').toString())) {
+            for (int i = 0; i < run.size(); i++) {
+                p.setInt(i + 1, run.get(i).student.getStudentID());
+            }
+            try (ResultSet rs = p.executeQuery()) {
+                while (rs.next()) {
+                    existing.add(rs.getInt(1));
+                }
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * Runs the UPDATE or DELETE of a run. An entry that changes no row is a conflict: the student no longer exists.
+     */
+    private void update(Connection conn, String sql, List<OutboxJournal.Entry> run, List<Runnable> applied) throws SQLException {
+        try (PreparedStatement p = conn.prepareStatement(sql)) {
+            for (OutboxJournal.Entry entry : run) {
+                int index = StudentDAOImpl.bindFields(p, 1, entry.student, entry.mask);
+                p.setInt(index, entry.student.getStudentID());
+                p.addBatch();
+            }
+            int[] counts = p.executeBatch();
+            for (int i = 0; i < run.size(); i++) {
+                OutboxJournal.Entry entry = run.get(i);
+                if (counts[i] == 0) {
+                    applied.add(dropped(entry, "the student does not exist any more."));
+                } else if (entry.kind == OutboxJournal.DELETE) {
+                    applied.add(() -> fireDeleted(entry.student.getStudentID()));
+                } else {
+                    applied.add(() -> fireSaved(entry.student));
+                }
+            }
+        }
+    }
+
+    private static Runnable dropped(OutboxJournal.Entry entry, String reason) {
+        Student student = entry.student;
+        String target = entry.kind == OutboxJournal.INSERT
+                ? "new student " + student.getFirstname() + " " + student.getLastname()
+                : "student " + student.getStudentID();
+        return () -> System.out.println("Saved change to " + target + " dropped: " + reason);
+    }
+
+    private static Student copyWithId(Student student, int studentID) {
+        return new Student(studentID, student.getFirstname(), student.getLastname(), student.getEmail(),
+                student.getGrade(), student.getPhoneNumber(), student.getDateOfBirth());
+    }
+
+    private void fireSaved(Student student) {
+        for (StudentChangeListener listener : replayListeners) {
+            listener.studentSaved(student);
+        }
+    }
+
+    private void fireDeleted(int studentID) {
+        for (StudentChangeListener listener : replayListeners) {
+            listener.studentDeleted(studentID);
+        }
+    }
+}
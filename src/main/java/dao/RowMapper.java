@@ -0,0 +1,23 @@
+package dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * The RowMapper interface turns the current row of a ResultSet into an object.
+ * Implementations read the columns by index, resolved once per query shape.
+ *
+ * @param <T> The type of the mapped object.
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * Maps the current row. The result set must not be moved by the mapper.
+     *
+     * @param rs The result set positioned on a row.
+     * @return The mapped object.
+     * @throws SQLException if a column cannot be read.
+     */
+    T mapRow(ResultSet rs) throws SQLException;
+}
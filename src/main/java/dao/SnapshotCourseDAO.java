@@ -0,0 +1,138 @@
+package dao;
+
+import model.Course;
+import model.StudentSummary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The SnapshotCourseDAO class is a read-only CourseDAO that serves the courses and enrollments of a
+ * SnapshotFile, so the application can start and browse without a database.
+ *
+ * The courses are held in a CourseCatalog; enrollments are read from the two sorted enrollment sections
+ * of the snapshot with a binary search. All writes fail with a DatabaseUnavailableException.
+ */
+public class SnapshotCourseDAO implements CourseDAO {
+
+    // The order of the roster query: last name, first name, ID
+    static final Comparator<StudentSummary> ROSTER_ORDER = Comparator
+            .comparing(StudentSummary::getLastname, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER))
+            .thenComparing(StudentSummary::getFirstname, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER))
+            .thenComparingInt(StudentSummary::getStudentID);
+
+    private final SnapshotFile snapshot;
+    private final CourseCatalog catalog;
+
+    /**
+     * Constructs a new SnapshotCourseDAO.
+     *
+     * @param snapshot The snapshot the courses are read from.
+     */
+    public SnapshotCourseDAO(SnapshotFile snapshot) {
+        this.snapshot = snapshot;
+        this.catalog = CourseCatalog.of(snapshot.courses());
+    }
+
+    @Override
+    public Course getCourseByID(int id) {
+        return copy(catalog.byId(id), 0);
+    }
+
+    @Override
+    public Course getCourseByName(String name) {
+        return copy(catalog.byName(name), 0);
+    }
+
+    @Override
+    public List<Course> getCoursesByStudentID(int studentID) {
+        List<Course> courses = new ArrayList<>();
+        for (int courseID : snapshot.coursesOf(studentID)) {
+            Course course = copy(catalog.byId(courseID), studentID);
+            if (course != null) {
+                courses.add(course);
+            }
+        }
+        return courses;
+    }
+
+    @Override
+    public Map<Integer, List<Course>> getCoursesByStudentIDs(int[] studentIDs) {
+        Map<Integer, List<Course>> courses = new TreeMap<>();
+        for (int studentID : Arrays.stream(studentIDs).filter(id -> id > 0).distinct().toArray()) {
+            courses.put(studentID, getCoursesByStudentID(studentID));
+        }
+        return courses;
+    }
+
+    @Override
+    public List<StudentSummary> getRoster(int courseID) {
+        List<StudentSummary> roster = new ArrayList<>();
+        for (int studentID : snapshot.studentsOf(courseID)) {
+            int row = snapshot.findRow(studentID);
+            if (row >= 0) {
+                roster.add(snapshot.summary(row));
+            }
+        }
+        roster.sort(ROSTER_ORDER);
+        return roster;
+    }
+
+    @Override
+    public Map<Integer, int[]> getEnrollments() {
+        return snapshot.enrollments();
+    }
+
+    @Override
+    public List<Course> getCourses() {
+        List<Course> courses = new ArrayList<>(catalog.size());
+        for (Course course : snapshot.courses()) {
+            courses.add(copy(course, 0));
+        }
+        return courses;
+    }
+
+    @Override
+    public List<String> getAllCourses() {
+        return new ArrayList<>(catalog.names());
+    }
+
+    @Override
+    public int enrollStudents(int courseID, int[] studentIDs) {
+        throw SnapshotStudentDAO.readOnly();
+    }
+
+    @Override
+    public int unenrollStudents(int courseID, int[] studentIDs) {
+        throw SnapshotStudentDAO.readOnly();
+    }
+
+    @Override
+    public void addCourse(Course course) {
+        throw SnapshotStudentDAO.readOnly();
+    }
+
+    @Override
+    public int addCourses(Collection<Course> courses) {
+        throw SnapshotStudentDAO.readOnly();
+    }
+
+    @Override
+    public void updateCourse(Course course) {
+        throw SnapshotStudentDAO.readOnly();
+    }
+
+    @Override
+    public void deleteCourse(int id) {
+        throw SnapshotStudentDAO.readOnly();
+    }
+
+    private static Course copy(Course course, int studentID) {
+        return course == null ? null : new Course(course.getCourseID(), studentID, course.getCourseName());
+    }
+}
@@ -0,0 +1,313 @@
+package dao;
+
+import model.Course;
+import model.Student;
+import model.StudentSummary;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * The SnapshotFile class reads a binary snapshot of the student, course and enrollment tables,
+ * written by SnapshotWriter, through a memory-mapped FileChannel.
+ *
+ * The file starts with a fixed header: magic number, schema version, creation time, the number of rows,
+ * the offsets of the sections and CRC32 checksums of the header and of everything after it. The sections are:
+ * <ul>
+ *     <li>the student records: epoch day of birth, then length and UTF-8 bytes of first name, last name,
+ *     email, grade and phone number (length -1 for a missing value);</li>
+ *     <li>the student index: (studentID, record offset) pairs sorted by ID, searched with a binary search;</li>
+ *     <li>the courses: courseID, length and UTF-8 bytes of the name, ordered by ID;</li>
+ *     <li>the enrollments twice: (courseID, studentID) pairs sorted by course and (studentID, courseID) pairs
+ *     sorted by student, so both directions are a binary search and a range.</li>
+ * </ul>
+ * All numbers are big-endian ints. Opening a snapshot checks the header and the checksums; nothing else is
+ * read until it is asked for, except the courses, which are few. Reads only use absolute positions,
+ * so a SnapshotFile can be shared by any number of threads.
+ */
+public final class SnapshotFile {
+
+    static final int MAGIC = 0x534D5331; // "SMS1"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+
+    // Header layout
+    static final int H_MAGIC = 0;
+    static final int H_VERSION = 4;
+    static final int H_CREATED = 8;
+    static final int H_STUDENTS = 16;
+    static final int H_COURSES = 20;
+    static final int H_ENROLLMENTS = 24;
+    static final int H_STUDENT_INDEX = 28;
+    static final int H_COURSE_SECTION = 32;
+    static final int H_BY_COURSE = 36;
+    static final int H_BY_STUDENT = 40;
+    static final int H_BODY_LENGTH = 44;
+    static final int H_BODY_CRC = 48;
+    static final int H_HEADER_CRC = 60;
+
+    static final int NO_DATE = Integer.MIN_VALUE;
+
+    private final Path path;
+    private final ByteBuffer buffer;
+    private final long createdMillis;
+    private final int studentCount;
+    private final int enrollmentCount;
+    private final int studentIndex;
+    private final int byCourse;
+    private final int byStudent;
+    private final List<Course> courses;
+
+    private SnapshotFile(Path path, ByteBuffer buffer) throws IOException {
+        this.path = path;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(H_MAGIC) != MAGIC) {
+            throw new IOException("Not a snapshot file: " + path);
+        }
+        if (buffer.getInt(H_VERSION) != VERSION) {
+            throw new IOException("Unsupported snapshot version " + buffer.getInt(H_VERSION) + ": " + path);
+        }
+        if (crc(buffer, 0, H_HEADER_CRC) != buffer.getInt(H_HEADER_CRC)) {
+            throw new IOException("Snapshot header is damaged: " + path);
+        }
+        int bodyLength = buffer.getInt(H_BODY_LENGTH);
+        if (HEADER_SIZE + (long) bodyLength != buffer.capacity()) {
+            throw new IOException("Snapshot is truncated: " + path);
+        }
+        if (crc(buffer, HEADER_SIZE, bodyLength) != buffer.getInt(H_BODY_CRC)) {
+            throw new IOException("Snapshot checksum mismatch: " + path);
+        }
+        this.createdMillis = buffer.getLong(H_CREATED);
+        this.studentCount = buffer.getInt(H_STUDENTS);
+        this.enrollmentCount = buffer.getInt(H_ENROLLMENTS);
+        this.studentIndex = buffer.getInt(H_STUDENT_INDEX);
+        this.byCourse = buffer.getInt(H_BY_COURSE);
+        this.byStudent = buffer.getInt(H_BY_STUDENT);
+
+        int courseCount = buffer.getInt(H_COURSES);
+        List<Course> read = new ArrayList<>(courseCount);
+        int position = buffer.getInt(H_COURSE_SECTION);
+        for (int i = 0; i < courseCount; i++) {
+            int courseID = buffer.getInt(position);
+            int length = buffer.getInt(position + 4);
+            read.add(new Course(courseID, 0, readString(position + 8, length)));
+            position += 8 + Math.max(length, 0);
+        }
+        this.courses = read;
+    }
+
+    /**
+     * Maps a snapshot file into memory and checks it.
+     *
+     * @param path The snapshot file.
+     * @return The opened SnapshotFile.
+     * @throws IOException if the file cannot be read, is not a snapshot of this version, or is damaged.
+     */
+    public static SnapshotFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot is too large: " + path);
+            }
+            // The mapping stays valid after the channel is closed
+            return new SnapshotFile(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    static int crc(ByteBuffer buffer, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Returns the file the snapshot was read from.
+     *
+     * @return The path of the snapshot.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Returns when the snapshot was written.
+     *
+     * @return The creation time in milliseconds since the epoch.
+     */
+    public long getCreatedMillis() {
+        return createdMillis;
+    }
+
+    /**
+     * Returns the number of students in the snapshot.
+     *
+     * @return The number of student rows.
+     */
+    public int getStudentCount() {
+        return studentCount;
+    }
+
+    // Students
+
+    int studentID(int row) {
+        return buffer.getInt(studentIndex + 8 * row);
+    }
+
+    /**
+     * Returns the row of a student with a binary search over the ID index.
+     *
+     * @return The row, or -1 if the student is not in the snapshot.
+     */
+    int findRow(int studentID) {
+        int low = 0, high = studentCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int id = studentID(mid);
+            if (id < studentID) {
+                low = mid + 1;
+            } else if (id > studentID) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the first row with an ID greater than the given one.
+     */
+    int rowAfter(int studentID) {
+        int low = 0, high = studentCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (studentID(mid) <= studentID) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    Student student(int row) {
+        int position = buffer.getInt(studentIndex + 8 * row + 4);
+        int born = buffer.getInt(position);
+        position += 4;
+        String[] text = new String[5];
+        for (int field = 0; field < text.length; field++) {
+            int length = buffer.getInt(position);
+            text[field] = readString(position + 4, length);
+            position += 4 + Math.max(length, 0);
+        }
+        return new Student(studentID(row), text[0], text[1], text[2], text[3], text[4],
+                born == NO_DATE ? null : LocalDate.ofEpochDay(born));
+    }
+
+    StudentSummary summary(int row) {
+        int position = buffer.getInt(studentIndex + 8 * row + 4) + 4;
+        int firstLength = buffer.getInt(position);
+        String firstname = readString(position + 4, firstLength);
+        position += 4 + Math.max(firstLength, 0);
+        return new StudentSummary(studentID(row), firstname, readString(position + 4, buffer.getInt(position)));
+    }
+
+    private String readString(int position, int length) {
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Courses and enrollments
+
+    /**
+     * Returns the course rows ordered by ID. The list is shared and must not be changed.
+     */
+    List<Course> courses() {
+        return courses;
+    }
+
+    /**
+     * Returns the IDs of the students of a course in ascending order.
+     */
+    int[] studentsOf(int courseID) {
+        return range(byCourse, courseID);
+    }
+
+    /**
+     * Returns the IDs of the courses of a student in ascending order.
+     */
+    int[] coursesOf(int studentID) {
+        return range(byStudent, studentID);
+    }
+
+    /**
+     * Returns all enrollments as a map from course ID to its sorted student IDs.
+     */
+    Map<Integer, int[]> enrollments() {
+        Map<Integer, int[]> enrollments = new LinkedHashMap<>();
+        int from = 0;
+        while (from < enrollmentCount) {
+            int courseID = buffer.getInt(byCourse + 8 * from);
+            int to = from;
+            while (to < enrollmentCount && buffer.getInt(byCourse + 8 * to) == courseID) {
+                to++;
+            }
+            int[] studentIDs = new int[to - from];
+            for (int i = 0; i < studentIDs.length; i++) {
+                studentIDs[i] = buffer.getInt(byCourse + 8 * (from + i) + 4);
+            }
+            enrollments.put(courseID, studentIDs);
+            from = to;
+        }
+        return enrollments;
+    }
+
+    /**
+     * Returns the second values of the pairs of a section whose first value is key.
+     */
+    private int[] range(int section, int key) {
+        int low = 0, high = enrollmentCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (buffer.getInt(section + 8 * mid) < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int end = low;
+        while (end < enrollmentCount && buffer.getInt(section + 8 * end) == key) {
+            end++;
+        }
+        int[] values = new int[end - low];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = buffer.getInt(section + 8 * (low + i) + 4);
+        }
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return "SnapshotFile{" +
+                "path=" + path +
+                ", created=" + Instant.ofEpochMilli(createdMillis) +
+                ", students=" + studentCount +
+                ", courses=" + courses.size() +
+                ", enrollments=" + enrollmentCount +
+                '}';
+    }
+}
@@ -0,0 +1,166 @@
+package dao;
+
+import model.Student;
+import model.StudentSummary;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * The SnapshotStudentDAO class is a read-only StudentDAO that serves the students of a SnapshotFile,
+ * so the application can start and browse without a database.
+ *
+ * Lookups by ID and pages ordered by ID use the ID index of the snapshot. Queries with criteria scan the
+ * records and are evaluated in memory by StudentCriteria, in the same order as the database.
+ * All writes fail with a DatabaseUnavailableException.
+ */
+public class SnapshotStudentDAO implements StudentDAO {
+
+    private final SnapshotFile snapshot;
+
+    /**
+     * Constructs a new SnapshotStudentDAO.
+     *
+     * @param snapshot The snapshot the students are read from.
+     */
+    public SnapshotStudentDAO(SnapshotFile snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    @Override
+    public Student getStudentById(int id) {
+        int row = snapshot.findRow(id);
+        return row >= 0 ? snapshot.student(row) : null;
+    }
+
+    @Override
+    public Map<Integer, Student> getStudentsByIds(int[] ids) {
+        Map<Integer, Student> students = new TreeMap<>();
+        for (int id : ids) {
+            int row = snapshot.findRow(id);
+            if (row >= 0 && !students.containsKey(id)) {
+                students.put(id, snapshot.student(row));
+            }
+        }
+        return students;
+    }
+
+    @Override
+    public Student getStudentByLastName(String name) {
+        for (int row = 0; row < snapshot.getStudentCount(); row++) {
+            if (name != null && name.equalsIgnoreCase(snapshot.summary(row).getLastname())) {
+                return snapshot.student(row);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public List<Student> getAllStudents() {
+        List<Student> students = new ArrayList<>(snapshot.getStudentCount());
+        for (int row = 0; row < snapshot.getStudentCount(); row++) {
+            students.add(snapshot.student(row));
+        }
+        return students;
+    }
+
+    @Override
+    public List<Student> getStudentsAfter(int afterId, int limit) {
+        List<Student> students = new ArrayList<>();
+        int end = Math.min(snapshot.getStudentCount(), snapshot.rowAfter(afterId) + limit);
+        for (int row = snapshot.rowAfter(afterId); row < end; row++) {
+            students.add(snapshot.student(row));
+        }
+        return students;
+    }
+
+    @Override
+    public int countStudents() {
+        return snapshot.getStudentCount();
+    }
+
+    @Override
+    public List<Student> findStudents(StudentCriteria criteria, Student after, int limit) {
+        if (criteria.getSortColumn() == StudentCriteria.SortColumn.ID && criteria.isAscending() && !criteria.hasFilter()) {
+            return getStudentsAfter(after != null ? after.getStudentID() : 0, limit);
+        }
+        return criteria.page(students(), after, limit);
+    }
+
+    @Override
+    public int countStudents(StudentCriteria criteria) {
+        if (!criteria.hasFilter()) {
+            return snapshot.getStudentCount();
+        }
+        int count = 0;
+        for (Student student : students()) {
+            if (criteria.matches(student)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public Student getStudentAtOffset(StudentCriteria criteria, int offset) {
+        return criteria.atOffset(students(), offset);
+    }
+
+    @Override
+    public Stream<Student> streamAllStudents(int fetchSize) {
+        return IntStream.range(0, snapshot.getStudentCount()).mapToObj(snapshot::student);
+    }
+
+    @Override
+    public List<StudentSummary> getStudentSummaries() {
+        List<StudentSummary> summaries = new ArrayList<>(snapshot.getStudentCount());
+        for (int row = 0; row < snapshot.getStudentCount(); row++) {
+            summaries.add(snapshot.summary(row));
+        }
+        return summaries;
+    }
+
+    @Override
+    public int addStudent(Student student) {
+        throw readOnly();
+    }
+
+    @Override
+    public int[] addStudents(Collection<Student> students) {
+        throw readOnly();
+    }
+
+    @Override
+    public void addStudent(int studentID, String firstname, String lastname, String email, String grade, String phoneNumber, LocalDate dateOfBirth) {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateStudent(int studentID, String firstname, String lastname, String email, String grade, String phoneNumber, LocalDate dateOfBirth) {
+        throw readOnly();
+    }
+
+    @Override
+    public void updateStudent(Student student) {
+        throw readOnly();
+    }
+
+    @Override
+    public void deleteStudent(int id) {
+        throw readOnly();
+    }
+
+    static DatabaseUnavailableException readOnly() {
+        return new DatabaseUnavailableException("The database is not available, the offline snapshot is read-only.", null);
+    }
+
+    private Iterable<Student> students() {
+        return () -> IntStream.range(0, snapshot.getStudentCount()).mapToObj(snapshot::student).iterator();
+    }
+}
@@ -0,0 +1,186 @@
+package dao;
+
+import model.Course;
+import model.Student;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import java.util.stream.Stream;
+
+/**
+ * The SnapshotWriter class writes the student, course and enrollment tables into a snapshot file
+ * in the format read by SnapshotFile.
+ *
+ * The students are streamed, so the table is never held in memory; only the ID index and the enrollment
+ * pairs are collected. The file is written next to the target under a temporary name and then moved over it,
+ * so readers never see a half-written snapshot.
+ */
+public final class SnapshotWriter {
+
+    /**
+     * Private constructor to prevent instantiation of this class.
+     */
+    private SnapshotWriter() {}
+
+    /**
+     * Writes a snapshot of all students, courses and enrollments.
+     *
+     * @param studentDAO The DAO the students are read from.
+     * @param courseDAO  The DAO the courses and enrollments are read from.
+     * @param target     The snapshot file to be written or replaced.
+     * @throws IOException         if the file cannot be written.
+     * @throws DataAccessException if the tables cannot be read.
+     */
+    public static void write(StudentDAO studentDAO, CourseDAO courseDAO, Path target) throws IOException {
+        try (Stream<Student> students = studentDAO.streamAllStudents(Integer.getInteger("db.fetchSize", 1000))) {
+            write(students, courseDAO.getCourses(), courseDAO.getEnrollments(), target);
+        }
+    }
+
+    /**
+     * Writes a snapshot of the given rows.
+     *
+     * @param students    The students, preferably ordered by ID.
+     * @param courses     The course rows.
+     * @param enrollments The student IDs of every course.
+     * @param target      The snapshot file to be written or replaced.
+     * @throws IOException if the file cannot be written.
+     */
+    static void write(Stream<Student> students, List<Course> courses, Map<Integer, int[]> enrollments, Path target)
+            throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                writeTo(channel, students, courses, enrollments);
+                channel.force(true);
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static void writeTo(FileChannel channel, Stream<Student> students, List<Course> courses,
+                                Map<Integer, int[]> enrollments) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(SnapshotFile.HEADER_SIZE);
+        CRC32 bodyCrc = new CRC32();
+        channel.position(SnapshotFile.HEADER_SIZE);
+        // Not closed, that would close the channel before the header is written
+        DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16), bodyCrc));
+
+        // Student records, with their (ID, offset) pairs collected for the index
+        long[] index = new long[1024];
+        int studentCount = 0;
+        boolean sorted = true;
+        int lastID = Integer.MIN_VALUE;
+        for (Iterator<Student> it = students.iterator(); it.hasNext(); ) {
+            Student student = it.next();
+            if (studentCount == index.length) {
+                index = Arrays.copyOf(index, studentCount * 2);
+            }
+            index[studentCount++] = (long) student.getStudentID() << 32 | position(out);
+            sorted &= student.getStudentID() > lastID;
+            lastID = student.getStudentID();
+            LocalDate born = student.getDateOfBirth();
+            out.writeInt(born != null ? Math.toIntExact(born.toEpochDay()) : SnapshotFile.NO_DATE);
+            writeString(out, student.getFirstname());
+            writeString(out, student.getLastname());
+            writeString(out, student.getEmail());
+            writeString(out, student.getGrade());
+            writeString(out, student.getPhoneNumber());
+        }
+        if (!sorted) {
+            Arrays.sort(index, 0, studentCount);
+        }
+        int studentIndex = position(out);
+        for (int i = 0; i < studentCount; i++) {
+            out.writeLong(index[i]);
+        }
+
+        int courseSection = position(out);
+        for (Course course : courses) {
+            out.writeInt(course.getCourseID());
+            writeString(out, course.getCourseName());
+        }
+
+        int count = 0;
+        for (int[] studentIDs : enrollments.values()) {
+            count += studentIDs.length;
+        }
+        long[] pairs = new long[count];
+        int i = 0;
+        for (Map.Entry<Integer, int[]> entry : enrollments.entrySet()) {
+            for (int studentID : entry.getValue()) {
+                pairs[i++] = (long) entry.getKey() << 32 | studentID;
+            }
+        }
+        Arrays.sort(pairs);
+        int byCourse = position(out);
+        for (long pair : pairs) {
+            out.writeLong(pair);
+        }
+        for (int j = 0; j < pairs.length; j++) {
+            pairs[j] = pairs[j] << 32 | pairs[j] >>> 32;
+        }
+        Arrays.sort(pairs);
+        int byStudent = position(out);
+        for (long pair : pairs) {
+            out.writeLong(pair);
+        }
+        out.flush();
+
+        header.putInt(SnapshotFile.H_MAGIC, SnapshotFile.MAGIC);
+        header.putInt(SnapshotFile.H_VERSION, SnapshotFile.VERSION);
+        header.putLong(SnapshotFile.H_CREATED, System.currentTimeMillis());
+        header.putInt(SnapshotFile.H_STUDENTS, studentCount);
+        header.putInt(SnapshotFile.H_COURSES, courses.size());
+        header.putInt(SnapshotFile.H_ENROLLMENTS, count);
+        header.putInt(SnapshotFile.H_STUDENT_INDEX, studentIndex);
+        header.putInt(SnapshotFile.H_COURSE_SECTION, courseSection);
+        header.putInt(SnapshotFile.H_BY_COURSE, byCourse);
+        header.putInt(SnapshotFile.H_BY_STUDENT, byStudent);
+        header.putInt(SnapshotFile.H_BODY_LENGTH, out.size());
+        header.putInt(SnapshotFile.H_BODY_CRC, (int) bodyCrc.getValue());
+        header.putInt(SnapshotFile.H_HEADER_CRC, SnapshotFile.crc(header, 0, SnapshotFile.H_HEADER_CRC));
+        channel.write(header, 0);
+    }
+
+    /**
+     * Returns the file offset the next byte is written to.
+     */
+    private static int position(DataOutputStream out) throws IOException {
+        if (out.size() > Integer.MAX_VALUE - SnapshotFile.HEADER_SIZE) {
+            throw new IOException("Snapshot is too large.");
+        }
+        return SnapshotFile.HEADER_SIZE + out.size();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
@@ -0,0 +1,26 @@
+package dao;
+
+import model.Student;
+
+/**
+ * The StudentChangeListener interface is notified about the student writes that go through an ObservableStudentDAO.
+ * It is used to keep in-memory views of the student table, such as the name index, up to date.
+ *
+ * Listeners are called on the thread that did the write, right after it, so they should be fast.
+ */
+public interface StudentChangeListener {
+
+    /**
+     * Called after a student was added or updated.
+     *
+     * @param student The student as written, with its ID.
+     */
+    void studentSaved(Student student);
+
+    /**
+     * Called after a student was deleted.
+     *
+     * @param studentID The unique identifier of the deleted student.
+     */
+    void studentDeleted(int studentID);
+}
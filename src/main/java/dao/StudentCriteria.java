@@ -0,0 +1,271 @@
+package dao;
+
+import model.Student;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+/**
+ * The StudentCriteria class describes a filtered and sorted view of the student table.
+ *
+ * Criteria are immutable; every with-method returns a new instance, e.g.
+ * {@code StudentCriteria.all().withGrade("12A").sortedBy(SortColumn.LASTNAME, true)}.
+ * The DAO turns them into SQL, so filtering and sorting run in the database and
+ * can be combined with keyset pagination.
+ */
+public final class StudentCriteria {
+
+    /**
+     * The columns the student table can be sorted by. Ties are always broken by the student ID.
+     */
+    public enum SortColumn {
+        ID("studentID", false, Student::getStudentID),
+        FIRSTNAME("firstname", false, Student::getFirstname),
+        LASTNAME("lastname", false, Student::getLastname),
+        EMAIL("eMail", true, Student::getEmail),
+        PHONE_NUMBER("phoneNumber", true, Student::getPhoneNumber),
+        DATE_OF_BIRTH("dayOfBirth", true, Student::getDateOfBirth),
+        GRADE("grade", false, Student::getGrade);
+
+        private final String column;
+        private final boolean nullable;
+        private final Function<Student, Object> value;
+
+        SortColumn(String column, boolean nullable, Function<Student, Object> value) {
+            this.column = column;
+            this.nullable = nullable;
+            this.value = value;
+        }
+
+        String getColumn() {
+            return column;
+        }
+
+        boolean isNullable() {
+            return nullable;
+        }
+
+        /**
+         * Returns the value of this column of a student, used as the keyset position of the next page.
+         */
+        Object valueOf(Student student) {
+            return value.apply(student);
+        }
+    }
+
+    private static final StudentCriteria ALL = new StudentCriteria(null, null, null, null, SortColumn.ID, true);
+
+    private final String grade;
+    private final String lastNamePrefix;
+    private final LocalDate bornFrom, bornTo;
+    private final SortColumn sortColumn;
+    private final boolean ascending;
+
+    private StudentCriteria(String grade, String lastNamePrefix, LocalDate bornFrom, LocalDate bornTo,
+                            SortColumn sortColumn, boolean ascending) {
+        this.grade = grade;
+        this.lastNamePrefix = lastNamePrefix;
+        this.bornFrom = bornFrom;
+        this.bornTo = bornTo;
+        this.sortColumn = sortColumn;
+        this.ascending = ascending;
+    }
+
+    /**
+     * Returns the criteria for all students ordered by ID.
+     *
+     * @return The unfiltered criteria.
+     */
+    public static StudentCriteria all() {
+        return ALL;
+    }
+
+    /**
+     * Returns criteria that only match one grade.
+     *
+     * @param grade The grade, or null or empty for any grade.
+     * @return The new criteria.
+     */
+    public StudentCriteria withGrade(String grade) {
+        return new StudentCriteria(emptyToNull(grade), lastNamePrefix, bornFrom, bornTo, sortColumn, ascending);
+    }
+
+    /**
+     * Returns criteria that only match last names starting with a prefix.
+     * The prefix is matched literally, '%' and '_' are no wildcards.
+     *
+     * @param lastNamePrefix The prefix, or null or empty for any last name.
+     * @return The new criteria.
+     */
+    public StudentCriteria withLastNamePrefix(String lastNamePrefix) {
+        return new StudentCriteria(grade, emptyToNull(lastNamePrefix), bornFrom, bornTo, sortColumn, ascending);
+    }
+
+    /**
+     * Returns criteria that only match students born in a date range. Students without a date of birth never match.
+     *
+     * @param from The first day of the range, or null for no lower bound.
+     * @param to   The last day of the range, or null for no upper bound.
+     * @return The new criteria.
+     * @throws IllegalArgumentException if from is after to.
+     */
+    public StudentCriteria bornBetween(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("Invalid date range!");
+        }
+        return new StudentCriteria(grade, lastNamePrefix, from, to, sortColumn, ascending);
+    }
+
+    /**
+     * Returns criteria with another sort order.
+     *
+     * @param sortColumn The column to sort by.
+     * @param ascending  Whether to sort in ascending order.
+     * @return The new criteria.
+     */
+    public StudentCriteria sortedBy(SortColumn sortColumn, boolean ascending) {
+        if (sortColumn == null) {
+            throw new IllegalArgumentException("Sort column cannot be null!");
+        }
+        return new StudentCriteria(grade, lastNamePrefix, bornFrom, bornTo, sortColumn, ascending);
+    }
+
+    /**
+     * Returns a key that is equal for all criteria producing the same SQL text,
+     * i.e. with the same filters present and the same sort order, whatever the filter values.
+     */
+    String shape() {
+        return (grade != null ? "g" : "-") + (lastNamePrefix != null ? "p" : "-") + (bornFrom != null ? "f" : "-")
+                + (bornTo != null ? "t" : "-") + sortColumn.ordinal() + (ascending ? "a" : "d");
+    }
+
+    // Evaluation in memory, for the DAOs that do not run SQL
+
+    /**
+     * Tells whether the criteria filter at all.
+     */
+    boolean hasFilter() {
+        return grade != null || lastNamePrefix != null || bornFrom != null || bornTo != null;
+    }
+
+    /**
+     * Tells whether a student matches the filters, comparing text ignoring case like the database.
+     */
+    boolean matches(Student student) {
+        if (grade != null && !grade.equalsIgnoreCase(student.getGrade())) {
+            return false;
+        }
+        if (lastNamePrefix != null && (student.getLastname() == null
+                || !student.getLastname().regionMatches(true, 0, lastNamePrefix, 0, lastNamePrefix.length()))) {
+            return false;
+        }
+        LocalDate born = student.getDateOfBirth();
+        if (bornFrom != null && (born == null || born.isBefore(bornFrom))) {
+            return false;
+        }
+        return bornTo == null || born != null && !born.isAfter(bornTo);
+    }
+
+    /**
+     * Returns the sort order with the same NULL placement and tie breaker as StudentCriteriaSql:
+     * text ignoring case, NULLs first in ascending order, ties by student ID in the same direction.
+     */
+    Comparator<Student> comparator() {
+        Comparator<Student> order = Comparator.comparingInt(Student::getStudentID);
+        if (sortColumn != SortColumn.ID) {
+            Comparator<Object> values = Comparator.nullsFirst(StudentCriteria::compareValues);
+            order = Comparator.<Student, Object>comparing(sortColumn::valueOf, values).thenComparing(order);
+        }
+        return ascending ? order : order.reversed();
+    }
+
+    /**
+     * Returns one page of the matching students after the keyset position. The page is kept in a heap of
+     * at most limit entries, so it costs one pass over the students and no full sort.
+     */
+    List<Student> page(Iterable<Student> students, Student after, int limit) {
+        Comparator<Student> order = comparator();
+        PriorityQueue<Student> page = new PriorityQueue<>(limit + 1, order.reversed());
+        for (Student student : students) {
+            if (matches(student) && (after == null || order.compare(student, after) > 0)) {
+                page.add(student);
+                if (page.size() > limit) {
+                    page.poll();
+                }
+            }
+        }
+        List<Student> result = new ArrayList<>(page);
+        result.sort(order);
+        return result;
+    }
+
+    /**
+     * Returns the matching student at a position of the sort order, or null if there are fewer.
+     */
+    Student atOffset(Iterable<Student> students, int offset) {
+        if (offset < 0) {
+            return null;
+        }
+        List<Student> page = page(students, null, offset + 1);
+        return offset < page.size() ? page.get(offset) : null;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareValues(Object a, Object b) {
+        if (a instanceof String first && b instanceof String second) {
+            return String.CASE_INSENSITIVE_ORDER.compare(first, second);
+        }
+        return ((Comparable) a).compareTo(b);
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+
+    /**
+     * Returns a string representation of the StudentCriteria object.
+     *
+     * @return A formatted string with the filters and the sort order.
+     */
+    @Override
+    public String toString() {
+        return "StudentCriteria{" +
+                "grade='" + grade + '\'' +
+                ", lastNamePrefix='" + lastNamePrefix + '\'' +
+                ", bornFrom=" + bornFrom +
+                ", bornTo=" + bornTo +
+                ", sortColumn=" + sortColumn +
+                ", ascending=" + ascending +
+                '}';
+    }
+
+    // Getters
+
+    public String getGrade() {
+        return grade;
+    }
+
+    public String getLastNamePrefix() {
+        return lastNamePrefix;
+    }
+
+    public LocalDate getBornFrom() {
+        return bornFrom;
+    }
+
+    public LocalDate getBornTo() {
+        return bornTo;
+    }
+
+    public SortColumn getSortColumn() {
+        return sortColumn;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+}
@@ -0,0 +1,197 @@
+package dao;
+
+import model.Student;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The StudentCriteriaSql class turns StudentCriteria into SQL for the StudentDAOImpl.
+ *
+ * The SQL text only depends on the shape of the criteria (which filters are set, the sort order and
+ * whether a page starts after a keyset position), never on the filter values, which are bound as
+ * parameters. The text is built once per shape and cached, so the statement cache of the connection
+ * pool can reuse the prepared statement as well.
+ *
+ * Pages are read with keyset pagination on (sort column, studentID). MySQL sorts NULL before every
+ * value in ascending order and after every value in descending order; the seek conditions for the
+ * nullable columns follow that order, so no rows are skipped or repeated at the NULL boundary.
+ */
+final class StudentCriteriaSql {
+
+    private static final Map<String, String> SQL_CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Private constructor to prevent instantiation of this class.
+     */
+    private StudentCriteriaSql() {}
+
+    /**
+     * Returns the query for one page. Its last parameter is the page size.
+     *
+     * @param criteria The filters and the sort order.
+     * @param after    The last student of the previous page, or null for the first page.
+     * @return The SQL text.
+     */
+    static String page(StudentCriteria criteria, Student after) {
+        String cursor = after == null ? "-" : criteria.getSortColumn().valueOf(after) == null ? "n" : "v";
+        return SQL_CACHE.computeIfAbsent("page:" + cursor + criteria.shape(), key -> {
+            StringBuilder sql = new StringBuilder("select ").append(StudentDAOImpl.STUDENT_COLUMNS).append(" from student");
+            String seek = after == null ? null : seekCondition(criteria, "v".equals(cursor));
+            appendWhere(sql, criteria, seek);
+            appendOrderBy(sql, criteria);
+            return sql.append(" limit ?").toString();
+        });
+    }
+
+    /**
+     * Returns the query for the student at a position of the filtered order. Its last parameter is the offset.
+     *
+     * @param criteria The filters and the sort order.
+     * @return The SQL text.
+     */
+    static String atOffset(StudentCriteria criteria) {
+        return SQL_CACHE.computeIfAbsent("offset:" + criteria.shape(), key -> {
+            StringBuilder sql = new StringBuilder("select ").append(StudentDAOImpl.STUDENT_COLUMNS).append(" from student");
+            appendWhere(sql, criteria, null);
+            appendOrderBy(sql, criteria);
+            return sql.append(" limit 1 offset ?").toString();
+        });
+    }
+
+    /**
+     * Returns the query counting the students matching the filters.
+     *
+     * @param criteria The filters, the sort order is ignored.
+     * @return The SQL text.
+     */
+    static String count(StudentCriteria criteria) {
+        return SQL_CACHE.computeIfAbsent("count:" + criteria.shape(), key -> {
+            StringBuilder sql = new StringBuilder("select count(*) from student");
+            appendWhere(sql, criteria, null);
+            return sql.toString();
+        });
+    }
+
+    /**
+     * Binds the filter values and the keyset position, in the order they appear in the SQL text.
+     *
+     * @param p        The prepared statement.
+     * @param criteria The filters and the sort order.
+     * @param after    The last student of the previous page, or null.
+     * @return The index of the next parameter.
+     * @throws SQLException if a parameter cannot be set.
+     */
+    static int bind(PreparedStatement p, StudentCriteria criteria, Student after) throws SQLException {
+        int index = 1;
+        if (criteria.getGrade() != null) {
+            p.setString(index++, criteria.getGrade());
+        }
+        if (criteria.getLastNamePrefix() != null) {
+            p.setString(index++, escapeLike(criteria.getLastNamePrefix()) + "%");
+        }
+        if (criteria.getBornFrom() != null) {
+            p.setDate(index++, Date.valueOf(criteria.getBornFrom()));
+        }
+        if (criteria.getBornTo() != null) {
+            p.setDate(index++, Date.valueOf(criteria.getBornTo()));
+        }
+        if (after != null) {
+            StudentCriteria.SortColumn sort = criteria.getSortColumn();
+            Object value = sort.valueOf(after);
+            if (sort != StudentCriteria.SortColumn.ID && value != null) {
+                // The value appears twice: "c > ?" and "c = ?"
+                setValue(p, index++, value);
+                setValue(p, index++, value);
+            }
+            p.setInt(index++, after.getStudentID());
+        }
+        return index;
+    }
+
+    private static void appendWhere(StringBuilder sql, StudentCriteria criteria, String seek) {
+        String separator = " where ";
+        if (criteria.getGrade() != null) {
+            sql.append(separator).append("grade = ?");
+            separator = " and ";
+        }
+        if (criteria.getLastNamePrefix() != null) {
+            sql.append(separator).append("lastname like ? escape '!'");
+            separator = " and ";
+        }
+        if (criteria.getBornFrom() != null) {
+            sql.append(separator).append("dayOfBirth >= ?");
+            separator = " and ";
+        }
+        if (criteria.getBornTo() != null) {
+            sql.append(separator).append("dayOfBirth <= ?");
+            separator = " and ";
+        }
+        if (seek != null) {
+            sql.append(separator).append(seek);
+        }
+    }
+
+    private static void appendOrderBy(StringBuilder sql, StudentCriteria criteria) {
+        String direction = criteria.isAscending() ? " asc" : " desc";
+        StudentCriteria.SortColumn sort = criteria.getSortColumn();
+        sql.append(" order by ");
+        if (sort != StudentCriteria.SortColumn.ID) {
+            sql.append(sort.getColumn()).append(direction).append(", ");
+        }
+        // The same direction for the tie breaker, so one index can be read forward or backward
+        sql.append("studentID").append(direction);
+    }
+
+    /**
+     * Returns the condition for the rows after the keyset position (value, studentID).
+     */
+    private static String seekCondition(StudentCriteria criteria, boolean hasValue) {
+        StudentCriteria.SortColumn sort = criteria.getSortColumn();
+        String c = sort.getColumn();
+        String after = criteria.isAscending() ? ">" : "<";
+        if (sort == StudentCriteria.SortColumn.ID) {
+            return "studentID " + after + " ?";
+        }
+        if (!sort.isNullable() || hasValue && criteria.isAscending()) {
+            // Ascending, NULL rows come first and were all read before a non-null position
+            return "(" + c + " " + after + " ? or (" + c + " = ? and studentID " + after + " ?))";
+        }
+        if (hasValue) {
+            // Descending, the NULL rows still follow after the last value
+            return "(" + c + " < ? or " + c + " is null or (" + c + " = ? and studentID < ?))";
+        }
+        return criteria.isAscending()
+                ? "((" + c + " is null and studentID > ?) or " + c + " is not null)"
+                : "(" + c + " is null and studentID < ?)";
+    }
+
+    private static void setValue(PreparedStatement p, int index, Object value) throws SQLException {
+        if (value instanceof LocalDate date) {
+            p.setDate(index, Date.valueOf(date));
+        } else if (value instanceof Integer number) {
+            p.setInt(index, number);
+        } else {
+            p.setString(index, value.toString());
+        }
+    }
+
+    /**
+     * Escapes the LIKE wildcards of a literal prefix with the escape character '!'.
+     */
+    static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 4);
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '!' || ch == '%' || ch == '_') {
+                escaped.append('!');
+            }
+            escaped.append(ch);
+        }
+        return escaped.toString();
+    }
+}
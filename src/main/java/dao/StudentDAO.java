@@ -1,9 +1,14 @@
 package dao;
 
 import model.Student;
+import model.StudentSummary;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * The StudentDAO interface defines the data access operations for the Student entity.
@@ -16,9 +21,29 @@ public interface StudentDAO {
      *
      * @param id The unique identifier of the student.
      * @return The Student object if found, otherwise null.
+     * @throws DataAccessException if the student cannot be loaded; null only means that there is no such student.
      */
     Student getStudentById(int id);
 
+    /**
+     * Retrieves many students by their IDs with as few round trips as possible.
+     * Duplicate IDs are looked up once; unknown IDs are missing from the result.
+     *
+     * @param ids The unique identifiers of the students.
+     * @return A map from student ID to Student, ordered by ID.
+     */
+    Map<Integer, Student> getStudentsByIds(int[] ids);
+
+    /**
+     * Retrieves many students by their IDs with as few round trips as possible.
+     *
+     * @param ids The unique identifiers of the students.
+     * @return A map from student ID to Student, ordered by ID.
+     */
+    default Map<Integer, Student> getStudentsByIds(IntStream ids) {
+        return getStudentsByIds(ids.toArray());
+    }
+
     /**
      * Retrieves a student from the database using their last name.
      *
@@ -34,14 +59,99 @@ public interface StudentDAO {
      */
     List<Student> getAllStudents();
 
+    /**
+     * Retrieves one page of students using keyset pagination.
+     * Unlike an OFFSET, the cost does not grow with the position of the page.
+     *
+     * @param afterId The last student ID of the previous page, 0 for the first page.
+     * @param limit   The maximum number of students in the page.
+     * @return The students with an ID greater than afterId, ordered by ID.
+     */
+    List<Student> getStudentsAfter(int afterId, int limit);
+
+    /**
+     * Counts the students in the database.
+     *
+     * @return The number of students.
+     */
+    int countStudents();
+
+    /**
+     * Retrieves one page of the students matching the criteria, in the order of the criteria.
+     * Filtering and sorting run in the database, and pages are read with keyset pagination.
+     *
+     * @param criteria The filters and the sort order.
+     * @param after    The last student of the previous page, or null for the first page.
+     * @param limit    The maximum number of students in the page.
+     * @return The students of the page.
+     */
+    List<Student> findStudents(StudentCriteria criteria, Student after, int limit);
+
+    /**
+     * Counts the students matching the criteria.
+     *
+     * @param criteria The filters, the sort order is ignored.
+     * @return The number of matching students.
+     */
+    int countStudents(StudentCriteria criteria);
+
+    /**
+     * Retrieves the student at a position of the order of the criteria,
+     * to start keyset pagination in the middle of the result.
+     *
+     * @param criteria The filters and the sort order.
+     * @param offset   The 0-based position.
+     * @return The Student at that position, or null if there are fewer matching students.
+     */
+    Student getStudentAtOffset(StudentCriteria criteria, int offset);
+
+    /**
+     * Streams all students from the database without loading the whole table into memory.
+     * Rows are read through a server-side cursor, fetchSize rows per round trip.
+     * The stream holds a database connection until it is fully consumed or closed,
+     * so it should be used with try-with-resources.
+     *
+     * @param fetchSize The number of rows fetched from the server at a time.
+     * @return A sequential stream of Student objects ordered by their ID.
+     * @throws DataAccessException if the query fails or the stream fails while it is consumed.
+     */
+    Stream<Student> streamAllStudents(int fetchSize);
+
+    /**
+     * Retrieves the ID and name of all students for list views.
+     * Only these columns are read, so the query is cheaper than getAllStudents().
+     *
+     * @return A list of StudentSummary objects ordered by ID.
+     */
+    List<StudentSummary> getStudentSummaries();
+
+    /**
+     * The ID returned for a student that could not be added now but is queued to be added later,
+     * e.g. by an OutboxStudentDAO while the database is not available.
+     */
+    int QUEUED = -1;
+
     /**
      * Adds a new student to the database.
      *
      * @param student The Student object to be added.
-     * @return
+     * @return The generated student ID, QUEUED if the student will be added later, or 0 if it was not added.
      */
     int addStudent(Student student);
 
+    /**
+     * Adds many students to the database using JDBC batching, one transaction per batch.
+     * The generated IDs are also set on the Student objects.
+     *
+     * @param students The students to be added.
+     * @return The generated student IDs in the iteration order of the collection, QUEUED for students
+     * that will be added later and 0 for students not added.
+     */
+    int[] addStudents(Collection<Student> students);
+
+    /**
+     * Adds a student with a given ID to the database.
+     */
     void addStudent(int studentID, String firstname, String lastname, String email, String grade, String phoneNumber, LocalDate dateOfBirth);
 
     /**
@@ -51,6 +161,14 @@ public interface StudentDAO {
      */
     void updateStudent(int studentID, String firstname, String lastname, String email, String grade, String phoneNumber, LocalDate dateOfBirth);
 
+    /**
+     * Writes the fields of a student that changed since it was loaded, and nothing if none changed.
+     * The student is marked clean once the changes are stored.
+     *
+     * @param student The student with its changed fields.
+     */
+    void updateStudent(Student student);
+
     /**
      * Deletes a student from the database using their unique ID.
      *
@@ -1,16 +1,80 @@
 package dao;
 
 import model.Student;
+import model.StudentField;
+import model.StudentSummary;
 import singleton.DatabaseConnection;
 
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 public class StudentDAOImpl implements StudentDAO {
 
-    private final Connection conn = DatabaseConnection.getConnection();
+    /**
+     * The column layout of a student row, shared by the queries and the TableExporter.
+     */
+    static final String STUDENT_COLUMNS = "studentID, firstname, lastname, eMail, grade, phoneNumber, dayOfBirth";
+
+    // Projection for list views that only show the name
+    static final String SUMMARY_COLUMNS = "studentID, firstname, lastname";
+
+    private static final RowMapper<Student> STUDENT_MAPPER = StudentRowMapper.forColumns(STUDENT_COLUMNS);
+    static final RowMapper<StudentSummary> SUMMARY_MAPPER = summaryMapper(SUMMARY_COLUMNS);
+
+    // The largest IN list of a single query, a power of two
+    private static final int IN_LIST_LIMIT = 512;
+
+    static final String INSERT_STUDENT =
+            "INSERT INTO student (firstname, lastname, eMail, grade, phoneNumber, dayOfBirth) VALUES (?, ?, ?, ?, ?, ?)";
+
+    static final String INSERT_STUDENT_WITH_ID =
+            "INSERT INTO student (studentID, firstname, lastname, eMail, grade, phoneNumber, dayOfBirth) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    static final String DELETE_STUDENT = "DELETE FROM student WHERE studentID = ?";
+
+    // The mask of all StudentFields, in the column order of the inserts
+    static final int ALL_FIELDS = (1 << StudentField.values().length) - 1;
+
+    // The column of each StudentField, indexed by ordinal
+    private static final String[] FIELD_COLUMNS = {"firstname", "lastname", "eMail", "grade", "phoneNumber", "dayOfBirth"};
+
+    // One UPDATE per set of dirty fields, indexed by the dirty-field mask, so every shape is built only once
+    private static final String[] UPDATE_BY_DIRTY_MASK = updateStatements();
+
+    private final int batchSize;
+
+    /**
+     * Constructs a new StudentDAOImpl. The batch size for addStudents can be set with
+     * the system property db.batchSize.
+     */
+    public StudentDAOImpl() {
+        this(Integer.getInteger("db.batchSize", 500));
+    }
+
+    /**
+     * Constructs a new StudentDAOImpl with a given batch size.
+     *
+     * @param batchSize The number of rows sent and committed together by addStudents.
+     */
+    public StudentDAOImpl(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Invalid batch size!");
+        }
+        this.batchSize = batchSize;
+    }
 
     /**
      * Executes a SQL query to retrieve a student based on a given parameter.
@@ -19,11 +83,12 @@ public class StudentDAOImpl implements StudentDAO {
      * @param sql   The SQL query to execute.
      * @param param The parameter (ID or last name) to filter the student records.
      * @return A Student object if found, otherwise null.
+     * @throws DataAccessException if the query fails, so a failure is not taken for a missing student.
      */
 
     private Student getStudentFromQuery(String sql, Object param) {
         Student student = null;
-        try (PreparedStatement p = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement p = conn.prepareStatement(sql)) {
             //Checking the parameter type and setting it appropriately
             if (param instanceof Integer) {
                 p.setInt(1, (Integer) param);
@@ -32,19 +97,15 @@ public class StudentDAOImpl implements StudentDAO {
             }
             try (ResultSet rs = p.executeQuery()) {
                 if (rs.next()) {
-                    student = new Student(
-                            rs.getInt("studentID"),
-                            rs.getString("firstname"),
-                            rs.getString("lastname"),
-                            rs.getString("eMail"),
-                            rs.getString("grade"),
-                            rs.getString("phoneNumber"),
-                            rs.getDate("dayOfBirth").toLocalDate()
-                    );
+                    student = STUDENT_MAPPER.mapRow(rs);
                 }
             }
         } catch (SQLException e) {
-            System.out.println(e.getMessage());
+            String message = "Loading the student failed: " + e.getMessage();
+            if (DatabaseUnavailableException.isConnectionFailure(e)) {
+                throw new DatabaseUnavailableException(message, e);
+            }
+            throw new DataAccessException(message, e);
         }
         return student;
     }
@@ -54,10 +115,103 @@ public class StudentDAOImpl implements StudentDAO {
      *
      * @param id The unique identifier of the student.
      * @return The Student object if found, otherwise null.
+     * @throws DataAccessException if the student cannot be loaded.
      */
     @Override
     public Student getStudentById(int id) {
-        return getStudentFromQuery("select * from student where studentID = ?", id);
+        return getStudentFromQuery("select " + STUDENT_COLUMNS + " from student where studentID = ?", id);
+    }
+
+    /**
+     * Retrieves many students by their IDs. The sorted, distinct IDs are split into chunks of at most
+     * IN_LIST_LIMIT IDs, and each chunk is one parameterized "studentID IN (...)" query.
+     * Chunks run in parallel on at most as many threads as the pool has connections, so no chunk waits
+     * for a connection that the other chunks hold. The IN list of a chunk is padded to the next power
+     * of two by repeating its last ID, so only a few statement shapes exist and they stay in the
+     * statement cache.
+     *
+     * @param ids The unique identifiers of the students.
+     * @return A map from student ID to Student, ordered by ID.
+     * @throws DataAccessException if a chunk cannot be loaded.
+     */
+    @Override
+    public Map<Integer, Student> getStudentsByIds(int[] ids) {
+        int[] distinct = Arrays.stream(ids).filter(id -> id > 0).sorted().distinct().toArray();
+        Map<Integer, Student> students = new TreeMap<>();
+        if (distinct.length == 0) {
+            return students;
+        }
+        if (distinct.length <= IN_LIST_LIMIT) {
+            students.putAll(getStudentChunk(distinct, 0, distinct.length));
+            return students;
+        }
+
+        // Each worker takes the next chunk until none is left
+        int chunkCount = (distinct.length + IN_LIST_LIMIT - 1) / IN_LIST_LIMIT;
+        int workerCount = Math.min(chunkCount, DatabaseConnection.getPool().getMaxSize());
+        AtomicInteger nextChunk = new AtomicInteger();
+        List<Future<Map<Integer, Student>>> workers = new ArrayList<>(workerCount);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < workerCount; i++) {
+                workers.add(executor.submit(() -> {
+                    Map<Integer, Student> loaded = new HashMap<>();
+                    int chunk;
+                    try {
+                        while ((chunk = nextChunk.getAndIncrement()) < chunkCount) {
+                            int from = chunk * IN_LIST_LIMIT;
+                            loaded.putAll(getStudentChunk(distinct, from, Math.min(from + IN_LIST_LIMIT, distinct.length)));
+                        }
+                    } catch (DataAccessException e) {
+                        nextChunk.set(chunkCount); // the other workers stop after their current chunk
+                        throw e;
+                    }
+                    return loaded;
+                }));
+            }
+            for (Future<Map<Integer, Student>> worker : workers) {
+                students.putAll(worker.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataAccessException("Interrupted while loading students.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof DataAccessException failure) {
+                throw failure;
+            }
+            throw new DataAccessException("Loading students failed: " + e.getCause().getMessage(), e.getCause());
+        }
+        return students;
+    }
+
+    /**
+     * Loads the students with the IDs ids[from] to ids[end - 1] with a single query.
+     *
+     * @throws DataAccessException if the query fails, so a caller never gets a partial result unnoticed.
+     */
+    private Map<Integer, Student> getStudentChunk(int[] ids, int from, int end) {
+        int size = Integer.highestOneBit(end - from - 1) << 1;
+        size = Math.max(1, Math.min(size, IN_LIST_LIMIT));
+        StringBuilder sql = new StringBuilder("select ").append(STUDENT_COLUMNS).append(" from student where studentID in (?");
+        for (int i = 1; i < size; i++) {
+            sql.append(", ?");
+        }
+        sql.append(')');
+
+        Map<Integer, Student> students = new HashMap<>();
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement p = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < size; i++) {
+                p.setInt(i + 1, ids[Math.min(from + i, end - 1)]);
+            }
+            try (ResultSet rs = p.executeQuery()) {
+                while (rs.next()) {
+                    Student student = STUDENT_MAPPER.mapRow(rs);
+                    students.put(student.getStudentID(), student);
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Loading students " + ids[from] + " to " + ids[end - 1] + " failed: " + e.getMessage(), e);
+        }
+        return students;
     }
 
     /**
@@ -65,10 +219,11 @@ public class StudentDAOImpl implements StudentDAO {
      *
      * @param name The last name of the student.
      * @return The Student object if found, otherwise null.
+     * @throws DataAccessException if the student cannot be loaded.
      */
     @Override
     public Student getStudentByLastName(String name) {
-        return getStudentFromQuery("select * from student where lastname = ?", name);
+        return getStudentFromQuery("select " + STUDENT_COLUMNS + " from student where lastname = ?", name);
     }
 
     /**
@@ -80,20 +235,11 @@ public class StudentDAOImpl implements StudentDAO {
     @Override
     public List<Student> getAllStudents() {
         List<Student> students = new ArrayList<>();
-        Student student = null;
-        String sql = "select studentID, firstname, lastname, eMail, grade, phoneNumber, dayOfBirth from student";
-        try (PreparedStatement p = conn.prepareStatement(sql); ResultSet rs = p.executeQuery()) {
+        String sql = "select " + STUDENT_COLUMNS + " from student";
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement p = conn.prepareStatement(sql);
+             ResultSet rs = p.executeQuery()) {
             while (rs.next()) {
-                    student = new Student(
-                            rs.getInt("studentID"),
-                            rs.getString("firstname"),
-                            rs.getString("lastname"),
-                            rs.getString("eMail"),
-                            rs.getString("grade"),
-                            rs.getString("phoneNumber"),
-                            rs.getDate("dayOfBirth").toLocalDate()
-                    );
-                students.add(student);
+                students.add(STUDENT_MAPPER.mapRow(rs));
             }
         } catch (SQLException e) {
             System.out.println(e.getMessage());
@@ -101,45 +247,336 @@ public class StudentDAOImpl implements StudentDAO {
         return students;
     }
 
+    /**
+     * Retrieves one page of students using keyset pagination on the primary key.
+     *
+     * @param afterId The last student ID of the previous page, 0 for the first page.
+     * @param limit   The maximum number of students in the page.
+     * @return The students with an ID greater than afterId, ordered by ID.
+     */
     @Override
-    public int addStudent(Student student) {
+    public List<Student> getStudentsAfter(int afterId, int limit) {
+        List<Student> students = new ArrayList<>(limit);
+        String sql = "select " + STUDENT_COLUMNS + " from student where studentID > ? order by studentID limit ?";
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement p = conn.prepareStatement(sql)) {
+            p.setInt(1, afterId);
+            p.setInt(2, limit);
+            try (ResultSet rs = p.executeQuery()) {
+                while (rs.next()) {
+                    students.add(STUDENT_MAPPER.mapRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        }
+        return students;
+    }
+
+    /**
+     * Counts the students in the database.
+     *
+     * @return The number of students, 0 if the query failed.
+     */
+    @Override
+    public int countStudents() {
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement p = conn.prepareStatement("select count(*) from student");
+             ResultSet rs = p.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        }
         return 0;
     }
 
+    /**
+     * Retrieves one page of the students matching the criteria. The SQL text is cached per criteria shape.
+     *
+     * @param criteria The filters and the sort order.
+     * @param after    The last student of the previous page, or null for the first page.
+     * @param limit    The maximum number of students in the page.
+     * @return The students of the page.
+     */
     @Override
-    public void addStudent(int studentID, String firstname, String lastname, String email, String grade, String phoneNumber, LocalDate dateOfBirth) {
+    public List<Student> findStudents(StudentCriteria criteria, Student after, int limit) {
+        List<Student> students = new ArrayList<>(limit);
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement p = conn.prepareStatement(StudentCriteriaSql.page(criteria, after))) {
+            int index = StudentCriteriaSql.bind(p, criteria, after);
+            p.setInt(index, limit);
+            try (ResultSet rs = p.executeQuery()) {
+                while (rs.next()) {
+                    students.add(STUDENT_MAPPER.mapRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        }
+        return students;
+    }
+
+    /**
+     * Counts the students matching the criteria.
+     *
+     * @param criteria The filters, the sort order is ignored.
+     * @return The number of matching students, 0 if the query failed.
+     */
+    @Override
+    public int countStudents(StudentCriteria criteria) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement p = conn.prepareStatement(StudentCriteriaSql.count(criteria))) {
+            StudentCriteriaSql.bind(p, criteria, null);
+            try (ResultSet rs = p.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        }
+        return 0;
+    }
+
+    /**
+     * Retrieves the student at a position of the order of the criteria.
+     *
+     * @param criteria The filters and the sort order.
+     * @param offset   The 0-based position.
+     * @return The Student at that position, or null if there are fewer matching students.
+     */
+    @Override
+    public Student getStudentAtOffset(StudentCriteria criteria, int offset) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement p = conn.prepareStatement(StudentCriteriaSql.atOffset(criteria))) {
+            int index = StudentCriteriaSql.bind(p, criteria, null);
+            p.setInt(index, offset);
+            try (ResultSet rs = p.executeQuery()) {
+                return rs.next() ? STUDENT_MAPPER.mapRow(rs) : null;
+            }
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Streams all students from the database through a server-side cursor.
+     * The connection, statement and result set are closed when the last row has been read,
+     * when the stream is closed, or when reading a row fails.
+     *
+     * @param fetchSize The number of rows fetched from the server at a time.
+     * @return A sequential stream of Student objects ordered by their ID.
+     */
+    @Override
+    public Stream<Student> streamAllStudents(int fetchSize) {
+        return CursorStreams.stream("select " + STUDENT_COLUMNS + " from student order by studentID", fetchSize, STUDENT_MAPPER);
+    }
+
+    /**
+     * Retrieves the ID and name of all students, without reading the other columns.
+     *
+     * @return A list of StudentSummary objects ordered by ID.
+     */
+    @Override
+    public List<StudentSummary> getStudentSummaries() {
+        List<StudentSummary> summaries = new ArrayList<>();
+        String sql = "select " + SUMMARY_COLUMNS + " from student order by studentID";
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement p = conn.prepareStatement(sql);
+             ResultSet rs = p.executeQuery()) {
+            while (rs.next()) {
+                summaries.add(SUMMARY_MAPPER.mapRow(rs));
+            }
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+        }
+        return summaries;
+    }
+
+    /**
+     * Builds the mapper for the summary projection, with the column indexes resolved once.
+     */
+    private static RowMapper<StudentSummary> summaryMapper(String columns) {
+        ColumnLayout layout = ColumnLayout.of(columns);
+        int studentID = layout.indexOf("studentID");
+        int firstname = layout.indexOf("firstname");
+        int lastname = layout.indexOf("lastname");
+        return rs -> new StudentSummary(rs.getInt(studentID), rs.getString(firstname), rs.getString(lastname));
+    }
+
+    /**
+     * Adds a single student. This goes through the batch insert, so the generated ID is returned.
+     *
+     * @param student The Student object to be added.
+     * @return The generated student ID, or 0 if the student was not added.
+     */
+    @Override
+    public int addStudent(Student student) {
+        return addStudents(List.of(student))[0];
+    }
+
+    /**
+     * Adds many students using JDBC batching. The students are inserted in chunks of
+     * batchSize rows and every chunk is committed as its own transaction.
+     * If a chunk fails, it is rolled back, its IDs stay 0 and the remaining chunks are still inserted.
+     * When the connection already takes part in a surrounding transaction, no chunk is committed here
+     * and a failure is thrown instead, so the caller can roll back the whole transaction.
+     *
+     * @param students The students to be added.
+     * @return The generated student IDs in the iteration order of the collection, 0 for students not added.
+     * @throws DatabaseUnavailableException if the database cannot be reached; the chunks before are kept.
+     */
+    @Override
+    public int[] addStudents(Collection<Student> students) {
+        int[] ids = new int[students.size()];
+        if (ids.length == 0) {
+            return ids;
+        }
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement p = conn.prepareStatement(INSERT_STUDENT, Statement.RETURN_GENERATED_KEYS)) {
+            boolean ownTransaction = conn.getAutoCommit();
+            if (ownTransaction) {
+                conn.setAutoCommit(false);
+            }
+            try {
+                List<Student> chunk = new ArrayList<>(Math.min(batchSize, ids.length));
+                int offset = 0;
+                for (Student student : students) {
+                    chunk.add(student);
+                    if (chunk.size() == batchSize) {
+                        insertChunk(conn, p, chunk, ids, offset, ownTransaction);
+                        offset += chunk.size();
+                        chunk.clear();
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    insertChunk(conn, p, chunk, ids, offset, ownTransaction);
+                }
+            } finally {
+                if (ownTransaction) {
+                    conn.setAutoCommit(true);
+                }
+            }
+        } catch (SQLException e) {
+            reportWriteFailure(e);
+        }
+        return ids;
+    }
+
+    /**
+     * Inserts one chunk as a JDBC batch and stores the generated keys at ids[offset...].
+     */
+    private void insertChunk(Connection conn, PreparedStatement p, List<Student> chunk, int[] ids, int offset,
+                             boolean ownTransaction) throws SQLException {
+        try {
+            for (Student student : chunk) {
+                bindFields(p, 1, student, ALL_FIELDS);
+                p.addBatch();
+            }
+            p.executeBatch();
+
+            // Generated keys come back in the order the rows were added to the batch
+            int[] chunkIds = new int[chunk.size()];
+            try (ResultSet keys = p.getGeneratedKeys()) {
+                for (int i = 0; i < chunkIds.length && keys.next(); i++) {
+                    chunkIds[i] = keys.getInt(1);
+                }
+            }
+            if (ownTransaction) {
+                conn.commit();
+            }
+            for (int i = 0; i < chunkIds.length; i++) {
+                ids[offset + i] = chunkIds[i];
+                chunk.get(i).setStudentID(chunkIds[i]);
+            }
+        } catch (SQLException e) {
+            p.clearBatch();
+            if (!ownTransaction) {
+                throw new DataAccessException("Adding students failed: " + e.getMessage(), e);
+            }
+            conn.rollback();
+            String message = "Students " + (offset + 1) + " to " + (offset + chunk.size()) + " not added: " + e.getMessage();
+            if (DatabaseUnavailableException.isConnectionFailure(e)) {
+                throw new DatabaseUnavailableException(message, e); // the following chunks would fail as well
+            }
+            System.out.println(message);
+        }
+    }
 
-        final String sql = "INSERT INTO student (firstname, lastname, eMail, grade, phoneNumber, dayOfBirth) VALUES (?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement p = conn.prepareStatement(sql)) {
+    /**
+     * Adds a student with a given ID, e.g. when restoring a removed student.
+     */
+    @Override
+    public void addStudent(int studentID, String firstname, String lastname, String email, String grade, String phoneNumber, LocalDate dateOfBirth) {
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement p = conn.prepareStatement(INSERT_STUDENT_WITH_ID)) {
             p.setInt(1, studentID);
             p.setString(2, firstname);
             p.setString(3, lastname);
             p.setString(4, email);
             p.setString(5, grade);
             p.setString(6, phoneNumber);
-            p.setDate(7, Date.valueOf(dateOfBirth));
+            p.setDate(7, toSqlDate(dateOfBirth));
 
-            int studentUpdate = p.executeUpdate();
-            if (studentUpdate > 0) {
-                System.out.println("Student updated successfully");
+            int studentAdded = p.executeUpdate();
+            if (studentAdded > 0) {
+                System.out.println("Student added successfully");
             } else {
-                System.out.println("Student not found.");
+                System.out.println("Student not added.");
             }
         } catch (SQLException e) {
-            System.out.println(e.getMessage());
+            reportWriteFailure(e);
         }
     }
 
+    /**
+     * Reports a failed write: a write the database refused is printed, as before, while a database that
+     * cannot be reached is thrown as a DatabaseUnavailableException, so the write is not lost unnoticed.
+     */
+    private static void reportWriteFailure(SQLException e) {
+        if (DatabaseUnavailableException.isConnectionFailure(e)) {
+            throw new DatabaseUnavailableException(e.getMessage(), e);
+        }
+        System.out.println(e.getMessage());
+    }
+
+    private static Date toSqlDate(LocalDate date) {
+        return date != null ? Date.valueOf(date) : null;
+    }
+
+    /**
+     * Binds the fields of a student that are in the mask, in the order of StudentField, starting at a parameter index.
+     *
+     * @return The index of the next parameter.
+     */
+    static int bindFields(PreparedStatement p, int index, Student student, int mask) throws SQLException {
+        for (StudentField field : StudentField.values()) {
+            if ((mask & field.bit()) != 0) {
+                switch (field) {
+                    case FIRSTNAME -> p.setString(index++, student.getFirstname());
+                    case LASTNAME -> p.setString(index++, student.getLastname());
+                    case EMAIL -> p.setString(index++, student.getEmail());
+                    case GRADE -> p.setString(index++, student.getGrade());
+                    case PHONE_NUMBER -> p.setString(index++, student.getPhoneNumber());
+                    case DATE_OF_BIRTH -> p.setDate(index++, toSqlDate(student.getDateOfBirth()));
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns the UPDATE that writes the fields in a mask of StudentField bits.
+     */
+    static String updateStatement(int mask) {
+        return UPDATE_BY_DIRTY_MASK[mask];
+    }
+
     @Override
     public void updateStudent(int studentID, String firstname, String lastname, String email, String grade, String phoneNumber, LocalDate dateOfBirth) {
         final String sql = "UPDATE student SET firstname = ?, lastname = ?, eMail = ?, grade = ?, phoneNumber = ?, dayOfBirth = ? WHERE studentID = ?";
-        try (PreparedStatement p = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement p = conn.prepareStatement(sql)) {
             p.setString(1, firstname);
             p.setString(2, lastname);
             p.setString(3, email);
             p.setString(4, grade);
             p.setString(5, phoneNumber);
-            p.setDate(6, Date.valueOf(dateOfBirth));
+            p.setDate(6, toSqlDate(dateOfBirth));
             p.setInt(7, studentID);
             int studentUpdate = p.executeUpdate();
             if (studentUpdate > 0) {
@@ -148,14 +585,57 @@ public class StudentDAOImpl implements StudentDAO {
                 System.out.println("Student not found.");
             }
         } catch (SQLException e) {
-            System.out.println(e.getMessage());
+            reportWriteFailure(e);
+        }
+    }
+
+    /**
+     * Writes only the changed columns of a student. The UPDATE for each set of dirty fields is built once,
+     * and the pooled connection keeps it prepared like every other constant statement.
+     * Nothing is written if no field changed. After a successful update the student is marked clean.
+     *
+     * @param student The student with its changed fields.
+     */
+    @Override
+    public void updateStudent(Student student) {
+        int mask = student.getDirtyMask();
+        if (mask == 0) {
+            return;
+        }
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement p = conn.prepareStatement(UPDATE_BY_DIRTY_MASK[mask])) {
+            int index = bindFields(p, 1, student, mask);
+            p.setInt(index, student.getStudentID());
+            if (p.executeUpdate() > 0) {
+                student.markClean();
+                System.out.println("Student updated successfully");
+            } else {
+                System.out.println("Student not found.");
+            }
+        } catch (SQLException e) {
+            reportWriteFailure(e);
         }
     }
 
+    private static String[] updateStatements() {
+        StudentField[] fields = StudentField.values();
+        String[] statements = new String[1 << fields.length];
+        for (int mask = 1; mask < statements.length; mask++) {
+            StringBuilder sql = new StringBuilder("UPDATE student SET ");
+            for (StudentField field : fields) {
+                if ((mask & field.bit()) != 0) {
+                    sql.append(FIELD_COLUMNS[field.ordinal()]).append(" = ?, ");
+                }
+            }
+            sql.setLength(sql.length() - 2);
+            statements[mask] = sql.append(" WHERE studentID = ?").toString();
+        }
+        return statements;
+    }
+
     @Override
     public void deleteStudent(int id) {
-        final String sql = "DELETE FROM student WHERE studentID = ?";
-        try (PreparedStatement p = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement p = conn.prepareStatement(DELETE_STUDENT)) {
             p.setInt(1, id);
             int studentDeleted = p.executeUpdate();
             if (studentDeleted > 0) {
@@ -164,7 +644,7 @@ public class StudentDAOImpl implements StudentDAO {
                 System.out.println("Student with ID " + id + " has not found.");
             }
         } catch (SQLException e) {
-            System.out.println(e.getMessage());
+            reportWriteFailure(e);
         }
     }
 }
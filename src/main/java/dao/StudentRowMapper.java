@@ -0,0 +1,57 @@
+package dao;
+
+import model.Student;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The StudentRowMapper class maps rows of the student table to Student objects.
+ *
+ * A mapper is built once per select list and keeps the index of every student column,
+ * so mapping a row does no lookups by name. Columns missing from the select list are left
+ * null (or 0 for the ID), which allows projections that only read the columns they need.
+ */
+final class StudentRowMapper implements RowMapper<Student> {
+
+    private static final Map<String, StudentRowMapper> MAPPERS = new ConcurrentHashMap<>();
+
+    private final int studentID, firstname, lastname, email, grade, phoneNumber, dayOfBirth;
+
+    private StudentRowMapper(ColumnLayout layout) {
+        studentID = layout.indexOf("studentID");
+        firstname = layout.indexOf("firstname");
+        lastname = layout.indexOf("lastname");
+        email = layout.indexOf("eMail");
+        grade = layout.indexOf("grade");
+        phoneNumber = layout.indexOf("phoneNumber");
+        dayOfBirth = layout.indexOf("dayOfBirth");
+    }
+
+    /**
+     * Returns the mapper for a select list.
+     *
+     * @param columns The comma separated column names, in select order.
+     * @return The cached StudentRowMapper.
+     */
+    static StudentRowMapper forColumns(String columns) {
+        return MAPPERS.computeIfAbsent(columns, c -> new StudentRowMapper(ColumnLayout.of(c)));
+    }
+
+    @Override
+    public Student mapRow(ResultSet rs) throws SQLException {
+        Date birth = dayOfBirth > 0 ? rs.getDate(dayOfBirth) : null;
+        return new Student(
+                studentID > 0 ? rs.getInt(studentID) : 0,
+                firstname > 0 ? rs.getString(firstname) : null,
+                lastname > 0 ? rs.getString(lastname) : null,
+                email > 0 ? rs.getString(email) : null,
+                grade > 0 ? rs.getString(grade) : null,
+                phoneNumber > 0 ? rs.getString(phoneNumber) : null,
+                birth != null ? birth.toLocalDate() : null
+        );
+    }
+}
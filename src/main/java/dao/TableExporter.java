@@ -0,0 +1,383 @@
+package dao;
+
+import singleton.DatabaseConnection;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The TableExporter class writes the student, course and enrollment tables to CSV or JSON files.
+ *
+ * Rows are encoded straight from the ResultSet into a fixed size byte buffer, which is written
+ * to a FileChannel whenever it is full. No Student or Course objects are built, and the memory
+ * used stays at the buffer size plus one fetch of rows from the server-side cursor,
+ * whatever the size of the table.
+ */
+public class TableExporter {
+
+    /**
+     * The supported file formats.
+     */
+    public enum Format {
+        CSV(".csv"), JSON(".json");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * The exportable tables with the column layout of their DAO.
+     */
+    public enum Table {
+        STUDENT("student", StudentDAOImpl.STUDENT_COLUMNS, "studentID"),
+        COURSE("course", CourseDAOImpl.COURSE_COLUMNS, "courseID"),
+        ENROLLMENT("enrollment", CourseDAOImpl.ENROLLMENT_COLUMNS, "studentID, courseID");
+
+        private final String name;
+        private final String columns;
+        private final String key;
+
+        Table(String name, String columns, String key) {
+            this.name = name;
+            this.columns = columns;
+            this.key = key;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    private final int bufferSize;
+    private final int fetchSize;
+
+    /**
+     * Constructs a new TableExporter with a 64 KiB buffer and 1000 rows per fetch.
+     */
+    public TableExporter() {
+        this(64 * 1024, 1000);
+    }
+
+    /**
+     * Constructs a new TableExporter with a given memory budget.
+     *
+     * @param bufferSize The size of the output buffer in bytes.
+     * @param fetchSize  The number of rows fetched from the server at a time.
+     */
+    public TableExporter(int bufferSize, int fetchSize) {
+        if (bufferSize < 1024 || fetchSize <= 0) {
+            throw new IllegalArgumentException("Invalid export buffer or fetch size!");
+        }
+        this.bufferSize = bufferSize;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Exports a whole table into a file. An existing file is overwritten.
+     *
+     * @param table  The table to export.
+     * @param format The file format.
+     * @param target The file to write.
+     * @param gzip   Whether the file is compressed with gzip.
+     * @return The number of rows and bytes written and the time it took.
+     * @throws IOException         if the file cannot be written.
+     * @throws DataAccessException if the table cannot be read.
+     */
+    public ExportResult export(Table table, Format format, Path target, boolean gzip) throws IOException {
+        long start = System.nanoTime();
+        String sql = "SELECT " + table.columns + " FROM " + table.name + " ORDER BY " + table.key;
+        long rows = 0;
+
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             ByteSink out = new ByteSink(channel, bufferSize, gzip);
+             Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement p = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            p.setFetchSize(fetchSize);
+            try (ResultSet rs = p.executeQuery()) {
+                ResultSetMetaData meta = rs.getMetaData();
+                int columnCount = meta.getColumnCount();
+                boolean[] numeric = new boolean[columnCount + 1];
+                byte[][] names = new byte[columnCount + 1][];
+                for (int i = 1; i <= columnCount; i++) {
+                    int type = meta.getColumnType(i);
+                    numeric[i] = type == Types.INTEGER || type == Types.SMALLINT || type == Types.TINYINT;
+                    names[i] = meta.getColumnLabel(i).getBytes(StandardCharsets.UTF_8);
+                }
+
+                if (format == Format.CSV) {
+                    for (int i = 1; i <= columnCount; i++) {
+                        if (i > 1) {
+                            out.write(',');
+                        }
+                        out.write(names[i]);
+                    }
+                    out.write('\n');
+                } else {
+                    out.write('[');
+                }
+
+                while (rs.next()) {
+                    if (format == Format.CSV) {
+                        writeCsvRow(rs, columnCount, numeric, out);
+                    } else {
+                        writeJsonRow(rs, columnCount, numeric, names, rows == 0, out);
+                    }
+                    rows++;
+                }
+                if (format == Format.JSON) {
+                    out.write(rows == 0 ? "]\n" : "\n]\n");
+                }
+            }
+            out.finish();
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            return new ExportResult(table.name, target, rows, out.bytesWritten, elapsed);
+        } catch (SQLException e) {
+            throw new DataAccessException("Exporting table " + table.name + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns the file name of an export, e.g. student.csv.gz.
+     *
+     * @param table  The exported table.
+     * @param format The file format.
+     * @param gzip   Whether the file is compressed.
+     * @return The file name.
+     */
+    public static String fileName(Table table, Format format, boolean gzip) {
+        return table.name + format.getExtension() + (gzip ? ".gz" : "");
+    }
+
+    private static void writeCsvRow(ResultSet rs, int columnCount, boolean[] numeric, ByteSink out) throws SQLException, IOException {
+        for (int i = 1; i <= columnCount; i++) {
+            if (i > 1) {
+                out.write(',');
+            }
+            if (numeric[i]) {
+                int value = rs.getInt(i);
+                if (!rs.wasNull()) {
+                    out.writeInt(value);
+                }
+                continue;
+            }
+            String value = rs.getString(i);
+            if (value == null) {
+                continue;
+            }
+            boolean quote = false;
+            for (int c = 0; c < value.length() && !quote; c++) {
+                char ch = value.charAt(c);
+                quote = ch == ',' || ch == '"' || ch == '\n' || ch == '\r';
+            }
+            if (!quote) {
+                out.writeUtf8(value);
+                continue;
+            }
+            out.write('"');
+            for (int c = 0; c < value.length(); c++) {
+                char ch = value.charAt(c);
+                if (ch == '"') {
+                    out.write('"');
+                }
+                out.writeUtf8(value, c);
+                if (Character.isHighSurrogate(ch)) {
+                    c++;
+                }
+            }
+            out.write('"');
+        }
+        out.write('\n');
+    }
+
+    private static void writeJsonRow(ResultSet rs, int columnCount, boolean[] numeric, byte[][] names, boolean first,
+                                     ByteSink out) throws SQLException, IOException {
+        out.write(first ? "\n{" : ",\n{");
+        for (int i = 1; i <= columnCount; i++) {
+            if (i > 1) {
+                out.write(',');
+            }
+            out.write('"');
+            out.write(names[i]);
+            out.write("\":");
+            if (numeric[i]) {
+                int value = rs.getInt(i);
+                if (rs.wasNull()) {
+                    out.write("null");
+                } else {
+                    out.writeInt(value);
+                }
+                continue;
+            }
+            String value = rs.getString(i);
+            if (value == null) {
+                out.write("null");
+                continue;
+            }
+            out.write('"');
+            for (int c = 0; c < value.length(); c++) {
+                char ch = value.charAt(c);
+                switch (ch) {
+                    case '"' -> out.write("\\\"");
+                    case '\\' -> out.write("\\\\");
+                    case '\n' -> out.write("\\n");
+                    case '\r' -> out.write("\\r");
+                    case '\t' -> out.write("\\t");
+                    default -> {
+                        if (ch < 0x20) {
+                            out.write(String.format("\\u%04x", (int) ch));
+                        } else {
+                            out.writeUtf8(value, c);
+                            if (Character.isHighSurrogate(ch)) {
+                                c++;
+                            }
+                        }
+                    }
+                }
+            }
+            out.write('"');
+        }
+        out.write('}');
+    }
+
+    /**
+     * A fixed size byte buffer in front of a FileChannel, optionally compressed with gzip.
+     * Characters are encoded to UTF-8 directly into the buffer.
+     */
+    private static final class ByteSink implements AutoCloseable {
+        private final FileChannel channel;
+        private final GZIPOutputStream gzip;
+        private final byte[] buffer;
+        private int position;
+        // The size of the file, compressed if gzip is on; set by finish()
+        private long bytesWritten;
+        private boolean finished;
+
+        private ByteSink(FileChannel channel, int bufferSize, boolean compress) throws IOException {
+            this.channel = channel;
+            this.buffer = new byte[bufferSize];
+            this.gzip = compress ? new GZIPOutputStream(Channels.newOutputStream(channel), bufferSize) : null;
+        }
+
+        private void write(int b) throws IOException {
+            if (position == buffer.length) {
+                flush();
+            }
+            buffer[position++] = (byte) b;
+        }
+
+        private void write(byte[] bytes) throws IOException {
+            for (byte b : bytes) {
+                write(b);
+            }
+        }
+
+        // Only used for ASCII literals
+        private void write(String ascii) throws IOException {
+            for (int i = 0; i < ascii.length(); i++) {
+                write(ascii.charAt(i));
+            }
+        }
+
+        private void writeInt(int value) throws IOException {
+            if (value < 0) {
+                write('-');
+                if (value == Integer.MIN_VALUE) {
+                    write("2147483648");
+                    return;
+                }
+                value = -value;
+            }
+            int divisor = 1;
+            while (value / divisor >= 10) {
+                divisor *= 10;
+            }
+            for (; divisor > 0; divisor /= 10) {
+                write('0' + (value / divisor) % 10);
+            }
+        }
+
+        private void writeUtf8(String value) throws IOException {
+            for (int i = 0; i < value.length(); i++) {
+                writeUtf8(value, i);
+                if (Character.isHighSurrogate(value.charAt(i))) {
+                    i++;
+                }
+            }
+        }
+
+        /**
+         * Writes the code point at index i. A surrogate pair is written as one code point.
+         */
+        private void writeUtf8(String value, int i) throws IOException {
+            int cp = value.codePointAt(i);
+            if (cp < 0x80) {
+                write(cp);
+            } else if (cp < 0x800) {
+                write(0xC0 | (cp >> 6));
+                write(0x80 | (cp & 0x3F));
+            } else if (cp < 0x10000) {
+                write(0xE0 | (cp >> 12));
+                write(0x80 | ((cp >> 6) & 0x3F));
+                write(0x80 | (cp & 0x3F));
+            } else {
+                write(0xF0 | (cp >> 18));
+                write(0x80 | ((cp >> 12) & 0x3F));
+                write(0x80 | ((cp >> 6) & 0x3F));
+                write(0x80 | (cp & 0x3F));
+            }
+        }
+
+        private void flush() throws IOException {
+            if (gzip != null) {
+                gzip.write(buffer, 0, position);
+            } else {
+                ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, position);
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+            }
+            position = 0;
+        }
+
+        private void finish() throws IOException {
+            flush();
+            if (gzip != null) {
+                // Writes the gzip trailer; close() would close the channel before its position is read
+                gzip.finish();
+            }
+            bytesWritten = channel.position();
+            if (gzip != null) {
+                gzip.close();
+            }
+            finished = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!finished && gzip != null) {
+                gzip.close();
+            }
+        }
+    }
+}
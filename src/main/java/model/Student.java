@@ -2,16 +2,24 @@ package model;
 
 import java.time.LocalDate;
 import java.util.Date;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * The Student class represents a student entity in the system.
  * It stores the student's personal information, including their ID, name, email, grade, phone number, and date of birth.
  * The class provides a constructor, getter and setter methods, and a toString method for debugging purposes.
+ *
+ * A Student remembers which fields were changed by a setter since it was created or marked clean,
+ * so the DAO can write only those columns. Setting a field to its current value does not make it dirty.
  */
 public class Student {
     private int studentID;
     private String firstname, lastname, email, grade, phoneNumber;
     private LocalDate dateOfBirth;
+    // One StudentField.bit() per changed field
+    private int dirtyFields;
 
     /**
      * Constructs a new Student with the specified details.
@@ -100,6 +108,7 @@ public class Student {
      * @param firstname The new first name.
      */
     public void setFirstname(String firstname) {
+        markDirty(StudentField.FIRSTNAME, this.firstname, firstname);
         this.firstname = firstname;
     }
 
@@ -118,6 +127,7 @@ public class Student {
      * @param lastname The new last name.
      */
     public void setLastname(String lastname) {
+        markDirty(StudentField.LASTNAME, this.lastname, lastname);
         this.lastname = lastname;
     }
 
@@ -136,6 +146,7 @@ public class Student {
      * @param dateOfBirth The new date of birth.
      */
     public void setDateOfBirth(LocalDate dateOfBirth) {
+        markDirty(StudentField.DATE_OF_BIRTH, this.dateOfBirth, dateOfBirth);
         this.dateOfBirth = dateOfBirth;
     }
 
@@ -154,6 +165,7 @@ public class Student {
      * @param email The new email.
      */
     public void setEmail(String email) {
+        markDirty(StudentField.EMAIL, this.email, email);
         this.email = email;
     }
 
@@ -172,6 +184,7 @@ public class Student {
      * @param grade The new grade level.
      */
     public void setGrade(String grade) {
+        markDirty(StudentField.GRADE, this.grade, grade);
         this.grade = grade;
     }
 
@@ -190,6 +203,7 @@ public class Student {
      * @param phoneNumber The new phone number.
      */
     public void setPhoneNumber(String phoneNumber) {
+        markDirty(StudentField.PHONE_NUMBER, this.phoneNumber, phoneNumber);
         this.phoneNumber = phoneNumber;
     }
 
@@ -197,4 +211,60 @@ public class Student {
         return dateOfBirth.toString();
     }
 
+    /**
+     * Tells whether any field changed since the student was loaded or marked clean.
+     *
+     * @return true if at least one field is dirty.
+     */
+    public boolean isDirty() {
+        return dirtyFields != 0;
+    }
+
+    /**
+     * Tells whether a field changed since the student was loaded or marked clean.
+     *
+     * @param field The field to check.
+     * @return true if the field is dirty.
+     */
+    public boolean isDirty(StudentField field) {
+        return (dirtyFields & field.bit()) != 0;
+    }
+
+    /**
+     * Returns the changed fields as a mask of StudentField.bit() values.
+     *
+     * @return The dirty-field mask, 0 if nothing changed.
+     */
+    public int getDirtyMask() {
+        return dirtyFields;
+    }
+
+    /**
+     * Returns the changed fields.
+     *
+     * @return A new set of the dirty fields.
+     */
+    public Set<StudentField> getDirtyFields() {
+        Set<StudentField> fields = EnumSet.noneOf(StudentField.class);
+        for (StudentField field : StudentField.values()) {
+            if (isDirty(field)) {
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Forgets all changes, e.g. after they were stored.
+     */
+    public void markClean() {
+        dirtyFields = 0;
+    }
+
+    private void markDirty(StudentField field, Object oldValue, Object newValue) {
+        if (!Objects.equals(oldValue, newValue)) {
+            dirtyFields |= field.bit();
+        }
+    }
+
 }
@@ -0,0 +1,45 @@
+package model;
+
+import java.util.List;
+
+/**
+ * The StudentCourses class holds a student together with the courses they are enrolled in.
+ */
+public class StudentCourses {
+    private final Student student;
+    private final List<Course> courses;
+
+    /**
+     * Constructs a new StudentCourses.
+     *
+     * @param student The student.
+     * @param courses The courses of the student.
+     */
+    public StudentCourses(Student student, List<Course> courses) {
+        this.student = student;
+        this.courses = List.copyOf(courses);
+    }
+
+    /**
+     * Returns a string representation of the StudentCourses object.
+     *
+     * @return The student and the number of courses.
+     */
+    @Override
+    public String toString() {
+        return "StudentCourses{" +
+                "student=" + student +
+                ", courses=" + courses.size() +
+                '}';
+    }
+
+    // Getters
+
+    public Student getStudent() {
+        return student;
+    }
+
+    public List<Course> getCourses() {
+        return courses;
+    }
+}
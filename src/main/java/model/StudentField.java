@@ -0,0 +1,23 @@
+package model;
+
+/**
+ * The StudentField enum lists the fields of a Student that can be changed and stored,
+ * so a Student can tell which of them changed since it was loaded.
+ */
+public enum StudentField {
+    FIRSTNAME,
+    LASTNAME,
+    EMAIL,
+    GRADE,
+    PHONE_NUMBER,
+    DATE_OF_BIRTH;
+
+    /**
+     * Returns the bit of this field in a dirty-field mask.
+     *
+     * @return 1 shifted left by the ordinal of the field.
+     */
+    public int bit() {
+        return 1 << ordinal();
+    }
+}
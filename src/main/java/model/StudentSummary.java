@@ -0,0 +1,47 @@
+package model;
+
+/**
+ * The StudentSummary class is a lightweight projection of a student for list views.
+ * It only holds the ID and the name, so list queries don't have to read the other columns.
+ */
+public class StudentSummary {
+    private final int studentID;
+    private final String firstname, lastname;
+
+    /**
+     * Constructs a new StudentSummary.
+     *
+     * @param studentID The unique identifier of the student.
+     * @param firstname The first name of the student.
+     * @param lastname  The last name of the student.
+     */
+    public StudentSummary(int studentID, String firstname, String lastname) {
+        this.studentID = studentID;
+        this.firstname = firstname;
+        this.lastname = lastname;
+    }
+
+    /**
+     * Returns a string representation of the StudentSummary object.
+     *
+     * @return The ID and the full name of the student.
+     */
+    @Override
+    public String toString() {
+        return studentID + " " + firstname + " " + lastname;
+    }
+
+    // Getters
+
+    public int getStudentID() {
+        return studentID;
+    }
+
+    public String getFirstname() {
+        return firstname;
+    }
+
+    public String getLastname() {
+        return lastname;
+    }
+}
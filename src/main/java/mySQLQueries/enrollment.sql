@@ -0,0 +1,35 @@
+use Schulmanagmentsystem;
+
+-- Enrollments of students in courses. Before this table, the course table held one row per
+-- student and course, with the course name repeated in every row.
+create table enrollment(
+studentID int not null,
+courseID int not null,
+-- Courses of a student: the primary key covers "where studentID = ?"
+primary key(studentID, courseID),
+foreign key(studentID) references student(studentID) on delete cascade on update cascade,
+foreign key(courseID) references course(courseID) on delete cascade on update cascade
+);
+
+-- Roster of a course. InnoDB appends the primary key, so the index also holds the studentID
+create index idx_enrollment_course on enrollment (courseID);
+
+-- Migration of the old course rows: the row with the lowest ID of every name becomes the course,
+-- and every row of that name becomes an enrollment in it
+insert ignore into enrollment (studentID, courseID)
+select c.studentID, m.courseID
+from course c
+join (select course_Name, min(courseID) as courseID from course group by course_Name) m on m.course_Name = c.course_Name
+where c.studentID is not null;
+
+delete c from course c
+join (select course_Name, min(courseID) as courseID from course group by course_Name) m on m.course_Name = c.course_Name
+where c.courseID <> m.courseID;
+
+-- course.studentID is kept for old clients but no longer written
+update course set studentID = null;
+
+-- Every name exists once, so courses can be looked up and created by name
+create unique index idx_course_name on course (course_Name);
+
+select * from enrollment;
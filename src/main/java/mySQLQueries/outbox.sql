@@ -0,0 +1,10 @@
+use Schulmanagmentsystem;
+
+-- The last replayed sequence of every outbox journal (OutboxStudentDAO). It is written in the same
+-- transaction as the replayed student changes, so a change is never applied twice.
+create table outbox_applied(
+journal char(36) primary key,
+sequence bigint not null
+);
+
+select * from outbox_applied;
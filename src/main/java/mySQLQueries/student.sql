@@ -113,4 +113,12 @@ INSERT INTO student (firstname, lastname, dayOfBirth, eMail, grade, phoneNumber)
 ('Janne', 'Wolf', '1998-10-24', 'janne.wolf@hotmail.de', '12D', '015512345939'),
 ('Frank', 'Schreiber', '1998-01-26', 'frank.schreiber@web.de', '12A', '015712345679');
 
-select* from student;
\ No newline at end of file
+select* from student;
+
+-- Indexes for the sorted and filtered student table (StudentCriteria).
+-- InnoDB appends the primary key to every secondary index, so each one also covers
+-- the "order by <column>, studentID" of the keyset pagination.
+create index idx_student_lastname on student (lastname);
+create index idx_student_firstname on student (firstname);
+create index idx_student_dayOfBirth on student (dayOfBirth);
+create index idx_student_grade_lastname on student (grade, lastname);
@@ -0,0 +1,157 @@
+package service;
+
+import model.Course;
+import model.StudentSummary;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The AsyncCourseService class offers every CourseService operation as a non-blocking call.
+ *
+ * Each call runs on its own virtual thread and returns a CompletableFuture right away.
+ * Reads have a deadline, after which the future fails with a TimeoutException,
+ * and cancelling a future interrupts the running read.
+ * The default deadline can be set with the system property service.deadlineMillis, 0 disables it.
+ * Writes have no deadline and are not interrupted; cancelling the future of a write only drops its result.
+ */
+public class AsyncCourseService {
+
+    private static final long DEFAULT_DEADLINE_MILLIS = Long.getLong("service.deadlineMillis", 30000L);
+
+    private final CourseService courseService;
+    private final Duration deadline;
+
+    /**
+     * Constructs a new AsyncCourseService on top of the shared CourseDAO with the default deadline.
+     */
+    public AsyncCourseService() {
+        this(new CourseService(), DEFAULT_DEADLINE_MILLIS > 0 ? Duration.ofMillis(DEFAULT_DEADLINE_MILLIS) : null);
+    }
+
+    /**
+     * Constructs a new AsyncCourseService.
+     *
+     * @param courseService The service that runs the calls.
+     * @param deadline      The maximum duration of a read, or null for no deadline.
+     */
+    public AsyncCourseService(CourseService courseService, Duration deadline) {
+        if (deadline != null && (deadline.isNegative() || deadline.isZero())) {
+            throw new IllegalArgumentException("Deadline must be positive!");
+        }
+        this.courseService = courseService;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Returns a view of this service whose reads use another deadline.
+     *
+     * @param deadline The maximum duration of a read, or null for no deadline.
+     * @return An AsyncCourseService sharing the service of this one.
+     */
+    public AsyncCourseService withDeadline(Duration deadline) {
+        return new AsyncCourseService(courseService, deadline);
+    }
+
+    /**
+     * Finds a course by its ID.
+     *
+     * @param id The unique identifier of the course.
+     * @return A future with the Course object, or null if not found.
+     */
+    public CompletableFuture<Course> findCourseById(int id) {
+        return ServiceExecutor.supply(() -> courseService.findCourseById(id), deadline);
+    }
+
+    /**
+     * Finds a course by its name.
+     *
+     * @param name The name of the course.
+     * @return A future with the Course object, or null if not found.
+     */
+    public CompletableFuture<Course> findCourseByName(String name) {
+        return ServiceExecutor.supply(() -> courseService.findCourseByName(name), deadline);
+    }
+
+    /**
+     * Finds all courses a student is enrolled in.
+     *
+     * @param studentID The unique identifier of the student.
+     * @return A future with the list of Course objects.
+     */
+    public CompletableFuture<List<Course>> findCoursesByStudentId(int studentID) {
+        return ServiceExecutor.supply(() -> courseService.findCoursesByStudentId(studentID), deadline);
+    }
+
+    /**
+     * Finds all students enrolled in a course.
+     *
+     * @param courseID The unique identifier of the course.
+     * @return A future with the enrolled students ordered by name.
+     */
+    public CompletableFuture<List<StudentSummary>> findRoster(int courseID) {
+        return ServiceExecutor.supply(() -> courseService.findRoster(courseID), deadline);
+    }
+
+    /**
+     * Enrolls many students in a course.
+     *
+     * @param courseID   The unique identifier of the course.
+     * @param studentIDs The unique identifiers of the students.
+     * @return A future with the number of new enrollments.
+     */
+    public CompletableFuture<Integer> enrollStudents(int courseID, int[] studentIDs) {
+        return ServiceExecutor.supplyWrite(() -> courseService.enrollStudents(courseID, studentIDs));
+    }
+
+    /**
+     * Removes many students from a course.
+     *
+     * @param courseID   The unique identifier of the course.
+     * @param studentIDs The unique identifiers of the students.
+     * @return A future with the number of removed enrollments.
+     */
+    public CompletableFuture<Integer> unenrollStudents(int courseID, int[] studentIDs) {
+        return ServiceExecutor.supplyWrite(() -> courseService.unenrollStudents(courseID, studentIDs));
+    }
+
+    /**
+     * Adds a new course.
+     *
+     * @param course The Course object containing course details.
+     * @return A future that completes when the course has been added.
+     */
+    public CompletableFuture<Void> addCourse(Course course) {
+        return ServiceExecutor.runWrite(() -> courseService.addCourse(course));
+    }
+
+    /**
+     * Updates an existing course.
+     *
+     * @param course The Course object containing updated course details.
+     * @return A future that completes when the course has been updated.
+     */
+    public CompletableFuture<Void> updateCourse(Course course) {
+        return ServiceExecutor.runWrite(() -> courseService.updateCourse(course));
+    }
+
+    /**
+     * Deletes a course by its ID.
+     *
+     * @param id The unique identifier of the course to be deleted.
+     * @return A future that completes when the course has been deleted.
+     */
+    public CompletableFuture<Void> deleteCourseById(int id) {
+        return ServiceExecutor.runWrite(() -> courseService.deleteCourseById(id));
+    }
+
+    /**
+     * Retrieves the names of all courses.
+     *
+     * @return A future with the list of course names.
+     */
+    public CompletableFuture<List<String>> getAllCourses() {
+        return ServiceExecutor.supply(courseService::getAllCourses, deadline);
+    }
+}
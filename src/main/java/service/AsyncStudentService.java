@@ -0,0 +1,314 @@
+package service;
+
+import dao.StudentCriteria;
+import model.Course;
+import model.Student;
+import model.StudentCourses;
+import model.StudentSummary;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * The AsyncStudentService class offers every StudentService operation as a non-blocking call.
+ *
+ * Each call runs on its own virtual thread and returns a CompletableFuture right away, so the
+ * Swing event dispatch thread never waits for the database. Reads have a deadline, after which
+ * the future fails with a TimeoutException, and cancelling a future interrupts the running read.
+ * The default deadline can be set with the system property service.deadlineMillis, 0 disables it.
+ * Writes have no deadline and are not interrupted, so a write that completes has really finished;
+ * cancelling the future of a write only drops its result.
+ */
+public class AsyncStudentService {
+
+    private static final long DEFAULT_DEADLINE_MILLIS = Long.getLong("service.deadlineMillis", 30000L);
+
+    private final StudentService studentService;
+    private final CourseService courseService;
+    private final Duration deadline;
+
+    /**
+     * Constructs a new AsyncStudentService on top of the shared DAOs with the default deadline.
+     */
+    public AsyncStudentService() {
+        this(new StudentService(), new CourseService(),
+                DEFAULT_DEADLINE_MILLIS > 0 ? Duration.ofMillis(DEFAULT_DEADLINE_MILLIS) : null);
+    }
+
+    /**
+     * Constructs a new AsyncStudentService.
+     *
+     * @param studentService The service that runs the student calls.
+     * @param courseService  The service that runs the course calls of combined lookups.
+     * @param deadline       The maximum duration of a read, or null for no deadline.
+     */
+    public AsyncStudentService(StudentService studentService, CourseService courseService, Duration deadline) {
+        if (deadline != null && (deadline.isNegative() || deadline.isZero())) {
+            throw new IllegalArgumentException("Deadline must be positive!");
+        }
+        this.studentService = studentService;
+        this.courseService = courseService;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Returns a view of this service whose reads use another deadline,
+     * e.g. {@code async.withDeadline(Duration.ofSeconds(2)).findStudentById(id)}.
+     *
+     * @param deadline The maximum duration of a read, or null for no deadline.
+     * @return An AsyncStudentService sharing the services of this one.
+     */
+    public AsyncStudentService withDeadline(Duration deadline) {
+        return new AsyncStudentService(studentService, courseService, deadline);
+    }
+
+    /**
+     * Finds a student by their ID.
+     *
+     * @param id The unique identifier of the student.
+     * @return A future with the Student object, or null if not found.
+     */
+    public CompletableFuture<Student> findStudentById(int id) {
+        return ServiceExecutor.supply(() -> studentService.findStudentById(id), deadline);
+    }
+
+    /**
+     * Finds many students by their IDs with a few bulk queries.
+     *
+     * @param ids The unique identifiers of the students.
+     * @return A future with a map from student ID to Student, ordered by ID.
+     */
+    public CompletableFuture<Map<Integer, Student>> findStudentsByIds(int[] ids) {
+        return ServiceExecutor.supply(() -> studentService.findStudentsByIds(ids), deadline);
+    }
+
+    /**
+     * Loads a student and their courses. Both queries run at the same time;
+     * if one of them fails or the result is cancelled, the other one is cancelled too.
+     *
+     * @param id The unique identifier of the student.
+     * @return A future with the student and their courses, or null if the student was not found.
+     */
+    public CompletableFuture<StudentCourses> findStudentDetails(int id) {
+        CompletableFuture<Student> student = ServiceExecutor.supply(() -> studentService.findStudentById(id), deadline);
+        CompletableFuture<List<Course>> courses = ServiceExecutor.supply(() -> courseService.findCoursesByStudentId(id), deadline);
+        CompletableFuture<StudentCourses> details = student.thenCombine(courses,
+                (found, enrolled) -> found != null ? new StudentCourses(found, enrolled) : null);
+        details.whenComplete((result, failure) -> {
+            if (failure != null) {
+                student.cancel(true);
+                courses.cancel(true);
+            }
+        });
+        return details;
+    }
+
+    /**
+     * Finds many students together with their courses, with one bulk query for the students and one for their courses.
+     *
+     * @param ids The unique identifiers of the students.
+     * @return A future with the students and their courses, ordered by ID.
+     */
+    public CompletableFuture<List<StudentCourses>> findStudentsWithCourses(int[] ids) {
+        return ServiceExecutor.supply(() -> studentService.findStudentsWithCourses(ids), deadline);
+    }
+
+    /**
+     * Retrieves one page of the students matching the criteria together with their courses, with two queries.
+     *
+     * @param criteria The filters and the sort order.
+     * @param after    The last student of the previous page, or null for the first page.
+     * @param limit    The maximum number of students in the page.
+     * @return A future with the students of the page and their courses.
+     */
+    public CompletableFuture<List<StudentCourses>> findStudentsWithCourses(StudentCriteria criteria, Student after, int limit) {
+        return ServiceExecutor.supply(() -> studentService.findStudentsWithCourses(criteria, after, limit), deadline);
+    }
+
+    /**
+     * Registers a new student and enrolls them in courses as one transaction.
+     *
+     * @param student     The student to be registered.
+     * @param courseNames The names of the courses the student is enrolled in.
+     * @return A future with the generated student ID.
+     */
+    public CompletableFuture<Integer> registerStudent(Student student, Collection<String> courseNames) {
+        return ServiceExecutor.supplyWrite(() -> studentService.registerStudent(student, courseNames));
+    }
+
+    /**
+     * Retrieves a student by their last name.
+     *
+     * @param studentName The last name of the student.
+     * @return A future with the Student object, or null if not found.
+     */
+    public CompletableFuture<Student> getStudentByLastName(String studentName) {
+        return ServiceExecutor.supply(() -> studentService.getStudentByLastName(studentName), deadline);
+    }
+
+    /**
+     * Retrieves all students.
+     *
+     * @return A future with the list of all students.
+     */
+    public CompletableFuture<List<Student>> getAllStudents() {
+        return ServiceExecutor.supply(studentService::getAllStudents, deadline);
+    }
+
+    /**
+     * Retrieves one page of students, ordered by ID.
+     *
+     * @param afterId The last student ID of the previous page, 0 for the first page.
+     * @param limit   The maximum number of students in the page.
+     * @return A future with the students of the page.
+     */
+    public CompletableFuture<List<Student>> getStudentsAfter(int afterId, int limit) {
+        return ServiceExecutor.supply(() -> studentService.getStudentsAfter(afterId, limit), deadline);
+    }
+
+    /**
+     * Counts the students.
+     *
+     * @return A future with the number of students.
+     */
+    public CompletableFuture<Integer> countStudents() {
+        return ServiceExecutor.supply(studentService::countStudents, deadline);
+    }
+
+    /**
+     * Retrieves one page of the students matching the criteria, filtered and sorted by the database.
+     *
+     * @param criteria The filters and the sort order.
+     * @param after    The last student of the previous page, or null for the first page.
+     * @param limit    The maximum number of students in the page.
+     * @return A future with the students of the page.
+     */
+    public CompletableFuture<List<Student>> findStudents(StudentCriteria criteria, Student after, int limit) {
+        return ServiceExecutor.supply(() -> studentService.findStudents(criteria, after, limit), deadline);
+    }
+
+    /**
+     * Counts the students matching the criteria.
+     *
+     * @param criteria The filters.
+     * @return A future with the number of matching students.
+     */
+    public CompletableFuture<Integer> countStudents(StudentCriteria criteria) {
+        return ServiceExecutor.supply(() -> studentService.countStudents(criteria), deadline);
+    }
+
+    /**
+     * Retrieves the student at a position of the order of the criteria.
+     *
+     * @param criteria The filters and the sort order.
+     * @param offset   The 0-based position.
+     * @return A future with the Student at that position, or null if there are fewer matching students.
+     */
+    public CompletableFuture<Student> getStudentAtOffset(StudentCriteria criteria, int offset) {
+        return ServiceExecutor.supply(() -> studentService.getStudentAtOffset(criteria, offset), deadline);
+    }
+
+    /**
+     * Retrieves the ID and name of all students.
+     *
+     * @return A future with the list of StudentSummary objects ordered by ID.
+     */
+    public CompletableFuture<List<StudentSummary>> getStudentSummaries() {
+        return ServiceExecutor.supply(studentService::getStudentSummaries, deadline);
+    }
+
+    /**
+     * Streams all students through a consumer on the background thread, without holding the whole table in memory.
+     * Cancelling the future stops the stream after the current row and releases its connection.
+     *
+     * @param consumer The consumer receiving every student, called on the background thread.
+     * @return A future with the number of students passed to the consumer.
+     */
+    public CompletableFuture<Long> forEachStudent(Consumer<? super Student> consumer) {
+        return ServiceExecutor.supply(() -> {
+            long count = 0;
+            try (Stream<Student> students = studentService.streamAllStudents()) {
+                var it = students.iterator();
+                while (!Thread.currentThread().isInterrupted() && it.hasNext()) {
+                    consumer.accept(it.next());
+                    count++;
+                }
+            }
+            return count;
+        }, deadline);
+    }
+
+    /**
+     * Adds a student.
+     *
+     * @param student The student to be added.
+     * @return A future with the generated ID, 0 if the student was not added.
+     */
+    public CompletableFuture<Integer> addStudent(Student student) {
+        return ServiceExecutor.supplyWrite(() -> studentService.addStudent(student));
+    }
+
+    /**
+     * Adds many students in JDBC batches. Incomplete students are skipped.
+     *
+     * @param students The students to be added.
+     * @return A future with the generated IDs in the iteration order of the collection, 0 for students not added.
+     */
+    public CompletableFuture<int[]> addStudents(Collection<Student> students) {
+        return ServiceExecutor.supplyWrite(() -> studentService.addStudents(students));
+    }
+
+    /**
+     * Updates a student.
+     *
+     * @param studentID   The unique identifier of the student.
+     * @param firstname   The new first name.
+     * @param lastname    The new last name.
+     * @param email       The new email address.
+     * @param grade       The new grade.
+     * @param phoneNumber The new phone number.
+     * @param dayOfBirth  The new date of birth.
+     * @return A future that completes when the student has been updated.
+     */
+    public CompletableFuture<Void> updateStudent(int studentID, String firstname, String lastname, String email, String grade,
+                                                 String phoneNumber, LocalDate dayOfBirth) {
+        return ServiceExecutor.runWrite(() -> studentService.updateStudent(studentID, firstname, lastname, email, grade,
+                phoneNumber, dayOfBirth));
+    }
+
+    /**
+     * Writes the fields of a student that changed since it was loaded.
+     *
+     * @param student The student with its changed fields.
+     * @return A future that completes when the changes have been written.
+     */
+    public CompletableFuture<Void> updateStudent(Student student) {
+        return ServiceExecutor.runWrite(() -> studentService.updateStudent(student));
+    }
+
+    /**
+     * Deletes a student by their ID.
+     *
+     * @param id The unique identifier of the student.
+     * @return A future that completes when the student has been deleted.
+     */
+    public CompletableFuture<Void> deleteStudentById(int id) {
+        return ServiceExecutor.runWrite(() -> studentService.deleteStudentById(id));
+    }
+
+    /**
+     * Returns the exception a future failed with, without the CompletionException wrapper of dependent stages.
+     *
+     * @param failure The exception passed to a completion handler.
+     * @return The original exception.
+     */
+    public static Throwable unwrap(Throwable failure) {
+        return ServiceExecutor.unwrap(failure);
+    }
+}
@@ -1,10 +1,12 @@
 package service;
 
 import dao.CourseDAO;
-import dao.CourseDAOImpl;
 import model.Course;
+import model.StudentSummary;
+import singleton.DAOFactory;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * The CourseService class provides methods to interact with CourseDAO
@@ -15,10 +17,19 @@ public class CourseService {
     private final CourseDAO courseDAO;
 
     /**
-     * Constructs a new CourseService and initializes the CourseDAO implementation.
+     * Constructs a new CourseService that uses the shared CourseDAO.
      */
     public CourseService() {
-        courseDAO = new CourseDAOImpl();
+        this(DAOFactory.getCourseDAO());
+    }
+
+    /**
+     * Constructs a new CourseService with a given CourseDAO.
+     *
+     * @param courseDAO The DAO used for all course operations.
+     */
+    public CourseService(CourseDAO courseDAO) {
+        this.courseDAO = courseDAO;
     }
 
     /**
@@ -49,6 +60,84 @@ public class CourseService {
         return courseDAO.getCourseByName(name);
     }
 
+    /**
+     * Finds all courses a student is enrolled in.
+     *
+     * @param studentID The unique identifier of the student.
+     * @return A list of Course objects, empty if there are none.
+     * @throws IllegalArgumentException if the student ID is invalid.
+     */
+    public List<Course> findCoursesByStudentId(int studentID) {
+        if (studentID <= 0) {
+            throw new IllegalArgumentException("Invalid student ID!");
+        }
+        return courseDAO.getCoursesByStudentID(studentID);
+    }
+
+    /**
+     * Finds the courses of many students with a few bulk queries instead of one query per student.
+     *
+     * @param studentIDs The unique identifiers of the students.
+     * @return A map from student ID to their courses, ordered by ID; students without courses map to an empty list.
+     * @throws IllegalArgumentException if the student IDs are null.
+     */
+    public Map<Integer, List<Course>> findCoursesByStudentIds(int[] studentIDs) {
+        if (studentIDs == null) {
+            throw new IllegalArgumentException("Student IDs cannot be null!");
+        }
+        return courseDAO.getCoursesByStudentIDs(studentIDs);
+    }
+
+    /**
+     * Finds all students enrolled in a course.
+     *
+     * @param courseID The unique identifier of the course.
+     * @return The enrolled students ordered by name, empty if there are none.
+     * @throws IllegalArgumentException if the course ID is invalid.
+     */
+    public List<StudentSummary> findRoster(int courseID) {
+        if (courseID <= 0) {
+            throw new IllegalArgumentException("Invalid course ID!");
+        }
+        return courseDAO.getRoster(courseID);
+    }
+
+    /**
+     * Enrolls many students in a course. Students that are already enrolled are skipped.
+     *
+     * @param courseID   The unique identifier of the course.
+     * @param studentIDs The unique identifiers of the students.
+     * @return The number of new enrollments.
+     * @throws IllegalArgumentException if the course ID is invalid or no students are given.
+     */
+    public int enrollStudents(int courseID, int[] studentIDs) {
+        if (courseID <= 0) {
+            throw new IllegalArgumentException("Invalid course ID!");
+        }
+        if (studentIDs == null) {
+            throw new IllegalArgumentException("Student IDs cannot be null!");
+        }
+        return courseDAO.enrollStudents(courseID, studentIDs);
+    }
+
+    /**
+     * Removes many students from a course.
+     *
+     * @param courseID   The unique identifier of the course.
+     * @param studentIDs The unique identifiers of the students.
+     * @return The number of removed enrollments.
+     * @throws IllegalArgumentException if the course ID is invalid or no students are given.
+     */
+    public int unenrollStudents(int courseID, int[] studentIDs) {
+        if (courseID <= 0) {
+            throw new IllegalArgumentException("Invalid course ID!");
+        }
+        if (studentIDs == null) {
+            throw new IllegalArgumentException("Student IDs cannot be null!");
+        }
+        return courseDAO.unenrollStudents(courseID, studentIDs);
+    }
+
     /**
      * Deletes a course by its unique ID.
      *
@@ -0,0 +1,288 @@
+package service;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * The EnrollmentIndex class keeps the roster of every course in memory as an IntBitmap of student IDs,
+ * so set questions about courses are answered without the database: the students in all of some courses,
+ * in any of them, in one but not others, and the number of students shared by each pair of courses.
+ *
+ * Rosters are built from all enrollments and then changed incrementally. A rebuild works on new bitmaps
+ * while queries keep using the old ones; writes from the start of its read to the swap are applied to both.
+ *
+ * The index is thread-safe: queries share a read lock, writes and the swap of a rebuild take the write lock.
+ */
+public class EnrollmentIndex {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final IndexRebuild<Map<Integer, IntBitmap>> rebuild = new IndexRebuild<>(lock);
+
+    // Guarded by lock
+    private Map<Integer, IntBitmap> rosters = new HashMap<>();
+
+    /**
+     * Replaces the content of the index. Writes are recorded from before the enrollments are read
+     * and applied to the new rosters as well, so none is lost whether the read saw it or not.
+     *
+     * @param enrollments Reads a map from course ID to the IDs of its students; called after the
+     *                    recording of writes has started.
+     */
+    public void rebuild(Supplier<Map<Integer, int[]>> enrollments) {
+        rebuild.rebuild(() -> build(enrollments.get()), built -> rosters = built);
+    }
+
+    private static Map<Integer, IntBitmap> build(Map<Integer, int[]> enrollments) {
+        Map<Integer, IntBitmap> built = new HashMap<>(enrollments.size() * 4 / 3 + 1);
+        for (Map.Entry<Integer, int[]> entry : enrollments.entrySet()) {
+            int[] studentIDs = Arrays.stream(entry.getValue()).filter(id -> id > 0).toArray();
+            if (studentIDs.length > 0) {
+                built.put(entry.getKey(), IntBitmap.of(studentIDs).runOptimize());
+            }
+        }
+        return built;
+    }
+
+    /**
+     * Adds students to the roster of a course.
+     *
+     * @param courseID   The unique identifier of the course.
+     * @param studentIDs The unique identifiers of the students.
+     */
+    public void enroll(int courseID, int... studentIDs) {
+        int[] ids = studentIDs.clone();
+        write(map -> {
+            IntBitmap roster = map.computeIfAbsent(courseID, id -> new IntBitmap());
+            for (int studentID : ids) {
+                if (studentID > 0) {
+                    roster.add(studentID);
+                }
+            }
+        });
+    }
+
+    /**
+     * Removes students from the roster of a course.
+     *
+     * @param courseID   The unique identifier of the course.
+     * @param studentIDs The unique identifiers of the students.
+     */
+    public void unenroll(int courseID, int... studentIDs) {
+        int[] ids = studentIDs.clone();
+        write(map -> {
+            IntBitmap roster = map.get(courseID);
+            if (roster != null) {
+                for (int studentID : ids) {
+                    roster.remove(studentID);
+                }
+                if (roster.isEmpty()) {
+                    map.remove(courseID);
+                }
+            }
+        });
+    }
+
+    /**
+     * Removes the roster of a course.
+     *
+     * @param courseID The unique identifier of the course.
+     */
+    public void removeCourse(int courseID) {
+        write(map -> map.remove(courseID));
+    }
+
+    /**
+     * Removes a student from all rosters.
+     *
+     * @param studentID The unique identifier of the student.
+     */
+    public void removeStudent(int studentID) {
+        write(map -> {
+            for (Iterator<IntBitmap> it = map.values().iterator(); it.hasNext(); ) {
+                IntBitmap roster = it.next();
+                if (roster.remove(studentID) && roster.isEmpty()) {
+                    it.remove();
+                }
+            }
+        });
+    }
+
+    private void write(Consumer<Map<Integer, IntBitmap>> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(rosters);
+            rebuild.record(map -> {
+                change.accept(map);
+                return map;
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the students enrolled in every one of the given courses.
+     * The rosters are intersected smallest first, so the intermediate results stay small.
+     *
+     * @param courseIDs The unique identifiers of the courses.
+     * @return The sorted student IDs.
+     */
+    public int[] studentsInAll(int... courseIDs) {
+        lock.readLock().lock();
+        try {
+            IntBitmap[] selected = new IntBitmap[courseIDs.length];
+            for (int i = 0; i < courseIDs.length; i++) {
+                selected[i] = rosters.get(courseIDs[i]);
+                if (selected[i] == null) {
+                    return new int[0];
+                }
+            }
+            if (selected.length == 0) {
+                return new int[0];
+            }
+            Arrays.sort(selected, Comparator.comparingInt(IntBitmap::cardinality));
+            IntBitmap result = selected[0];
+            for (int i = 1; i < selected.length && !result.isEmpty(); i++) {
+                result = result.and(selected[i]);
+            }
+            return result.toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the students enrolled in at least one of the given courses.
+     *
+     * @param courseIDs The unique identifiers of the courses.
+     * @return The sorted student IDs.
+     */
+    public int[] studentsInAny(int... courseIDs) {
+        lock.readLock().lock();
+        try {
+            IntBitmap result = new IntBitmap();
+            for (int courseID : courseIDs) {
+                IntBitmap roster = rosters.get(courseID);
+                if (roster != null) {
+                    result = result.or(roster);
+                }
+            }
+            return result.toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the students enrolled in a course but in none of the excluded courses.
+     *
+     * @param courseID          The unique identifier of the course.
+     * @param excludedCourseIDs The unique identifiers of the excluded courses.
+     * @return The sorted student IDs.
+     */
+    public int[] studentsInButNot(int courseID, int... excludedCourseIDs) {
+        lock.readLock().lock();
+        try {
+            IntBitmap result = rosters.get(courseID);
+            if (result == null) {
+                return new int[0];
+            }
+            for (int excluded : excludedCourseIDs) {
+                IntBitmap roster = rosters.get(excluded);
+                if (roster != null && !result.isEmpty()) {
+                    result = result.andNot(roster);
+                }
+            }
+            return result.toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of students enrolled in a course.
+     *
+     * @param courseID The unique identifier of the course.
+     * @return The size of the roster.
+     */
+    public int count(int courseID) {
+        lock.readLock().lock();
+        try {
+            IntBitmap roster = rosters.get(courseID);
+            return roster != null ? roster.cardinality() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the students every pair of courses has in common, without building the intersections.
+     *
+     * @param courseIDs The unique identifiers of the courses.
+     * @return A symmetric matrix; [i][j] is the number of students in both course i and course j,
+     *         and [i][i] is the size of the roster of course i.
+     */
+    public int[][] countPairs(int... courseIDs) {
+        lock.readLock().lock();
+        try {
+            int n = courseIDs.length;
+            IntBitmap[] selected = new IntBitmap[n];
+            for (int i = 0; i < n; i++) {
+                selected[i] = rosters.get(courseIDs[i]);
+            }
+            int[][] counts = new int[n][n];
+            for (int i = 0; i < n; i++) {
+                if (selected[i] == null) {
+                    continue;
+                }
+                counts[i][i] = selected[i].cardinality();
+                for (int j = i + 1; j < n; j++) {
+                    if (selected[j] != null) {
+                        counts[i][j] = counts[j][i] = selected[i].andCardinality(selected[j]);
+                    }
+                }
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of courses with at least one student.
+     *
+     * @return The number of rosters.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rosters.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns an estimate of the memory used by the rosters.
+     *
+     * @return The size in bytes.
+     */
+    public long sizeInBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (IntBitmap roster : rosters.values()) {
+                bytes += roster.sizeInBytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
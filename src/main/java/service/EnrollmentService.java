@@ -0,0 +1,211 @@
+package service;
+
+import dao.CourseChangeListener;
+import dao.CourseDAO;
+import dao.DataAccessException;
+import dao.StudentChangeListener;
+import model.Course;
+import model.Student;
+import singleton.DAOFactory;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The EnrollmentService class answers set questions about course enrollments from an EnrollmentIndex,
+ * e.g. for scheduling and reports: which students take course A and B, which take A but not B,
+ * and how many students each pair of courses shares.
+ *
+ * The index is loaded with one query on first use and kept up to date through the writes of the shared
+ * CourseDAO and StudentDAO. Courses added by name are looked up in the course catalog; if a new course
+ * is not known there yet, the index is reloaded in the background.
+ */
+public class EnrollmentService implements CourseChangeListener, StudentChangeListener {
+
+    private static final class Holder {
+        private static final EnrollmentService INSTANCE = createShared();
+    }
+
+    private final CourseDAO courseDAO;
+    private final EnrollmentIndex index;
+    private final AtomicBoolean reloadQueued = new AtomicBoolean();
+    private volatile boolean loaded;
+
+    /**
+     * Constructs a new EnrollmentService. It is not registered for course and student writes;
+     * use getInstance() for the shared, self-updating service.
+     *
+     * @param courseDAO The DAO the enrollments are loaded from.
+     * @param index     The index answering the queries.
+     */
+    public EnrollmentService(CourseDAO courseDAO, EnrollmentIndex index) {
+        this.courseDAO = courseDAO;
+        this.index = index;
+    }
+
+    /**
+     * Returns the shared EnrollmentService.
+     *
+     * @return The EnrollmentService instance.
+     */
+    public static EnrollmentService getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static EnrollmentService createShared() {
+        EnrollmentService service = new EnrollmentService(DAOFactory.getCourseDAO(), new EnrollmentIndex());
+        DAOFactory.addCourseChangeListener(service);
+        DAOFactory.addStudentChangeListener(service);
+        return service;
+    }
+
+    /**
+     * Loads all enrollments into the index.
+     *
+     * @throws DataAccessException if the enrollments cannot be read; the index keeps its content.
+     */
+    public void reload() {
+        index.rebuild(courseDAO::getEnrollments);
+        loaded = true;
+    }
+
+    private void reloadSoon() {
+        if (reloadQueued.compareAndSet(false, true)) {
+            ServiceExecutor.run(() -> {
+                reloadQueued.set(false);
+                try {
+                    reload();
+                } catch (DataAccessException e) {
+                    System.out.println(e.getMessage());
+                }
+            }, null);
+        }
+    }
+
+    private EnrollmentIndex index() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    reload();
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Finds the students enrolled in every one of the given courses.
+     *
+     * @param courseIDs The unique identifiers of the courses.
+     * @return The sorted student IDs.
+     * @throws IllegalArgumentException if no course or an invalid course ID is given.
+     */
+    public int[] findStudentsInAllCourses(int... courseIDs) {
+        checkCourseIDs(courseIDs);
+        return index().studentsInAll(courseIDs);
+    }
+
+    /**
+     * Finds the students enrolled in at least one of the given courses.
+     *
+     * @param courseIDs The unique identifiers of the courses.
+     * @return The sorted student IDs.
+     * @throws IllegalArgumentException if no course or an invalid course ID is given.
+     */
+    public int[] findStudentsInAnyCourse(int... courseIDs) {
+        checkCourseIDs(courseIDs);
+        return index().studentsInAny(courseIDs);
+    }
+
+    /**
+     * Finds the students enrolled in a course but in none of the excluded courses.
+     *
+     * @param courseID          The unique identifier of the course.
+     * @param excludedCourseIDs The unique identifiers of the excluded courses.
+     * @return The sorted student IDs.
+     * @throws IllegalArgumentException if an invalid course ID is given.
+     */
+    public int[] findStudentsInCourseButNot(int courseID, int... excludedCourseIDs) {
+        checkCourseIDs(courseID);
+        for (int excluded : excludedCourseIDs) {
+            checkCourseIDs(excluded);
+        }
+        return index().studentsInButNot(courseID, excludedCourseIDs);
+    }
+
+    /**
+     * Counts the students enrolled in a course.
+     *
+     * @param courseID The unique identifier of the course.
+     * @return The number of students.
+     * @throws IllegalArgumentException if the course ID is invalid.
+     */
+    public int countStudents(int courseID) {
+        checkCourseIDs(courseID);
+        return index().count(courseID);
+    }
+
+    /**
+     * Counts the students every pair of the given courses has in common.
+     *
+     * @param courseIDs The unique identifiers of the courses.
+     * @return A symmetric matrix; [i][j] is the number of students in both course i and course j,
+     *         and [i][i] is the number of students in course i.
+     * @throws IllegalArgumentException if no course or an invalid course ID is given.
+     */
+    public int[][] countCoursePairs(int... courseIDs) {
+        checkCourseIDs(courseIDs);
+        return index().countPairs(courseIDs);
+    }
+
+    private static void checkCourseIDs(int... courseIDs) {
+        if (courseIDs == null || courseIDs.length == 0) {
+            throw new IllegalArgumentException("At least one course is required!");
+        }
+        for (int courseID : courseIDs) {
+            if (courseID <= 0) {
+                throw new IllegalArgumentException("Invalid course ID!");
+            }
+        }
+    }
+
+    @Override
+    public void coursesAdded(Collection<Course> courses) {
+        for (Course course : courses) {
+            if (course.getStudentID() <= 0) {
+                continue;
+            }
+            Course stored = courseDAO.getCourseByName(course.getCourseName());
+            if (stored == null) {
+                reloadSoon();
+                return;
+            }
+            index.enroll(stored.getCourseID(), course.getStudentID());
+        }
+    }
+
+    @Override
+    public void courseDeleted(int courseID) {
+        index.removeCourse(courseID);
+    }
+
+    @Override
+    public void studentsEnrolled(int courseID, int[] studentIDs) {
+        index.enroll(courseID, studentIDs);
+    }
+
+    @Override
+    public void studentsUnenrolled(int courseID, int[] studentIDs) {
+        index.unenroll(courseID, studentIDs);
+    }
+
+    @Override
+    public void studentSaved(Student student) {
+        // Saving a student does not change their enrollments
+    }
+
+    @Override
+    public void studentDeleted(int studentID) {
+        index.removeStudent(studentID);
+    }
+}
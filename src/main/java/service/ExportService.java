@@ -0,0 +1,71 @@
+package service;
+
+import dao.ExportResult;
+import dao.TableExporter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The ExportService class runs the nightly export of the student and course tables.
+ */
+public class ExportService {
+
+    private final TableExporter exporter;
+
+    /**
+     * Constructs a new ExportService with the default export buffer and fetch size.
+     */
+    public ExportService() {
+        this(new TableExporter());
+    }
+
+    /**
+     * Constructs a new ExportService with a given exporter.
+     *
+     * @param exporter The exporter that writes the files.
+     */
+    public ExportService(TableExporter exporter) {
+        this.exporter = exporter;
+    }
+
+    /**
+     * Exports the student, course and enrollment tables into a directory, one file per table.
+     *
+     * @param directory The target directory, created if it does not exist.
+     * @param format    The file format.
+     * @param gzip      Whether the files are compressed with gzip.
+     * @return The results of the exports, one per table.
+     * @throws IOException if a file cannot be written.
+     */
+    public List<ExportResult> exportAll(Path directory, TableExporter.Format format, boolean gzip) throws IOException {
+        Files.createDirectories(directory);
+        List<ExportResult> results = new ArrayList<>();
+        for (TableExporter.Table table : TableExporter.Table.values()) {
+            Path target = directory.resolve(TableExporter.fileName(table, format, gzip));
+            results.add(exporter.export(table, format, target, gzip));
+        }
+        return results;
+    }
+
+    /**
+     * Main method for the nightly export job.
+     *
+     * @param args The target directory, the format (csv or json) and optionally "gzip".
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: ExportService <directory> <csv|json> [gzip]");
+            return;
+        }
+        TableExporter.Format format = TableExporter.Format.valueOf(args[1].toUpperCase());
+        boolean gzip = args.length > 2 && args[2].equalsIgnoreCase("gzip");
+        for (ExportResult result : new ExportService().exportAll(Paths.get(args[0]), format, gzip)) {
+            System.out.println(result);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package service;
+
+/**
+ * The ImportResult class holds the counters of a CSV import.
+ * It is used both for progress reports while the import runs and for the final result.
+ */
+public class ImportResult {
+
+    private final long rowsRead, studentsImported, rowsRejected, enrollmentsImported, elapsedMillis;
+
+    /**
+     * Constructs a new ImportResult.
+     *
+     * @param rowsRead            The number of data rows read from the file.
+     * @param studentsImported    The number of students written to the database.
+     * @param rowsRejected        The number of rows written to the reject file.
+     * @param enrollmentsImported The number of course enrollments written to the database.
+     * @param elapsedMillis       The time since the import started.
+     */
+    public ImportResult(long rowsRead, long studentsImported, long rowsRejected, long enrollmentsImported, long elapsedMillis) {
+        this.rowsRead = rowsRead;
+        this.studentsImported = studentsImported;
+        this.rowsRejected = rowsRejected;
+        this.enrollmentsImported = enrollmentsImported;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Returns the throughput of the import.
+     *
+     * @return The number of rows read per second.
+     */
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? rowsRead : rowsRead * 1000.0 / elapsedMillis;
+    }
+
+    /**
+     * Returns a string representation of the ImportResult object.
+     *
+     * @return A formatted string with the import counters.
+     */
+    @Override
+    public String toString() {
+        return "ImportResult{" +
+                "rowsRead=" + rowsRead +
+                ", studentsImported=" + studentsImported +
+                ", rowsRejected=" + rowsRejected +
+                ", enrollmentsImported=" + enrollmentsImported +
+                ", elapsedMillis=" + elapsedMillis +
+                ", rowsPerSecond=" + String.format("%.0f", getRowsPerSecond()) +
+                '}';
+    }
+
+    // Getters
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getStudentsImported() {
+        return studentsImported;
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    public long getEnrollmentsImported() {
+        return enrollmentsImported;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
@@ -0,0 +1,87 @@
+package service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * The IndexRebuild class replaces the content of an in-memory index that is kept up to date by writes,
+ * without losing a write that arrives while the new content is read and built.
+ *
+ * The writes of the index are recorded from before the source is read until the new content is swapped in,
+ * and are then applied to the new content as well. A write that happens during the read is therefore in the
+ * new content whether the read saw it or not, so applying a write twice must do no harm.
+ *
+ * @param <G> The type of the content of the index.
+ */
+final class IndexRebuild<G> {
+
+    private final ReadWriteLock lock;
+    private final Object rebuildMutex = new Object();
+
+    // Guarded by the write lock of the index; null if no rebuild runs
+    private List<UnaryOperator<G>> writes;
+
+    /**
+     * Constructs a new IndexRebuild.
+     *
+     * @param lock The lock of the index: writes and the swap take the write lock.
+     */
+    IndexRebuild(ReadWriteLock lock) {
+        this.lock = lock;
+    }
+
+    /**
+     * Records a write of the index while a rebuild runs. Must be called under the write lock of the index.
+     *
+     * @param write The write, returning the content to keep.
+     */
+    void record(UnaryOperator<G> write) {
+        if (writes != null) {
+            writes.add(write);
+        }
+    }
+
+    /**
+     * Reads the source and builds new content without the lock, applies the writes recorded meanwhile
+     * and swaps the new content in. Rebuilds run one at a time.
+     *
+     * @param build Reads the source and builds the new content.
+     * @param swap  Installs the new content; called under the write lock.
+     */
+    void rebuild(Supplier<G> build, Consumer<G> swap) {
+        synchronized (rebuildMutex) {
+            lock.writeLock().lock();
+            try {
+                writes = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            G built;
+            try {
+                built = build.get();
+            } catch (RuntimeException | Error e) {
+                lock.writeLock().lock();
+                try {
+                    writes = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+            lock.writeLock().lock();
+            try {
+                for (UnaryOperator<G> write : writes) {
+                    built = write.apply(built);
+                }
+                swap.accept(built);
+            } finally {
+                writes = null;
+                lock.writeLock().unlock();
+            }
+        }
+    }
+}
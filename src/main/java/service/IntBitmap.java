@@ -0,0 +1,774 @@
+package service;
+
+import java.util.Arrays;
+
+/**
+ * The IntBitmap class is a compressed set of non-negative ints, laid out like a Roaring bitmap.
+ *
+ * The values are split by their upper 16 bits into chunks of 65536, and each chunk is stored in the
+ * smallest of three containers: a sorted array of the lower 16 bits for up to 4096 values, a plain bitmap
+ * of 1024 longs for more, or a list of runs (start, length) for long stretches of consecutive values, which
+ * is chosen by runOptimize(). Set operations work chunk by chunk and container by container, e.g. an
+ * intersection with an array container only probes the other container for each array value.
+ *
+ * An IntBitmap is not thread-safe. The results of and, or and andNot are new bitmaps; changing them
+ * does not change their inputs.
+ */
+public final class IntBitmap {
+
+    // The largest array container; beyond it a bitmap container is smaller
+    private static final int ARRAY_MAX = 4096;
+    private static final int WORDS = 1024;
+
+    private char[] keys;
+    private Container[] containers;
+    private int size;
+
+    /**
+     * Constructs a new, empty IntBitmap.
+     */
+    public IntBitmap() {
+        this(4);
+    }
+
+    private IntBitmap(int capacity) {
+        keys = new char[capacity];
+        containers = new Container[capacity];
+    }
+
+    /**
+     * Creates a bitmap from values in any order.
+     *
+     * @param values The values, duplicates are ignored.
+     * @return A new bitmap.
+     * @throws IllegalArgumentException if a value is negative.
+     */
+    public static IntBitmap of(int... values) {
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        if (sorted.length > 0 && sorted[0] < 0) {
+            throw new IllegalArgumentException("Negative values cannot be stored!");
+        }
+        IntBitmap bitmap = new IntBitmap();
+        int from = 0;
+        while (from < sorted.length) {
+            int high = sorted[from] >>> 16;
+            int to = from;
+            char[] low = new char[0];
+            int count = 0;
+            while (to < sorted.length && sorted[to] >>> 16 == high) {
+                char value = (char) sorted[to];
+                if (count == 0 || low[count - 1] != value) {
+                    if (count == low.length) {
+                        low = Arrays.copyOf(low, Math.max(8, count * 2));
+                    }
+                    low[count++] = value;
+                }
+                to++;
+            }
+            bitmap.append((char) high, Container.fromSorted(low, count));
+            from = to;
+        }
+        return bitmap;
+    }
+
+    /**
+     * Adds a value.
+     *
+     * @param value The value, not negative.
+     * @return true if the value was not contained yet.
+     */
+    public boolean add(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative values cannot be stored!");
+        }
+        char high = (char) (value >>> 16);
+        int index = indexOf(high);
+        if (index < 0) {
+            insert(-index - 1, high, new ArrayContainer(new char[]{(char) value}, 1));
+            return true;
+        }
+        Container container = containers[index];
+        int before = container.cardinality();
+        containers[index] = container.add((char) value);
+        return containers[index].cardinality() > before;
+    }
+
+    /**
+     * Removes a value.
+     *
+     * @param value The value.
+     * @return true if the value was contained.
+     */
+    public boolean remove(int value) {
+        int index = indexOf((char) (value >>> 16));
+        if (value < 0 || index < 0) {
+            return false;
+        }
+        Container container = containers[index];
+        int before = container.cardinality();
+        Container changed = container.remove((char) value);
+        if (changed.cardinality() == before) {
+            return false;
+        }
+        if (changed.cardinality() == 0) {
+            System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+            System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+            containers[--size] = null;
+        } else {
+            containers[index] = changed;
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether a value is contained.
+     *
+     * @param value The value.
+     * @return true if the value is contained.
+     */
+    public boolean contains(int value) {
+        int index = value < 0 ? -1 : indexOf((char) (value >>> 16));
+        return index >= 0 && containers[index].contains((char) value);
+    }
+
+    /**
+     * Returns the number of values.
+     *
+     * @return The number of values.
+     */
+    public int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    /**
+     * Returns whether the bitmap is empty.
+     *
+     * @return true if it contains no value.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the values contained in this and another bitmap.
+     *
+     * @param other The other bitmap.
+     * @return A new bitmap with the intersection.
+     */
+    public IntBitmap and(IntBitmap other) {
+        IntBitmap result = new IntBitmap(Math.max(1, Math.min(size, other.size)));
+        int i = 0, j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Container container = containers[i].and(other.containers[j]);
+                if (container != null) {
+                    result.append(keys[i], container);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the values contained in this or another bitmap.
+     *
+     * @param other The other bitmap.
+     * @return A new bitmap with the union.
+     */
+    public IntBitmap or(IntBitmap other) {
+        IntBitmap result = new IntBitmap(Math.max(1, size + other.size));
+        int i = 0, j = 0;
+        while (i < size || j < other.size) {
+            if (j == other.size || (i < size && keys[i] < other.keys[j])) {
+                result.append(keys[i], containers[i].copy());
+                i++;
+            } else if (i == size || keys[i] > other.keys[j]) {
+                result.append(other.keys[j], other.containers[j].copy());
+                j++;
+            } else {
+                result.append(keys[i], containers[i].or(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the values contained in this bitmap but not in another.
+     *
+     * @param other The other bitmap.
+     * @return A new bitmap with the difference.
+     */
+    public IntBitmap andNot(IntBitmap other) {
+        IntBitmap result = new IntBitmap(Math.max(1, size));
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            while (j < other.size && other.keys[j] < keys[i]) {
+                j++;
+            }
+            Container container = j < other.size && other.keys[j] == keys[i]
+                    ? containers[i].andNot(other.containers[j])
+                    : containers[i].copy();
+            if (container != null) {
+                result.append(keys[i], container);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Counts the values contained in this and another bitmap without building the intersection.
+     *
+     * @param other The other bitmap.
+     * @return The size of the intersection.
+     */
+    public int andCardinality(IntBitmap other) {
+        int cardinality = 0;
+        int i = 0, j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                cardinality += containers[i].andCardinality(other.containers[j]);
+                i++;
+                j++;
+            }
+        }
+        return cardinality;
+    }
+
+    /**
+     * Stores every chunk in its smallest container, using runs where they are smaller than arrays and bitmaps.
+     * Call it after a bitmap was built; changing a run container converts it back.
+     *
+     * @return This bitmap.
+     */
+    public IntBitmap runOptimize() {
+        for (int i = 0; i < size; i++) {
+            containers[i] = containers[i].optimize();
+        }
+        return this;
+    }
+
+    /**
+     * Returns the values in ascending order.
+     *
+     * @return A new array.
+     */
+    public int[] toArray() {
+        int[] values = new int[cardinality()];
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            int high = keys[i] << 16;
+            char[] low = containers[i].toChars();
+            for (char value : low) {
+                values[n++] = high | value;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Returns an estimate of the memory used by the containers.
+     *
+     * @return The size in bytes.
+     */
+    public long sizeInBytes() {
+        long bytes = size * 2L;
+        for (int i = 0; i < size; i++) {
+            bytes += containers[i].sizeInBytes();
+        }
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return "IntBitmap{cardinality=" + cardinality() + ", containers=" + size + ", bytes=" + sizeInBytes() + "}";
+    }
+
+    private int indexOf(char high) {
+        // Most bitmaps of student IDs have only a few chunks, and appends go to the last one
+        if (size > 0 && keys[size - 1] == high) {
+            return size - 1;
+        }
+        return Arrays.binarySearch(keys, 0, size, high);
+    }
+
+    private void append(char high, Container container) {
+        insert(size, high, container);
+    }
+
+    private void insert(int index, char high, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = high;
+        containers[index] = container;
+        size++;
+    }
+
+    /**
+     * The lower 16 bits of the values of one chunk. Containers may be replaced by a different type
+     * when they change, so add and remove return the container to keep.
+     */
+    private abstract static class Container {
+
+        abstract boolean contains(char value);
+
+        abstract int cardinality();
+
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        /**
+         * Returns the values in ascending order.
+         */
+        abstract char[] toChars();
+
+        /**
+         * Returns the values as 1024 words. Callers must not change the array.
+         */
+        abstract long[] words();
+
+        abstract Container copy();
+
+        abstract long sizeInBytes();
+
+        Container and(Container other) {
+            if (this instanceof ArrayContainer array) {
+                return array.filter(other, true);
+            }
+            if (other instanceof ArrayContainer array) {
+                return array.filter(this, true);
+            }
+            long[] a = words(), b = other.words(), result = new long[WORDS];
+            for (int i = 0; i < WORDS; i++) {
+                result[i] = a[i] & b[i];
+            }
+            return fromWords(result);
+        }
+
+        Container or(Container other) {
+            if (this instanceof ArrayContainer a && other instanceof ArrayContainer b
+                    && a.cardinality + b.cardinality <= ARRAY_MAX) {
+                return a.merge(b);
+            }
+            long[] a = words(), b = other.words(), result = new long[WORDS];
+            for (int i = 0; i < WORDS; i++) {
+                result[i] = a[i] | b[i];
+            }
+            return fromWords(result);
+        }
+
+        Container andNot(Container other) {
+            if (this instanceof ArrayContainer array) {
+                return array.filter(other, false);
+            }
+            long[] a = words(), b = other.words(), result = new long[WORDS];
+            for (int i = 0; i < WORDS; i++) {
+                result[i] = a[i] & ~b[i];
+            }
+            return fromWords(result);
+        }
+
+        int andCardinality(Container other) {
+            if (this instanceof ArrayContainer array) {
+                return array.count(other);
+            }
+            if (other instanceof ArrayContainer array) {
+                return array.count(this);
+            }
+            long[] a = words(), b = other.words();
+            int cardinality = 0;
+            for (int i = 0; i < WORDS; i++) {
+                cardinality += Long.bitCount(a[i] & b[i]);
+            }
+            return cardinality;
+        }
+
+        /**
+         * Returns the smallest container with the same values.
+         */
+        Container optimize() {
+            int cardinality = cardinality();
+            char[] values = toChars();
+            int runs = 0;
+            for (int i = 0; i < values.length; i++) {
+                if (i == 0 || values[i] != values[i - 1] + 1) {
+                    runs++;
+                }
+            }
+            long runBytes = 4L * runs;
+            long otherBytes = cardinality <= ARRAY_MAX ? 2L * cardinality : 8L * WORDS;
+            if (runBytes < otherBytes) {
+                return this instanceof RunContainer ? this : RunContainer.ofRuns(values, runs);
+            }
+            return fromSorted(values, cardinality);
+        }
+
+        /**
+         * Returns an array or bitmap container for sorted, distinct values.
+         */
+        static Container fromSorted(char[] values, int count) {
+            if (count <= ARRAY_MAX) {
+                return new ArrayContainer(count == values.length ? values : Arrays.copyOf(values, count), count);
+            }
+            long[] words = new long[WORDS];
+            for (int i = 0; i < count; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+            return new BitmapContainer(words, count);
+        }
+
+        /**
+         * Returns an array or bitmap container for a new word array, or null if it is empty.
+         */
+        static Container fromWords(long[] words) {
+            int cardinality = 0;
+            for (long word : words) {
+                cardinality += Long.bitCount(word);
+            }
+            if (cardinality == 0) {
+                return null;
+            }
+            if (cardinality > ARRAY_MAX) {
+                return new BitmapContainer(words, cardinality);
+            }
+            return new ArrayContainer(BitmapContainer.toChars(words, cardinality), cardinality);
+        }
+    }
+
+    private static final class ArrayContainer extends Container {
+        private char[] values;
+        private int cardinality;
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_MAX) {
+                return new BitmapContainer(words(), cardinality).add(value);
+            }
+            index = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, Math.max(8, cardinality * 2)));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        char[] toChars() {
+            return Arrays.copyOf(values, cardinality);
+        }
+
+        @Override
+        long[] words() {
+            long[] words = new long[WORDS];
+            for (int i = 0; i < cardinality; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+            return words;
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, cardinality), cardinality);
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 2L * cardinality;
+        }
+
+        /**
+         * Keeps the values that are (or are not) contained in another container.
+         */
+        Container filter(Container other, boolean keepContained) {
+            char[] kept = new char[cardinality];
+            int n = 0;
+            if (other instanceof ArrayContainer array) {
+                // Both sorted: one merge pass instead of a binary search per value
+                int j = 0;
+                for (int i = 0; i < cardinality; i++) {
+                    while (j < array.cardinality && array.values[j] < values[i]) {
+                        j++;
+                    }
+                    boolean contained = j < array.cardinality && array.values[j] == values[i];
+                    if (contained == keepContained) {
+                        kept[n++] = values[i];
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i]) == keepContained) {
+                        kept[n++] = values[i];
+                    }
+                }
+            }
+            return n == 0 ? null : new ArrayContainer(kept, n);
+        }
+
+        int count(Container other) {
+            int count = 0;
+            if (other instanceof ArrayContainer array) {
+                int i = 0, j = 0;
+                while (i < cardinality && j < array.cardinality) {
+                    if (values[i] < array.values[j]) {
+                        i++;
+                    } else if (values[i] > array.values[j]) {
+                        j++;
+                    } else {
+                        count++;
+                        i++;
+                        j++;
+                    }
+                }
+                return count;
+            }
+            for (int i = 0; i < cardinality; i++) {
+                if (other.contains(values[i])) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        Container merge(ArrayContainer other) {
+            char[] merged = new char[cardinality + other.cardinality];
+            int i = 0, j = 0, n = 0;
+            while (i < cardinality || j < other.cardinality) {
+                if (j == other.cardinality || (i < cardinality && values[i] < other.values[j])) {
+                    merged[n++] = values[i++];
+                } else if (i == cardinality || values[i] > other.values[j]) {
+                    merged[n++] = other.values[j++];
+                } else {
+                    merged[n++] = values[i++];
+                    j++;
+                }
+            }
+            return new ArrayContainer(merged, n);
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+        private final long[] words;
+        private int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            long before = words[value >>> 6];
+            words[value >>> 6] = before | (1L << value);
+            if (words[value >>> 6] != before) {
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long before = words[value >>> 6];
+            words[value >>> 6] = before & ~(1L << value);
+            if (words[value >>> 6] != before && --cardinality <= ARRAY_MAX) {
+                return new ArrayContainer(toChars(), cardinality);
+            }
+            return this;
+        }
+
+        @Override
+        char[] toChars() {
+            return toChars(words, cardinality);
+        }
+
+        static char[] toChars(long[] words, int cardinality) {
+            char[] values = new char[cardinality];
+            int n = 0;
+            for (int i = 0; i < WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    values[n++] = (char) (i * 64 + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return values;
+        }
+
+        @Override
+        long[] words() {
+            return words;
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 8L * WORDS;
+        }
+    }
+
+    /**
+     * Runs of consecutive values as pairs of (start, length - 1), sorted by start.
+     * It is read-only: a change converts it to an array or bitmap container first.
+     */
+    private static final class RunContainer extends Container {
+        private final char[] runs;
+        private final int runCount;
+        private final int cardinality;
+
+        private RunContainer(char[] runs, int runCount, int cardinality) {
+            this.runs = runs;
+            this.runCount = runCount;
+            this.cardinality = cardinality;
+        }
+
+        static RunContainer ofRuns(char[] values, int runCount) {
+            char[] runs = new char[2 * runCount];
+            int r = -1;
+            for (int i = 0; i < values.length; i++) {
+                if (i == 0 || values[i] != values[i - 1] + 1) {
+                    r++;
+                    runs[2 * r] = values[i];
+                } else {
+                    runs[2 * r + 1]++;
+                }
+            }
+            return new RunContainer(runs, runCount, values.length);
+        }
+
+        @Override
+        boolean contains(char value) {
+            // The last run starting at or before the value
+            int low = 0, high = runCount - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (runs[2 * mid] <= value) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return high >= 0 && value - runs[2 * high] <= runs[2 * high + 1];
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            return contains(value) ? this : fromSorted(toChars(), cardinality).add(value);
+        }
+
+        @Override
+        Container remove(char value) {
+            return contains(value) ? fromSorted(toChars(), cardinality).remove(value) : this;
+        }
+
+        @Override
+        char[] toChars() {
+            char[] values = new char[cardinality];
+            int n = 0;
+            for (int r = 0; r < runCount; r++) {
+                for (int v = runs[2 * r]; v <= runs[2 * r] + runs[2 * r + 1]; v++) {
+                    values[n++] = (char) v;
+                }
+            }
+            return values;
+        }
+
+        @Override
+        long[] words() {
+            long[] words = new long[WORDS];
+            for (int r = 0; r < runCount; r++) {
+                int start = runs[2 * r], end = start + runs[2 * r + 1];
+                for (int word = start >>> 6; word <= end >>> 6; word++) {
+                    long mask = -1L;
+                    if (word == start >>> 6) {
+                        mask &= -1L << start;
+                    }
+                    if (word == end >>> 6) {
+                        mask &= -1L >>> (63 - (end & 63));
+                    }
+                    words[word] |= mask;
+                }
+            }
+            return words;
+        }
+
+        @Override
+        Container copy() {
+            return this;
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 4L * runCount;
+        }
+    }
+}
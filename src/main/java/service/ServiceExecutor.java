@@ -0,0 +1,114 @@
+package service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * The ServiceExecutor class runs blocking service calls on virtual threads for the async services.
+ *
+ * Every call gets its own virtual thread, so a slow query only parks that thread; the number of
+ * concurrent database calls is still bounded by the connection pool. A read that is cancelled or
+ * misses its deadline interrupts its thread, which makes a waiting pool borrow give up right away.
+ * A write is never interrupted and has no deadline: an interrupted statement may have committed all the
+ * same, and the caller could not tell.
+ */
+final class ServiceExecutor {
+
+    private static final ThreadFactory THREADS = Thread.ofVirtual().name("service-", 0).factory();
+    private static final ExecutorService EXECUTOR = Executors.newThreadPerTaskExecutor(THREADS);
+
+    /**
+     * Private constructor to prevent instantiation of this class.
+     */
+    private ServiceExecutor() {}
+
+    /**
+     * Runs a call on a new virtual thread.
+     *
+     * @param call     The blocking call.
+     * @param deadline The maximum duration of the call, or null for no deadline.
+     * @param <T>      The result type.
+     * @return A future that completes with the result, exceptionally with the exception of the call,
+     *         or with a TimeoutException when the deadline has passed. Cancelling it interrupts the call.
+     */
+    static <T> CompletableFuture<T> supply(Supplier<T> call, Duration deadline) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task = EXECUTOR.submit(() -> {
+            try {
+                result.complete(call.get());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+        // Cancellation and timeouts complete the future from outside, stop the call as well
+        result.whenComplete((value, failure) -> {
+            if (failure != null) {
+                task.cancel(true);
+            }
+        });
+        if (deadline != null) {
+            result.orTimeout(deadline.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        return result;
+    }
+
+    /**
+     * Runs a call without a result on a new virtual thread.
+     *
+     * @param call     The blocking call.
+     * @param deadline The maximum duration of the call, or null for no deadline.
+     * @return A future that completes when the call has finished.
+     */
+    static CompletableFuture<Void> run(Runnable call, Duration deadline) {
+        return supply(() -> {
+            call.run();
+            return null;
+        }, deadline);
+    }
+
+    /**
+     * Runs a write on a new virtual thread, without a deadline. Cancelling the returned future only drops
+     * the result; the write is not interrupted and runs to its end.
+     *
+     * @param call The blocking write.
+     * @param <T>  The result type.
+     * @return A future that completes with the result or exceptionally with the exception of the write.
+     */
+    static <T> CompletableFuture<T> supplyWrite(Supplier<T> call) {
+        // The copy is what callers may cancel, the future of the call itself only completes with the call
+        return supply(call, null).copy();
+    }
+
+    /**
+     * Runs a write without a result on a new virtual thread, without a deadline.
+     *
+     * @param call The blocking write.
+     * @return A future that completes when the write has finished. Cancelling it does not stop the write.
+     */
+    static CompletableFuture<Void> runWrite(Runnable call) {
+        return supplyWrite(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    /**
+     * Returns the exception a call failed with, without the CompletionException wrapper of dependent stages.
+     *
+     * @param failure The exception passed to a completion handler.
+     * @return The original exception.
+     */
+    static Throwable unwrap(Throwable failure) {
+        while (failure instanceof CompletionException && failure.getCause() != null) {
+            failure = failure.getCause();
+        }
+        return failure;
+    }
+}
@@ -0,0 +1,463 @@
+package service;
+
+import model.Student;
+import model.StudentSummary;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import java.util.stream.Stream;
+
+/**
+ * The StudentColumnStore class is a read-only, column-oriented snapshot of the student table for analytics
+ * and list views. Instead of one Student object per row, every field is kept in its own primitive array:
+ * the IDs in an int[], the dates of birth as epoch days in an int[], the grades as codes into a small
+ * dictionary, and the names, emails and phone numbers as UTF-8 bytes in one byte[] per column with an
+ * int[] of offsets. A row is an index into these arrays.
+ *
+ * This takes a fraction of the memory of a List of Students, and a scan over one column reads a single
+ * contiguous array. The count and filter methods do not allocate per row: filters write the matching
+ * row indexes into an array given by the caller. Strings, LocalDates and Students are only created
+ * by the accessors that return them.
+ *
+ * A store never changes after it was built, so it can be shared between threads. Build a new one to see
+ * later writes.
+ */
+public final class StudentColumnStore {
+
+    // Epoch day of a missing date of birth
+    private static final int NO_DATE = Integer.MIN_VALUE;
+
+    private final int size;
+    private final int[] ids;
+    private final boolean idsSorted;
+    private final int[] dateOfBirth;
+    private final char[] gradeCodes;
+    private final String[] gradeDictionary;
+    private final TextColumn firstnames;
+    private final TextColumn lastnames;
+    private final TextColumn emails;
+    private final TextColumn phoneNumbers;
+
+    private StudentColumnStore(Builder builder) {
+        this.size = builder.size;
+        this.ids = Arrays.copyOf(builder.ids, size);
+        this.idsSorted = builder.idsSorted;
+        this.dateOfBirth = Arrays.copyOf(builder.dateOfBirth, size);
+        this.gradeCodes = Arrays.copyOf(builder.gradeCodes, size);
+        this.gradeDictionary = builder.gradeDictionary.keySet().toArray(new String[0]);
+        for (Map.Entry<String, Integer> entry : builder.gradeDictionary.entrySet()) {
+            gradeDictionary[entry.getValue()] = entry.getKey();
+        }
+        this.firstnames = builder.firstnames.build(size);
+        this.lastnames = builder.lastnames.build(size);
+        this.emails = builder.emails.build(size);
+        this.phoneNumbers = builder.phoneNumbers.build(size);
+    }
+
+    /**
+     * Builds a store from students, e.g. from StudentDAO.streamAllStudents. The stream is not closed.
+     *
+     * @param students The students, best ordered by ID.
+     * @return The new StudentColumnStore.
+     * @throws IllegalArgumentException if there are more than 65535 distinct grades.
+     */
+    public static StudentColumnStore of(Stream<Student> students) {
+        Builder builder = new Builder();
+        for (Iterator<Student> it = students.iterator(); it.hasNext(); ) {
+            builder.add(it.next());
+        }
+        return new StudentColumnStore(builder);
+    }
+
+    /**
+     * Builds a store from students.
+     *
+     * @param students The students, best ordered by ID.
+     * @return The new StudentColumnStore.
+     * @throws IllegalArgumentException if there are more than 65535 distinct grades.
+     */
+    public static StudentColumnStore of(Iterable<Student> students) {
+        Builder builder = new Builder();
+        for (Student student : students) {
+            builder.add(student);
+        }
+        return new StudentColumnStore(builder);
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return The number of students in the store.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the row of a student. Uses a binary search if the students were added in ID order.
+     *
+     * @param studentID The unique identifier of the student.
+     * @return The row index, or -1 if the student is not in the store.
+     */
+    public int findRow(int studentID) {
+        if (idsSorted) {
+            int row = Arrays.binarySearch(ids, 0, size, studentID);
+            return row >= 0 ? row : -1;
+        }
+        for (int row = 0; row < size; row++) {
+            if (ids[row] == studentID) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    // Column accessors
+
+    public int getStudentID(int row) {
+        return ids[row];
+    }
+
+    /**
+     * Returns the date of birth of a row as days since 1970-01-01, without creating a LocalDate.
+     *
+     * @param row The row index.
+     * @return The epoch day, or Integer.MIN_VALUE if the date is missing.
+     */
+    public int getDateOfBirthEpochDay(int row) {
+        return dateOfBirth[row];
+    }
+
+    public LocalDate getDateOfBirth(int row) {
+        return dateOfBirth[row] == NO_DATE ? null : LocalDate.ofEpochDay(dateOfBirth[row]);
+    }
+
+    /**
+     * Returns the dictionary code of the grade of a row.
+     *
+     * @param row The row index.
+     * @return An index into getGrades().
+     */
+    public int getGradeCode(int row) {
+        return gradeCodes[row];
+    }
+
+    /**
+     * Returns the grade of a row. The String is shared by all rows with that grade.
+     *
+     * @param row The row index.
+     * @return The grade.
+     */
+    public String getGrade(int row) {
+        return gradeDictionary[gradeCodes[row]];
+    }
+
+    /**
+     * Returns the distinct grades in the order of their codes.
+     *
+     * @return A copy of the grade dictionary.
+     */
+    public String[] getGrades() {
+        return gradeDictionary.clone();
+    }
+
+    /**
+     * Returns the dictionary code of a grade.
+     *
+     * @param grade The grade.
+     * @return The code, or -1 if no student has that grade.
+     */
+    public int gradeCode(String grade) {
+        for (int code = 0; code < gradeDictionary.length; code++) {
+            if (gradeDictionary[code].equals(grade)) {
+                return code;
+            }
+        }
+        return -1;
+    }
+
+    public String getFirstname(int row) {
+        return firstnames.get(row);
+    }
+
+    public String getLastname(int row) {
+        return lastnames.get(row);
+    }
+
+    public String getEmail(int row) {
+        return emails.get(row);
+    }
+
+    public String getPhoneNumber(int row) {
+        return phoneNumbers.get(row);
+    }
+
+    /**
+     * Creates a Student object from a row.
+     *
+     * @param row The row index.
+     * @return A new Student.
+     */
+    public Student toStudent(int row) {
+        return new Student(ids[row], getFirstname(row), getLastname(row), getEmail(row), getGrade(row),
+                getPhoneNumber(row), getDateOfBirth(row));
+    }
+
+    /**
+     * Creates a StudentSummary from a row, e.g. for a list view.
+     *
+     * @param row The row index.
+     * @return A new StudentSummary.
+     */
+    public StudentSummary toSummary(int row) {
+        return new StudentSummary(ids[row], getFirstname(row), getLastname(row));
+    }
+
+    /**
+     * Compares the last names of two rows by their UTF-8 bytes, which is the order of their code points,
+     * without creating Strings. Useful to sort the rows of a list view.
+     *
+     * @param rowA The first row index.
+     * @param rowB The second row index.
+     * @return A negative number, zero or a positive number like Comparator.compare.
+     */
+    public int compareLastnames(int rowA, int rowB) {
+        return lastnames.compare(rowA, rowB);
+    }
+
+    // Scans
+
+    /**
+     * Counts the students of every grade in one pass over the grade codes.
+     *
+     * @param counts The array receiving the counts, indexed by grade code; at least getGrades().length long.
+     */
+    public void countByGrade(int[] counts) {
+        Arrays.fill(counts, 0, gradeDictionary.length, 0);
+        for (int row = 0; row < size; row++) {
+            counts[gradeCodes[row]]++;
+        }
+    }
+
+    /**
+     * Collects the rows of a grade.
+     *
+     * @param gradeCode The dictionary code of the grade, see gradeCode(String).
+     * @param rows      The array receiving the matching row indexes in ascending order; at least size() long.
+     * @return The number of matching rows.
+     */
+    public int filterByGrade(int gradeCode, int[] rows) {
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (gradeCodes[row] == gradeCode) {
+                rows[count++] = row;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Collects the rows of students born in a period.
+     *
+     * @param from  The first day of the period.
+     * @param to    The last day of the period.
+     * @param rows  The array receiving the matching row indexes in ascending order; at least size() long.
+     * @return The number of matching rows.
+     */
+    public int filterBornBetween(LocalDate from, LocalDate to, int[] rows) {
+        long first = from.toEpochDay();
+        long last = to.toEpochDay();
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            int day = dateOfBirth[row];
+            if (day != NO_DATE && day >= first && day <= last) {
+                rows[count++] = row;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Collects the rows whose last name starts with a prefix, ignoring the case of ASCII letters.
+     * The prefix is encoded once; the rows are compared on their bytes.
+     *
+     * @param prefix The start of the last name.
+     * @param rows   The array receiving the matching row indexes in ascending order; at least size() long.
+     * @return The number of matching rows.
+     */
+    public int filterLastnamePrefix(String prefix, int[] rows) {
+        byte[] encoded = prefix.getBytes(StandardCharsets.UTF_8);
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (lastnames.startsWithIgnoreCase(row, encoded)) {
+                rows[count++] = row;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Collects the rows accepted by a filter, which can read the columns through the row accessors.
+     *
+     * @param filter The filter, called with every row index.
+     * @param rows   The array receiving the matching row indexes in ascending order; at least size() long.
+     * @return The number of matching rows.
+     */
+    public int filter(IntPredicate filter, int[] rows) {
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (filter.test(row)) {
+                rows[count++] = row;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns an estimate of the memory used by the columns.
+     *
+     * @return The size in bytes.
+     */
+    public long sizeInBytes() {
+        long bytes = 4L * ids.length + 4L * dateOfBirth.length + 2L * gradeCodes.length;
+        for (String grade : gradeDictionary) {
+            bytes += 48 + grade.length();
+        }
+        return bytes + firstnames.sizeInBytes() + lastnames.sizeInBytes() + emails.sizeInBytes()
+                + phoneNumbers.sizeInBytes();
+    }
+
+    /**
+     * One text column: the UTF-8 bytes of all rows one after the other, the start of row i at offsets[i]
+     * and its end at offsets[i + 1]. Missing values are marked in a bitmap, which only exists if there are any.
+     */
+    private static final class TextColumn {
+        private final byte[] bytes;
+        private final int[] offsets;
+        private final long[] nulls;
+
+        private TextColumn(byte[] bytes, int[] offsets, long[] nulls) {
+            this.bytes = bytes;
+            this.offsets = offsets;
+            this.nulls = nulls;
+        }
+
+        private String get(int row) {
+            if (nulls != null && (nulls[row >>> 6] & (1L << row)) != 0) {
+                return null;
+            }
+            return new String(bytes, offsets[row], offsets[row + 1] - offsets[row], StandardCharsets.UTF_8);
+        }
+
+        private int compare(int rowA, int rowB) {
+            return Arrays.compareUnsigned(bytes, offsets[rowA], offsets[rowA + 1], bytes, offsets[rowB], offsets[rowB + 1]);
+        }
+
+        private boolean startsWithIgnoreCase(int row, byte[] prefix) {
+            int start = offsets[row];
+            if (offsets[row + 1] - start < prefix.length) {
+                return false;
+            }
+            for (int i = 0; i < prefix.length; i++) {
+                byte a = bytes[start + i];
+                byte b = prefix[i];
+                if (a != b && (((a | 0x20) != (b | 0x20)) || (a | 0x20) < 'a' || (a | 0x20) > 'z')) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long sizeInBytes() {
+            return bytes.length + 4L * offsets.length + (nulls != null ? 8L * nulls.length : 0);
+        }
+    }
+
+    /**
+     * Appends the rows of a text column while the store is built.
+     */
+    private static final class TextColumnBuilder {
+        private byte[] bytes = new byte[1024];
+        private int length;
+        private int[] offsets = new int[17];
+        private long[] nulls;
+
+        private void add(int row, String value) {
+            if (value == null) {
+                if (nulls == null) {
+                    nulls = new long[(offsets.length >>> 6) + 1];
+                }
+                if ((row >>> 6) >= nulls.length) {
+                    nulls = Arrays.copyOf(nulls, Math.max(nulls.length * 2, (row >>> 6) + 1));
+                }
+                nulls[row >>> 6] |= 1L << row;
+            } else {
+                byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+                if (length + encoded.length > bytes.length) {
+                    bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + encoded.length));
+                }
+                System.arraycopy(encoded, 0, bytes, length, encoded.length);
+                length += encoded.length;
+            }
+            if (row + 2 > offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            offsets[row + 1] = length;
+        }
+
+        private TextColumn build(int size) {
+            long[] rowNulls = nulls != null ? Arrays.copyOf(nulls, (size >>> 6) + 1) : null;
+            return new TextColumn(Arrays.copyOf(bytes, length), Arrays.copyOf(offsets, size + 1), rowNulls);
+        }
+    }
+
+    /**
+     * Collects the rows in growing arrays; the store copies them to their exact size.
+     */
+    private static final class Builder {
+        private int size;
+        private int[] ids = new int[16];
+        private boolean idsSorted = true;
+        private int[] dateOfBirth = new int[16];
+        private char[] gradeCodes = new char[16];
+        private final Map<String, Integer> gradeDictionary = new HashMap<>();
+        private final TextColumnBuilder firstnames = new TextColumnBuilder();
+        private final TextColumnBuilder lastnames = new TextColumnBuilder();
+        private final TextColumnBuilder emails = new TextColumnBuilder();
+        private final TextColumnBuilder phoneNumbers = new TextColumnBuilder();
+
+        private void add(Student student) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                dateOfBirth = Arrays.copyOf(dateOfBirth, size * 2);
+                gradeCodes = Arrays.copyOf(gradeCodes, size * 2);
+            }
+            int row = size++;
+            ids[row] = student.getStudentID();
+            idsSorted &= row == 0 || ids[row - 1] < ids[row];
+            LocalDate born = student.getDateOfBirth();
+            dateOfBirth[row] = born != null ? Math.toIntExact(born.toEpochDay()) : NO_DATE;
+
+            String grade = student.getGrade() != null ? student.getGrade() : "";
+            Integer code = gradeDictionary.get(grade);
+            if (code == null) {
+                if (gradeDictionary.size() > Character.MAX_VALUE) {
+                    throw new IllegalArgumentException("Too many distinct grades!");
+                }
+                code = gradeDictionary.size();
+                gradeDictionary.put(grade, code);
+            }
+            gradeCodes[row] = (char) code.intValue();
+
+            firstnames.add(row, student.getFirstname());
+            lastnames.add(row, student.getLastname());
+            emails.add(row, student.getEmail());
+            phoneNumbers.add(row, student.getPhoneNumber());
+        }
+    }
+}
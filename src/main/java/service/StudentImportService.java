@@ -0,0 +1,480 @@
+package service;
+
+import dao.CourseDAO;
+import dao.StudentDAO;
+import model.Course;
+import model.Student;
+import singleton.DAOFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * The StudentImportService class imports student rosters from CSV files.
+ *
+ * The import is a pipeline: the calling thread streams the file line by line into a bounded queue,
+ * parser threads parse and validate the lines in parallel, and writer threads insert the valid
+ * students and their course enrollments in JDBC batches. Because both queues are bounded,
+ * a slow database slows down the reader instead of filling the heap.
+ *
+ * Expected columns: firstname, lastname, email, grade, phoneNumber, dayOfBirth (yyyy-MM-dd) and
+ * an optional list of course names separated by ';'. A header line starting with "firstname" is skipped.
+ * Fields may be quoted with '"', but a field must not contain a line break.
+ */
+public class StudentImportService {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE;
+    private static final int CHUNK_SIZE = 1000;
+    private static final long PROGRESS_INTERVAL_MILLIS = 1000;
+
+    private final StudentDAO studentDAO;
+    private final CourseDAO courseDAO;
+    private final int parserThreads;
+    private final int writerThreads;
+
+    /**
+     * Constructs a new StudentImportService with one parser per spare CPU core and two writers.
+     */
+    public StudentImportService() {
+        this(DAOFactory.getStudentDAO(), DAOFactory.getCourseDAO(), Math.max(1, Runtime.getRuntime().availableProcessors() - 1), 2);
+    }
+
+    /**
+     * Constructs a new StudentImportService.
+     *
+     * @param studentDAO    The DAO used to insert students.
+     * @param courseDAO     The DAO used to insert course enrollments.
+     * @param parserThreads The number of threads parsing and validating lines.
+     * @param writerThreads The number of threads writing batches, each one holds a database connection.
+     */
+    public StudentImportService(StudentDAO studentDAO, CourseDAO courseDAO, int parserThreads, int writerThreads) {
+        if (parserThreads <= 0 || writerThreads <= 0) {
+            throw new IllegalArgumentException("Invalid number of import threads!");
+        }
+        this.studentDAO = studentDAO;
+        this.courseDAO = courseDAO;
+        this.parserThreads = parserThreads;
+        this.writerThreads = writerThreads;
+    }
+
+    /**
+     * Imports all students of a CSV file.
+     *
+     * @param csvFile          The CSV file to import.
+     * @param rejectFile       The file that receives rejected rows with line number and reason, or null.
+     * @param progressListener Receives the counters about once a second and once at the end, may be null.
+     * @return The final counters of the import, including its throughput.
+     * @throws IOException if the CSV file cannot be read or the reject file cannot be written.
+     */
+    public ImportResult importStudents(Path csvFile, Path rejectFile, Consumer<ImportResult> progressListener) throws IOException {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(parserThreads + writerThreads, r -> {
+            Thread thread = new Thread(r, "student-import-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "student-import-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        ImportRun run = new ImportRun(rejectFile);
+        try (run; BufferedReader reader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8)) {
+            if (progressListener != null) {
+                reporter.scheduleAtFixedRate(() -> progressListener.accept(run.snapshot()),
+                        PROGRESS_INTERVAL_MILLIS, PROGRESS_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            }
+            List<Future<?>> parsers = new ArrayList<>();
+            List<Future<?>> writers = new ArrayList<>();
+            for (int i = 0; i < parserThreads; i++) {
+                parsers.add(workers.submit(run::parseLoop));
+            }
+            for (int i = 0; i < writerThreads; i++) {
+                writers.add(workers.submit(run::writeLoop));
+            }
+
+            run.readLoop(reader);
+            for (int i = 0; i < parserThreads; i++) {
+                run.put(run.lineQueue, LineChunk.END);
+            }
+            run.await(parsers);
+            for (int i = 0; i < writerThreads; i++) {
+                run.put(run.rowQueue, RowChunk.END);
+            }
+            run.await(writers);
+        } catch (CancellationException e) {
+            // A worker failed, its exception is rethrown below
+        } finally {
+            workers.shutdownNow();
+            reporter.shutdownNow();
+        }
+
+        Throwable failure = run.failure;
+        if (failure instanceof UncheckedIOException) {
+            throw ((UncheckedIOException) failure).getCause();
+        } else if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        } else if (failure != null) {
+            throw new IOException("CSV import was interrupted.", failure);
+        }
+
+        ImportResult result = run.snapshot();
+        if (progressListener != null) {
+            progressListener.accept(result);
+        }
+        return result;
+    }
+
+    /**
+     * Splits one CSV line into trimmed fields. Quoted fields may contain commas and doubled quotes.
+     */
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>(8);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+    /**
+     * Checks the fields of one row against the constraints of the student table.
+     *
+     * @return null if the row is valid, otherwise the reason it is rejected.
+     */
+    private static String validate(List<String> fields) {
+        if (fields.size() < 6) {
+            return "expected at least 6 columns but found " + fields.size();
+        }
+        String[] names = {"firstname", "lastname", "email", "grade", "phoneNumber", "dayOfBirth"};
+        int[] maxLengths = {50, 50, 50, 5, 20, 10};
+        for (int i = 0; i < names.length; i++) {
+            String value = fields.get(i);
+            if (value.isEmpty()) {
+                return names[i] + " is empty";
+            }
+            if (value.length() > maxLengths[i]) {
+                return names[i] + " is longer than " + maxLengths[i] + " characters";
+            }
+        }
+        if (fields.get(2).indexOf('@') <= 0) {
+            return "email is invalid";
+        }
+        String phoneNumber = fields.get(4);
+        for (int i = 0; i < phoneNumber.length(); i++) {
+            char c = phoneNumber.charAt(i);
+            if (!Character.isDigit(c) && c != '+' && c != ' ' && c != '-' && c != '/') {
+                return "phoneNumber contains '" + c + "'";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A block of consecutive lines of the CSV file.
+     */
+    private static final class LineChunk {
+        private static final LineChunk END = new LineChunk(0, List.of());
+
+        private final long firstLineNumber;
+        private final List<String> lines;
+
+        private LineChunk(long firstLineNumber, List<String> lines) {
+            this.firstLineNumber = firstLineNumber;
+            this.lines = lines;
+        }
+    }
+
+    /**
+     * A parsed, valid row together with its origin for the reject file.
+     */
+    private static final class ParsedRow {
+        private final long lineNumber;
+        private final String line;
+        private final Student student;
+        private final List<String> courses;
+
+        private ParsedRow(long lineNumber, String line, Student student, List<String> courses) {
+            this.lineNumber = lineNumber;
+            this.line = line;
+            this.student = student;
+            this.courses = courses;
+        }
+    }
+
+    /**
+     * A batch of valid rows on its way to a writer.
+     */
+    private static final class RowChunk {
+        private static final RowChunk END = new RowChunk(List.of());
+
+        private final List<ParsedRow> rows;
+
+        private RowChunk(List<ParsedRow> rows) {
+            this.rows = rows;
+        }
+    }
+
+    /**
+     * The queues, counters and reject output of one import.
+     */
+    private final class ImportRun implements AutoCloseable {
+        private final BlockingQueue<LineChunk> lineQueue = new ArrayBlockingQueue<>(parserThreads * 2);
+        private final BlockingQueue<RowChunk> rowQueue = new ArrayBlockingQueue<>(writerThreads * 2);
+        private final BufferedWriter rejectWriter;
+        private final long startNanos = System.nanoTime();
+
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong studentsImported = new AtomicLong();
+        private final AtomicLong rowsRejected = new AtomicLong();
+        private final AtomicLong enrollmentsImported = new AtomicLong();
+        private volatile Throwable failure;
+
+        private ImportRun(Path rejectFile) throws IOException {
+            this.rejectWriter = rejectFile != null ? Files.newBufferedWriter(rejectFile, StandardCharsets.UTF_8) : null;
+            if (rejectWriter != null) {
+                rejectWriter.write("lineNumber,reason,line");
+                rejectWriter.newLine();
+            }
+        }
+
+        private ImportResult snapshot() {
+            return new ImportResult(rowsRead.get(), studentsImported.get(), rowsRejected.get(),
+                    enrollmentsImported.get(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        }
+
+        private void readLoop(BufferedReader reader) throws IOException {
+            long lineNumber = 0;
+            List<String> lines = new ArrayList<>(CHUNK_SIZE);
+            long firstLineNumber = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1 && line.regionMatches(true, 0, "firstname", 0, 9)) {
+                    continue;
+                }
+                if (lines.isEmpty()) {
+                    firstLineNumber = lineNumber;
+                }
+                lines.add(line);
+                if (lines.size() == CHUNK_SIZE) {
+                    put(lineQueue, new LineChunk(firstLineNumber, lines));
+                    lines = new ArrayList<>(CHUNK_SIZE);
+                }
+            }
+            if (!lines.isEmpty()) {
+                put(lineQueue, new LineChunk(firstLineNumber, lines));
+            }
+        }
+
+        private void parseLoop() {
+            try {
+                LineChunk chunk;
+                while ((chunk = take(lineQueue)) != LineChunk.END) {
+                    List<ParsedRow> rows = new ArrayList<>(chunk.lines.size());
+                    long lineNumber = chunk.firstLineNumber;
+                    int nonBlankLines = 0;
+                    for (String line : chunk.lines) {
+                        // Blank lines are skipped here and not by the reader, so line numbers stay exact
+                        if (!line.isBlank()) {
+                            nonBlankLines++;
+                            ParsedRow row = parse(lineNumber, line);
+                            if (row != null) {
+                                rows.add(row);
+                            }
+                        }
+                        lineNumber++;
+                    }
+                    rowsRead.addAndGet(nonBlankLines);
+                    if (!rows.isEmpty()) {
+                        put(rowQueue, new RowChunk(rows));
+                    }
+                }
+            } catch (RuntimeException | Error e) {
+                fail(e);
+            }
+        }
+
+        private ParsedRow parse(long lineNumber, String line) {
+            List<String> fields = splitCsvLine(line);
+            String reason = validate(fields);
+            if (reason != null) {
+                reject(lineNumber, reason, line);
+                return null;
+            }
+            LocalDate dayOfBirth;
+            try {
+                dayOfBirth = LocalDate.parse(fields.get(5), DATE_FORMAT);
+            } catch (DateTimeParseException e) {
+                reject(lineNumber, "dayOfBirth is not a date in the format yyyy-MM-dd", line);
+                return null;
+            }
+            if (dayOfBirth.isAfter(LocalDate.now())) {
+                reject(lineNumber, "dayOfBirth is in the future", line);
+                return null;
+            }
+            List<String> courses = new ArrayList<>();
+            if (fields.size() > 6) {
+                for (String course : fields.get(6).split(";")) {
+                    if (!course.isBlank()) {
+                        courses.add(course.trim());
+                    }
+                }
+            }
+            Student student = new Student(fields.get(0), fields.get(1), fields.get(2), fields.get(3), fields.get(4), dayOfBirth);
+            return new ParsedRow(lineNumber, line, student, courses);
+        }
+
+        private void writeLoop() {
+            try {
+                RowChunk chunk;
+                while ((chunk = take(rowQueue)) != RowChunk.END) {
+                    List<Student> students = new ArrayList<>(chunk.rows.size());
+                    for (ParsedRow row : chunk.rows) {
+                        students.add(row.student);
+                    }
+                    int[] ids = studentDAO.addStudents(students);
+
+                    List<Course> enrollments = new ArrayList<>();
+                    for (int i = 0; i < ids.length; i++) {
+                        ParsedRow row = chunk.rows.get(i);
+                        if (ids[i] == StudentDAO.QUEUED) {
+                            reject(row.lineNumber, "database not available, the student is queued without courses", row.line);
+                            continue;
+                        }
+                        if (ids[i] <= 0) {
+                            reject(row.lineNumber, "database insert failed", row.line);
+                            continue;
+                        }
+                        studentsImported.incrementAndGet();
+                        for (String course : row.courses) {
+                            enrollments.add(new Course(0, ids[i], course));
+                        }
+                    }
+                    enrollmentsImported.addAndGet(courseDAO.addCourses(enrollments));
+                }
+            } catch (RuntimeException | Error e) {
+                fail(e);
+            }
+        }
+
+        private void reject(long lineNumber, String reason, String line) {
+            rowsRejected.incrementAndGet();
+            if (rejectWriter == null) {
+                return;
+            }
+            synchronized (rejectWriter) {
+                try {
+                    rejectWriter.write(lineNumber + ",\"" + reason + "\"," + line);
+                    rejectWriter.newLine();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        private void fail(Throwable e) {
+            if (failure == null) {
+                failure = e;
+            }
+        }
+
+        /**
+         * Puts an item into a bounded queue, waiting while it is full unless the import has failed.
+         */
+        private <T> void put(BlockingQueue<T> queue, T item) {
+            try {
+                while (!queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+                    if (failure != null) {
+                        throw new CancellationException();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException();
+            }
+        }
+
+        private <T> T take(BlockingQueue<T> queue) {
+            try {
+                T item;
+                while ((item = queue.poll(100, TimeUnit.MILLISECONDS)) == null) {
+                    if (failure != null) {
+                        throw new CancellationException();
+                    }
+                }
+                return item;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException();
+            }
+        }
+
+        private void await(List<Future<?>> futures) {
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    fail(e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    fail(e);
+                }
+            }
+            if (failure != null) {
+                throw new CancellationException();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (rejectWriter != null) {
+                rejectWriter.close();
+            }
+        }
+    }
+}
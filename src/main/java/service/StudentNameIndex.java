@@ -0,0 +1,593 @@
+package service;
+
+import model.Student;
+import model.StudentSummary;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * The StudentNameIndex class is an in-memory trigram index over the first name, last name and email of all students.
+ *
+ * Every field is lowercased, stripped of accents and padded with "^^", and each of its three letter
+ * sequences (trigrams) points to a sorted list of the slots containing it. A query term of three or more
+ * letters matches any field containing it; a shorter term matches the start of a field through the padded
+ * trigrams "^^a" and "^ab". The shortest posting list of all query trigrams gives the candidates, which are
+ * verified against the fields, ranked (exact before prefix before substring, last name before first name
+ * before email) and reduced to the top K with a bounded heap. A search stops after its time budget and
+ * returns the best hits found so far.
+ *
+ * Writes are applied incrementally: a changed student gets a new slot and its old slot becomes garbage.
+ * When the garbage grows beyond a quarter of the slots, the index is rebuilt from the live slots.
+ * Builds split the students into chunks that are indexed in parallel, and the postings are merged shard by shard.
+ *
+ * The index is thread-safe: searches share a read lock, writes and rebuilds take the write lock.
+ */
+public class StudentNameIndex {
+
+    private static final int SHARDS = 64;
+    private static final int MIN_GARBAGE_FOR_REBUILD = 1024;
+    private static final int BUDGET_CHECK_INTERVAL = 256;
+
+    private final long budgetNanos;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private Data data = new Data(16);
+    private final IndexRebuild<Data> rebuild = new IndexRebuild<>(lock);
+
+    /**
+     * Constructs a new, empty StudentNameIndex with a search budget of 10 ms.
+     */
+    public StudentNameIndex() {
+        this(10);
+    }
+
+    /**
+     * Constructs a new, empty StudentNameIndex.
+     *
+     * @param budgetMillis The maximum time a search may take.
+     */
+    public StudentNameIndex(long budgetMillis) {
+        if (budgetMillis <= 0) {
+            throw new IllegalArgumentException("Search budget must be positive!");
+        }
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+    }
+
+    /**
+     * Replaces the content of the index. The new index is built in parallel before the old one is replaced,
+     * so searches keep working on the old content in the meantime. Writes are recorded from before the
+     * students are read and applied to both, so none is lost whether the read saw it or not.
+     *
+     * @param students Reads all students; called after the recording of writes has started.
+     */
+    public void rebuild(Supplier<List<Student>> students) {
+        rebuild.rebuild(() -> build(students.get()), built -> data = built);
+    }
+
+    private static Data build(List<Student> students) {
+        int count = students.size();
+        int[] ids = new int[count];
+        String[] firstnames = new String[count], lastnames = new String[count], emails = new String[count];
+        for (int i = 0; i < count; i++) {
+            Student student = students.get(i);
+            ids[i] = student.getStudentID();
+            firstnames[i] = student.getFirstname();
+            lastnames[i] = student.getLastname();
+            emails[i] = student.getEmail();
+        }
+        return Data.build(ids, firstnames, lastnames, emails, count);
+    }
+
+    /**
+     * Adds a student or replaces the indexed names of a student.
+     *
+     * @param student The student as written.
+     */
+    public void put(Student student) {
+        lock.writeLock().lock();
+        try {
+            UnaryOperator<Data> write = d -> {
+                d.remove(student.getStudentID());
+                d.add(student.getStudentID(), student.getFirstname(), student.getLastname(), student.getEmail());
+                return d;
+            };
+            write.apply(data);
+            rebuild.record(write);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a student from the index.
+     *
+     * @param studentID The unique identifier of the student.
+     */
+    public void remove(int studentID) {
+        lock.writeLock().lock();
+        try {
+            UnaryOperator<Data> write = d -> {
+                d.remove(studentID);
+                return d;
+            };
+            write.apply(data);
+            rebuild.record(write);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of indexed students.
+     *
+     * @return The number of live entries.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return data.slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the students best matching a query. Every word of the query must match one of the fields.
+     *
+     * @param query The words to search for, e.g. "anna sch".
+     * @param limit The maximum number of results.
+     * @return The best matches, best first; empty for an empty query.
+     */
+    public List<StudentSummary> search(String query, int limit) {
+        long deadline = System.nanoTime() + budgetNanos;
+        String[] terms = query == null ? new String[0] : normalize(query).trim().split("\\s+");
+        if (limit <= 0 || terms.length == 0 || terms[0].isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Data d = data;
+            // The candidates come from the shortest posting list of all query trigrams
+            IntList candidates = null;
+            for (String term : terms) {
+                for (long key : queryTrigrams(term)) {
+                    IntList postings = d.postings(key);
+                    if (postings == null) {
+                        return List.of();
+                    }
+                    if (candidates == null || postings.size < candidates.size) {
+                        candidates = postings;
+                    }
+                }
+            }
+
+            PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1);
+            for (int i = 0; i < candidates.size; i++) {
+                if (i % BUDGET_CHECK_INTERVAL == 0 && i > 0 && System.nanoTime() - deadline > 0) {
+                    break;
+                }
+                int slot = candidates.values[i];
+                if (d.ids[slot] == 0) {
+                    continue; // garbage
+                }
+                int score = 0;
+                for (String term : terms) {
+                    int termScore = score(d, slot, term);
+                    if (termScore == 0) {
+                        score = 0;
+                        break;
+                    }
+                    score += termScore;
+                }
+                if (score > 0) {
+                    best.offer(new Hit(slot, score, d.normalizedLastnames[slot]));
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+            }
+
+            StudentSummary[] results = new StudentSummary[best.size()];
+            for (int i = results.length - 1; i >= 0; i--) {
+                int slot = best.poll().slot;
+                results[i] = new StudentSummary(d.ids[slot], d.firstnames[slot], d.lastnames[slot]);
+            }
+            return Arrays.asList(results);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void compactIfNeeded() {
+        int live = data.slotById.size();
+        if (data.garbage >= MIN_GARBAGE_FOR_REBUILD && data.garbage > live / 4) {
+            data = data.compact();
+        }
+    }
+
+    private static int score(Data d, int slot, String term) {
+        int last = fieldScore(d.normalizedLastnames[slot], term, 100, 60, 20);
+        int first = fieldScore(d.normalizedFirstnames[slot], term, 90, 50, 15);
+        int email = fieldScore(d.normalizedEmails[slot], term, 40, 30, 5);
+        return Math.max(last, Math.max(first, email));
+    }
+
+    private static int fieldScore(String field, String term, int exact, int prefix, int substring) {
+        if (field.startsWith(term)) {
+            return field.length() == term.length() ? exact : prefix;
+        }
+        // Short terms are only indexed as prefixes
+        return term.length() >= 3 && field.contains(term) ? substring : 0;
+    }
+
+    private static long[] queryTrigrams(String term) {
+        if (term.length() < 3) {
+            String padded = term.length() == 1 ? "^^" + term : "^" + term;
+            return new long[]{trigram(padded, 0)};
+        }
+        long[] keys = new long[term.length() - 2];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = trigram(term, i);
+        }
+        return keys;
+    }
+
+    private static long trigram(String s, int i) {
+        return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+    }
+
+    private static int shardOf(long key) {
+        return (int) ((key ^ (key >>> 29)) * 0x9E3779B1L >>> 32) & (SHARDS - 1);
+    }
+
+    /**
+     * Lowercases a name and removes accents, so "Müller" is found with "muller" and "mül".
+     */
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        boolean ascii = true;
+        for (int i = 0; i < value.length() && ascii; i++) {
+            ascii = value.charAt(i) < 0x80;
+        }
+        String lower = value.toLowerCase(Locale.ROOT);
+        if (ascii) {
+            return lower;
+        }
+        return Normalizer.normalize(lower, Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
+    }
+
+    /**
+     * Adds the distinct trigrams of the padded fields of one student to a buffer, which is returned sorted.
+     */
+    private static long[] studentTrigrams(String first, String last, String email, long[] buffer, int[] count) {
+        int n = 0;
+        for (String field : new String[]{first, last, email}) {
+            String padded = "^^" + field;
+            int needed = n + padded.length() - 2;
+            if (needed > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(needed, buffer.length * 2));
+            }
+            for (int i = 0; i + 2 < padded.length(); i++) {
+                buffer[n++] = trigram(padded, i);
+            }
+        }
+        Arrays.sort(buffer, 0, n);
+        int distinct = 0;
+        for (int i = 0; i < n; i++) {
+            if (distinct == 0 || buffer[i] != buffer[distinct - 1]) {
+                buffer[distinct++] = buffer[i];
+            }
+        }
+        count[0] = distinct;
+        return buffer;
+    }
+
+    /**
+     * The slots, postings and ID map of one generation of the index.
+     */
+    private static final class Data {
+        private int[] ids;
+        private String[] firstnames, lastnames;
+        private String[] normalizedFirstnames, normalizedLastnames, normalizedEmails;
+        private int size;
+        private int garbage;
+        private final IntIntMap slotById;
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private final Map<Long, IntList>[] shards = new Map[SHARDS];
+
+        private Data(int capacity) {
+            ids = new int[capacity];
+            firstnames = new String[capacity];
+            lastnames = new String[capacity];
+            normalizedFirstnames = new String[capacity];
+            normalizedLastnames = new String[capacity];
+            normalizedEmails = new String[capacity];
+            slotById = new IntIntMap(capacity);
+            for (int s = 0; s < SHARDS; s++) {
+                shards[s] = new HashMap<>();
+            }
+        }
+
+        /**
+         * Builds the index of count students. Chunks of slots are indexed in parallel into chunk-local
+         * sharded postings, which are then concatenated shard by shard in chunk order, so every posting
+         * list stays sorted by slot.
+         */
+        private static Data build(int[] ids, String[] firstnames, String[] lastnames, String[] emails, int count) {
+            Data d = new Data(Math.max(16, count));
+            int chunks = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() * 4, count / 4096));
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            Map<Long, IntList>[][] local = new Map[chunks][];
+
+            IntStream.range(0, chunks).parallel().forEach(c -> {
+                int from = (int) ((long) count * c / chunks), to = (int) ((long) count * (c + 1) / chunks);
+                @SuppressWarnings({"unchecked", "rawtypes"})
+                Map<Long, IntList>[] chunkShards = new Map[SHARDS];
+                for (int s = 0; s < SHARDS; s++) {
+                    chunkShards[s] = new HashMap<>();
+                }
+                long[] buffer = new long[64];
+                int[] distinct = new int[1];
+                for (int slot = from; slot < to; slot++) {
+                    d.ids[slot] = ids[slot];
+                    d.firstnames[slot] = firstnames[slot];
+                    d.lastnames[slot] = lastnames[slot];
+                    d.normalizedFirstnames[slot] = normalize(firstnames[slot]);
+                    d.normalizedLastnames[slot] = normalize(lastnames[slot]);
+                    d.normalizedEmails[slot] = normalize(emails[slot]);
+                    buffer = studentTrigrams(d.normalizedFirstnames[slot], d.normalizedLastnames[slot],
+                            d.normalizedEmails[slot], buffer, distinct);
+                    for (int i = 0; i < distinct[0]; i++) {
+                        chunkShards[shardOf(buffer[i])].computeIfAbsent(buffer[i], k -> new IntList()).add(slot);
+                    }
+                }
+                local[c] = chunkShards;
+            });
+
+            IntStream.range(0, SHARDS).parallel().forEach(s -> {
+                Map<Long, IntList> shard = d.shards[s];
+                for (int c = 0; c < chunks; c++) {
+                    for (Map.Entry<Long, IntList> entry : local[c][s].entrySet()) {
+                        IntList merged = shard.get(entry.getKey());
+                        if (merged == null) {
+                            shard.put(entry.getKey(), entry.getValue());
+                        } else {
+                            merged.addAll(entry.getValue());
+                        }
+                    }
+                }
+            });
+
+            d.size = count;
+            for (int slot = 0; slot < count; slot++) {
+                if (ids[slot] > 0) {
+                    int previous = d.slotById.put(ids[slot], slot);
+                    if (previous >= 0) {
+                        // The same student twice, the later one wins
+                        d.ids[previous] = 0;
+                        d.garbage++;
+                    }
+                } else {
+                    d.garbage++;
+                }
+            }
+            return d;
+        }
+
+        private IntList postings(long key) {
+            return shards[shardOf(key)].get(key);
+        }
+
+        private void add(int id, String firstname, String lastname, String email) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                firstnames = Arrays.copyOf(firstnames, capacity);
+                lastnames = Arrays.copyOf(lastnames, capacity);
+                normalizedFirstnames = Arrays.copyOf(normalizedFirstnames, capacity);
+                normalizedLastnames = Arrays.copyOf(normalizedLastnames, capacity);
+                normalizedEmails = Arrays.copyOf(normalizedEmails, capacity);
+            }
+            int slot = size++;
+            ids[slot] = id;
+            firstnames[slot] = firstname;
+            lastnames[slot] = lastname;
+            normalizedFirstnames[slot] = normalize(firstname);
+            normalizedLastnames[slot] = normalize(lastname);
+            normalizedEmails[slot] = normalize(email);
+            slotById.put(id, slot);
+
+            int[] distinct = new int[1];
+            long[] keys = studentTrigrams(normalizedFirstnames[slot], normalizedLastnames[slot], normalizedEmails[slot],
+                    new long[64], distinct);
+            for (int i = 0; i < distinct[0]; i++) {
+                // The new slot is the largest one, so the posting lists stay sorted
+                shards[shardOf(keys[i])].computeIfAbsent(keys[i], k -> new IntList()).add(slot);
+            }
+        }
+
+        private void remove(int id) {
+            int slot = slotById.remove(id);
+            if (slot >= 0) {
+                ids[slot] = 0;
+                firstnames[slot] = lastnames[slot] = null;
+                garbage++;
+            }
+        }
+
+        /**
+         * Builds a new generation from the live slots only.
+         */
+        private Data compact() {
+            int live = slotById.size();
+            int[] liveIds = new int[live];
+            String[] liveFirst = new String[live], liveLast = new String[live], liveEmails = new String[live];
+            int n = 0;
+            for (int slot = 0; slot < size; slot++) {
+                if (ids[slot] != 0) {
+                    liveIds[n] = ids[slot];
+                    liveFirst[n] = firstnames[slot];
+                    liveLast[n] = lastnames[slot];
+                    // The original email is not kept, its normalized form indexes the same way
+                    liveEmails[n] = normalizedEmails[slot];
+                    n++;
+                }
+            }
+            return build(liveIds, liveFirst, liveLast, liveEmails, n);
+        }
+    }
+
+    /**
+     * A candidate in the top-K heap; the heap head is the worst hit.
+     */
+    private static final class Hit implements Comparable<Hit> {
+        private final int slot, score;
+        private final String lastname;
+
+        private Hit(int slot, int score, String lastname) {
+            this.slot = slot;
+            this.score = score;
+            this.lastname = lastname;
+        }
+
+        @Override
+        public int compareTo(Hit other) {
+            if (score != other.score) {
+                return Integer.compare(score, other.score);
+            }
+            // On equal scores, later last names in the alphabet are worse
+            return other.lastname.compareTo(lastname);
+        }
+    }
+
+    /**
+     * A growable list of ints without boxing.
+     */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private void addAll(IntList other) {
+            if (size + other.size > values.length) {
+                values = Arrays.copyOf(values, Math.max(size + other.size, values.length * 2));
+            }
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+        }
+    }
+
+    /**
+     * An open addressing map from positive int keys to int values without boxing.
+     * Removal shifts the following entries back, so no tombstones are needed.
+     */
+    private static final class IntIntMap {
+        private int[] keys;
+        private int[] values;
+        private int size;
+
+        private IntIntMap(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+            keys = new int[capacity];
+            values = new int[capacity];
+        }
+
+        private int size() {
+            return size;
+        }
+
+        /**
+         * @return The previous value, or -1.
+         */
+        private int put(int key, int value) {
+            if ((size + 1) * 2 > keys.length) {
+                resize();
+            }
+            int mask = keys.length - 1;
+            for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+                if (keys[i] == 0) {
+                    keys[i] = key;
+                    values[i] = value;
+                    size++;
+                    return -1;
+                }
+                if (keys[i] == key) {
+                    int previous = values[i];
+                    values[i] = value;
+                    return previous;
+                }
+            }
+        }
+
+        /**
+         * @return The removed value, or -1.
+         */
+        private int remove(int key) {
+            int mask = keys.length - 1;
+            int i = mix(key) & mask;
+            while (keys[i] != key) {
+                if (keys[i] == 0) {
+                    return -1;
+                }
+                i = (i + 1) & mask;
+            }
+            int removed = values[i];
+            // Shift back the entries of the same probe run
+            for (int gap = i, j = (i + 1) & mask; ; j = (j + 1) & mask) {
+                if (keys[j] == 0) {
+                    keys[gap] = 0;
+                    break;
+                }
+                int home = mix(keys[j]) & mask;
+                if (((j - home) & mask) >= ((j - gap) & mask)) {
+                    keys[gap] = keys[j];
+                    values[gap] = values[j];
+                    gap = j;
+                }
+            }
+            size--;
+            return removed;
+        }
+
+        private void resize() {
+            int[] oldKeys = keys, oldValues = values;
+            keys = new int[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int mix(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+
+}
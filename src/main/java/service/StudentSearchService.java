@@ -0,0 +1,145 @@
+package service;
+
+import dao.StudentChangeListener;
+import dao.StudentCriteria;
+import model.Student;
+import model.StudentSummary;
+import singleton.DAOFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+/**
+ * The StudentSearchService class provides search-as-you-type over the names and emails of all students.
+ *
+ * The searches are answered by a StudentNameIndex held in memory. The index is loaded in the background
+ * with one streaming read of the student table and is kept up to date through the writes of the shared
+ * StudentDAO. Until it is loaded, searches fall back to a last name prefix query in the database.
+ */
+public class StudentSearchService implements StudentChangeListener {
+
+    private static final Duration SEARCH_DEADLINE = Duration.ofSeconds(2);
+
+    private static final class Holder {
+        private static final StudentSearchService INSTANCE = createShared();
+    }
+
+    private final StudentService studentService;
+    private final StudentNameIndex index;
+    private volatile boolean ready;
+
+    /**
+     * Constructs a new StudentSearchService. It is not registered for student writes;
+     * use getInstance() for the shared, self-updating service.
+     *
+     * @param studentService The service used to load the index and for the fallback search.
+     * @param index          The index answering the searches.
+     */
+    public StudentSearchService(StudentService studentService, StudentNameIndex index) {
+        this.studentService = studentService;
+        this.index = index;
+    }
+
+    /**
+     * Returns the shared StudentSearchService. The first call starts loading its index in the background.
+     *
+     * @return The StudentSearchService instance.
+     */
+    public static StudentSearchService getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static StudentSearchService createShared() {
+        StudentSearchService service = new StudentSearchService(new StudentService(), new StudentNameIndex());
+        // Registered before the load starts; the index records writes from before the read to the swap
+        DAOFactory.addStudentChangeListener(service);
+        service.loadIndexAsync();
+        return service;
+    }
+
+    /**
+     * Loads all students into the index. Searches use the database until the first load is done.
+     */
+    public void loadIndex() {
+        index.rebuild(() -> {
+            List<Student> students = new ArrayList<>();
+            try (Stream<Student> stream = studentService.streamAllStudents()) {
+                stream.forEach(students::add);
+            }
+            return students;
+        });
+        ready = true;
+    }
+
+    /**
+     * Loads all students into the index on a background thread.
+     *
+     * @return A future that completes when the index is loaded.
+     */
+    public CompletableFuture<Void> loadIndexAsync() {
+        CompletableFuture<Void> load = ServiceExecutor.run(this::loadIndex, null);
+        load.whenComplete((done, failure) -> {
+            if (failure != null) {
+                System.out.println("Loading the name index failed: " + ServiceExecutor.unwrap(failure).getMessage());
+            }
+        });
+        return load;
+    }
+
+    /**
+     * Returns whether the index is loaded.
+     *
+     * @return true if searches are answered from memory.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Finds the students whose first name, last name or email match every word of the query.
+     *
+     * @param query The words to search for, prefixes or substrings of at least three letters.
+     * @param limit The maximum number of results.
+     * @return The best matches, best first.
+     */
+    public List<StudentSummary> search(String query, int limit) {
+        if (query == null || query.trim().isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        if (ready) {
+            return index.search(query, limit);
+        }
+        StudentCriteria criteria = StudentCriteria.all()
+                .withLastNamePrefix(query.trim())
+                .sortedBy(StudentCriteria.SortColumn.LASTNAME, true);
+        List<StudentSummary> results = new ArrayList<>();
+        for (Student student : studentService.findStudents(criteria, null, limit)) {
+            results.add(new StudentSummary(student.getStudentID(), student.getFirstname(), student.getLastname()));
+        }
+        return results;
+    }
+
+    /**
+     * Searches on a background thread.
+     *
+     * @param query The words to search for.
+     * @param limit The maximum number of results.
+     * @return A future with the best matches, best first.
+     */
+    public CompletableFuture<List<StudentSummary>> searchAsync(String query, int limit) {
+        return ServiceExecutor.supply(() -> search(query, limit), SEARCH_DEADLINE);
+    }
+
+    @Override
+    public void studentSaved(Student student) {
+        index.put(student);
+    }
+
+    @Override
+    public void studentDeleted(int studentID) {
+        index.remove(studentID);
+    }
+}
@@ -1,14 +1,31 @@
 package service;
 
+import dao.CourseDAO;
+import dao.OffHeapStudentCache;
+import dao.SnapshotWriter;
+import dao.StudentCriteria;
 import dao.StudentDAO;
-import dao.StudentDAOImpl;
+import model.Course;
 import model.Student;
+import model.StudentCourses;
+import model.StudentSummary;
+import singleton.DAOFactory;
+import singleton.UnitOfWork;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
 import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * The StudentService class provides methods to interact with the StudentDAO
@@ -16,13 +33,41 @@ import java.util.List;
  */
 public class StudentService {
 
+    // Rows per round trip when streaming, can be tuned with the system property db.fetchSize
+    private static final int STREAM_FETCH_SIZE = Integer.getInteger("db.fetchSize", 1000);
+
+    // Isolation level of a registration, can be tuned with the system property db.registrationIsolation
+    private static final int REGISTRATION_ISOLATION =
+            Integer.getInteger("db.registrationIsolation", Connection.TRANSACTION_READ_COMMITTED);
+
     private final StudentDAO studentDAO;
+    private final CourseDAO courseDAO;
 
     /**
-     * Constructs a new StudentService and initializes the StudentDAO implementation.
+     * Constructs a new StudentService that uses the shared, cached StudentDAO.
      */
     public StudentService() {
-        studentDAO = new StudentDAOImpl();
+        this(DAOFactory.getStudentDAO());
+    }
+
+    /**
+     * Constructs a new StudentService with a given StudentDAO and the shared CourseDAO.
+     *
+     * @param studentDAO The DAO used for all student operations.
+     */
+    public StudentService(StudentDAO studentDAO) {
+        this(studentDAO, DAOFactory.getCourseDAO());
+    }
+
+    /**
+     * Constructs a new StudentService with a given StudentDAO and CourseDAO.
+     *
+     * @param studentDAO The DAO used for all student operations.
+     * @param courseDAO  The DAO used to load the courses of students.
+     */
+    public StudentService(StudentDAO studentDAO, CourseDAO courseDAO) {
+        this.studentDAO = studentDAO;
+        this.courseDAO = courseDAO;
     }
 
     /**
@@ -35,6 +80,58 @@ public class StudentService {
         return studentDAO.getStudentById(id);
     }
 
+    /**
+     * Finds many students by their IDs with a few bulk queries instead of one query per student.
+     *
+     * @param ids The unique identifiers of the students.
+     * @return A map from student ID to Student, ordered by ID; unknown IDs are missing.
+     */
+    public Map<Integer, Student> findStudentsByIds(int[] ids) {
+        if (ids == null) {
+            throw new IllegalArgumentException("Student IDs cannot be null!");
+        }
+        return studentDAO.getStudentsByIds(ids);
+    }
+
+    /**
+     * Finds many students together with their courses. The students and all of their courses are loaded with
+     * one bulk query each (split into chunks for very long ID lists), instead of one course query per student.
+     *
+     * @param ids The unique identifiers of the students.
+     * @return The students and their courses, ordered by ID; unknown IDs are missing.
+     * @throws IllegalArgumentException if the IDs are null.
+     */
+    public List<StudentCourses> findStudentsWithCourses(int[] ids) {
+        return withCourses(findStudentsByIds(ids).values());
+    }
+
+    /**
+     * Retrieves one page of the students matching the criteria together with their courses,
+     * with one query for the page and one for the courses of all students in it.
+     *
+     * @param criteria The filters and the sort order.
+     * @param after    The last student of the previous page, or null for the first page.
+     * @param limit    The maximum number of students in the page.
+     * @return The students of the page and their courses, in the order of the page.
+     * @throws IllegalArgumentException if the criteria are null or limit is not positive.
+     */
+    public List<StudentCourses> findStudentsWithCourses(StudentCriteria criteria, Student after, int limit) {
+        return withCourses(findStudents(criteria, after, limit));
+    }
+
+    private List<StudentCourses> withCourses(Collection<Student> students) {
+        if (students.isEmpty()) {
+            return new ArrayList<>();
+        }
+        int[] ids = students.stream().mapToInt(Student::getStudentID).toArray();
+        Map<Integer, List<Course>> courses = courseDAO.getCoursesByStudentIDs(ids);
+        List<StudentCourses> result = new ArrayList<>(students.size());
+        for (Student student : students) {
+            result.add(new StudentCourses(student, courses.getOrDefault(student.getStudentID(), List.of())));
+        }
+        return result;
+    }
+
     /**
      * Retrieves a student by their last name.
      *
@@ -45,11 +142,33 @@ public class StudentService {
         return studentDAO.getStudentByLastName(studentName);
     }
 
+    /**
+     * Updates a student from the values of a form. All fields are written, since the form shows every field
+     * and a value the clerk kept must win over a change made elsewhere since the form was filled.
+     */
     public void updateStudent(int studentID, String firstname, String lastname, String email, String grade, String phoneNumber, LocalDate dayOfBirth) {
         if (studentID <= 0 || firstname == null || lastname == null || email == null || grade == null || phoneNumber == null || dayOfBirth == null) {
             System.out.println("Error.");
         }
-        studentDAO.updateStudent(studentID,firstname,lastname,email,grade,phoneNumber,dayOfBirth);
+        studentDAO.updateStudent(studentID, firstname, lastname, email, grade, phoneNumber, dayOfBirth);
+        System.out.println("Student updated successfully.");
+    }
+
+    /**
+     * Writes the fields of a student that changed since it was loaded and then edited.
+     *
+     * @param student The student with its changed fields.
+     * @throws IllegalArgumentException if the student is null or has no ID.
+     */
+    public void updateStudent(Student student) {
+        if (student == null || student.getStudentID() <= 0) {
+            throw new IllegalArgumentException("Invalid student!");
+        }
+        if (!student.isDirty()) {
+            System.out.println("Nothing to update.");
+            return;
+        }
+        studentDAO.updateStudent(student);
         System.out.println("Student updated successfully.");
     }
 
@@ -57,15 +176,21 @@ public class StudentService {
         studentDAO.deleteStudent(id);
     }
 
+    /**
+     * Parses a date in the format yyyy-MM-dd.
+     *
+     * @param dateStr The date as text.
+     * @return The date, or null if the text is empty or not a valid date.
+     */
     public static Date parseDate(String dateStr) {
         if (dateStr == null || dateStr.isEmpty()) {
             return null;
         }
         try {
-            SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-            java.util.Date utilDate = sdf.parse(dateStr);
-            return new Date(utilDate.getTime());
-        } catch (ParseException e) {
+            // DateTimeFormatter is immutable and thread-safe, unlike a SimpleDateFormat per call
+            LocalDate date = LocalDate.parse(dateStr, DateTimeFormatter.ISO_LOCAL_DATE);
+            return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+        } catch (DateTimeParseException e) {
             System.out.println(e.getMessage());
             return null;
         }
@@ -75,18 +200,242 @@ public class StudentService {
         return studentDAO.getAllStudents();
     }
 
+    /**
+     * Retrieves one page of students, ordered by ID.
+     *
+     * @param afterId The last student ID of the previous page, 0 for the first page.
+     * @param limit   The maximum number of students in the page.
+     * @return The students of the page.
+     * @throws IllegalArgumentException if afterId is negative or limit is not positive.
+     */
+    public List<Student> getStudentsAfter(int afterId, int limit) {
+        if (afterId < 0 || limit <= 0) {
+            throw new IllegalArgumentException("Invalid page!");
+        }
+        return studentDAO.getStudentsAfter(afterId, limit);
+    }
+
+    /**
+     * Counts the students.
+     *
+     * @return The number of students.
+     */
+    public int countStudents() {
+        return studentDAO.countStudents();
+    }
+
+    /**
+     * Retrieves one page of the students matching the criteria, filtered and sorted by the database.
+     *
+     * @param criteria The filters and the sort order.
+     * @param after    The last student of the previous page, or null for the first page.
+     * @param limit    The maximum number of students in the page.
+     * @return The students of the page.
+     * @throws IllegalArgumentException if the criteria are null or limit is not positive.
+     */
+    public List<Student> findStudents(StudentCriteria criteria, Student after, int limit) {
+        if (criteria == null || limit <= 0) {
+            throw new IllegalArgumentException("Invalid page!");
+        }
+        return studentDAO.findStudents(criteria, after, limit);
+    }
+
+    /**
+     * Counts the students matching the criteria.
+     *
+     * @param criteria The filters.
+     * @return The number of matching students.
+     * @throws IllegalArgumentException if the criteria are null.
+     */
+    public int countStudents(StudentCriteria criteria) {
+        if (criteria == null) {
+            throw new IllegalArgumentException("Criteria cannot be null!");
+        }
+        return studentDAO.countStudents(criteria);
+    }
+
+    /**
+     * Retrieves the student at a position of the order of the criteria.
+     *
+     * @param criteria The filters and the sort order.
+     * @param offset   The 0-based position.
+     * @return The Student at that position, or null if there are fewer matching students.
+     * @throws IllegalArgumentException if the criteria are null or the offset is negative.
+     */
+    public Student getStudentAtOffset(StudentCriteria criteria, int offset) {
+        if (criteria == null || offset < 0) {
+            throw new IllegalArgumentException("Invalid offset!");
+        }
+        return studentDAO.getStudentAtOffset(criteria, offset);
+    }
+
+    /**
+     * Retrieves the ID and name of all students for list views that don't need the other columns.
+     *
+     * @return A list of StudentSummary objects ordered by ID.
+     */
+    public List<StudentSummary> getStudentSummaries() {
+        return studentDAO.getStudentSummaries();
+    }
+
+    /**
+     * Streams all students for export and reporting without holding the whole table in memory.
+     * The stream must be closed, preferably with try-with-resources, to release its database connection.
+     *
+     * @return A stream of all students ordered by their ID.
+     */
+    public Stream<Student> streamAllStudents() {
+        return studentDAO.streamAllStudents(STREAM_FETCH_SIZE);
+    }
+
+    /**
+     * Builds a column-oriented snapshot of all students for analytics and list views.
+     * The rows are streamed, so the students are never all held as objects at the same time.
+     *
+     * @return The new StudentColumnStore.
+     * @throws dao.DataAccessException if reading the students fails.
+     */
+    public StudentColumnStore loadColumnStore() {
+        try (Stream<Student> students = streamAllStudents()) {
+            return StudentColumnStore.of(students);
+        }
+    }
+
+    /**
+     * Loads all students into a new off-heap cache, e.g. for a long-running reporting process.
+     * The cache is registered with DAOFactory.addStudentChangeListener before the students are read, so it
+     * follows every write. When done, remove it with DAOFactory.removeStudentChangeListener and close it.
+     *
+     * @param maxEntries The maximum number of students kept.
+     * @return The filled OffHeapStudentCache.
+     * @throws dao.DataAccessException if reading the students fails.
+     */
+    public OffHeapStudentCache loadOffHeapCache(int maxEntries) {
+        OffHeapStudentCache cache = new OffHeapStudentCache(maxEntries);
+        DAOFactory.addStudentChangeListener(cache);
+        try (Stream<Student> students = streamAllStudents()) {
+            cache.putAll(students);
+        } catch (RuntimeException e) {
+            DAOFactory.removeStudentChangeListener(cache);
+            cache.close();
+            throw e;
+        }
+        return cache;
+    }
+
+    /**
+     * Writes a new snapshot of the students, courses and enrollments if the existing one is missing
+     * or older than maxAgeMillis. Does nothing unless the DAOs read from the database server: the
+     * snapshot is the offline copy of that database, not of the snapshot itself or the embedded database.
+     *
+     * @param target       The snapshot file.
+     * @param maxAgeMillis The age after which the snapshot is rewritten.
+     * @return true if a new snapshot was written.
+     */
+    public boolean refreshSnapshot(Path target, long maxAgeMillis) {
+        if (!DAOFactory.isDatabaseBackend()) {
+            return false;
+        }
+        try {
+            if (Files.exists(target)
+                    && System.currentTimeMillis() - Files.getLastModifiedTime(target).toMillis() < maxAgeMillis) {
+                return false;
+            }
+            SnapshotWriter.write(studentDAO, courseDAO, target);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            System.out.println(e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Adds a new student.
+     *
+     * @param student The student to be added.
+     * @return The generated student ID, StudentDAO.QUEUED if the database is not available and the student
+     * will be added later, or 0 if the student was not added.
+     */
     public int addStudent(Student student) {
-        if (student ==  null || student.getFirstname() == null || student.getLastname() == null ||
-                student.getEmail() == null || student.getGrade() == null || student.getPhoneNumber() == null ||
-                student.getDayOfBirth() == null) {
+        if (!isComplete(student)) {
             System.out.println("Error.");
             return 0;
         }
         int id = studentDAO.addStudent(student);
-        System.out.println("Student added successfully.");
+        if (id > 0) {
+            System.out.println("Student added successfully.");
+        }
         return id;
     }
 
+    /**
+     * Registers a new student and enrolls them in courses as one transaction with a single commit.
+     * Courses that do not exist yet are created. If any step fails, nothing is stored.
+     *
+     * @param student     The student to be registered.
+     * @param courseNames The names of the courses the student is enrolled in.
+     * @return The generated student ID.
+     * @throws IllegalArgumentException if the student is incomplete or a course name is empty.
+     * @throws dao.DataAccessException  if the registration failed and was rolled back.
+     */
+    public int registerStudent(Student student, Collection<String> courseNames) {
+        if (!isComplete(student)) {
+            throw new IllegalArgumentException("Student is incomplete!");
+        }
+        if (courseNames == null || courseNames.stream().anyMatch(name -> name == null || name.isBlank())) {
+            throw new IllegalArgumentException("Course names cannot be empty!");
+        }
+        return UnitOfWork.call(REGISTRATION_ISOLATION, () -> {
+            int id = studentDAO.addStudent(student);
+            List<Course> enrollments = new ArrayList<>(courseNames.size());
+            for (String name : courseNames) {
+                enrollments.add(new Course(0, id, name));
+            }
+            courseDAO.addCourses(enrollments);
+            return id;
+        });
+    }
+
+    /**
+     * Adds many students in JDBC batches. Incomplete students are skipped.
+     *
+     * @param students The students to be added.
+     * @return The generated IDs in the iteration order of the collection, StudentDAO.QUEUED for students
+     * that will be added later and 0 for students not added.
+     */
+    public int[] addStudents(Collection<Student> students) {
+        if (students == null) {
+            throw new IllegalArgumentException("Students cannot be null!");
+        }
+        List<Student> complete = new ArrayList<>(students.size());
+        for (Student student : students) {
+            if (isComplete(student)) {
+                complete.add(student);
+            }
+        }
+        int[] addedIds = studentDAO.addStudents(complete);
+        if (complete.size() == students.size()) {
+            return addedIds;
+        }
+
+        // Map the IDs back to the positions of the original collection
+        int[] ids = new int[students.size()];
+        int i = 0, j = 0;
+        for (Student student : students) {
+            if (j < complete.size() && complete.get(j) == student) {
+                ids[i] = addedIds[j++];
+            }
+            i++;
+        }
+        return ids;
+    }
+
+    private static boolean isComplete(Student student) {
+        return student != null && student.getFirstname() != null && student.getLastname() != null &&
+                student.getEmail() != null && student.getGrade() != null && student.getPhoneNumber() != null &&
+                student.getDateOfBirth() != null;
+    }
+
     /**
      * Main method for testing the StudentService class.
      * It retrieves a student with a specific ID and prints it.
@@ -0,0 +1,346 @@
+package singleton;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The ConnectionPool class keeps a bounded set of physical database connections
+ * and leases them to callers one at a time.
+ *
+ * A leased connection is handed out as a proxy: calling close() on it returns the
+ * physical connection to the pool instead of closing the socket. Idle connections are
+ * validated before they are leased again and evicted once they have been idle for too long.
+ * Each physical connection keeps its own StatementCache, so prepareStatement() with a constant
+ * SQL string reuses the statement prepared by an earlier borrower of the same connection.
+ */
+public class ConnectionPool {
+
+    private final String url;
+    private final String user;
+    private final String password;
+
+    private final int maxSize;
+    private final int minIdle;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+
+    // Most recently returned connections sit at the head, so busy periods reuse warm connections
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> all = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final ScheduledExecutorService evictor;
+    private volatile boolean shutdown;
+
+    // Statistics
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong destroyedCount = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong validationFailureCount = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+    private final AtomicLong statementCacheEvictions = new AtomicLong();
+    private final AtomicLong statementExecutions = new AtomicLong();
+
+    /**
+     * Constructs a new ConnectionPool. Connections are opened lazily on first demand.
+     *
+     * @param url                      The JDBC URL of the database.
+     * @param user                     The database user.
+     * @param password                 The password of the database user.
+     * @param maxSize                  The maximum number of connections open at the same time.
+     * @param minIdle                  The number of idle connections the evictor keeps open.
+     * @param borrowTimeoutMillis      How long borrow() waits for a free connection.
+     * @param idleTimeoutMillis        How long a connection may stay idle before it is closed.
+     * @param validationTimeoutSeconds The timeout passed to Connection.isValid() on borrow.
+     * @param statementCacheSize       The number of prepared statements cached per connection, 0 disables the cache.
+     */
+    public ConnectionPool(String url, String user, String password, int maxSize, int minIdle,
+                          long borrowTimeoutMillis, long idleTimeoutMillis, int validationTimeoutSeconds,
+                          int statementCacheSize) {
+        if (maxSize <= 0 || minIdle < 0 || minIdle > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size!");
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.minIdle = minIdle;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "connection-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, idleTimeoutMillis / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdleConnections, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Leases a connection from the pool. The caller must close the returned connection,
+     * preferably with try-with-resources, to give it back to the pool.
+     *
+     * @return A validated connection.
+     * @throws SQLTimeoutException if no connection became free within the borrow timeout.
+     * @throws SQLException        if a new connection could not be opened.
+     */
+    public Connection borrow() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down.");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeoutCount.incrementAndGet();
+                throw new SQLTimeoutException("No database connection available within " + borrowTimeoutMillis + " ms.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", e);
+        }
+        totalWaitNanos.addAndGet(System.nanoTime() - start);
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (isUsable(pooled)) {
+                    return lease(pooled);
+                }
+                validationFailureCount.incrementAndGet();
+                destroy(pooled);
+            }
+            return lease(create());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the maximum number of connections open at the same time.
+     *
+     * @return The maximum size of the pool.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns a snapshot of the pool statistics.
+     *
+     * @return The current PoolStatistics.
+     */
+    public PoolStatistics getStatistics() {
+        int idleCount = idle.size();
+        return new PoolStatistics(maxSize, all.size(), all.size() - idleCount, idleCount,
+                permits.getQueueLength(), borrowCount.get(), createdCount.get(), destroyedCount.get(),
+                timeoutCount.get(), validationFailureCount.get(), evictedCount.get(),
+                TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get()),
+                statementCacheHits.get(), statementCacheMisses.get(), statementCacheEvictions.get(),
+                statementExecutions.get());
+    }
+
+    /**
+     * Closes all idle connections and stops the evictor. Leased connections are closed
+     * when their borrowers return them.
+     */
+    public void shutdown() {
+        shutdown = true;
+        evictor.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        try {
+            return pooled.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection create() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, user, password);
+        PooledConnection pooled;
+        try {
+            StatementCache cache = new StatementCache(physical, statementCacheSize,
+                    statementCacheHits, statementCacheMisses, statementCacheEvictions, statementExecutions);
+            pooled = new PooledConnection(physical, cache);
+        } catch (SQLException | RuntimeException e) {
+            // The connection is not in the pool yet, so nothing else would ever close it
+            try {
+                physical.close();
+            } catch (SQLException closeFailure) {
+                e.addSuppressed(closeFailure);
+            }
+            throw e;
+        }
+        all.add(pooled);
+        createdCount.incrementAndGet();
+        return pooled;
+    }
+
+    private Connection lease(PooledConnection pooled) {
+        borrowCount.incrementAndGet();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new LeaseHandler(pooled));
+    }
+
+    /**
+     * Gives a physical connection back after its lease was closed. Connections left in a
+     * transaction are rolled back so the next borrower starts from a clean state.
+     */
+    private void release(PooledConnection pooled) {
+        try {
+            boolean reusable = !shutdown && !pooled.physical.isClosed();
+            if (reusable) {
+                pooled.statements.releaseAll();
+                pooled.reset();
+                pooled.lastUsed = System.currentTimeMillis();
+                idle.offerFirst(pooled);
+            } else {
+                destroy(pooled);
+            }
+        } catch (SQLException e) {
+            System.err.println("Discarding database connection: " + e.getMessage());
+            destroy(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void destroy(PooledConnection pooled) {
+        if (all.remove(pooled)) {
+            destroyedCount.incrementAndGet();
+            pooled.statements.clear();
+            try {
+                pooled.physical.close();
+            } catch (SQLException e) {
+                System.err.println("Closing database connection failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void evictIdleConnections() {
+        long deadline = System.currentTimeMillis() - idleTimeoutMillis;
+        Iterator<PooledConnection> it = idle.descendingIterator(); // oldest first
+        while (it.hasNext() && idle.size() > minIdle) {
+            PooledConnection pooled = it.next();
+            if (pooled.lastUsed < deadline && idle.remove(pooled)) {
+                evictedCount.incrementAndGet();
+                destroy(pooled);
+            }
+        }
+    }
+
+    /**
+     * A physical connection owned by the pool together with its bookkeeping.
+     */
+    private static final class PooledConnection {
+        private final Connection physical;
+        private final StatementCache statements;
+        private final boolean defaultAutoCommit;
+        private final int defaultIsolation;
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        private PooledConnection(Connection physical, StatementCache statements) throws SQLException {
+            this.physical = physical;
+            this.statements = statements;
+            this.defaultAutoCommit = physical.getAutoCommit();
+            this.defaultIsolation = physical.getTransactionIsolation();
+        }
+
+        private void reset() throws SQLException {
+            if (physical.getAutoCommit() != defaultAutoCommit) {
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                }
+                physical.setAutoCommit(defaultAutoCommit);
+            }
+            if (physical.getTransactionIsolation() != defaultIsolation) {
+                physical.setTransactionIsolation(defaultIsolation);
+            }
+            if (physical.isReadOnly()) {
+                physical.setReadOnly(false);
+            }
+            physical.clearWarnings();
+        }
+    }
+
+    /**
+     * Forwards calls to the physical connection until the lease is closed.
+     * A lease can only be closed once; later calls fail instead of touching a connection
+     * that may already belong to another borrower.
+     */
+    private final class LeaseHandler implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private LeaseHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (closed.compareAndSet(false, true)) {
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed.get() || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + (closed.get() ? ", returned]" : "]");
+                default:
+                    break;
+            }
+            if (closed.get()) {
+                throw new SQLException("Connection has already been returned to the pool.");
+            }
+            // prepareStatement(sql) and prepareStatement(sql, autoGeneratedKeys) go through the statement cache
+            if (method.getName().equals("prepareStatement") && args.length <= 2
+                    && (args.length == 1 || method.getParameterTypes()[1] == int.class)) {
+                int autoGeneratedKeys = args.length == 1 ? Statement.NO_GENERATED_KEYS : (Integer) args[1];
+                return pooled.statements.prepare((Connection) proxy, (String) args[0], autoGeneratedKeys);
+            }
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package singleton;
+
+import dao.CacheStatistics;
+import dao.CachingCourseDAO;
+import dao.CachingStudentDAO;
+import dao.CourseChangeListener;
+import dao.CourseDAO;
+import dao.CourseDAOImpl;
+import dao.DataAccessException;
+import dao.EmbeddedCourseDAO;
+import dao.EmbeddedDatabase;
+import dao.EmbeddedStudentDAO;
+import dao.ObservableCourseDAO;
+import dao.ObservableStudentDAO;
+import dao.OutboxStudentDAO;
+import dao.SnapshotCourseDAO;
+import dao.SnapshotFile;
+import dao.SnapshotStudentDAO;
+import dao.StudentChangeListener;
+import dao.StudentDAO;
+import dao.StudentDAOImpl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * The DAOFactory class implements a Singleton pattern
+ * to provide one shared instance of each DAO for the whole application.
+ *
+ * Sharing matters because some DAOs keep state, e.g. the student cache: a write through one
+ * instance must invalidate the entries every reader sees. For the same reason, the listeners for
+ * student and course writes are registered here. The student cache can be tuned with
+ * the system properties cache.student.maxSize, cache.student.ttlMillis and cache.student.negativeTtlMillis,
+ * and the reload interval of the course catalog with cache.course.refreshMillis (0 reloads only after writes).
+ *
+ * The system property dao.backend selects where the DAOs read from: "database", "snapshot" (the read-only
+ * snapshot file at dao.snapshot.path), "embedded" (the EmbeddedDatabase in the directory dao.embedded.path,
+ * without a database server) or "auto", the default, which uses the snapshot only if the database
+ * cannot be reached when the DAOs are first used.
+ *
+ * Unless the system property dao.outbox.enabled is false, student writes that cannot reach the database,
+ * including writes while the snapshot is served, are kept by an OutboxStudentDAO in the directory
+ * dao.outbox.path and written once the database is back; dao.outbox.retryMillis sets how often that is tried.
+ */
+public class DAOFactory {
+
+    private static final String BACKEND = System.getProperty("dao.backend", "auto");
+
+    private static final class SnapshotHolder {
+        private static final SnapshotFile SNAPSHOT = openSnapshotIfOffline();
+    }
+
+    private static final class EmbeddedHolder {
+        private static final EmbeddedDatabase DATABASE = openEmbeddedDatabase();
+    }
+
+    private static final class StudentDAOHolder {
+        private static final OutboxStudentDAO OUTBOX = openOutbox();
+        private static final CachingStudentDAO CACHE = createStudentCache(OUTBOX);
+        private static final ObservableStudentDAO INSTANCE = new ObservableStudentDAO(
+                CACHE != null ? CACHE : createStudentDAO(OUTBOX));
+
+        static {
+            if (OUTBOX != null) {
+                OUTBOX.addReplayListener(INSTANCE);
+            }
+        }
+    }
+
+    private static final class CourseDAOHolder {
+        private static final ObservableCourseDAO INSTANCE = new ObservableCourseDAO(createCourseDAO());
+    }
+
+    /**
+     * Private constructor to prevent instantiation of this class.
+     */
+    private DAOFactory() {}
+
+    /**
+     * Returns the shared StudentDAO.
+     *
+     * @return The StudentDAO instance.
+     */
+    public static StudentDAO getStudentDAO() {
+        return StudentDAOHolder.INSTANCE;
+    }
+
+    /**
+     * Registers a listener for all student writes that go through the shared StudentDAO.
+     *
+     * @param listener The listener to be added.
+     */
+    public static void addStudentChangeListener(StudentChangeListener listener) {
+        StudentDAOHolder.INSTANCE.addChangeListener(listener);
+    }
+
+    /**
+     * Removes a listener for student writes.
+     *
+     * @param listener The listener to be removed.
+     */
+    public static void removeStudentChangeListener(StudentChangeListener listener) {
+        StudentDAOHolder.INSTANCE.removeChangeListener(listener);
+    }
+
+    /**
+     * Registers a listener for all course and enrollment writes that go through the shared CourseDAO.
+     *
+     * @param listener The listener to be added.
+     */
+    public static void addCourseChangeListener(CourseChangeListener listener) {
+        CourseDAOHolder.INSTANCE.addChangeListener(listener);
+    }
+
+    /**
+     * Removes a listener for course and enrollment writes.
+     *
+     * @param listener The listener to be removed.
+     */
+    public static void removeCourseChangeListener(CourseChangeListener listener) {
+        CourseDAOHolder.INSTANCE.removeChangeListener(listener);
+    }
+
+    /**
+     * Returns the shared CourseDAO.
+     *
+     * @return The CourseDAO instance.
+     */
+    public static CourseDAO getCourseDAO() {
+        return CourseDAOHolder.INSTANCE;
+    }
+
+    /**
+     * Returns whether the shared DAOs serve the read-only snapshot instead of the database.
+     *
+     * @return true if the DAOs read from the snapshot file.
+     */
+    public static boolean isOffline() {
+        return SnapshotHolder.SNAPSHOT != null;
+    }
+
+    /**
+     * Returns whether the shared DAOs read from the database server, not from the snapshot
+     * or the embedded database.
+     *
+     * @return true unless the DAOs serve the snapshot or the embedded database.
+     */
+    public static boolean isDatabaseBackend() {
+        return !BACKEND.equals("embedded") && !isOffline();
+    }
+
+    /**
+     * Returns the number of student writes that wait for the database to be back.
+     *
+     * @return The number of queued writes, 0 if there is no outbox.
+     */
+    public static int getQueuedStudentWrites() {
+        return StudentDAOHolder.OUTBOX != null ? StudentDAOHolder.OUTBOX.getQueuedWrites() : 0;
+    }
+
+    /**
+     * Returns the statistics of the student cache of the shared StudentDAO.
+     *
+     * @return The current CacheStatistics, or null if the backend has no student cache.
+     */
+    public static CacheStatistics getStudentCacheStatistics() {
+        return StudentDAOHolder.CACHE != null ? StudentDAOHolder.CACHE.getStatistics() : null;
+    }
+
+    /**
+     * Returns the location of the snapshot file, set with the system property dao.snapshot.path.
+     *
+     * @return The path of the snapshot file.
+     */
+    public static Path getSnapshotPath() {
+        String path = System.getProperty("dao.snapshot.path");
+        return path != null ? Paths.get(path) : Paths.get(System.getProperty("user.home"), ".schulmanagmentsystem", "students.snapshot");
+    }
+
+    private static StudentDAO createStudentDAO(OutboxStudentDAO outbox) {
+        if (BACKEND.equals("embedded")) {
+            return new EmbeddedStudentDAO(EmbeddedHolder.DATABASE);
+        }
+        return outbox != null ? outbox : createStudentStore();
+    }
+
+    /**
+     * Creates the cache in front of the database, or returns null for the embedded backend and the snapshot,
+     * which are in memory already.
+     */
+    private static CachingStudentDAO createStudentCache(OutboxStudentDAO outbox) {
+        if (BACKEND.equals("embedded") || SnapshotHolder.SNAPSHOT != null) {
+            return null;
+        }
+        CachingStudentDAO cache = new CachingStudentDAO(createStudentDAO(outbox),
+                Integer.getInteger("cache.student.maxSize", 10000),
+                Long.getLong("cache.student.ttlMillis", 300000L),
+                Long.getLong("cache.student.negativeTtlMillis", 30000L));
+        if (outbox != null) {
+            outbox.addReplayListener(cache);
+        }
+        return cache;
+    }
+
+    private static StudentDAO createStudentStore() {
+        return SnapshotHolder.SNAPSHOT != null ? new SnapshotStudentDAO(SnapshotHolder.SNAPSHOT) : new StudentDAOImpl();
+    }
+
+    /**
+     * Opens the outbox for student writes in front of the database or the snapshot, or returns null
+     * for the embedded backend, which does not need one, or if it is disabled.
+     */
+    private static OutboxStudentDAO openOutbox() {
+        if (BACKEND.equals("embedded") || !Boolean.parseBoolean(System.getProperty("dao.outbox.enabled", "true"))) {
+            return null;
+        }
+        String path = System.getProperty("dao.outbox.path");
+        Path directory = path != null ? Paths.get(path) : Paths.get(System.getProperty("user.home"), ".schulmanagmentsystem", "outbox");
+        try {
+            return new OutboxStudentDAO(createStudentStore(), directory, Integer.getInteger("db.batchSize", 500),
+                    Long.getLong("dao.outbox.retryMillis", 5000L));
+        } catch (IOException e) {
+            System.out.println("Opening the outbox failed, writes need the database: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static CourseDAO createCourseDAO() {
+        if (BACKEND.equals("embedded")) {
+            return new EmbeddedCourseDAO(EmbeddedHolder.DATABASE);
+        }
+        if (SnapshotHolder.SNAPSHOT != null) {
+            return new SnapshotCourseDAO(SnapshotHolder.SNAPSHOT);
+        }
+        return new CachingCourseDAO(new CourseDAOImpl(), Long.getLong("cache.course.refreshMillis", 300000L));
+    }
+
+    /**
+     * Opens the embedded database; it writes a checkpoint and closes its log when the JVM exits.
+     */
+    private static EmbeddedDatabase openEmbeddedDatabase() {
+        String path = System.getProperty("dao.embedded.path");
+        Path directory = path != null ? Paths.get(path) : Paths.get(System.getProperty("user.home"), ".schulmanagmentsystem", "embedded");
+        try {
+            EmbeddedDatabase database = EmbeddedDatabase.open(directory);
+            Runtime.getRuntime().addShutdownHook(new Thread(database::close, "embedded-shutdown"));
+            return database;
+        } catch (IOException e) {
+            throw new DataAccessException("Opening the embedded database failed: " + e.getMessage(), e);
+        }
+    }
+
+    private static SnapshotFile openSnapshotIfOffline() {
+        Path path = getSnapshotPath();
+        if (!BACKEND.equals("snapshot") && !(BACKEND.equals("auto") && Files.exists(path) && !isDatabaseReachable())) {
+            return null;
+        }
+        try {
+            SnapshotFile snapshot = SnapshotFile.open(path);
+            System.out.println("Reading from the offline snapshot: " + snapshot);
+            return snapshot;
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean isDatabaseReachable() {
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            return !connection.isClosed();
+        } catch (SQLException e) {
+            System.out.println(e.getMessage());
+            return false;
+        }
+    }
+}
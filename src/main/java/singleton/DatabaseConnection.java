@@ -1,20 +1,39 @@
 package singleton;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 /**
  * The DatabaseConnection class implements a Singleton pattern
- * to provide a single instance of a database connection.
+ * to provide a single connection pool for the whole application.
+ *
+ * Every call to getConnection() leases a connection from the pool, except inside a UnitOfWork.
+ * The caller must close it (preferably with try-with-resources), which returns it to the pool.
+ * The pool can be tuned with the system properties db.pool.maxSize, db.pool.minIdle,
+ * db.pool.borrowTimeoutMillis, db.pool.idleTimeoutMillis and db.pool.statementCacheSize.
  */
 public class DatabaseConnection {
 
-    private static final String URL = "jdbc:mysql://localhost:3306/schulmanagmentsystem";
+    // Server side prepared statements, so that the per-connection statement cache saves the parse on the server.
+    // Cursor fetch makes statements with a fetch size read their rows through a server-side cursor.
+    // Batched inserts are rewritten into multi-row INSERT statements.
+    private static final String URL = "jdbc:mysql://localhost:3306/schulmanagmentsystem"
+            + "?useServerPrepStmts=true&useCursorFetch=true&rewriteBatchedStatements=true";
     private static final String USER = "root";
     private static final String PASSWORD = "";
 
-    private static Connection connection;
+    /**
+     * Holder idiom: the pool is created on first use and exactly once.
+     */
+    private static final class PoolHolder {
+        private static final ConnectionPool POOL = new ConnectionPool(URL, USER, PASSWORD,
+                Integer.getInteger("db.pool.maxSize", 10),
+                Integer.getInteger("db.pool.minIdle", 1),
+                Long.getLong("db.pool.borrowTimeoutMillis", 5000L),
+                Long.getLong("db.pool.idleTimeoutMillis", 300000L),
+                2,
+                Integer.getInteger("db.pool.statementCacheSize", 64));
+    }
 
     /**
      * Private constructor to prevent instantiation of this class.
@@ -22,20 +41,23 @@ public class DatabaseConnection {
     private DatabaseConnection() {}
 
     /**
-     * Returns a single instance of the database connection.
-     * If no connection exists, it initializes a new one.
+     * Leases a connection from the pool. Inside a UnitOfWork, the connection of the unit is returned
+     * instead; closing it does not end the transaction.
      *
      * @return A Connection object to the database.
+     * @throws SQLException if no connection could be obtained within the borrow timeout.
+     */
+    public static Connection getConnection() throws SQLException {
+        Connection bound = UnitOfWork.currentConnection();
+        return bound != null ? bound : PoolHolder.POOL.borrow();
+    }
+
+    /**
+     * Returns the application wide connection pool.
+     *
+     * @return The ConnectionPool instance.
      */
-    public static Connection getConnection() {
-        if (connection == null) {
-            try {
-                connection = DriverManager.getConnection(URL, USER, PASSWORD);
-                System.out.println("Database connected successfully!");
-            } catch (SQLException e) {
-                System.err.println("Database connection failed: " + e.getMessage());
-            }
-        }
-        return connection;
+    public static ConnectionPool getPool() {
+        return PoolHolder.POOL;
     }
 }
@@ -1,6 +1,7 @@
 package singleton;
 
 import java.sql.Connection;
+import java.sql.SQLException;
 
 /**
  * The DatabaseConnectionTest class is used to test the database connection.
@@ -9,18 +10,17 @@ public class DatabaseConnectionTest {
 
     /**
      * Main method to test the database connection.
-     * It attempts to establish a connection using the DatabaseConnection class
+     * It attempts to lease a connection from the DatabaseConnection pool
      * and prints a success or failure message based on the connection status.
      *
      * @param args Command-line arguments (not used).
      */
     public static void main(String[] args) {
-        Connection conn = DatabaseConnection.getConnection();
-
-        if (conn != null) {
-            System.out.println("Connection test successful!");
-        } else {
-            System.out.println("Connection test failed!");
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            System.out.println("Connection test successful! Valid: " + conn.isValid(2));
+        } catch (SQLException e) {
+            System.out.println("Connection test failed! " + e.getMessage());
         }
+        System.out.println(DatabaseConnection.getPool().getStatistics());
     }
 }
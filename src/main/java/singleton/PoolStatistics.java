@@ -0,0 +1,143 @@
+package singleton;
+
+/**
+ * The PoolStatistics class is an immutable snapshot of the counters of a ConnectionPool.
+ */
+public class PoolStatistics {
+
+    private final int maxSize, totalConnections, activeConnections, idleConnections, waitingThreads;
+    private final long borrowCount, createdCount, destroyedCount, timeoutCount, validationFailureCount, evictedCount, totalWaitMillis;
+    private final long statementCacheHits, statementCacheMisses, statementCacheEvictions, statementExecutions;
+
+    PoolStatistics(int maxSize, int totalConnections, int activeConnections, int idleConnections, int waitingThreads,
+                   long borrowCount, long createdCount, long destroyedCount, long timeoutCount,
+                   long validationFailureCount, long evictedCount, long totalWaitMillis,
+                   long statementCacheHits, long statementCacheMisses, long statementCacheEvictions,
+                   long statementExecutions) {
+        this.maxSize = maxSize;
+        this.totalConnections = totalConnections;
+        this.activeConnections = activeConnections;
+        this.idleConnections = idleConnections;
+        this.waitingThreads = waitingThreads;
+        this.borrowCount = borrowCount;
+        this.createdCount = createdCount;
+        this.destroyedCount = destroyedCount;
+        this.timeoutCount = timeoutCount;
+        this.validationFailureCount = validationFailureCount;
+        this.evictedCount = evictedCount;
+        this.totalWaitMillis = totalWaitMillis;
+        this.statementCacheHits = statementCacheHits;
+        this.statementCacheMisses = statementCacheMisses;
+        this.statementCacheEvictions = statementCacheEvictions;
+        this.statementExecutions = statementExecutions;
+    }
+
+    /**
+     * Returns a string representation of the statistics.
+     *
+     * @return A formatted string with all counters.
+     */
+    @Override
+    public String toString() {
+        return "PoolStatistics{" +
+                "maxSize=" + maxSize +
+                ", total=" + totalConnections +
+                ", active=" + activeConnections +
+                ", idle=" + idleConnections +
+                ", waiting=" + waitingThreads +
+                ", borrowed=" + borrowCount +
+                ", created=" + createdCount +
+                ", destroyed=" + destroyedCount +
+                ", timeouts=" + timeoutCount +
+                ", validationFailures=" + validationFailureCount +
+                ", evicted=" + evictedCount +
+                ", totalWaitMillis=" + totalWaitMillis +
+                ", statementCacheHits=" + statementCacheHits +
+                ", statementCacheMisses=" + statementCacheMisses +
+                ", statementCacheEvictions=" + statementCacheEvictions +
+                ", statementExecutions=" + statementExecutions +
+                '}';
+    }
+
+    // Getters
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getTotalConnections() {
+        return totalConnections;
+    }
+
+    public int getActiveConnections() {
+        return activeConnections;
+    }
+
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    public int getWaitingThreads() {
+        return waitingThreads;
+    }
+
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    public long getCreatedCount() {
+        return createdCount;
+    }
+
+    public long getDestroyedCount() {
+        return destroyedCount;
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount;
+    }
+
+    public long getValidationFailureCount() {
+        return validationFailureCount;
+    }
+
+    public long getEvictedCount() {
+        return evictedCount;
+    }
+
+    public long getTotalWaitMillis() {
+        return totalWaitMillis;
+    }
+
+    public long getStatementCacheHits() {
+        return statementCacheHits;
+    }
+
+    public long getStatementCacheMisses() {
+        return statementCacheMisses;
+    }
+
+    public long getStatementCacheEvictions() {
+        return statementCacheEvictions;
+    }
+
+    /**
+     * Returns the number of prepared statement executions, i.e. the database round trips of the DAOs.
+     * Comparing two snapshots shows how many round trips a screen or report took.
+     *
+     * @return The number of execute calls.
+     */
+    public long getStatementExecutions() {
+        return statementExecutions;
+    }
+
+    /**
+     * Returns the share of prepareStatement() calls served from a statement cache.
+     *
+     * @return The hit ratio between 0 and 1.
+     */
+    public double getStatementCacheHitRatio() {
+        long total = statementCacheHits + statementCacheMisses;
+        return total == 0 ? 0.0 : (double) statementCacheHits / total;
+    }
+}
@@ -0,0 +1,239 @@
+package singleton;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The StatementCache class keeps the prepared statements of one pooled connection,
+ * keyed by their SQL text, so that a constant query is only prepared once per connection.
+ *
+ * Callers receive a handle to the cached statement. Closing the handle closes its open result,
+ * clears the parameters, restores the fetch size, query timeout and max rows and gives the statement
+ * back to the cache instead of closing it on the server. A handle that is given back is no longer usable,
+ * even if the statement has been handed out again.
+ * The least recently used statement is closed once the cache exceeds its size limit.
+ */
+class StatementCache {
+
+    private final Connection physical;
+    private final int maxSize;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final AtomicLong evictions;
+    private final AtomicLong executions;
+
+    // Access ordered, so iteration starts with the least recently used statement
+    private final LinkedHashMap<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Constructs a new StatementCache for one physical connection.
+     * The counters are shared by all caches of a pool.
+     */
+    StatementCache(Connection physical, int maxSize, AtomicLong hits, AtomicLong misses, AtomicLong evictions,
+                   AtomicLong executions) {
+        this.physical = physical;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.executions = executions;
+    }
+
+    /**
+     * Returns a handle to a prepared statement for the given SQL.
+     *
+     * @param lease             The leased connection proxy, returned by the handle's getConnection().
+     * @param sql               The SQL text of the statement.
+     * @param autoGeneratedKeys Statement.RETURN_GENERATED_KEYS or Statement.NO_GENERATED_KEYS.
+     * @return A PreparedStatement handle.
+     * @throws SQLException if the statement could not be prepared.
+     */
+    synchronized PreparedStatement prepare(Connection lease, String sql, int autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys + ":" + sql;
+        CachedStatement cached = statements.get(key);
+        if (cached != null && cached.owner == null) {
+            hits.incrementAndGet();
+            return handle(lease, cached.statement, cached);
+        }
+        misses.incrementAndGet();
+        PreparedStatement statement = physical.prepareStatement(sql, autoGeneratedKeys);
+        if (cached != null || maxSize <= 0) {
+            // The same SQL is already open on this connection (e.g. nested use), don't cache the second one
+            return handle(lease, statement, null);
+        }
+        cached = new CachedStatement(statement);
+        PreparedStatement handle = handle(lease, statement, cached);
+        statements.put(key, cached);
+        evictOverflow();
+        return handle;
+    }
+
+    /**
+     * Closes every cached statement. Called when the physical connection is closed.
+     */
+    synchronized void clear() {
+        for (CachedStatement cached : statements.values()) {
+            closeQuietly(cached.statement);
+        }
+        statements.clear();
+    }
+
+    /**
+     * Returns statements still in use to the cache. Called when a lease is closed by a borrower
+     * that forgot to close its statements; the handles it still holds fail from now on.
+     */
+    synchronized void releaseAll() {
+        List<String> broken = new ArrayList<>();
+        for (Map.Entry<String, CachedStatement> entry : statements.entrySet()) {
+            CachedStatement cached = entry.getValue();
+            if (cached.owner != null && !reset(cached.statement)) {
+                broken.add(entry.getKey());
+            }
+            cached.owner = null;
+        }
+        for (String key : broken) {
+            closeQuietly(statements.remove(key).statement);
+        }
+    }
+
+    private synchronized void giveBack(CachedStatement cached, StatementHandle handle) {
+        // A handle invalidated by releaseAll must not give back the statement of its next borrower
+        if (cached.owner != handle) {
+            return;
+        }
+        cached.owner = null;
+        if (!reset(cached.statement)) {
+            statements.values().remove(cached);
+            closeQuietly(cached.statement);
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<CachedStatement> it = statements.values().iterator();
+        while (statements.size() > maxSize && it.hasNext()) {
+            CachedStatement eldest = it.next();
+            if (eldest.owner == null) {
+                it.remove();
+                closeQuietly(eldest.statement);
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private static boolean reset(PreparedStatement statement) {
+        try {
+            ResultSet result = statement.getResultSet();
+            if (result != null) {
+                result.close();
+            }
+            statement.setFetchSize(0);
+            statement.setQueryTimeout(0);
+            statement.setMaxRows(0);
+            statement.clearParameters();
+            statement.clearBatch();
+            statement.clearWarnings();
+            return !statement.isClosed();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            System.err.println("Closing cached statement failed: " + e.getMessage());
+        }
+    }
+
+    private PreparedStatement handle(Connection lease, PreparedStatement statement, CachedStatement cached) {
+        StatementHandle handle = new StatementHandle(lease, statement, cached);
+        if (cached != null) {
+            cached.owner = handle;
+        }
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, handle);
+    }
+
+    private static final class CachedStatement {
+        private final PreparedStatement statement;
+        // The handle the statement is handed out to, null while it is in the cache
+        private volatile StatementHandle owner;
+
+        private CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+        }
+    }
+
+    /**
+     * Forwards calls to the prepared statement until the handle is closed or released with its lease.
+     */
+    private final class StatementHandle implements InvocationHandler {
+        private final Connection lease;
+        private final PreparedStatement statement;
+        private final CachedStatement cached;
+        private boolean closed;
+
+        private StatementHandle(Connection lease, PreparedStatement statement, CachedStatement cached) {
+            this.lease = lease;
+            this.statement = statement;
+            this.cached = cached;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        if (cached != null) {
+                            giveBack(cached, this);
+                        } else {
+                            statement.close();
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return isReleased() || statement.isClosed();
+                case "getConnection":
+                    return lease;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + statement + "]";
+                default:
+                    break;
+            }
+            if (isReleased()) {
+                throw new SQLException("Statement has already been closed.");
+            }
+            // Every execute call is one round trip to the database, a batch included
+            if (method.getName().startsWith("execute")) {
+                executions.incrementAndGet();
+            }
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private boolean isReleased() {
+            return closed || cached != null && cached.owner != this;
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package singleton;
+
+import dao.DataAccessException;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * The UnitOfWork class runs several DAO calls as one database transaction.
+ *
+ * While a unit of work runs, one pooled connection is bound to the current thread and
+ * DatabaseConnection.getConnection() hands out that connection instead of leasing a new one,
+ * so StudentDAOImpl, CourseDAOImpl and every other DAO write on it without committing.
+ * The connection is leased when a DAO first asks for it, so a unit that never touches the database,
+ * e.g. with the embedded backend, does not need one. Transactional resources other than the connection
+ * take part by enlisting a Participant.
+ * The unit commits once at the end. It rolls back if the work throws or if any statement on the
+ * connection failed, even when the DAO only printed the failure.
+ *
+ * Caches and listeners that must only see committed data register callbacks with afterCommit
+ * and afterCompletion; outside of a unit of work those callbacks run at once.
+ * A unit of work belongs to one thread; DAO calls started on other threads are not part of it.
+ * Nested units of work join the outer one.
+ */
+public final class UnitOfWork {
+
+    /**
+     * A transactional resource other than the database connection, e.g. the EmbeddedDatabase.
+     * Participants commit before the connection, in the order they were enlisted. This is no two-phase commit:
+     * if a later participant or the connection fails to commit, earlier participants stay committed.
+     */
+    public interface Participant {
+        /**
+         * Makes the changes of the unit permanent.
+         *
+         * @throws DataAccessException if the changes cannot be committed; the unit is then rolled back.
+         */
+        void commit();
+
+        /**
+         * Discards the changes of the unit. Called after a failed commit as well.
+         */
+        void rollback();
+    }
+
+    private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+
+    private final int isolation;
+    private Connection connection;
+    private final Connection view;
+    private final List<Participant> participants = new ArrayList<>();
+    // Callbacks in the order they were registered; the commit-only ones are dropped after a rollback
+    private final List<Runnable> callbacks = new ArrayList<>();
+    private final List<Boolean> commitOnly = new ArrayList<>();
+    private SQLException failure;
+
+    private UnitOfWork(int isolation) {
+        this.isolation = isolation;
+        this.view = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new BoundConnectionHandler());
+    }
+
+    /**
+     * Runs work in a unit of work with the default isolation level of the pool.
+     *
+     * @param work The DAO calls to run.
+     * @param <T>  The type of the result.
+     * @return The result of the work.
+     * @throws DataAccessException if the transaction could not be started or committed, or a statement failed.
+     */
+    public static <T> T call(Supplier<T> work) {
+        return call(-1, work);
+    }
+
+    /**
+     * Runs work in a unit of work with the given isolation level. If the thread already runs a unit of work,
+     * the work joins it and the isolation level of the outer unit is kept.
+     *
+     * @param isolation One of the Connection.TRANSACTION_* levels, or -1 for the default of the pool.
+     * @param work      The DAO calls to run.
+     * @param <T>       The type of the result.
+     * @return The result of the work.
+     * @throws DataAccessException if the transaction could not be started or committed, or a statement failed.
+     */
+    public static <T> T call(int isolation, Supplier<T> work) {
+        if (CURRENT.get() != null) {
+            return work.get();
+        }
+
+        UnitOfWork unit = new UnitOfWork(isolation);
+        CURRENT.set(unit);
+        boolean committed = false;
+        try {
+            T result = work.get();
+            if (unit.failure != null) {
+                throw new DataAccessException("Transaction rolled back: " + unit.failure.getMessage(), unit.failure);
+            }
+            for (Participant participant : unit.participants) {
+                participant.commit();
+            }
+            if (unit.connection != null) {
+                unit.connection.commit();
+            }
+            committed = true;
+            return result;
+        } catch (SQLException e) {
+            throw new DataAccessException("Committing the transaction failed: " + e.getMessage(), e);
+        } finally {
+            CURRENT.remove();
+            unit.finish(committed);
+        }
+    }
+
+    /**
+     * Runs work in a unit of work with the default isolation level of the pool.
+     *
+     * @param work The DAO calls to run.
+     * @throws DataAccessException if the transaction could not be started or committed, or a statement failed.
+     */
+    public static void run(Runnable work) {
+        run(-1, work);
+    }
+
+    /**
+     * Runs work in a unit of work with the given isolation level.
+     *
+     * @param isolation One of the Connection.TRANSACTION_* levels, or -1 for the default of the pool.
+     * @param work      The DAO calls to run.
+     * @throws DataAccessException if the transaction could not be started or committed, or a statement failed.
+     */
+    public static void run(int isolation, Runnable work) {
+        call(isolation, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Tells whether the current thread runs a unit of work.
+     *
+     * @return true inside a unit of work.
+     */
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Runs an action after the current unit of work has been committed, or at once outside of a unit of work.
+     * The action is dropped if the unit is rolled back.
+     *
+     * @param action The action to run.
+     */
+    public static void afterCommit(Runnable action) {
+        UnitOfWork unit = CURRENT.get();
+        if (unit != null) {
+            unit.callbacks.add(action);
+            unit.commitOnly.add(true);
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Runs an action after the current unit of work has been committed or rolled back,
+     * or at once outside of a unit of work.
+     *
+     * @param action The action to run.
+     */
+    public static void afterCompletion(Runnable action) {
+        UnitOfWork unit = CURRENT.get();
+        if (unit != null) {
+            unit.callbacks.add(action);
+            unit.commitOnly.add(false);
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Enlists a transactional resource in the current unit of work. It is committed or rolled back with the unit.
+     *
+     * @param participant The resource to be enlisted.
+     * @throws IllegalStateException outside of a unit of work.
+     */
+    public static void enlist(Participant participant) {
+        UnitOfWork unit = CURRENT.get();
+        if (unit == null) {
+            throw new IllegalStateException("No unit of work is active.");
+        }
+        unit.participants.add(participant);
+    }
+
+    /**
+     * Returns the connection bound to the current thread, which is not closed by the DAOs.
+     * The first call of a unit leases the connection and starts the transaction.
+     *
+     * @return The connection of the current unit of work, or null outside of a unit of work.
+     * @throws SQLException if the transaction could not be started; the unit is then rolled back.
+     */
+    static Connection currentConnection() throws SQLException {
+        UnitOfWork unit = CURRENT.get();
+        if (unit == null) {
+            return null;
+        }
+        if (unit.connection == null) {
+            unit.begin();
+        }
+        return unit.view;
+    }
+
+    private void begin() throws SQLException {
+        try {
+            Connection conn = DatabaseConnection.getPool().borrow();
+            try {
+                if (isolation >= 0) {
+                    conn.setTransactionIsolation(isolation);
+                }
+                conn.setAutoCommit(false);
+            } catch (SQLException e) {
+                conn.close();
+                throw e;
+            }
+            connection = conn;
+        } catch (SQLException e) {
+            SQLException start = new SQLException("Starting the transaction failed: " + e.getMessage(), e);
+            recordFailure(start);
+            throw start;
+        }
+    }
+
+    /**
+     * Rolls back if the unit was not committed, gives the connection back to the pool and runs the callbacks
+     * in the order they were registered, so a cache refreshed by a DAO is current before the listeners
+     * of a decorator around it run.
+     */
+    private void finish(boolean committed) {
+        if (!committed) {
+            for (Participant participant : participants) {
+                try {
+                    participant.rollback();
+                } catch (RuntimeException e) {
+                    System.out.println("Rolling back the transaction failed: " + e.getMessage());
+                }
+            }
+        }
+        if (connection != null) {
+            try {
+                if (!committed) {
+                    connection.rollback();
+                }
+            } catch (SQLException e) {
+                System.out.println("Rolling back the transaction failed: " + e.getMessage());
+            } finally {
+                try {
+                    connection.close(); // the pool restores auto-commit and the isolation level
+                } catch (SQLException e) {
+                    System.out.println(e.getMessage());
+                }
+            }
+        }
+        for (int i = 0; i < callbacks.size(); i++) {
+            if (committed || !commitOnly.get(i)) {
+                try {
+                    callbacks.get(i).run();
+                } catch (RuntimeException e) {
+                    System.out.println(e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void recordFailure(Throwable cause) {
+        if (cause instanceof SQLException && failure == null) {
+            failure = (SQLException) cause;
+        }
+    }
+
+    /**
+     * Forwards calls to the bound connection. close() is ignored, because the connection is given back when the
+     * unit of work ends, and commit() and rollback() are left to the unit. Statements are wrapped so that their
+     * failures are recorded.
+     */
+    private final class BoundConnectionHandler implements InvocationHandler {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                case "commit":
+                case "rollback":
+                    if (args == null || args.length == 0) {
+                        return null;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "UnitOfWork[" + connection + "]";
+                default:
+                    break;
+            }
+            Object result = forward(connection, method, args);
+            if (result instanceof Statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                        new Class<?>[]{method.getReturnType()}, (statement, call, callArgs) -> {
+                            if (call.getName().equals("getConnection")) {
+                                return proxy;
+                            }
+                            return forward(result, call, callArgs);
+                        });
+            }
+            return result;
+        }
+
+        private Object forward(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                recordFailure(e.getCause());
+                throw e.getCause();
+            }
+        }
+    }
+}
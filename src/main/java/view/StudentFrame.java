@@ -2,12 +2,12 @@ package view;
 
 import dao.StudentDAO;
 import dao.StudentDAOImpl;
-import service.CourseService;
+import service.AsyncCourseService;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionListener;
-import java.util.List;
+import java.util.concurrent.CompletionException;
 
 
 /**
@@ -22,10 +22,11 @@ public class StudentFrame extends JFrame {
     private JTextField firstNameField, lastNameField, studentIdField, emailField, dayOfBirthField, gradeField, phoneNumberField;
     private JComboBox<String> courseComboBox;
     private JPanel buttonPanel;
-    private JButton registerButton, allStudentButton, updateButton, deleteButton, searchButton;
+    private JButton registerButton, allStudentButton, updateButton, deleteButton, searchButton, searchByNameButton, cancelButton;
+    private JProgressBar busyBar;
 
     //private StudentDAO studentDAO = new StudentDAOImpl();
-    private CourseService courseService = new CourseService();
+    private AsyncCourseService courseService = new AsyncCourseService();
 
     /**
      * Constructs the student registration window.
@@ -60,9 +61,9 @@ public class StudentFrame extends JFrame {
         phoneNumberField = new JTextField(20);
         courseLabel = new JLabel("Select the Course:");
 
-        // Field filled with courses until the database is connected
-        List<String> courses = courseService.getAllCourses();
-        courseComboBox = new JComboBox<>(courses.toArray(new String[0]));
+        // Filled with the courses once they are loaded, the window does not wait for the database
+        courseComboBox = new JComboBox<>();
+        loadCourses();
 
         // Add components to the panel
         studentInfoPanel.add(studentIdLabel);
@@ -92,6 +93,14 @@ public class StudentFrame extends JFrame {
         registerButton = new JButton("Register a Student");
         deleteButton = new JButton("Delete");
         searchButton = new JButton("Search");
+        searchByNameButton = new JButton("Search by Name");
+        cancelButton = new JButton("Cancel");
+
+        // Busy indicator, only visible while database work is running
+        busyBar = new JProgressBar();
+        busyBar.setIndeterminate(true);
+        busyBar.setVisible(false);
+        cancelButton.setVisible(false);
 
         // Add the buttons to the button panel
         buttonPanel.add(allStudentButton);
@@ -99,6 +108,9 @@ public class StudentFrame extends JFrame {
         buttonPanel.add(registerButton);
         buttonPanel.add(deleteButton);
         buttonPanel.add(searchButton);
+        buttonPanel.add(searchByNameButton);
+        buttonPanel.add(busyBar);
+        buttonPanel.add(cancelButton);
 
         // Add panels to the frame
         add(studentInfoPanel, BorderLayout.CENTER);
@@ -111,6 +123,37 @@ public class StudentFrame extends JFrame {
         setDefaultValues();
     }
 
+    /**
+     * Loads the course names in the background and fills the course list on the event dispatch thread.
+     */
+    private void loadCourses() {
+        courseService.getAllCourses().whenComplete((courses, failure) -> SwingUtilities.invokeLater(() -> {
+            if (failure != null) {
+                Throwable cause = failure;
+                while (cause instanceof CompletionException && cause.getCause() != null) {
+                    cause = cause.getCause();
+                }
+                System.out.println(cause.getMessage());
+                return;
+            }
+            for (String course : courses) {
+                courseComboBox.addItem(course);
+            }
+        }));
+    }
+
+    /**
+     * Shows or hides the busy indicator and the cancel button.
+     *
+     * @param busy Whether database work is running.
+     */
+    public void setBusy(boolean busy) {
+        busyBar.setVisible(busy);
+        cancelButton.setVisible(busy);
+        setCursor(busy ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
+        buttonPanel.revalidate();
+    }
+
     /**
      * Adds an ActionListener to all buttons in the frame.
      * This allows handling user actions such as registering, updating, deleting, or searching for students.
@@ -147,7 +190,8 @@ public class StudentFrame extends JFrame {
     }
 
     public String getCourse() {
-        return courseComboBox.getSelectedItem().toString();
+        Object course = courseComboBox.getSelectedItem();
+        return course != null ? course.toString() : "";
     }
 
     public String getDayOfBirth() {
@@ -166,6 +210,10 @@ public class StudentFrame extends JFrame {
         return searchButton;
     }
 
+    public JButton getSearchByNameButton() {
+        return searchByNameButton;
+    }
+
     public JButton getAllStudentButton() {
         return allStudentButton;
     }
@@ -182,6 +230,10 @@ public class StudentFrame extends JFrame {
         return registerButton;
     }
 
+    public JButton getCancelButton() {
+        return cancelButton;
+    }
+
     public void setDefaultValues() {
         firstNameField.setText("Peter");
         lastNameField.setText("Müller");
@@ -199,6 +251,6 @@ public class StudentFrame extends JFrame {
      * @param args command-line arguments (not used).
      */
     public static void main(String[] args) {
-        new StudentFrame();
+        SwingUtilities.invokeLater(StudentFrame::new);
     }
 }
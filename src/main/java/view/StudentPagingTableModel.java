@@ -0,0 +1,257 @@
+package view;
+
+import dao.StudentCriteria;
+import model.Student;
+import service.AsyncStudentService;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * This class is a table model that loads the student table page by page while the user scrolls.
+ *
+ * Only the row count is known up front, so a table of any size opens right away. A page is loaded
+ * in the background the first time one of its rows is painted, with a keyset query that starts after
+ * the last student of the page before; the next page is prefetched once the user has scrolled past the
+ * middle of a page. At most maxPages pages are kept, the least recently painted ones are dropped.
+ * Rows of pages that are still loading are shown empty. Filtering and sorting are done by the
+ * database through StudentCriteria, so changing them only costs a count and one page.
+ *
+ * The model must only be used on the event dispatch thread.
+ */
+public class StudentPagingTableModel extends AbstractTableModel {
+
+    private static final String[] COLUMN_NAMES = {"ID", "First Name", "Last Name", "Email", "Phone", "Date of Birth", "Grade"};
+    private static final StudentCriteria.SortColumn[] SORT_COLUMNS = {
+            StudentCriteria.SortColumn.ID, StudentCriteria.SortColumn.FIRSTNAME, StudentCriteria.SortColumn.LASTNAME,
+            StudentCriteria.SortColumn.EMAIL, StudentCriteria.SortColumn.PHONE_NUMBER,
+            StudentCriteria.SortColumn.DATE_OF_BIRTH, StudentCriteria.SortColumn.GRADE};
+
+    private final AsyncStudentService studentService;
+    private final int pageSize;
+    private final int maxPages;
+    private int rowCount;
+    private StudentCriteria criteria;
+
+    // Access ordered, the eldest page is the least recently painted one
+    private final LinkedHashMap<Integer, List<Student>> pages;
+    // The last student of every page loaded so far, so the next page can start with a keyset query
+    private final Map<Integer, Student> pageEnds = new HashMap<>();
+    private final Map<Integer, CompletableFuture<List<Student>>> loading = new HashMap<>();
+    // Results of loads started before a refresh are dropped
+    private int generation;
+
+    /**
+     * Constructs a new StudentPagingTableModel with 100 students per page and up to 20 pages in memory.
+     *
+     * @param studentService The service used to load the pages.
+     * @param criteria       The filters and the sort order.
+     * @param rowCount       The number of matching students, e.g. from countStudents(criteria).
+     */
+    public StudentPagingTableModel(AsyncStudentService studentService, StudentCriteria criteria, int rowCount) {
+        this(studentService, criteria, rowCount, 100, 20);
+    }
+
+    /**
+     * Constructs a new StudentPagingTableModel.
+     *
+     * @param studentService The service used to load the pages.
+     * @param criteria       The filters and the sort order.
+     * @param rowCount       The number of matching students, e.g. from countStudents(criteria).
+     * @param pageSize       The number of students per page.
+     * @param maxPages       The maximum number of pages kept in memory, at least 3.
+     */
+    public StudentPagingTableModel(AsyncStudentService studentService, StudentCriteria criteria, int rowCount,
+                                   int pageSize, int maxPages) {
+        if (criteria == null || rowCount < 0 || pageSize <= 0 || maxPages < 3) {
+            throw new IllegalArgumentException("Invalid paging configuration!");
+        }
+        this.studentService = studentService;
+        this.criteria = criteria;
+        this.rowCount = rowCount;
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<Student>> eldest) {
+                return size() > StudentPagingTableModel.this.maxPages;
+            }
+        };
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column == 0 ? Integer.class : Object.class;
+    }
+
+    /**
+     * Returns a cell of a loaded page. If the page is not loaded yet, it is requested and null is returned.
+     */
+    @Override
+    public Object getValueAt(int row, int column) {
+        Student student = getStudentAt(row);
+        if (student == null) {
+            return null;
+        }
+        return switch (column) {
+            case 0 -> student.getStudentID();
+            case 1 -> student.getFirstname();
+            case 2 -> student.getLastname();
+            case 3 -> student.getEmail();
+            case 4 -> student.getPhoneNumber();
+            case 5 -> student.getDateOfBirth();
+            case 6 -> student.getGrade();
+            default -> null;
+        };
+    }
+
+    /**
+     * Returns the student of a row if its page is loaded, otherwise requests the page.
+     *
+     * @param row The row index.
+     * @return The Student object, or null while its page is loading.
+     */
+    public Student getStudentAt(int row) {
+        int page = row / pageSize;
+        int index = row % pageSize;
+        List<Student> students = pages.get(page);
+        if (students == null) {
+            requestPage(page);
+            return null;
+        }
+        if (index >= pageSize / 2) {
+            requestPage(page + 1);
+        }
+        // The table may have shrunk since it was counted
+        return index < students.size() ? students.get(index) : null;
+    }
+
+    /**
+     * Returns the current filters and sort order.
+     *
+     * @return The StudentCriteria of the table.
+     */
+    public StudentCriteria getCriteria() {
+        return criteria;
+    }
+
+    /**
+     * Shows the students matching other criteria. The rows are counted and loaded again.
+     *
+     * @param criteria The new filters and sort order.
+     */
+    public void setCriteria(StudentCriteria criteria) {
+        if (criteria == null) {
+            throw new IllegalArgumentException("Criteria cannot be null!");
+        }
+        this.criteria = criteria;
+        refresh();
+    }
+
+    /**
+     * Sorts the table by a column. Sorting by the current sort column again reverses the direction.
+     *
+     * @param column The model index of the column.
+     */
+    public void toggleSort(int column) {
+        StudentCriteria.SortColumn sortColumn = SORT_COLUMNS[column];
+        boolean ascending = sortColumn != criteria.getSortColumn() || !criteria.isAscending();
+        setCriteria(criteria.sortedBy(sortColumn, ascending));
+    }
+
+    /**
+     * Drops all loaded pages and counts the students again, e.g. after students were added or deleted.
+     */
+    public void refresh() {
+        cancelLoads();
+        pages.clear();
+        pageEnds.clear();
+        int refreshGeneration = ++generation;
+        studentService.countStudents(criteria).whenComplete((count, failure) -> SwingUtilities.invokeLater(() -> {
+            if (refreshGeneration != generation) {
+                return;
+            }
+            if (failure != null) {
+                System.out.println(AsyncStudentService.unwrap(failure).getMessage());
+                return;
+            }
+            rowCount = count;
+            fireTableDataChanged();
+        }));
+    }
+
+    /**
+     * Cancels all running loads. Call it when the table is closed.
+     */
+    public void dispose() {
+        generation++;
+        cancelLoads();
+    }
+
+    private void requestPage(int page) {
+        if (page * pageSize >= rowCount || pages.containsKey(page) || loading.containsKey(page)) {
+            return;
+        }
+        StudentCriteria pageCriteria = criteria;
+        CompletableFuture<Student> previousEnd;
+        if (page == 0 || pageEnds.containsKey(page - 1)) {
+            previousEnd = CompletableFuture.completedFuture(pageEnds.get(page - 1));
+        } else {
+            // A jump into the middle of the table: look up the last row of the page before
+            previousEnd = studentService.getStudentAtOffset(pageCriteria, page * pageSize - 1);
+        }
+        CompletableFuture<List<Student>> load = previousEnd.thenCompose(after -> page > 0 && after == null
+                ? CompletableFuture.completedFuture(List.of())
+                : studentService.findStudents(pageCriteria, after, pageSize));
+        loading.put(page, load);
+
+        int loadGeneration = generation;
+        load.whenComplete((students, failure) -> SwingUtilities.invokeLater(() -> {
+            if (loadGeneration != generation) {
+                return;
+            }
+            loading.remove(page);
+            if (failure != null) {
+                System.out.println(AsyncStudentService.unwrap(failure).getMessage());
+                return;
+            }
+            pages.put(page, students);
+            if (!students.isEmpty()) {
+                pageEnds.put(page, students.get(students.size() - 1));
+            }
+            int firstRow = page * pageSize;
+            int lastRow = Math.min(firstRow + pageSize, rowCount) - 1;
+            if (firstRow <= lastRow) {
+                fireTableRowsUpdated(firstRow, lastRow);
+            }
+        }));
+    }
+
+    private void cancelLoads() {
+        for (CompletableFuture<List<Student>> load : new ArrayList<>(loading.values())) {
+            load.cancel(true);
+        }
+        loading.clear();
+    }
+}
@@ -1,24 +1,47 @@
 package view;
 
+import model.StudentSummary;
+
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
 import java.awt.event.ActionListener;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
 
+/**
+ * This class represents the "Student search" window.
+ * Suggestions are shown while the user types: the query is passed on once typing pauses for a moment,
+ * so a fast typist does not start a search for every key.
+ */
 public class StudentSearchFrame extends JFrame {
+    // Time to wait after the last key before searching
+    private static final int DEBOUNCE_MILLIS = 150;
+
     // Declare the variable
     private JPanel studentPanel;
     private JLabel studentLabel;
     private JTextField studdentTextField;
     private JButton studentButton;
+    private final DefaultListModel<StudentSummary> suggestionModel = new DefaultListModel<>();
+    private final JList<StudentSummary> suggestionList = new JList<>(suggestionModel);
+    private final List<Consumer<String>> queryListeners = new ArrayList<>();
+    private final List<Consumer<StudentSummary>> selectionListeners = new ArrayList<>();
+    private final Timer debounceTimer;
 
     // Constructor to create the window
     public StudentSearchFrame(){
         //getContentPane();
         // Set the title of the window and its size
         setTitle("Student search");
-        setSize(500, 200);
-        // Exit when the window is closed
-        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setSize(500, 350);
+        // Close only this window, the registration window keeps running
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
         // Center the window on the screen
         setLocationRelativeTo(null);
 
@@ -41,8 +64,58 @@ public class StudentSearchFrame extends JFrame {
         // Add the button to the panel
         studentPanel.add(studentButton);
 
-        // Add the panel to the center of the window
-        add(studentPanel, BorderLayout.CENTER);
+        // Search once typing pauses, every key restarts the timer
+        debounceTimer = new Timer(DEBOUNCE_MILLIS, e -> fireQuery());
+        debounceTimer.setRepeats(false);
+        studdentTextField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                debounceTimer.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                debounceTimer.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                debounceTimer.restart();
+            }
+        });
+        // The button and Enter search right away
+        studentButton.addActionListener(e -> fireQuery());
+        studdentTextField.addActionListener(e -> fireQuery());
+
+        // Create the list of suggestions, a double-click or Enter selects a student
+        suggestionList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        suggestionList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2) {
+                    fireSelection();
+                }
+            }
+        });
+        suggestionList.getInputMap().put(KeyStroke.getKeyStroke(KeyEvent.VK_ENTER, 0), "select");
+        suggestionList.getActionMap().put("select", new AbstractAction() {
+            @Override
+            public void actionPerformed(java.awt.event.ActionEvent e) {
+                fireSelection();
+            }
+        });
+
+        // Stop a pending search once the window is closed
+        addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosed(java.awt.event.WindowEvent e) {
+                debounceTimer.stop();
+            }
+        });
+
+        // Add the panel to the top and the suggestions to the center of the window
+        add(studentPanel, BorderLayout.NORTH);
+        add(new JScrollPane(suggestionList), BorderLayout.CENTER);
 
         // Make the window visible
         setVisible(true);
@@ -53,8 +126,66 @@ public class StudentSearchFrame extends JFrame {
         studentButton.addActionListener(aL);
     }
 
+    /**
+     * Adds a listener for the search query. It is called on the event dispatch thread once typing pauses,
+     * or right away when the Search button or Enter is pressed.
+     *
+     * @param listener Receives the trimmed query.
+     */
+    public void addQueryListener(Consumer<String> listener) {
+        queryListeners.add(listener);
+    }
+
+    /**
+     * Adds a listener for a student chosen from the suggestions.
+     *
+     * @param listener Receives the chosen student.
+     */
+    public void addSelectionListener(Consumer<StudentSummary> listener) {
+        selectionListeners.add(listener);
+    }
+
+    /**
+     * Replaces the shown suggestions.
+     *
+     * @param suggestions The students to show, best match first.
+     */
+    public void setSuggestions(List<StudentSummary> suggestions) {
+        suggestionModel.clear();
+        suggestionModel.addAll(suggestions);
+    }
+
+    private void fireQuery() {
+        debounceTimer.stop();
+        String query = getStudentNameField().trim();
+        for (Consumer<String> listener : queryListeners) {
+            listener.accept(query);
+        }
+    }
+
+    private void fireSelection() {
+        StudentSummary selected = suggestionList.getSelectedValue();
+        if (selected != null) {
+            for (Consumer<StudentSummary> listener : selectionListeners) {
+                listener.accept(selected);
+            }
+        }
+    }
+
     public String getStudentNameField() {
         return studdentTextField.getText();
     }
 
+    public JTextField getStudentNameTextField() {
+        return studdentTextField;
+    }
+
+    public JList<StudentSummary> getSuggestionList() {
+        return suggestionList;
+    }
+
+    public JButton getSearchButton() {
+        return studentButton;
+    }
+
 }
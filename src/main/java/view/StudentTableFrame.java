@@ -0,0 +1,98 @@
+package view;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+
+/**
+ * This class represents the "All Students" window.
+ * It shows the students in a paged table and has a filter bar for grade, last name prefix and date of birth range.
+ * Clicking a column header sorts by that column, clicking it again reverses the order; sorting is done by the database.
+ */
+public class StudentTableFrame extends JFrame {
+    // UI components
+    private final JTextField gradeField, lastNamePrefixField, bornFromField, bornToField;
+    private final JButton filterButton;
+    private final StudentPagingTableModel tableModel;
+
+    /**
+     * Constructs the "All Students" window for a table model.
+     *
+     * @param tableModel The model that loads the students.
+     */
+    public StudentTableFrame(StudentPagingTableModel tableModel) {
+        this.tableModel = tableModel;
+        setTitle("All Students");
+        setSize(800, 450);
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+
+        // Create the filter bar
+        gradeField = new JTextField(4);
+        lastNamePrefixField = new JTextField(10);
+        bornFromField = new JTextField(8);
+        bornToField = new JTextField(8);
+        filterButton = new JButton("Filter");
+
+        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 5));
+        filterPanel.add(new JLabel("Grade:"));
+        filterPanel.add(gradeField);
+        filterPanel.add(new JLabel("Last name starts with:"));
+        filterPanel.add(lastNamePrefixField);
+        filterPanel.add(new JLabel("Born from:"));
+        filterPanel.add(bornFromField);
+        filterPanel.add(new JLabel("to:"));
+        filterPanel.add(bornToField);
+        filterPanel.add(filterButton);
+
+        // Create JTable and put it inside JScrollPane, the header sorts in the database instead of a RowSorter
+        JTable studentTable = new JTable(tableModel);
+        studentTable.getTableHeader().setToolTipText("Click to sort, click again to reverse");
+        studentTable.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int column = studentTable.columnAtPoint(e.getPoint());
+                if (column >= 0) {
+                    tableModel.toggleSort(studentTable.convertColumnIndexToModel(column));
+                }
+            }
+        });
+
+        // Stop loading pages once the window is closed
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                tableModel.dispose();
+            }
+        });
+
+        add(filterPanel, BorderLayout.NORTH);
+        add(new JScrollPane(studentTable), BorderLayout.CENTER);
+    }
+
+    public StudentPagingTableModel getTableModel() {
+        return tableModel;
+    }
+
+    public JButton getFilterButton() {
+        return filterButton;
+    }
+
+    public String getGrade() {
+        return gradeField.getText().trim();
+    }
+
+    public String getLastNamePrefix() {
+        return lastNamePrefixField.getText().trim();
+    }
+
+    public String getBornFrom() {
+        return bornFromField.getText().trim();
+    }
+
+    public String getBornTo() {
+        return bornToField.getText().trim();
+    }
+}